@@ -0,0 +1,45 @@
+package com.mercadolivre.pricemonitor.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Cliente HTTP compartilhado pelos provedores de email (Brevo, Resend).
+ *
+ * O {@link HttpClient} do JDK mantém um pool de conexões keep-alive (HTTP/1.1 e HTTP/2),
+ * então emails consecutivos reaproveitam a conexão TLS em vez de abrir uma nova por envio.
+ */
+@Slf4j
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${email.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${email.http.read-timeout-ms:15000}")
+    private long readTimeoutMs;
+
+    @Bean
+    public HttpClient emailHttpClient() {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+    }
+
+    @Bean
+    public RestTemplate emailRestTemplate(HttpClient emailHttpClient) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(emailHttpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        log.info("📧 [HTTP] Cliente de email compartilhado (connect={}ms, read={}ms)", connectTimeoutMs, readTimeoutMs);
+        return new RestTemplate(requestFactory);
+    }
+}
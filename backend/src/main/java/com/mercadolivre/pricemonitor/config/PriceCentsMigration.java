@@ -0,0 +1,139 @@
+package com.mercadolivre.pricemonitor.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Migração dos preços em reais (DECIMAL/DOUBLE) para centavos (BIGINT).
+ *
+ * O {@code ddl-auto=update} cria as colunas {@code *_cents} mas não copia dados nem remove
+ * as antigas. Antes de qualquer agendamento ou request, este componente preenche as colunas
+ * novas a partir das antigas (em lotes por faixa de ID, cada um com commit próprio) e tira o
+ * NOT NULL de {@code price_history.price}, que não é mais gravada. É idempotente: em base nova
+ * (sem as colunas antigas) ou já migrada não faz nada. As colunas antigas ficam para rollback
+ * e podem ser removidas manualmente depois.
+ *
+ * Se a migração falhar, ou sobrar histórico sem {@code price_cents}, a aplicação não sobe:
+ * essas linhas não carregariam no {@code PriceHistory}.
+ */
+@Slf4j
+@Component
+@DependsOn("entityManagerFactory") // schema atualizado pelo Hibernate antes da migração
+@RequiredArgsConstructor
+public class PriceCentsMigration {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${money.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${money.migration.batch-size:10000}")
+    private int batchSize;
+
+    @PostConstruct
+    public void migrate() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            backfill("products", "current_price", "current_price_cents");
+            backfill("products", "last_price", "last_price_cents");
+            backfill("products", "original_price", "original_price_cents");
+            backfill("price_history", "price", "price_cents");
+            dropLegacyNotNull("price_history", "price");
+        } catch (Exception e) {
+            log.error("💰 [MIGRATION] ❌ Erro ao migrar preços para centavos: {}", e.getMessage(), e);
+            throw new IllegalStateException("Migração de preços para centavos falhou", e);
+        }
+        requireMigrated("price_history", "price", "price_cents");
+    }
+
+    /**
+     * Impede a subida enquanto houver linha sem centavos: {@code PriceHistory.priceCents} é
+     * primitivo, e carregar uma linha dessas quebraria as leituras de histórico.
+     */
+    void requireMigrated(String table, String legacyColumn, String centsColumn) {
+        if (column(table, legacyColumn) == null) {
+            return;
+        }
+        Long pending = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM " + table + " WHERE " + centsColumn + " IS NULL", Long.class);
+        if (pending != null && pending > 0) {
+            throw new IllegalStateException(table + "." + centsColumn + " ainda tem " + pending
+                + " linhas sem preço em centavos; corrija (ou apague) essas linhas e suba de novo");
+        }
+    }
+
+    long backfill(String table, String legacyColumn, String centsColumn) {
+        if (column(table, legacyColumn) == null) {
+            return 0;
+        }
+        String pending = " WHERE " + centsColumn + " IS NULL AND " + legacyColumn + " IS NOT NULL";
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+            "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM " + table + pending);
+        Number minId = (Number) range.get("min_id");
+        Number maxId = (Number) range.get("max_id");
+        if (minId == null || maxId == null) {
+            return 0;
+        }
+
+        String update = "UPDATE " + table + " SET " + centsColumn + " = ROUND(" + legacyColumn + " * 100)"
+            + pending + " AND id BETWEEN ? AND ?";
+        long total = 0;
+        for (long from = minId.longValue(); from <= maxId.longValue(); from += batchSize) {
+            total += jdbcTemplate.update(update, from, from + batchSize - 1);
+        }
+        log.info("💰 [MIGRATION] {}.{} -> {}: {} linhas convertidas para centavos",
+            table, legacyColumn, centsColumn, total);
+        return total;
+    }
+
+    private void dropLegacyNotNull(String table, String legacyColumn) {
+        ColumnInfo info = column(table, legacyColumn);
+        if (info == null || info.nullable()) {
+            return;
+        }
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        String ddl = product != null && (product.contains("MySQL") || product.contains("MariaDB"))
+            ? "ALTER TABLE " + table + " MODIFY " + legacyColumn + " " + info.mysqlType() + " NULL"
+            : "ALTER TABLE " + table + " ALTER COLUMN " + legacyColumn + " DROP NOT NULL";
+        jdbcTemplate.execute(ddl);
+        log.info("💰 [MIGRATION] {}.{} agora aceita NULL (coluna legada)", table, legacyColumn);
+    }
+
+    private record ColumnInfo(String typeName, int size, int decimalDigits, boolean nullable) {
+
+        String mysqlType() {
+            return "DECIMAL".equalsIgnoreCase(typeName)
+                ? "DECIMAL(" + size + "," + decimalDigits + ")"
+                : typeName;
+        }
+    }
+
+    private ColumnInfo column(String table, String column) {
+        return jdbcTemplate.execute((ConnectionCallback<ColumnInfo>) c -> findColumn(c, table, column));
+    }
+
+    private static ColumnInfo findColumn(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rs = metaData.getColumns(connection.getCatalog(), connection.getSchema(), table, column)) {
+            if (!rs.next()) {
+                return null;
+            }
+            return new ColumnInfo(rs.getString("TYPE_NAME"), rs.getInt("COLUMN_SIZE"),
+                rs.getInt("DECIMAL_DIGITS"), rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mercadolivre.pricemonitor.config;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cliente HTTP (Reactor Netty) das chamadas ao scraper Python.
+ *
+ * Pool de conexões dimensionado e com fila limitada: acima de {@code max-connections} as buscas
+ * esperam uma conexão livre até {@code pending-acquire-timeout-ms}, e acima de
+ * {@code pending-acquire-max-count} falham na hora em vez de acumular memória. Timeouts de
+ * conexão e de resposta garantem que um scraper travado não prende a busca para sempre.
+ * Com {@code scraper.http.h2c=true} as buscas são multiplexadas em HTTP/2 sem TLS (upgrade a
+ * partir do HTTP/1.1, que continua valendo se o scraper não suportar).
+ *
+ * Métricas do pool: {@code reactor.netty.connection.provider.*{name=scraper}}.
+ */
+@Slf4j
+@Configuration
+public class ScraperHttpClientConfig {
+
+    static final String POOL_NAME = "scraper";
+
+    @Value("${scraper.http.max-connections:32}")
+    private int maxConnections = 32;
+
+    @Value("${scraper.http.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount = 500;
+
+    @Value("${scraper.http.pending-acquire-timeout-ms:10000}")
+    private long pendingAcquireTimeoutMs = 10_000;
+
+    @Value("${scraper.http.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs = 30_000;
+
+    @Value("${scraper.http.max-life-time-ms:300000}")
+    private long maxLifeTimeMs = 300_000;
+
+    @Value("${scraper.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMs = 5000;
+
+    @Value("${scraper.http.response-timeout-ms:60000}")
+    private long responseTimeoutMs = 60_000;
+
+    @Value("${scraper.http.max-response-bytes:1048576}")
+    private int maxResponseBytes = 1_048_576;
+
+    @Value("${scraper.http.compression:true}")
+    private boolean compression = true;
+
+    @Value("${scraper.http.h2c:false}")
+    private boolean h2c;
+
+    @Value("${scraper.http.metrics:true}")
+    private boolean metrics = true;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider scraperConnectionProvider() {
+        return ConnectionProvider.builder(POOL_NAME)
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+            .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+            .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+            // Fecha conexões ociosas mesmo sem novas buscas (o scraper derruba keep-alive antigo)
+            .evictInBackground(Duration.ofMillis(maxIdleTimeMs))
+            .metrics(metrics)
+            .build();
+    }
+
+    @Bean
+    public WebClient scraperWebClient(ConnectionProvider scraperConnectionProvider,
+                                      @Value("${scraper.api.url}") String scraperApiUrl) {
+        HttpClient httpClient = HttpClient.create(scraperConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+            .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+            .compress(compression)
+            // Só /scrape e /: a URI serve de tag sem explodir a cardinalidade
+            .metrics(metrics, Function.identity());
+        if (h2c) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        log.info("🕷️ [HTTP] Cliente do scraper: {} (pool={}, fila={}, connect={}ms, resposta={}ms, h2c={})",
+            scraperApiUrl, maxConnections, pendingAcquireMaxCount, connectTimeoutMs, responseTimeoutMs, h2c);
+        return WebClient.builder()
+            .baseUrl(scraperApiUrl)
+            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            // Resposta maior que isso falha a busca em vez de ficar inteira em memória
+            .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(maxResponseBytes))
+            .build();
+    }
+}
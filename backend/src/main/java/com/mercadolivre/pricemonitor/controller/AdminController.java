@@ -0,0 +1,61 @@
+package com.mercadolivre.pricemonitor.controller;
+
+import com.mercadolivre.pricemonitor.model.PriceCheckRun;
+import com.mercadolivre.pricemonitor.service.PriceCheckRunTracker;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * REST Controller for operator-only endpoints.
+ *
+ * Access is limited to the emails listed in {@code app.admin.emails}; everyone else gets 403.
+ *
+ * Endpoints:
+ * - GET /api/admin/price-check-runs - Latest price check cycles, newest first (?limit=)
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+public class AdminController {
+
+    private final PriceCheckRunTracker priceCheckRunTracker;
+
+    @Value("${app.admin.emails:}")
+    private String adminEmails;
+
+    @GetMapping("/price-check-runs")
+    public ResponseEntity<List<PriceCheckRun>> getPriceCheckRuns(@RequestParam(defaultValue = "50") int limit) {
+        if (!isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(priceCheckRunTracker.recent(limit));
+    }
+
+    /**
+     * The JWT filter puts the user's email in the authentication details.
+     */
+    private boolean isAdmin() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getDetails() instanceof String email)) {
+            return false;
+        }
+        Set<String> admins = Arrays.stream(adminEmails.split(","))
+            .map(e -> e.trim().toLowerCase(Locale.ROOT))
+            .filter(e -> !e.isEmpty())
+            .collect(Collectors.toSet());
+        return admins.contains(email.toLowerCase(Locale.ROOT));
+    }
+}
@@ -5,6 +5,7 @@ import com.mercadolivre.pricemonitor.dto.LoginRequest;
 import com.mercadolivre.pricemonitor.dto.RegisterRequest;
 import com.mercadolivre.pricemonitor.model.User;
 import com.mercadolivre.pricemonitor.security.JwtTokenProvider;
+import com.mercadolivre.pricemonitor.security.PasswordHashingBusyException;
 import com.mercadolivre.pricemonitor.service.UserService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -51,6 +52,10 @@ public class AuthController {
             log.warn("⚠️ Erro no registro: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(new ErrorResponse(e.getMessage()));
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "2")
+                    .body(new ErrorResponse("Servidor ocupado, tente novamente em instantes"));
         } catch (Exception e) {
             log.error("❌ Erro ao registrar: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -72,6 +77,9 @@ public class AuthController {
                 log.warn("⚠️ Senha inválida para: {}", request.getEmail());
                 throw new IllegalArgumentException("Email ou senha inválidos");
             }
+
+            // Regrava hashes antigos/de custo diferente enquanto temos a senha em claro
+            userService.upgradePasswordHashIfNeeded(user, request.getPassword());
             
             // Gerar token
             String token = tokenProvider.generateToken(user.getId(), user.getEmail());
@@ -91,6 +99,11 @@ public class AuthController {
             log.warn("⚠️ Erro no login: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(new ErrorResponse(e.getMessage()));
+        } catch (PasswordHashingBusyException e) {
+            log.warn("⏳ Login recusado, pool de hashing saturado: {}", request.getEmail());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "2")
+                    .body(new ErrorResponse("Muitas tentativas de login no momento, tente novamente em instantes"));
         } catch (Exception e) {
             log.error("❌ Erro ao fazer login: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
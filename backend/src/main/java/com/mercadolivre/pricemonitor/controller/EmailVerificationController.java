@@ -2,9 +2,7 @@ package com.mercadolivre.pricemonitor.controller;
 
 import com.mercadolivre.pricemonitor.model.User;
 import com.mercadolivre.pricemonitor.repository.UserRepository;
-import com.mercadolivre.pricemonitor.service.BrevoEmailService;
-import com.mercadolivre.pricemonitor.service.EmailService;
-import com.mercadolivre.pricemonitor.service.ResendEmailService;
+import com.mercadolivre.pricemonitor.service.EmailRouter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -29,13 +27,7 @@ public class EmailVerificationController {
     private UserRepository userRepository;
 
     @Autowired
-    private EmailService emailService;
-
-    @Autowired
-    private ResendEmailService resendEmailService;
-
-    @Autowired
-    private BrevoEmailService brevoEmailService;
+    private EmailRouter emailRouter;
 
     @Value("${frontend.url:http://localhost:5173/}")
     private String frontendUrl;
@@ -118,36 +110,12 @@ public class EmailVerificationController {
             user.setVerificationTokenExpires(LocalDateTime.now().plusHours(24));
             userRepository.save(user);
 
-            // Send email - Prioridade: 1) Brevo 2) Resend 3) Gmail SMTP
-            boolean brevoConfigured = brevoEmailService.isConfigured();
-            boolean resendConfigured = resendEmailService.isConfigured();
-            log.info("📧 [DEBUG] Brevo: {} | Resend: {} | Enviando para: {}", brevoConfigured, resendConfigured, user.getEmail());
-            
-            if (brevoConfigured) {
-                log.info("📧 ✅ Usando Brevo API para enviar email");
-                brevoEmailService.sendVerificationEmail(
-                    user.getEmail(),
-                    user.getFullName(),
-                    token,
-                    frontendUrl
-                );
-            } else if (resendConfigured) {
-                log.info("📧 ✅ Usando Resend API para enviar email");
-                resendEmailService.sendVerificationEmail(
-                    user.getEmail(),
-                    user.getFullName(),
-                    token,
-                    frontendUrl
-                );
-            } else {
-                log.warn("📧 ⚠️ Nenhum serviço HTTP configurado! Usando Gmail SMTP (vai falhar no Railway)");
-                emailService.sendVerificationEmail(
-                    user.getEmail(),
-                    user.getFullName(),
-                    token,
-                    frontendUrl
-                );
-            }
+            emailRouter.sendVerificationEmail(
+                user.getEmail(),
+                user.getFullName(),
+                token,
+                frontendUrl
+            );
 
             log.info("✅ Email de verificação reenviado para: {}", user.getEmail());
 
@@ -224,7 +192,7 @@ public class EmailVerificationController {
             String email = user.getEmail();
             
             log.info("📧 [TEST] Enviando email de teste de notificação de preço para: {}", email);
-            log.info("📧 [TEST] Brevo configurado: {}", brevoEmailService.isConfigured());
+            log.info("📧 [TEST] Provedores: {}", emailRouter.getProviderStatus());
             
             // Simular uma queda de preço
             String productName = "Produto Teste - Monitor de Preços";
@@ -232,12 +200,12 @@ public class EmailVerificationController {
             Double oldPrice = 199.90;
             Double newPrice = 149.90;
             
-            brevoEmailService.sendPriceDropNotification(email, productName, productUrl, oldPrice, newPrice);
+            emailRouter.sendPriceDropNotification(email, productName, productUrl, oldPrice, newPrice);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("message", "Email de teste enviado para: " + email);
-            response.put("brevoConfigured", brevoEmailService.isConfigured());
+            response.put("providers", emailRouter.getProviderStatus());
             response.put("testData", Map.of(
                 "productName", productName,
                 "oldPrice", oldPrice,
@@ -1,12 +1,17 @@
 package com.mercadolivre.pricemonitor.controller;
 
 import com.mercadolivre.pricemonitor.model.Notification;
+import com.mercadolivre.pricemonitor.security.StreamTicketService;
+import com.mercadolivre.pricemonitor.service.EventStreamService;
 import com.mercadolivre.pricemonitor.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -21,6 +26,8 @@ import java.util.Map;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final EventStreamService eventStreamService;
+    private final StreamTicketService streamTicketService;
 
     /**
      * Get all notifications for the authenticated user
@@ -43,6 +50,40 @@ public class NotificationController {
         return ResponseEntity.ok(Map.of("count", count));
     }
 
+    /**
+     * Issues a single-use ticket for {@link #stream()}. EventSource can't send headers, so the
+     * stream is authenticated by this short-lived ticket in the query string instead of the JWT.
+     */
+    @PostMapping("/stream/ticket")
+    public ResponseEntity<Map<String, Object>> streamTicket() {
+        Long userId = getCurrentUserId();
+        Object email = SecurityContextHolder.getContext().getAuthentication().getDetails();
+        String ticket = streamTicketService.issue(userId, email instanceof String value ? value : null);
+        return ResponseEntity.ok(Map.of(
+            "ticket", ticket,
+            "expiresInMs", streamTicketService.getTicketTtlMs()
+        ));
+    }
+
+    /**
+     * Server-Sent Events stream with notification, unread-count and product status events.
+     * Opened with {@code ?ticket=} from {@link #streamTicket()}; the JWT is never accepted in the URL.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        Long userId = getCurrentUserId();
+        SseEmitter emitter = eventStreamService.subscribe(userId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        // Estado inicial: o cliente não precisa mais consultar /unread-count ao conectar
+        eventStreamService.publish(userId, EventStreamService.EVENT_UNREAD_COUNT,
+            Map.of("count", notificationService.getUnreadCount(userId)));
+        return ResponseEntity.ok()
+            .header("X-Accel-Buffering", "no") // Desliga buffering em proxies nginx
+            .body(emitter);
+    }
+
     /**
      * Mark a specific notification as read
      */
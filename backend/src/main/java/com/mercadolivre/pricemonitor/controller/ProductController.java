@@ -1,19 +1,37 @@
 package com.mercadolivre.pricemonitor.controller;
 
 import com.mercadolivre.pricemonitor.dto.AnalyticsResponse;
-import com.mercadolivre.pricemonitor.model.PriceHistory;
+import com.mercadolivre.pricemonitor.dto.PriceHistoryPage;
+import com.mercadolivre.pricemonitor.dto.PricePoint;
+import com.mercadolivre.pricemonitor.dto.PriceSeries;
+import com.mercadolivre.pricemonitor.dto.ProductImportStatus;
+import com.mercadolivre.pricemonitor.dto.ProductPage;
+import com.mercadolivre.pricemonitor.dto.ProductSummary;
 import com.mercadolivre.pricemonitor.model.Product;
 import com.mercadolivre.pricemonitor.model.User;
 import com.mercadolivre.pricemonitor.repository.UserRepository;
 import com.mercadolivre.pricemonitor.scheduler.PriceCheckScheduler;
+import com.mercadolivre.pricemonitor.service.PriceCycleCoordinator;
+import com.mercadolivre.pricemonitor.service.PriceHistoryQueryService;
+import com.mercadolivre.pricemonitor.service.ProductImportReader;
+import com.mercadolivre.pricemonitor.service.ProductImportService;
+import com.mercadolivre.pricemonitor.service.ProductQueryService;
 import com.mercadolivre.pricemonitor.service.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -22,9 +40,14 @@ import java.util.Map;
  * 
  * Endpoints:
  * - GET  /api/products              - List all products
+ * - GET  /api/products/page         - List products, keyset-paginated (?after=&limit=)
  * - GET  /api/products/{id}         - Get product by ID
- * - GET  /api/products/{id}/history - Get price history for a product
+ * - GET  /api/products/{id}/history - Get price history for a product (latest 30)
+ * - GET  /api/products/{id}/history/series - Downsampled history for charts (?from=&to=&points=)
+ * - GET  /api/products/{id}/history/raw    - Raw history, keyset-paginated (?from=&to=&after=&limit=)
  * - POST /api/products              - Add new product
+ * - POST /api/products/import       - Bulk import (JSON array, CSV body or CSV file upload)
+ * - GET  /api/products/import/{id}  - Bulk import progress
  * - DELETE /api/products/{id}       - Remove product
  * - POST /api/products/refresh      - Trigger manual price update
  */
@@ -35,19 +58,23 @@ import java.util.Map;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductQueryService productQueryService;
+    private final ProductImportService productImportService;
+    private final PriceHistoryQueryService priceHistoryQueryService;
     private final PriceCheckScheduler scheduler;
+    private final PriceCycleCoordinator priceCycleCoordinator;
     private final UserRepository userRepository;
 
     /**
      * Get all monitored products for authenticated user.
      */
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
+    public ResponseEntity<List<ProductSummary>> getAllProducts() {
         try {
             Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
             log.debug("Fetching products for userId: {}", userId);
             
-            List<Product> products = productService.getProductsByUserId(userId);
+            List<ProductSummary> products = productQueryService.listForUser(userId);
             return ResponseEntity.ok(products);
         } catch (Exception e) {
             log.error("❌ Error fetching all products", e);
@@ -55,6 +82,23 @@ public class ProductController {
         }
     }
 
+    /**
+     * Keyset-paginated product list for authenticated user, ordered by ID.
+     * Pass the returned nextCursor as {@code after} to fetch the next page.
+     */
+    @GetMapping("/page")
+    public ResponseEntity<ProductPage> getProductsPage(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        try {
+            Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            return ResponseEntity.ok(productQueryService.page(userId, after, limit));
+        } catch (Exception e) {
+            log.error("❌ Error fetching products page", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Get a specific product by ID.
      */
@@ -95,6 +139,10 @@ public class ProductController {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                         .body(Map.of("error", "Erro interno: usuário não encontrado"));
             }
+            if (user.getDeletedAt() != null) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(Map.of("error", "Conta em exclusão"));
+            }
 
             // Check if product with same URL already exists for this user
             if (productService.existsByUrlAndUserId(url, userId)) {
@@ -152,11 +200,66 @@ public class ProductController {
         }
     }
 
+    /**
+     * Bulk import from a JSON array (["url", {"url": "..."}]) or a CSV body.
+     * The body is read as a stream; the import itself runs in background (202 + jobId).
+     */
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<?> importProducts(HttpServletRequest request) {
+        try (InputStream body = request.getInputStream()) {
+            return startImport(body, ProductImportReader.isCsv(request.getContentType(), null));
+        } catch (IOException e) {
+            log.error("❌ Error reading import body", e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Could not read import body"));
+        }
+    }
+
+    /**
+     * Bulk import from an uploaded file (multipart field "file", CSV or JSON).
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importProductsFile(@RequestParam("file") MultipartFile file) {
+        try (InputStream body = file.getInputStream()) {
+            return startImport(body, ProductImportReader.isCsv(file.getContentType(), file.getOriginalFilename()));
+        } catch (IOException e) {
+            log.error("❌ Error reading import file", e);
+            return ResponseEntity.badRequest().body(Map.of("error", "Could not read import file"));
+        }
+    }
+
+    /**
+     * Progress of a bulk import.
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ProductImportStatus> getImportStatus(@PathVariable String jobId) {
+        Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        return productImportService.getStatus(jobId, userId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<?> startImport(InputStream body, boolean csv) throws IOException {
+        Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        try {
+            ProductImportReader reader = productImportService.newReader().read(body, csv);
+            if (reader.getUrls().isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Nenhuma URL válida encontrada"));
+            }
+            ProductImportStatus status = productImportService.startImport(userId, reader);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(status);
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("⚠️ Invalid import from userId {}: {}", userId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get price history for a specific product.
      */
     @GetMapping("/{id}/history")
-    public ResponseEntity<List<PriceHistory>> getPriceHistoryByProductId(@PathVariable Long id) {
+    public ResponseEntity<List<PricePoint>> getPriceHistoryByProductId(@PathVariable Long id) {
         try {
             Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
             
@@ -172,7 +275,7 @@ public class ProductController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
             }
 
-            List<PriceHistory> history = productService.getPriceHistory(id);
+            List<PricePoint> history = productService.getPriceHistory(id);
             log.info("✅ Fetched price history for product {}", id);
             return ResponseEntity.ok(history);
 
@@ -182,6 +285,73 @@ public class ProductController {
         }
     }
 
+    /**
+     * Downsampled price history for charts: min/max/last per time bucket over [from, to).
+     * Defaults to the last 30 days; {@code points} is capped server-side.
+     */
+    @GetMapping("/{id}/history/series")
+    public ResponseEntity<?> getPriceHistorySeries(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer points) {
+        try {
+            HttpStatus denied = checkHistoryAccess(id);
+            if (denied != null) {
+                return ResponseEntity.status(denied).build();
+            }
+            PriceSeries series = priceHistoryQueryService.series(id, from, to, points);
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("❌ Error fetching price series for product id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Raw price history over [from, to), oldest first, keyset-paginated by history ID.
+     */
+    @GetMapping("/{id}/history/raw")
+    public ResponseEntity<?> getPriceHistoryRaw(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "200") int limit) {
+        try {
+            HttpStatus denied = checkHistoryAccess(id);
+            if (denied != null) {
+                return ResponseEntity.status(denied).build();
+            }
+            PriceHistoryPage page = priceHistoryQueryService.page(id, from, to, after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            log.error("❌ Error fetching raw price history for product id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Returns null if the product exists and belongs to the authenticated user.
+     */
+    private HttpStatus checkHistoryAccess(Long productId) {
+        Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        var productOpt = productService.getProductById(productId);
+        if (productOpt.isEmpty()) {
+            log.warn("❌ Product not found when fetching history, ID: {}", productId);
+            return HttpStatus.NOT_FOUND;
+        }
+        if (!productOpt.get().getUserId().equals(userId)) {
+            log.warn("❌ Unauthorized: User {} trying to access history for product {}", userId, productId);
+            return HttpStatus.FORBIDDEN;
+        }
+        return null;
+    }
+
     /**
      * Remove a product from monitoring.
      */
@@ -220,8 +390,13 @@ public class ProductController {
     public ResponseEntity<Map<String, String>> refreshPrices() {
         try {
             log.info("Manual price refresh triggered");
-            scheduler.triggerManualCheck();
-            return ResponseEntity.ok(Map.of("message", "Price refresh triggered"));
+            PriceCycleCoordinator.Outcome outcome = scheduler.triggerManualCheck();
+            String message = switch (outcome) {
+                case STARTED -> "Price refresh triggered";
+                case MERGED -> "Price refresh already running";
+                default -> "Price refresh queued after the running cycle";
+            };
+            return ResponseEntity.ok(Map.of("message", message, "status", outcome.name()));
         } catch (Exception e) {
             log.error("Error triggering price refresh", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -302,8 +477,8 @@ public class ProductController {
             Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
             log.info("📊 Fetching analytics for userId: {}, days: {}", userId, days);
             
-            // Limit days to max 90
-            days = Math.min(days, 90);
+            // Limit days to max 90 (older history may already be compacted)
+            days = Math.min(days, ProductService.MAX_ANALYTICS_DAYS);
             
             AnalyticsResponse analytics = productService.getAnalytics(userId, days);
             return ResponseEntity.ok(analytics);
@@ -343,7 +518,7 @@ public class ProductController {
 
     /**
      * Force immediate price update for all user's products.
-     * This bypasses the 30-minute scheduler and updates prices NOW.
+     * This bypasses the 30-minute scheduler: the products go to the coordinator's priority lane.
      */
     @PostMapping("/force-update")
     public ResponseEntity<?> forceUpdateAllProducts() {
@@ -351,26 +526,16 @@ public class ProductController {
             Long userId = (Long) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
             log.info("🔄 Force update requested by userId: {}", userId);
             
-            List<Product> products = productService.getProductsByUserId(userId);
-            
-            if (products.isEmpty()) {
+            // Só os produtos do usuário, na fila prioritária (os que já estão nela não entram de novo)
+            int count = priceCycleCoordinator.refreshUser(userId);
+
+            if (count == 0) {
                 return ResponseEntity.ok(Map.of(
                     "success", true,
-                    "message", "Nenhum produto para atualizar"
+                    "message", "Nenhum produto para atualizar (ou já estão na fila)"
                 ));
             }
-            
-            // Trigger immediate update for all user's products
-            int count = 0;
-            for (Product product : products) {
-                try {
-                    productService.updateSingleProductAsync(product);
-                    count++;
-                } catch (Exception e) {
-                    log.error("Failed to trigger update for product {}: {}", product.getId(), e.getMessage());
-                }
-            }
-            
+
             log.info("🔄 Force update triggered for {} products", count);
             return ResponseEntity.ok(Map.of(
                 "success", true,
@@ -2,18 +2,18 @@ package com.mercadolivre.pricemonitor.controller;
 
 import com.mercadolivre.pricemonitor.dto.ChangePasswordRequest;
 import com.mercadolivre.pricemonitor.dto.UpdateProfileRequest;
+import com.mercadolivre.pricemonitor.model.AccountPurgeJob;
 import com.mercadolivre.pricemonitor.model.User;
-import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
-import com.mercadolivre.pricemonitor.repository.ProductRepository;
 import com.mercadolivre.pricemonitor.repository.UserRepository;
+import com.mercadolivre.pricemonitor.security.PasswordHashingBusyException;
+import com.mercadolivre.pricemonitor.security.PasswordHashingService;
+import com.mercadolivre.pricemonitor.service.AccountPurgeService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -29,13 +29,10 @@ public class UserController {
     private UserRepository userRepository;
 
     @Autowired
-    private ProductRepository productRepository;
+    private PasswordHashingService passwordHashing;
 
     @Autowired
-    private PriceHistoryRepository priceHistoryRepository;
-
-    @Autowired
-    private PasswordEncoder passwordEncoder;
+    private AccountPurgeService accountPurgeService;
 
     /**
      * Atualizar perfil do usuário (nome)
@@ -86,7 +83,7 @@ public class UserController {
                     .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
 
             // Validar senha atual
-            if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+            if (!passwordHashing.matches(request.getCurrentPassword(), user.getPassword())) {
                 log.warn("⚠️ Senha atual incorreta para usuário: {}", userId);
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(errorResponse("Senha atual incorreta"));
@@ -99,7 +96,7 @@ public class UserController {
             }
 
             // Atualizar senha
-            user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+            user.setPassword(passwordHashing.encode(request.getNewPassword()));
             userRepository.save(user);
 
             log.info("✅ Senha alterada com sucesso: {}", userId);
@@ -113,6 +110,10 @@ public class UserController {
             log.warn("⚠️ Erro ao alterar senha: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(errorResponse(e.getMessage()));
+        } catch (PasswordHashingBusyException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header("Retry-After", "2")
+                    .body(errorResponse("Servidor ocupado, tente novamente em instantes"));
         } catch (Exception e) {
             log.error("❌ Erro ao alterar senha: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -121,36 +122,23 @@ public class UserController {
     }
 
     /**
-     * Excluir conta do usuário (LGPD compliance)
+     * Excluir conta do usuário (LGPD compliance).
+     * A conta é anonimizada na hora; os dados são removidos em segundo plano (202 + jobId).
      */
     @DeleteMapping("/me")
-    @Transactional
     public ResponseEntity<?> deleteAccount() {
         try {
             Long userId = getCurrentUserId();
             log.info("🗑️ Iniciando exclusão da conta do usuário: {}", userId);
 
-            User user = userRepository.findById(userId)
-                    .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
-
-            // Excluir histórico de preços dos produtos do usuário
-            log.info("📊 Excluindo histórico de preços...");
-            priceHistoryRepository.deleteByProductUserId(userId);
+            AccountPurgeJob job = accountPurgeService.requestDeletion(userId);
 
-            // Excluir produtos do usuário
-            log.info("📦 Excluindo produtos...");
-            productRepository.deleteByUserId(userId);
-
-            // Excluir usuário
-            log.info("👤 Excluindo conta...");
-            userRepository.delete(user);
-
-            log.info("✅ Conta excluída com sucesso: {}", userId);
-
-            Map<String, String> response = new HashMap<>();
+            Map<String, Object> response = new HashMap<>();
             response.put("message", "Conta excluída com sucesso");
+            response.put("jobId", job.getId());
+            response.put("status", job.getStatus());
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
 
         } catch (IllegalArgumentException e) {
             log.warn("⚠️ Erro ao excluir conta: {}", e.getMessage());
@@ -163,6 +151,24 @@ public class UserController {
         }
     }
 
+    /**
+     * Progresso da exclusão da conta
+     */
+    @GetMapping("/me/deletion")
+    public ResponseEntity<?> getDeletionStatus() {
+        try {
+            // Aceita o token já revogado pela exclusão (ver JwtAuthenticationFilter)
+            Long userId = getCurrentUserId();
+            return accountPurgeService.findLatestJob(userId)
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(errorResponse("Nenhuma exclusão em andamento")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(errorResponse(e.getMessage()));
+        }
+    }
+
     /**
      * Obter ID do usuário autenticado
      */
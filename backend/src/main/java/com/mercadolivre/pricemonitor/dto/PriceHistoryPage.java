@@ -0,0 +1,10 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import java.util.List;
+
+/**
+ * One page of raw price history, oldest first. Pass {@code nextCursor} back as
+ * {@code after} to get the next page; it is null on the last page.
+ */
+public record PriceHistoryPage(List<PricePoint> items, Long nextCursor, boolean hasMore) {
+}
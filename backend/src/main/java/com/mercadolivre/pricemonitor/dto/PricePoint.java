@@ -0,0 +1,19 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mercadolivre.pricemonitor.model.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * One raw price history row, loaded with a JPQL constructor expression.
+ * The JSON is the same as {@code /history} ({@code price} in reais).
+ */
+public record PricePoint(Long id, @JsonIgnore long priceCents, LocalDateTime recordedAt) {
+
+    @JsonProperty("price")
+    public double price() {
+        return Money.toReais(priceCents);
+    }
+}
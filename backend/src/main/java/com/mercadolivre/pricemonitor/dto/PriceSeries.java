@@ -0,0 +1,27 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Downsampled price history for charts: at most one point per bucket of
+ * {@code bucketSeconds}, empty buckets omitted. {@code rawCount} is how many
+ * history rows were folded into the series.
+ */
+public record PriceSeries(
+    Long productId,
+    LocalDateTime from,
+    LocalDateTime to,
+    long bucketSeconds,
+    long rawCount,
+    List<Point> points
+) {
+
+    /**
+     * Min/max keep drops and spikes visible at any zoom level; {@code last} is
+     * the most recent price in the bucket (what a line chart should draw).
+     */
+    public record Point(LocalDateTime bucketStart, LocalDateTime recordedAt,
+                        Double min, Double max, Double last, int count) {
+    }
+}
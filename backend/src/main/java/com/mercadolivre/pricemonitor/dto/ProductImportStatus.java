@@ -0,0 +1,23 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk product import (GET /api/products/import/{jobId}).
+ */
+public record ProductImportStatus(
+    String jobId,
+    String status,
+    int received,
+    int invalid,
+    int duplicates,
+    int alreadyMonitored,
+    int overLimit,
+    int inserted,
+    int scraped,
+    int scrapeFailed,
+    LocalDateTime createdAt,
+    LocalDateTime finishedAt,
+    String error
+) {
+}
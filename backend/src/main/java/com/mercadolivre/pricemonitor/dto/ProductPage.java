@@ -0,0 +1,10 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated product list. Pass {@code nextCursor} back as
+ * {@code after} to get the next page; it is null on the last page.
+ */
+public record ProductPage(List<ProductSummary> items, Long nextCursor, boolean hasMore) {
+}
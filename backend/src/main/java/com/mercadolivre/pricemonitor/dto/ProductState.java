@@ -0,0 +1,26 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import com.mercadolivre.pricemonitor.model.Product;
+
+import java.time.LocalDateTime;
+
+/**
+ * The fields of a product that change on every price check. Kept in memory by
+ * {@code ProductStateStore}; everything else comes from {@link ProductSummary}.
+ */
+public record ProductState(
+    long productId,
+    Long currentPriceCents,
+    Long lastPriceCents,
+    Long originalPriceCents,
+    Integer discountPercent,
+    LocalDateTime lastCheckedAt,
+    String status
+) {
+
+    public static ProductState of(Product product) {
+        return new ProductState(product.getId(), product.getCurrentPriceCents(), product.getLastPriceCents(),
+            product.getOriginalPriceCents(), product.getDiscountPercent(), product.getLastCheckedAt(),
+            product.getStatus());
+    }
+}
@@ -0,0 +1,55 @@
+package com.mercadolivre.pricemonitor.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.mercadolivre.pricemonitor.model.Money;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model for product lists: the scalar columns of {@code Product}, loaded with a JPQL
+ * constructor expression (no managed entity, no dirty checking, no lazy collections).
+ * JSON field names and units (prices in reais) match the entity, so the frontend is unchanged.
+ */
+public record ProductSummary(
+    Long id,
+    String name,
+    String url,
+    String imageUrl,
+    @JsonIgnore Long currentPriceCents,
+    @JsonIgnore Long lastPriceCents,
+    @JsonIgnore Long originalPriceCents,
+    Integer discountPercent,
+    LocalDateTime lastCheckedAt,
+    LocalDateTime createdAt,
+    Long userId,
+    Boolean notifyOnPriceDrop,
+    Boolean notifyOnPriceIncrease,
+    String status
+) {
+
+    /**
+     * Same product with the price-check fields taken from the in-memory state. Status stays
+     * from the row: every status change goes through a write that evicts the list.
+     */
+    public ProductSummary withState(ProductState state) {
+        return new ProductSummary(id, name, url, imageUrl, state.currentPriceCents(), state.lastPriceCents(),
+            state.originalPriceCents(), state.discountPercent(), state.lastCheckedAt(), createdAt, userId,
+            notifyOnPriceDrop, notifyOnPriceIncrease, status);
+    }
+
+    @JsonProperty("currentPrice")
+    public Double currentPrice() {
+        return Money.toReaisOrNull(currentPriceCents);
+    }
+
+    @JsonProperty("lastPrice")
+    public Double lastPrice() {
+        return Money.toReaisOrNull(lastPriceCents);
+    }
+
+    @JsonProperty("originalPrice")
+    public Double originalPrice() {
+        return Money.toReaisOrNull(originalPriceCents);
+    }
+}
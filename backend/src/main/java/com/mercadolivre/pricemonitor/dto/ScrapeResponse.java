@@ -2,7 +2,7 @@ package com.mercadolivre.pricemonitor.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.AllArgsConstructor;
+import com.mercadolivre.pricemonitor.model.Money;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
@@ -15,17 +15,18 @@ import lombok.NoArgsConstructor;
  *   "price": 1234.56,
  *   "imageUrl": "https://..."
  * }
+ *
+ * Prices arrive in reais and are kept in centavos from here on.
  */
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class ScrapeResponse {
     
     @JsonProperty("title")
     private String title;
     
-    @JsonProperty("price")
-    private Double price;
+    @JsonIgnore
+    private Long priceCents;
     
     @JsonProperty("imageUrl")
     private String imageUrl;
@@ -34,8 +35,8 @@ public class ScrapeResponse {
      * Original price before discount (preço riscado).
      * If null, the product has no active promotion.
      */
-    @JsonProperty("originalPrice")
-    private Double originalPrice;
+    @JsonIgnore
+    private Long originalPriceCents;
     
     /**
      * Discount percentage (e.g., 15 for 15% OFF).
@@ -51,19 +52,64 @@ public class ScrapeResponse {
     @JsonIgnore
     private Long productIdForUpdate;
 
+    public ScrapeResponse(String title, Double price, String imageUrl, Double originalPrice,
+                          Integer discountPercent, Long productIdForUpdate) {
+        this.title = title;
+        this.priceCents = Money.toCentsOrNull(price);
+        this.imageUrl = imageUrl;
+        this.originalPriceCents = Money.toCentsOrNull(originalPrice);
+        this.discountPercent = discountPercent;
+        this.productIdForUpdate = productIdForUpdate;
+    }
+
+    @JsonProperty("price")
+    public Double getPrice() {
+        return Money.toReaisOrNull(priceCents);
+    }
+
+    @JsonProperty("price")
+    public void setPrice(Double price) {
+        this.priceCents = Money.toCentsOrNull(price);
+    }
+
+    @JsonProperty("originalPrice")
+    public Double getOriginalPrice() {
+        return Money.toReaisOrNull(originalPriceCents);
+    }
+
+    @JsonProperty("originalPrice")
+    public void setOriginalPrice(Double originalPrice) {
+        this.originalPriceCents = Money.toCentsOrNull(originalPrice);
+    }
+
     @Override
     public String toString() {
         return "ScrapeResponse{" +
                 "title='" + title + '\'' +
-                ", price=" + price +
+                ", priceCents=" + priceCents +
                 ", imageUrl='" + imageUrl + '\'' +
-                ", originalPrice=" + originalPrice +
+                ", originalPriceCents=" + originalPriceCents +
                 ", discountPercent=" + discountPercent +
                 '}';
     }
 
+    /**
+     * Independent copy: a coalesced fetch result is shared, and callers tag their own copy
+     * with {@link #setProductIdForUpdate}.
+     */
+    public ScrapeResponse copy() {
+        ScrapeResponse copy = new ScrapeResponse();
+        copy.title = title;
+        copy.priceCents = priceCents;
+        copy.imageUrl = imageUrl;
+        copy.originalPriceCents = originalPriceCents;
+        copy.discountPercent = discountPercent;
+        copy.productIdForUpdate = productIdForUpdate;
+        return copy;
+    }
+
     public boolean isValid() {
-        return title != null && !title.isBlank() && price != null && price > 0;
+        return title != null && !title.isBlank() && priceCents != null && priceCents > 0;
     }
 }
 
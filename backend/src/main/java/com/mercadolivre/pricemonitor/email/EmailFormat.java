@@ -0,0 +1,71 @@
+package com.mercadolivre.pricemonitor.email;
+
+/**
+ * Formatação numérica leve para os emails.
+ * Equivalente a {@code String.format("%.2f")} com separador '.', sem o parser de formato.
+ */
+public final class EmailFormat {
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L};
+
+    private EmailFormat() {
+    }
+
+    /**
+     * Formata um valor em reais com 2 casas decimais (ex: 1234.5 -> "1234.50").
+     */
+    public static String money(double value) {
+        return decimal(value, 2);
+    }
+
+    /**
+     * Formata com {@code decimals} casas decimais, arredondando HALF_UP (como o %.Nf).
+     */
+    public static String decimal(double value, int decimals) {
+        if (decimals < 0 || decimals >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("decimals fora do intervalo: " + decimals);
+        }
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return String.valueOf(value);
+        }
+
+        long scale = POWERS_OF_TEN[decimals];
+        long scaled = Math.round(Math.abs(value) * scale);
+        StringBuilder out = new StringBuilder(24);
+        if (value < 0 && scaled != 0) {
+            out.append('-');
+        }
+        out.append(scaled / scale);
+        if (decimals > 0) {
+            out.append('.');
+            String fraction = Long.toString(scaled % scale);
+            for (int i = fraction.length(); i < decimals; i++) {
+                out.append('0');
+            }
+            out.append(fraction);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Trunca o texto para o assunto do email.
+     */
+    public static String truncate(String text, int maxLength) {
+        if (text == null || text.length() <= maxLength) {
+            return text;
+        }
+        return text.substring(0, maxLength - 3) + "...";
+    }
+
+    /**
+     * Primeiro nome a partir do nome completo.
+     */
+    public static String firstName(String fullName) {
+        if (fullName == null || fullName.isBlank()) {
+            return "Usuário";
+        }
+        String trimmed = fullName.trim();
+        int space = trimmed.indexOf(' ');
+        return space < 0 ? trimmed : trimmed.substring(0, space);
+    }
+}
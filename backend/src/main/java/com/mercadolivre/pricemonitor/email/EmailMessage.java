@@ -0,0 +1,16 @@
+package com.mercadolivre.pricemonitor.email;
+
+/**
+ * Email pronto para envio, independente do provedor.
+ *
+ * @param to       destinatário
+ * @param toName   nome do destinatário (opcional)
+ * @param subject  assunto
+ * @param htmlBody corpo HTML
+ */
+public record EmailMessage(String to, String toName, String subject, String htmlBody) {
+
+    public static EmailMessage of(String to, String toName, RenderedEmail email) {
+        return new EmailMessage(to, toName, email.subject(), email.htmlBody());
+    }
+}
@@ -0,0 +1,15 @@
+package com.mercadolivre.pricemonitor.email;
+
+/**
+ * Falha de envio em um provedor de email. Faz o {@code EmailRouter} tentar o próximo provedor.
+ */
+public class EmailSendException extends RuntimeException {
+
+    public EmailSendException(String message) {
+        super(message);
+    }
+
+    public EmailSendException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,42 @@
+package com.mercadolivre.pricemonitor.email;
+
+import java.util.List;
+
+/**
+ * Provedor de envio de email (SMTP, Resend, Brevo...).
+ *
+ * Implementações só fazem o transporte: o layout vem do {@link EmailTemplateRenderer}
+ * e a escolha do provedor é feita pelo {@code EmailRouter}.
+ */
+public interface EmailSender {
+
+    /**
+     * Nome curto usado em logs, métricas e na propriedade {@code email.providers.order}.
+     */
+    String name();
+
+    boolean isConfigured();
+
+    /**
+     * Envia um email.
+     *
+     * @throws EmailSendException se o provedor recusar ou estiver inacessível
+     */
+    void send(EmailMessage message);
+
+    /**
+     * Quantidade máxima de emails aceitos por {@link #sendBatch}. 1 = sem suporte a lote.
+     */
+    default int maxBatchSize() {
+        return 1;
+    }
+
+    /**
+     * Envia vários emails numa única chamada ao provedor (tudo ou nada).
+     */
+    default void sendBatch(List<EmailMessage> messages) {
+        for (EmailMessage message : messages) {
+            send(message);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.mercadolivre.pricemonitor.email;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Layout de email pré-compilado.
+ *
+ * O texto fonte usa placeholders no formato {@code {{nome}}}. Na compilação o texto
+ * é quebrado uma única vez em segmentos literais intercalados com índices de
+ * parâmetros, então a renderização é só uma sequência de {@code append} num
+ * {@link StringBuilder} — sem re-parse de formato nem strings intermediárias.
+ *
+ * Instâncias são imutáveis e seguras para uso concorrente.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final List<String> parameters;
+    private final String[] literals;
+    private final int[] slots;
+    private final int literalLength;
+
+    private EmailTemplate(String name, List<String> parameters, String[] literals, int[] slots) {
+        this.name = name;
+        this.parameters = parameters;
+        this.literals = literals;
+        this.slots = slots;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    /**
+     * Compila o layout. Os valores de {@link #render} seguem a ordem de {@code parameters}.
+     *
+     * @throws IllegalArgumentException se o texto usar um placeholder não declarado
+     *                                  ou tiver um {@code {{} sem fechamento
+     */
+    public static EmailTemplate compile(String name, String source, String... parameters) {
+        List<String> declared = List.of(parameters);
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        int cursor = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, cursor);
+            if (open < 0) {
+                literals.add(source.substring(cursor));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException(
+                    "Template '" + name + "': placeholder sem fechamento na posição " + open);
+            }
+            String placeholder = source.substring(open + OPEN.length(), close).trim();
+            int index = declared.indexOf(placeholder);
+            if (index < 0) {
+                throw new IllegalArgumentException(
+                    "Template '" + name + "': placeholder não declarado '" + placeholder + "'");
+            }
+            literals.add(source.substring(cursor, open));
+            slots.add(index);
+            cursor = close + CLOSE.length();
+        }
+
+        int[] slotArray = slots.stream().mapToInt(Integer::intValue).toArray();
+        return new EmailTemplate(name, declared, literals.toArray(new String[0]), slotArray);
+    }
+
+    /**
+     * Anexa o layout renderizado em {@code out}.
+     * Valores {@code null} são renderizados como string vazia.
+     */
+    public void renderTo(StringBuilder out, CharSequence... values) {
+        if (values.length != parameters.size()) {
+            throw new IllegalArgumentException(
+                "Template '" + name + "' espera " + parameters.size() + " valores, recebeu " + values.length);
+        }
+        out.ensureCapacity(out.length() + estimateLength(values));
+        out.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            CharSequence value = values[slots[i]];
+            if (value != null) {
+                out.append(value);
+            }
+            out.append(literals[i + 1]);
+        }
+    }
+
+    /**
+     * Renderiza para uma nova String. Prefira {@link #renderTo} com um builder reaproveitado.
+     */
+    public String render(CharSequence... values) {
+        StringBuilder out = new StringBuilder(estimateLength(values));
+        renderTo(out, values);
+        return out.toString();
+    }
+
+    private int estimateLength(CharSequence[] values) {
+        int length = literalLength;
+        for (int slot : slots) {
+            CharSequence value = values[slot];
+            if (value != null) {
+                length += value.length();
+            }
+        }
+        return length;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<String> getParameters() {
+        return parameters;
+    }
+
+    @Override
+    public String toString() {
+        return "EmailTemplate{" + name + ", parameters=" + parameters
+            + ", segments=" + literals.length + ", slots=" + Arrays.toString(slots) + '}';
+    }
+}
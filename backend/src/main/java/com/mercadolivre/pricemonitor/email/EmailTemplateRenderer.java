@@ -0,0 +1,123 @@
+package com.mercadolivre.pricemonitor.email;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Year;
+
+/**
+ * Monta assunto + corpo dos emails a partir dos layouts pré-compilados em {@link EmailTemplates}.
+ *
+ * Cada thread reaproveita o mesmo {@link StringBuilder} entre renderizações, então o único
+ * objeto grande alocado por email é a String final entregue ao provedor.
+ */
+@Component
+public class EmailTemplateRenderer {
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+        ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_SIZE));
+
+    /**
+     * Alerta de queda de preço (com selo de urgência conforme o percentual).
+     */
+    public RenderedEmail priceDrop(String productName, String productUrl, double oldPrice, double newPrice) {
+        double savings = oldPrice - newPrice;
+        double percentDrop = (savings / oldPrice) * 100;
+
+        String urgencyBadge;
+        String urgencyColor;
+        if (percentDrop >= 20) {
+            urgencyBadge = "🔥 OFERTA IMPERDÍVEL";
+            urgencyColor = "#dc3545";
+        } else if (percentDrop >= 10) {
+            urgencyBadge = "⚡ GRANDE DESCONTO";
+            urgencyColor = "#fd7e14";
+        } else {
+            urgencyBadge = "💰 PREÇO BAIXOU";
+            urgencyColor = "#28a745";
+        }
+
+        String subject = "🔻 Preço caiu " + EmailFormat.decimal(percentDrop, 0) + "%! "
+            + EmailFormat.truncate(productName, 35);
+        String html = render(EmailTemplates.PRICE_DROP,
+            urgencyColor,
+            urgencyBadge,
+            productName,
+            EmailFormat.money(oldPrice),
+            EmailFormat.money(newPrice),
+            EmailFormat.money(savings),
+            EmailFormat.decimal(percentDrop, 1),
+            productUrl);
+        return new RenderedEmail(subject, html);
+    }
+
+    /**
+     * Alerta de aumento de preço (oportunidade competitiva).
+     */
+    public RenderedEmail priceIncrease(String productName, String productUrl, double oldPrice, double newPrice) {
+        double increase = newPrice - oldPrice;
+        double percentIncrease = (increase / oldPrice) * 100;
+
+        String subject = "📈 Concorrente subiu preço +" + EmailFormat.decimal(percentIncrease, 0) + "%! "
+            + EmailFormat.truncate(productName, 30);
+        String html = render(EmailTemplates.PRICE_INCREASE,
+            productName,
+            EmailFormat.money(oldPrice),
+            EmailFormat.money(newPrice),
+            EmailFormat.money(increase),
+            EmailFormat.decimal(percentIncrease, 1),
+            productUrl);
+        return new RenderedEmail(subject, html);
+    }
+
+    /**
+     * Email de confirmação de cadastro.
+     */
+    public RenderedEmail verification(String fullName, String verificationLink) {
+        String html = render(EmailTemplates.VERIFICATION,
+            EmailFormat.firstName(fullName),
+            verificationLink,
+            currentYear());
+        return new RenderedEmail("✉️ Confirme seu email - MonitoraPreço", html);
+    }
+
+    /**
+     * Email de recuperação de senha com link.
+     */
+    public RenderedEmail passwordResetLink(String fullName, String resetLink) {
+        String html = render(EmailTemplates.PASSWORD_RESET_LINK,
+            EmailFormat.firstName(fullName),
+            resetLink,
+            currentYear());
+        return new RenderedEmail("🔑 Recuperação de Senha - MonitoraPreço", html);
+    }
+
+    /**
+     * Email de recuperação de senha com código de 6 dígitos.
+     */
+    public RenderedEmail passwordResetCode(String fullName, String code) {
+        String html = render(EmailTemplates.PASSWORD_RESET_CODE,
+            EmailFormat.firstName(fullName),
+            code,
+            currentYear());
+        return new RenderedEmail("🔑 Código de Recuperação - MonitoraPreço", html);
+    }
+
+    private String render(EmailTemplate template, CharSequence... values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, values);
+        String html = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+            // Não segura buffers gigantes (nome de produto anômalo) para sempre na thread
+            BUFFER.remove();
+        }
+        return html;
+    }
+
+    private static String currentYear() {
+        return Integer.toString(Year.now().getValue());
+    }
+}
@@ -0,0 +1,7 @@
+package com.mercadolivre.pricemonitor.email;
+
+/**
+ * Assunto e corpo HTML já renderizados, prontos para qualquer provedor.
+ */
+public record RenderedEmail(String subject, String htmlBody) {
+}
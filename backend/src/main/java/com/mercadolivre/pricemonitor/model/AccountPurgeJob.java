@@ -0,0 +1,89 @@
+package com.mercadolivre.pricemonitor.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progresso da exclusão de uma conta.
+ *
+ * A conta é anonimizada na hora (ver {@code User.deletedAt}); os dados são apagados
+ * depois, em lotes, pelo {@code AccountPurgeService}. O registro sobrevive ao usuário
+ * para servir de comprovante da exclusão (LGPD).
+ */
+@Entity
+@Table(name = "account_purge_jobs", indexes = {
+    @Index(name = "idx_account_purge_jobs_status", columnList = "status")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountPurgeJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Phase phase = Phase.HISTORY;
+
+    @Column(name = "history_deleted", nullable = false)
+    private Long historyDeleted = 0L;
+
+    @Column(name = "notifications_deleted", nullable = false)
+    private Long notificationsDeleted = 0L;
+
+    @Column(name = "tokens_deleted", nullable = false)
+    private Long tokensDeleted = 0L;
+
+    @Column(name = "products_deleted", nullable = false)
+    private Long productsDeleted = 0L;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    /**
+     * Fases na ordem em que rodam (filhos antes dos pais, por causa das FKs).
+     */
+    public enum Phase {
+        HISTORY, NOTIFICATIONS, TOKENS, PRODUCTS, USER
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,30 @@
+package com.mercadolivre.pricemonitor.model;
+
+/**
+ * Prices are stored and compared as whole centavos ({@code long}); reais as {@code double}
+ * only exist at the edges (scraper/ML API input, JSON, emails and Telegram messages).
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /**
+     * Reais -> centavos, rounding to the nearest centavo (1149.99 * 100 = 114998.99999...).
+     */
+    public static long toCents(double reais) {
+        return Math.round(reais * 100);
+    }
+
+    public static Long toCentsOrNull(Double reais) {
+        return reais != null ? toCents(reais) : null;
+    }
+
+    public static double toReais(long cents) {
+        return cents / 100.0;
+    }
+
+    public static Double toReaisOrNull(Long cents) {
+        return cents != null ? toReais(cents) : null;
+    }
+}
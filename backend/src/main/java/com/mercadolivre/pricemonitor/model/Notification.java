@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
  * Used to show the notification bell with price changes and alerts.
  */
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+    @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at"),
+    @Index(name = "idx_notifications_created_at", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
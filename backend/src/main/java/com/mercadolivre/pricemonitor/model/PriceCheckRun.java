@@ -0,0 +1,77 @@
+package com.mercadolivre.pricemonitor.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Um ciclo completo de verificação de preços, gravado ao final pelo {@code PriceCheckRunTracker}.
+ *
+ * Serve para comparar vazão entre deploys e achar ciclos que passaram do intervalo
+ * do agendamento ({@code overran}). Latências de busca em ms; {@code dbTimeMs} é o tempo
+ * somado das gravações (produto, histórico e disparo de alertas).
+ */
+@Entity
+@Table(name = "price_check_runs", indexes = {
+    @Index(name = "idx_price_check_runs_started_at", columnList = "started_at")
+})
+@Data
+@NoArgsConstructor
+public class PriceCheckRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at", nullable = false)
+    private LocalDateTime finishedAt;
+
+    @Column(name = "duration_ms", nullable = false)
+    private long durationMs;
+
+    @Column(name = "products_scanned", nullable = false)
+    private int productsScanned;
+
+    // URLs distintas (o mesmo anúncio monitorado por vários usuários conta uma vez)
+    @Column(name = "distinct_items", nullable = false)
+    private int distinctItems;
+
+    @Column(nullable = false)
+    private int fetched;
+
+    @Column(nullable = false)
+    private int unchanged;
+
+    @Column(nullable = false)
+    private int changed;
+
+    @Column(nullable = false)
+    private int failed;
+
+    @Column(name = "fetch_p50_ms")
+    private Long fetchP50Ms;
+
+    @Column(name = "fetch_p95_ms")
+    private Long fetchP95Ms;
+
+    @Column(name = "fetch_p99_ms")
+    private Long fetchP99Ms;
+
+    @Column(name = "db_time_ms", nullable = false)
+    private long dbTimeMs;
+
+    @Column(nullable = false)
+    private boolean overran;
+
+    /**
+     * Produtos por segundo (0 para ciclo vazio ou instantâneo).
+     */
+    public double getThroughput() {
+        return durationMs > 0 ? productsScanned * 1000.0 / durationMs : 0;
+    }
+}
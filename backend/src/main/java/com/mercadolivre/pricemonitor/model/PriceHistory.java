@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
  * Entity representing a historical price record for a product.
  */
 @Entity
-@Table(name = "price_history")
+@Table(name = "price_history", indexes = {
+    @Index(name = "idx_price_history_product_recorded", columnList = "product_id, recorded_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,8 +29,12 @@ public class PriceHistory {
     @JsonIgnore
     private Product product;
 
-    @Column(nullable = false)
-    private Double price;
+    // Nulo só em linhas antigas até a PriceCentsMigration rodar (Postgres não aceita
+    // ADD COLUMN NOT NULL em tabela com dados), por isso sem nullable = false; a
+    // migração impede a subida enquanto sobrar linha nula
+    @JsonIgnore
+    @Column(name = "price_cents")
+    private long priceCents;
 
     @Column(name = "recorded_at", nullable = false)
     private LocalDateTime recordedAt;
@@ -38,8 +44,13 @@ public class PriceHistory {
         this.recordedAt = LocalDateTime.now();
     }
 
-    public PriceHistory(Product product, Double price) {
+    public PriceHistory(Product product, long priceCents) {
         this.product = product;
-        this.price = price;
+        this.priceCents = priceCents;
+    }
+
+    // Em reais, para o JSON do /history
+    public double getPrice() {
+        return Money.toReais(priceCents);
     }
 }
@@ -0,0 +1,60 @@
+package com.mercadolivre.pricemonitor.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Cold tier of the price history: every observation of one product in one calendar month,
+ * packed by {@code PriceHistoryCodec} (delta-encoded seconds and cents, varints).
+ * Written by {@code PriceHistoryCompactionJob}, which deletes the rows it packed.
+ */
+@Entity
+@Table(name = "price_history_blocks",
+    uniqueConstraints = @UniqueConstraint(name = "uk_price_history_blocks_product_month",
+        columnNames = {"product_id", "month_start"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString(exclude = "data")
+public class PriceHistoryBlock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    // Primeiro dia do mês coberto pelo bloco
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(name = "first_recorded_at", nullable = false)
+    private LocalDateTime firstRecordedAt;
+
+    @Column(name = "last_recorded_at", nullable = false)
+    private LocalDateTime lastRecordedAt;
+
+    @Column(name = "sample_count", nullable = false)
+    private Integer sampleCount;
+
+    @Column(name = "min_price_cents")
+    private Long minPriceCents;
+
+    @Column(name = "max_price_cents")
+    private Long maxPriceCents;
+
+    @JsonIgnore
+    @Column(name = "data", nullable = false, length = 1_048_576)
+    private byte[] data;
+
+    @Column(name = "compacted_at", nullable = false)
+    private LocalDateTime compactedAt;
+}
@@ -16,13 +16,16 @@ import java.util.List;
  * - name: Product title (extracted from scraping)
  * - url: Mercado Livre product URL
  * - imageUrl: Product image URL
- * - currentPrice: Latest scraped price
- * - lastPrice: Previous price (before last update)
+ * - currentPriceCents: Latest scraped price, in centavos
+ * - lastPriceCents: Previous price (before last update), in centavos
  * - lastCheckedAt: Timestamp of last successful price check
  * - priceHistory: Historical prices for graphing
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_last_checked_at", columnList = "last_checked_at"),
+    @Index(name = "idx_products_updated_at", columnList = "updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,18 +46,22 @@ public class Product {
     @Column(name = "image_url", length = 2048)
     private String imageUrl;
 
-    @Column(name = "current_price")
-    private Double currentPrice;
+    // Preços em centavos; o JSON continua em reais via getCurrentPrice() etc.
+    @JsonIgnore
+    @Column(name = "current_price_cents")
+    private Long currentPriceCents;
 
-    @Column(name = "last_price")
-    private Double lastPrice;
+    @JsonIgnore
+    @Column(name = "last_price_cents")
+    private Long lastPriceCents;
     
     /**
-     * Original price before discount (preço riscado).
+     * Original price before discount (preço riscado), in centavos.
      * If null, the product has no active promotion.
      */
-    @Column(name = "original_price")
-    private Double originalPrice;
+    @JsonIgnore
+    @Column(name = "original_price_cents")
+    private Long originalPriceCents;
     
     /**
      * Discount percentage (e.g., 15 for 15% OFF).
@@ -69,6 +76,11 @@ public class Product {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Última escrita na linha (status, nome...): a reconciliação do ProductStateStore usa
+    @JsonIgnore
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
     @Column(name = "user_id", nullable = false)
     private Long userId;
 
@@ -88,11 +100,41 @@ public class Product {
     @JsonIgnore
     private List<PriceHistory> priceHistory = new ArrayList<>();
 
+    public Double getCurrentPrice() {
+        return Money.toReaisOrNull(currentPriceCents);
+    }
+
+    public void setCurrentPrice(Double price) {
+        this.currentPriceCents = Money.toCentsOrNull(price);
+    }
+
+    public Double getLastPrice() {
+        return Money.toReaisOrNull(lastPriceCents);
+    }
+
+    public void setLastPrice(Double price) {
+        this.lastPriceCents = Money.toCentsOrNull(price);
+    }
+
+    public Double getOriginalPrice() {
+        return Money.toReaisOrNull(originalPriceCents);
+    }
+
+    public void setOriginalPrice(Double price) {
+        this.originalPriceCents = Money.toCentsOrNull(price);
+    }
+
     /**
      * Set creation timestamp before persisting.
      */
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
     }
 }
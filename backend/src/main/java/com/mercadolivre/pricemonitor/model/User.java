@@ -55,6 +55,13 @@ public class User {
     @Column(name = "telegram_link_expires")
     private LocalDateTime telegramLinkExpires;
     
+    /**
+     * Conta excluída: dados pessoais já anonimizados, remoção do resto em andamento
+     * (ver AccountPurgeJob). null = conta ativa.
+     */
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
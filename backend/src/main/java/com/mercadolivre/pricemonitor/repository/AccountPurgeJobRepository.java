@@ -0,0 +1,27 @@
+package com.mercadolivre.pricemonitor.repository;
+
+import com.mercadolivre.pricemonitor.model.AccountPurgeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountPurgeJobRepository extends JpaRepository<AccountPurgeJob, Long> {
+
+    /**
+     * Jobs ainda não concluídos (retomados após restart)
+     */
+    List<AccountPurgeJob> findByStatusInOrderByIdAsc(Collection<AccountPurgeJob.Status> statuses);
+
+    Optional<AccountPurgeJob> findTopByUserIdOrderByIdDesc(Long userId);
+
+    /**
+     * Todo usuário que já pediu exclusão (tokens dele são recusados após restart)
+     */
+    @Query("SELECT DISTINCT j.userId FROM AccountPurgeJob j")
+    List<Long> findAllUserIds();
+}
@@ -2,9 +2,12 @@ package com.mercadolivre.pricemonitor.repository;
 
 import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,4 +31,23 @@ public interface MercadoLivreTokenRepository extends JpaRepository<MercadoLivreT
      * Busca token pelo usuário do sistema.
      */
     Optional<MercadoLivreToken> findByUser(com.mercadolivre.pricemonitor.model.User user);
+
+    /**
+     * Busca token pelo ID do usuário do sistema.
+     */
+    @Query("SELECT t FROM MercadoLivreToken t WHERE t.user.id = :userId")
+    Optional<MercadoLivreToken> findByUserId(@Param("userId") Long userId);
+
+    /**
+     * IDs dos usuários do sistema com conta do Mercado Livre conectada.
+     */
+    @Query("SELECT t.user.id FROM MercadoLivreToken t")
+    List<Long> findAllUserIds();
+
+    /**
+     * Remove os tokens de um usuário do sistema (exclusão de conta).
+     */
+    @Modifying
+    @Query("DELETE FROM MercadoLivreToken t WHERE t.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
 }
@@ -1,12 +1,14 @@
 package com.mercadolivre.pricemonitor.repository;
 
 import com.mercadolivre.pricemonitor.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -44,4 +46,34 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     @Query("SELECT n FROM Notification n WHERE n.userId = :userId ORDER BY n.createdAt DESC LIMIT 50")
     List<Notification> findRecentByUserId(@Param("userId") Long userId);
+
+    // ==================== RETENÇÃO ====================
+
+    /**
+     * IDs of notifications older than the cutoff (oldest first, one batch per page)
+     */
+    @Query("SELECT n.id FROM Notification n WHERE n.createdAt < :cutoff ORDER BY n.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Users holding more than {@code max} notifications
+     */
+    @Query("SELECT n.userId FROM Notification n GROUP BY n.userId HAVING COUNT(n) > :max")
+    List<Long> findUserIdsWithMoreThan(@Param("max") long max);
+
+    /**
+     * IDs of a user's notifications, newest first
+     */
+    @Query("SELECT n.id FROM Notification n WHERE n.userId = :userId ORDER BY n.id DESC")
+    List<Long> findIdsByUserIdNewestFirst(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * IDs of a user's notifications up to (and including) {@code maxId}, oldest first
+     */
+    @Query("SELECT n.id FROM Notification n WHERE n.userId = :userId AND n.id <= :maxId ORDER BY n.id")
+    List<Long> findIdsByUserIdUpTo(@Param("userId") Long userId, @Param("maxId") Long maxId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,17 @@
+package com.mercadolivre.pricemonitor.repository;
+
+import com.mercadolivre.pricemonitor.model.PriceCheckRun;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PriceCheckRunRepository extends JpaRepository<PriceCheckRun, Long> {
+
+    /**
+     * Ciclos mais recentes primeiro
+     */
+    List<PriceCheckRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+}
@@ -0,0 +1,48 @@
+package com.mercadolivre.pricemonitor.repository;
+
+import com.mercadolivre.pricemonitor.model.PriceHistoryBlock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PriceHistoryBlockRepository extends JpaRepository<PriceHistoryBlock, Long> {
+
+    Optional<PriceHistoryBlock> findByProductIdAndMonthStart(Long productId, LocalDate monthStart);
+
+    List<PriceHistoryBlock> findByProductIdAndLastRecordedAtGreaterThanEqualOrderByMonthStartAsc(Long productId, LocalDateTime since);
+
+    // Meses compactados de um produto, do mais recente para o mais antigo
+    List<PriceHistoryBlock> findByProductIdOrderByMonthStartDesc(Long productId, Pageable pageable);
+
+    // Blocos com alguma observação em [from, to)
+    @Query("SELECT b FROM PriceHistoryBlock b WHERE b.productId = :productId " +
+           "AND b.lastRecordedAt >= :from AND b.firstRecordedAt < :to ORDER BY b.monthStart ASC")
+    List<PriceHistoryBlock> findOverlapping(@Param("productId") Long productId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM PriceHistoryBlock b WHERE b.productId = :productId")
+    int deleteByProductId(@Param("productId") Long productId);
+
+    @Modifying
+    @Query("DELETE FROM PriceHistoryBlock b WHERE b.productId IN :productIds")
+    int deleteByProductIdIn(@Param("productIds") List<Long> productIds);
+
+    // IDs de blocos dos produtos de um usuário, em lotes (exclusão de conta)
+    @Query("SELECT b.id FROM PriceHistoryBlock b WHERE b.productId IN (SELECT p.id FROM Product p WHERE p.userId = :userId)")
+    List<Long> findIdsByProductUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM PriceHistoryBlock b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+}
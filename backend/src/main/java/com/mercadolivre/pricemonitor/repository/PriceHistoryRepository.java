@@ -1,7 +1,9 @@
 package com.mercadolivre.pricemonitor.repository;
 
+import com.mercadolivre.pricemonitor.dto.PricePoint;
 import com.mercadolivre.pricemonitor.model.PriceHistory;
 import com.mercadolivre.pricemonitor.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -31,6 +33,43 @@ public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long
     @Query("DELETE FROM PriceHistory ph WHERE ph.product.id IN (SELECT p.id FROM Product p WHERE p.userId = :userId)")
     void deleteByProductUserId(@Param("userId") Long userId);
 
+    // IDs de histórico dos produtos de um usuário, em lotes (exclusão de conta)
+    @Query("SELECT ph.id FROM PriceHistory ph WHERE ph.product.id IN (SELECT p.id FROM Product p WHERE p.userId = :userId)")
+    List<Long> findIdsByProductUserId(@Param("userId") Long userId, Pageable pageable);
+
+    // Apaga o histórico de um lote de produtos (exclusão de conta)
+    @Modifying
+    @Query("DELETE FROM PriceHistory ph WHERE ph.product.id IN :productIds")
+    int deleteByProductIdIn(@Param("productIds") List<Long> productIds);
+
+    // Histórico bruto de um produto num intervalo, paginado por ID (keyset)
+    @Query("SELECT new com.mercadolivre.pricemonitor.dto.PricePoint(ph.id, ph.priceCents, ph.recordedAt) " +
+           "FROM PriceHistory ph WHERE ph.product.id = :productId AND ph.id > :afterId " +
+           "AND ph.recordedAt >= :from AND ph.recordedAt < :to ORDER BY ph.id ASC")
+    List<PricePoint> findPointsAfter(@Param("productId") Long productId,
+                                     @Param("afterId") Long afterId,
+                                     @Param("from") LocalDateTime from,
+                                     @Param("to") LocalDateTime to,
+                                     Pageable pageable);
+
+    // Observações mais recentes de um produto, da mais nova para a mais antiga (/history)
+    @Query("SELECT new com.mercadolivre.pricemonitor.dto.PricePoint(ph.id, ph.priceCents, ph.recordedAt) " +
+           "FROM PriceHistory ph WHERE ph.product.id = :productId ORDER BY ph.recordedAt DESC, ph.id DESC")
+    List<PricePoint> findLatestPoints(@Param("productId") Long productId, Pageable pageable);
+
+    // Produtos com histórico anterior ao corte, paginados por ID (compactação)
+    @Query("SELECT DISTINCT ph.product.id FROM PriceHistory ph WHERE ph.recordedAt < :cutoff " +
+           "AND ph.product.id > :afterProductId ORDER BY ph.product.id ASC")
+    List<Long> findProductIdsWithHistoryBefore(@Param("cutoff") LocalDateTime cutoff,
+                                               @Param("afterProductId") Long afterProductId,
+                                               Pageable pageable);
+
+    // Histórico de um produto anterior ao corte, em ordem cronológica (compactação)
+    @Query("SELECT new com.mercadolivre.pricemonitor.dto.PricePoint(ph.id, ph.priceCents, ph.recordedAt) " +
+           "FROM PriceHistory ph WHERE ph.product.id = :productId AND ph.recordedAt < :cutoff " +
+           "ORDER BY ph.recordedAt ASC, ph.id ASC")
+    List<PricePoint> findPointsBefore(@Param("productId") Long productId, @Param("cutoff") LocalDateTime cutoff);
+
     // Buscar todos os IDs de histórico ordenados por produto e data
     @Query("SELECT ph FROM PriceHistory ph ORDER BY ph.product.id, ph.recordedAt ASC")
     List<PriceHistory> findAllOrderByProductAndDate();
@@ -54,7 +93,7 @@ public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long
            "  SELECT MAX(ph2.id) FROM price_history ph2 WHERE ph2.product_id = ph.product_id AND ph2.id < ph.id" +
            ") " +
            "WHERE p.user_id = :userId AND ph.recorded_at >= :since " +
-           "AND ph.price != ph_prev.price " +
+           "AND ph.price_cents != ph_prev.price_cents " +
            "GROUP BY ph.product_id, p.name ORDER BY changes DESC", nativeQuery = true)
     List<Object[]> countChangesByProductForUser(@Param("userId") Long userId, @Param("since") LocalDateTime since);
     
@@ -65,7 +104,7 @@ public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long
            "  SELECT MAX(ph2.id) FROM price_history ph2 WHERE ph2.product_id = ph.product_id AND ph2.id < ph.id" +
            ") " +
            "WHERE p.user_id = :userId AND ph.recorded_at >= :since " +
-           "AND ph.price != ph_prev.price " +
+           "AND ph.price_cents != ph_prev.price_cents " +
            "GROUP BY EXTRACT(HOUR FROM ph.recorded_at) ORDER BY hour", nativeQuery = true)
     List<Object[]> countChangesByHourForUser(@Param("userId") Long userId, @Param("since") LocalDateTime since);
     
@@ -77,7 +116,7 @@ public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long
            "  SELECT MAX(ph2.id) FROM price_history ph2 WHERE ph2.product_id = ph.product_id AND ph2.id < ph.id" +
            ") " +
            "WHERE p.user_id = :userId AND ph.recorded_at >= :since " +
-           "AND ph.price != ph_prev.price " +
+           "AND ph.price_cents != ph_prev.price_cents " +
            "GROUP BY EXTRACT(DOW FROM ph.recorded_at) ORDER BY dayOfWeek", nativeQuery = true)
     List<Object[]> countChangesByDayOfWeekForUser(@Param("userId") Long userId, @Param("since") LocalDateTime since);
     
@@ -88,7 +127,7 @@ public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long
            "  SELECT MAX(ph2.id) FROM price_history ph2 WHERE ph2.product_id = ph.product_id AND ph2.id < ph.id" +
            ") " +
            "WHERE p.user_id = :userId AND ph.recorded_at >= :since " +
-           "AND ph.price != ph_prev.price " +
+           "AND ph.price_cents != ph_prev.price_cents " +
            "GROUP BY CAST(ph.recorded_at AS DATE) ORDER BY date", nativeQuery = true)
     List<Object[]> countChangesByDateForUser(@Param("userId") Long userId, @Param("since") LocalDateTime since);
     
@@ -99,6 +138,6 @@ public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long
            "  SELECT MAX(ph2.id) FROM price_history ph2 WHERE ph2.product_id = ph.product_id AND ph2.id < ph.id" +
            ") " +
            "WHERE p.user_id = :userId AND ph.recorded_at >= :since " +
-           "AND ph.price != ph_prev.price", nativeQuery = true)
+           "AND ph.price_cents != ph_prev.price_cents", nativeQuery = true)
     Long countTotalChangesForUser(@Param("userId") Long userId, @Param("since") LocalDateTime since);
 }
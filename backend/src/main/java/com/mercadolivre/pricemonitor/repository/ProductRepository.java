@@ -1,6 +1,9 @@
 package com.mercadolivre.pricemonitor.repository;
 
+import com.mercadolivre.pricemonitor.dto.ProductState;
+import com.mercadolivre.pricemonitor.dto.ProductSummary;
 import com.mercadolivre.pricemonitor.model.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +11,8 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,7 +32,7 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * Find all products where the current price is lower than the last price.
      * Useful for finding products with price drops.
      */
-    @Query("SELECT p FROM Product p WHERE p.currentPrice < p.lastPrice")
+    @Query("SELECT p FROM Product p WHERE p.currentPriceCents < p.lastPriceCents")
     List<Product> findProductsWithPriceDrop();
 
     /**
@@ -40,6 +45,24 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     List<Product> findByUserId(Long userId);
     
+    /**
+     * Product list read model for a user, ordered by ID (see ProductQueryService).
+     */
+    @Query("SELECT new com.mercadolivre.pricemonitor.dto.ProductSummary(" +
+           "p.id, p.name, p.url, p.imageUrl, p.currentPriceCents, p.lastPriceCents, p.originalPriceCents, p.discountPercent, " +
+           "p.lastCheckedAt, p.createdAt, p.userId, p.notifyOnPriceDrop, p.notifyOnPriceIncrease, p.status) " +
+           "FROM Product p WHERE p.userId = :userId ORDER BY p.id")
+    List<ProductSummary> findSummariesByUserId(@Param("userId") Long userId);
+
+    /**
+     * Keyset page of the read model: products with ID greater than {@code afterId}.
+     */
+    @Query("SELECT new com.mercadolivre.pricemonitor.dto.ProductSummary(" +
+           "p.id, p.name, p.url, p.imageUrl, p.currentPriceCents, p.lastPriceCents, p.originalPriceCents, p.discountPercent, " +
+           "p.lastCheckedAt, p.createdAt, p.userId, p.notifyOnPriceDrop, p.notifyOnPriceIncrease, p.status) " +
+           "FROM Product p WHERE p.userId = :userId AND p.id > :afterId ORDER BY p.id")
+    List<ProductSummary> findSummariesByUserIdAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+
     /**
      * Find a product by URL and userId.
      */
@@ -50,11 +73,82 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     boolean existsByUrlAndUserId(String url, Long userId);
     
+    /**
+     * URLs already monitored by a user (bulk import dedup, one query).
+     */
+    @Query("SELECT p.url FROM Product p WHERE p.userId = :userId")
+    List<String> findUrlsByUserId(@Param("userId") Long userId);
+
+    /**
+     * IDs of a user's products with the given URLs: [id, url] (bulk import).
+     */
+    @Query("SELECT p.id, p.url FROM Product p WHERE p.userId = :userId AND p.url IN :urls")
+    List<Object[]> findIdAndUrlByUserIdAndUrlIn(@Param("userId") Long userId, @Param("urls") Collection<String> urls);
+
     /**
      * Count products for a user.
      */
     long countByUserId(Long userId);
 
+    /**
+     * All products the price cycle should check (skips products of accounts being deleted).
+     */
+    @Query("SELECT p FROM Product p WHERE p.status IS NULL OR p.status <> 'DELETING'")
+    List<Product> findAllMonitored();
+
+    /**
+     * Fast-changing state of all products, keyset-paginated by ID (state store warm-up).
+     */
+    @Query("SELECT new com.mercadolivre.pricemonitor.dto.ProductState(" +
+           "p.id, p.currentPriceCents, p.lastPriceCents, p.originalPriceCents, p.discountPercent, p.lastCheckedAt, p.status) " +
+           "FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductState> findStatesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Same as {@link #findStatesAfter}, only rows checked or updated since {@code since}
+     * (reconciling a restored snapshot).
+     */
+    @Query("SELECT new com.mercadolivre.pricemonitor.dto.ProductState(" +
+           "p.id, p.currentPriceCents, p.lastPriceCents, p.originalPriceCents, p.discountPercent, p.lastCheckedAt, p.status) " +
+           "FROM Product p WHERE (p.lastCheckedAt >= :since OR p.updatedAt >= :since) AND p.id > :afterId ORDER BY p.id")
+    List<ProductState> findStatesChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    /**
+     * Every product ID, keyset-paginated (drops deleted products from a restored snapshot).
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Price check with nothing new: only the check timestamp is written.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.lastCheckedAt = :checkedAt WHERE p.id = :id")
+    int touchLastChecked(@Param("id") Long id, @Param("checkedAt") LocalDateTime checkedAt);
+
+    /**
+     * Mark every product of a user with the given status in one statement.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.status = :status, p.updatedAt = :updatedAt WHERE p.userId = :userId")
+    int updateStatusByUserId(@Param("userId") Long userId, @Param("status") String status,
+                             @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * Product IDs of a user, in batches (account deletion).
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.userId = :userId ORDER BY p.id")
+    List<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Delete products by ID (account deletion batches).
+     */
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") List<Long> ids);
+
     /**
      * Delete all products for a user.
      */
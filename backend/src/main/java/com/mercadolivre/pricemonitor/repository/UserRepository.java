@@ -2,6 +2,9 @@ package com.mercadolivre.pricemonitor.repository;
 
 import com.mercadolivre.pricemonitor.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +15,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     Optional<User> findByVerificationToken(String token);
     Optional<User> findByResetPasswordToken(String token);
+
+    /**
+     * Regrava o hash só se ele não mudou desde a leitura (não sobrescreve troca de senha concorrente)
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordHashIfUnchanged(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
 }
@@ -0,0 +1,112 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Circuit breaker + bulkhead for one backend.
+ *
+ * A call first takes a bulkhead slot (or waits for one), then a circuit permission when it is
+ * about to start, so calls queued while the circuit opens are refused on the spot instead of
+ * reaching a backend that is known to be down. Refusals complete with
+ * {@link BackendUnavailableException}. Cancelled calls count neither as success nor failure.
+ *
+ * Métricas: {@code backend.circuit.state{backend}} (0 fechado, 1 meio-aberto, 2 aberto),
+ * {@code backend.bulkhead.in_flight{backend}}, {@code backend.bulkhead.queued{backend}} e
+ * {@code backend.calls.rejected{backend,reason}}.
+ */
+public final class BackendGuard {
+
+    private final String name;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Counter rejectedOpen;
+    private final Counter rejectedFull;
+
+    public BackendGuard(String name, CircuitBreaker circuitBreaker, Bulkhead bulkhead, MeterRegistry registry) {
+        this.name = name;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.rejectedOpen = rejected(registry, "circuit_open");
+        this.rejectedFull = rejected(registry, "bulkhead_full");
+        Gauge.builder("backend.circuit.state", circuitBreaker, cb -> cb.getState().ordinal())
+            .tag("backend", name).description("Estado do circuito (0 fechado, 1 meio-aberto, 2 aberto)")
+            .register(registry);
+        Gauge.builder("backend.bulkhead.in_flight", bulkhead, Bulkhead::getInFlight)
+            .tag("backend", name).description("Chamadas em andamento").register(registry);
+        Gauge.builder("backend.bulkhead.queued", bulkhead, Bulkhead::getQueued)
+            .tag("backend", name).description("Chamadas aguardando vaga").register(registry);
+    }
+
+    /**
+     * Runs the call under the bulkhead and circuit breaker.
+     *
+     * @param isFailure results that count as failures for the circuit (exceptions always do)
+     */
+    public <T> CompletableFuture<T> call(Supplier<CompletableFuture<T>> call, Predicate<T> isFailure) {
+        if (!circuitBreaker.isCallPermitted()) {
+            rejectedOpen.increment();
+            return CompletableFuture.failedFuture(new BackendUnavailableException(name, "circuito aberto"));
+        }
+        if (bulkhead.isFull()) {
+            rejectedFull.increment();
+            return CompletableFuture.failedFuture(new BackendUnavailableException(name, "bulkhead cheio"));
+        }
+        return bulkhead.submit(() -> {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                rejectedOpen.increment();
+                return CompletableFuture.failedFuture(new BackendUnavailableException(name, "circuito aberto"));
+            }
+            CompletableFuture<T> future;
+            try {
+                future = call.get();
+            } catch (Throwable t) {
+                future = CompletableFuture.failedFuture(t);
+            }
+            CompletableFuture<T> recorded = future.whenComplete((value, error) -> {
+                if (error instanceof CancellationException) {
+                    circuitBreaker.onIgnored(); // perdedor de um hedge: não é falha do backend
+                } else if (error != null || isFailure.test(value)) {
+                    circuitBreaker.onFailure();
+                } else {
+                    circuitBreaker.onSuccess();
+                }
+            });
+            return Futures.propagateCancellation(recorded, future);
+        });
+    }
+
+    /**
+     * True while the circuit lets calls through (closed, or half-open with trial slots left).
+     */
+    public boolean isCallPermitted() {
+        return circuitBreaker.isCallPermitted();
+    }
+
+    public boolean isClosed() {
+        return circuitBreaker.getState() == CircuitBreaker.State.CLOSED;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    private Counter rejected(MeterRegistry registry, String reason) {
+        return Counter.builder("backend.calls.rejected").tag("backend", name).tag("reason", reason)
+            .description("Chamadas recusadas sem chegar ao backend").register(registry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * One {@link BackendGuard} per product data backend: the official ML API and the Python scraper.
+ *
+ * Circuit settings ({@code resilience.circuit.*}) are shared; each backend has its own
+ * circuit and its own bulkhead size.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BackendGuards {
+
+    public static final String ML_API = "ml_api";
+    public static final String SCRAPER = "scraper";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${resilience.circuit.sliding-window-size:20}")
+    private int slidingWindowSize;
+
+    @Value("${resilience.circuit.minimum-calls:10}")
+    private int minimumCalls;
+
+    @Value("${resilience.circuit.failure-rate-threshold:50}")
+    private double failureRateThreshold;
+
+    @Value("${resilience.circuit.open-duration-ms:30000}")
+    private long openDurationMs;
+
+    @Value("${resilience.circuit.half-open-calls:3}")
+    private int halfOpenCalls;
+
+    // Chamadas à API do ML bloqueiam uma thread (RestTemplate): limite menor
+    @Value("${resilience.ml-api.max-concurrent:8}")
+    private int mlApiMaxConcurrent;
+
+    @Value("${resilience.scraper.max-concurrent:16}")
+    private int scraperMaxConcurrent;
+
+    @Value("${resilience.bulkhead.max-queue:100000}")
+    private int maxQueue;
+
+    private BackendGuard mlApi;
+    private BackendGuard scraper;
+
+    @PostConstruct
+    public void init() {
+        mlApi = guard(ML_API, mlApiMaxConcurrent);
+        scraper = guard(SCRAPER, scraperMaxConcurrent);
+        log.info("🔌 [CIRCUITO] Backends protegidos: {} ({} simultâneas), {} ({} simultâneas); abre com {}% de falha "
+                + "em {} chamadas", ML_API, mlApiMaxConcurrent, SCRAPER, scraperMaxConcurrent,
+            failureRateThreshold, slidingWindowSize);
+    }
+
+    public BackendGuard mlApi() {
+        return mlApi;
+    }
+
+    public BackendGuard scraper() {
+        return scraper;
+    }
+
+    public BackendGuard get(String name) {
+        return switch (name) {
+            case ML_API -> mlApi;
+            case SCRAPER -> scraper;
+            default -> throw new IllegalArgumentException("Backend desconhecido: " + name);
+        };
+    }
+
+    public List<BackendGuard> all() {
+        return List.of(mlApi, scraper);
+    }
+
+    private BackendGuard guard(String name, int maxConcurrent) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker(name, slidingWindowSize, minimumCalls,
+            failureRateThreshold, openDurationMs, halfOpenCalls, System::currentTimeMillis);
+        return new BackendGuard(name, circuitBreaker, new Bulkhead(name, maxConcurrent, maxQueue), meterRegistry);
+    }
+}
@@ -0,0 +1,188 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Background health probes for each product data backend, so callers read a cached status
+ * instead of probing on their own.
+ *
+ * Every {@code backends.health.interval-ms} each backend gets a cheap GET (scraper: {@code /},
+ * ML API: {@code /sites/MLB}, public). The status keeps an EWMA of probe latency and a readiness
+ * flag: it drops after {@code failure-threshold} failed probes in a row and comes back on the
+ * first success. A backend whose circuit is open is not ready either, whatever the probes say.
+ * Until the first probe finishes a backend counts as ready.
+ *
+ * Métricas: {@code backend.health.ready{backend}} (1/0) e
+ * {@code backend.health.latency.ewma{backend}} (ms, -1 sem amostra).
+ */
+@Component
+@Slf4j
+public class BackendHealthMonitor {
+
+    /**
+     * Cached probe results of one backend.
+     */
+    public static final class Status {
+        private volatile boolean ready = true;
+        private volatile boolean probed;
+        private volatile double latencyEwmaMs = -1;
+        private volatile int consecutiveFailures;
+        private volatile long lastProbeAt;
+        private volatile String lastError;
+
+        public boolean isProbeReady() {
+            return ready;
+        }
+
+        public boolean isProbed() {
+            return probed;
+        }
+
+        public double getLatencyEwmaMs() {
+            return latencyEwmaMs;
+        }
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public long getLastProbeAt() {
+            return lastProbeAt;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+    }
+
+    private final BackendGuards backendGuards;
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient = WebClient.create();
+    private final Map<String, String> probeUrls = new LinkedHashMap<>();
+    private final Map<String, Status> statuses = new LinkedHashMap<>();
+
+    @Value("${backends.health.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${backends.health.timeout-ms:5000}")
+    private long timeoutMs = 5000;
+
+    @Value("${backends.health.ewma-alpha:0.3}")
+    private double ewmaAlpha = 0.3;
+
+    @Value("${backends.health.failure-threshold:2}")
+    private int failureThreshold = 2;
+
+    @Autowired
+    public BackendHealthMonitor(BackendGuards backendGuards, MeterRegistry meterRegistry,
+                                @Value("${scraper.api.url}") String scraperApiUrl,
+                                @Value("${mercadolivre.api.url}") String mercadoLivreApiUrl) {
+        this.backendGuards = backendGuards;
+        this.meterRegistry = meterRegistry;
+        probeUrls.put(BackendGuards.ML_API, mercadoLivreApiUrl + "/sites/MLB");
+        probeUrls.put(BackendGuards.SCRAPER, scraperApiUrl + "/");
+        probeUrls.keySet().forEach(backend -> statuses.put(backend, new Status()));
+    }
+
+    @PostConstruct
+    public void init() {
+        statuses.forEach((backend, status) -> {
+            Gauge.builder("backend.health.ready", this, monitor -> monitor.isReady(backend) ? 1 : 0)
+                .tag("backend", backend)
+                .description("Backend pronto para receber buscas (sonda + circuito)")
+                .register(meterRegistry);
+            Gauge.builder("backend.health.latency.ewma", status, Status::getLatencyEwmaMs)
+                .tag("backend", backend)
+                .description("Média móvel exponencial da latência das sondas")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        });
+    }
+
+    /**
+     * Sonda os backends em segundo plano; o ciclo de preços só lê o resultado.
+     */
+    @Scheduled(fixedDelayString = "${backends.health.interval-ms:15000}", initialDelay = 1000)
+    public void probeAll() {
+        if (!enabled) {
+            return;
+        }
+        CompletableFuture.allOf(probeUrls.keySet().stream().map(this::probe).toArray(CompletableFuture[]::new))
+            .join();
+    }
+
+    /**
+     * Probe result and circuit combined: false while the last probes failed or the circuit is open.
+     */
+    public boolean isReady(String backend) {
+        Status status = statuses.get(backend);
+        if (status == null) {
+            throw new IllegalArgumentException("Backend desconhecido: " + backend);
+        }
+        return status.ready && backendGuards.get(backend).isCallPermitted();
+    }
+
+    public Status getStatus(String backend) {
+        return statuses.get(backend);
+    }
+
+    CompletableFuture<Void> probe(String backend) {
+        long start = System.nanoTime();
+        CompletableFuture<?> call;
+        try {
+            // timeout no Mono (não no future): ao estourar cancela a assinatura e fecha a conexão
+            call = webClient.get().uri(probeUrls.get(backend)).retrieve().toBodilessEntity()
+                .timeout(Duration.ofMillis(timeoutMs))
+                .toFuture();
+        } catch (RuntimeException e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        return call.handle((response, error) -> {
+                record(backend, error, System.nanoTime() - start);
+                return null;
+            });
+    }
+
+    private void record(String backend, Throwable error, long elapsedNanos) {
+        Status status = statuses.get(backend);
+        boolean wasReady = status.ready;
+        status.probed = true;
+        status.lastProbeAt = System.currentTimeMillis();
+        if (error == null) {
+            double sample = elapsedNanos / 1_000_000.0;
+            status.latencyEwmaMs = status.latencyEwmaMs < 0
+                ? sample
+                : ewmaAlpha * sample + (1 - ewmaAlpha) * status.latencyEwmaMs;
+            status.consecutiveFailures = 0;
+            status.lastError = null;
+            status.ready = true;
+            if (!wasReady) {
+                log.info("💚 [SAÚDE] {} voltou a responder ({}ms)", backend, Math.round(sample));
+            }
+        } else {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            status.lastError = cause.getClass().getSimpleName() + ": " + cause.getMessage();
+            if (++status.consecutiveFailures >= failureThreshold) {
+                status.ready = false;
+                if (wasReady) {
+                    log.warn("💔 [SAÚDE] {} sem resposta em {} sondas seguidas: {}",
+                        backend, status.consecutiveFailures, status.lastError);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+/**
+ * Call refused without reaching the backend (circuit open or bulkhead full).
+ */
+public class BackendUnavailableException extends RuntimeException {
+
+    public BackendUnavailableException(String backend, String reason) {
+        super("Backend " + backend + " indisponível: " + reason);
+    }
+}
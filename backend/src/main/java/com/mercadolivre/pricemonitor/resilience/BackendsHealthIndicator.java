@@ -0,0 +1,45 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Circuit, bulkhead and probe state of each backend under {@code /actuator/health} ("backends").
+ *
+ * Stays UP even with a circuit open: the app keeps serving from its own data and falls back
+ * between backends, so an outside outage must not get the instance restarted.
+ */
+@Component
+@RequiredArgsConstructor
+public class BackendsHealthIndicator implements HealthIndicator {
+
+    private final BackendGuards backendGuards;
+    private final BackendHealthMonitor backendHealthMonitor;
+
+    @Override
+    public Health health() {
+        Health.Builder builder = Health.up();
+        for (BackendGuard guard : backendGuards.all()) {
+            CircuitBreaker circuitBreaker = guard.getCircuitBreaker();
+            BackendHealthMonitor.Status status = backendHealthMonitor.getStatus(guard.getName());
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("ready", backendHealthMonitor.isReady(guard.getName()));
+            details.put("latencyEwmaMs", Math.round(status.getLatencyEwmaMs()));
+            if (status.getLastError() != null) {
+                details.put("lastError", status.getLastError());
+            }
+            details.put("state", circuitBreaker.getState().name());
+            details.put("failureRate", circuitBreaker.getFailureRate());
+            details.put("inFlight", guard.getBulkhead().getInFlight());
+            details.put("queued", guard.getBulkhead().getQueued());
+            details.put("maxConcurrent", guard.getBulkhead().getMaxConcurrent());
+            builder.withDetail(guard.getName(), details);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,122 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Caps concurrent asynchronous calls to one backend.
+ *
+ * Calls over {@code maxConcurrent} wait in a FIFO queue (no thread is blocked) and start as
+ * earlier ones complete; past {@code maxQueue} waiting calls new ones are refused with
+ * {@link BackendUnavailableException}. A cycle that fires every product at once therefore
+ * reaches the backend at most {@code maxConcurrent} at a time.
+ *
+ * Cancelling the returned future cancels the running call, or drops it from the queue.
+ */
+public final class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+    // Dreno sem recursão: quem chega com outro dreno em andamento só avisa e sai
+    private final AtomicInteger drainWip = new AtomicInteger();
+
+    public Bulkhead(String name, int maxConcurrent, int maxQueue) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("maxConcurrent must be >= 1");
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueue = Math.max(0, maxQueue);
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call) {
+        if (isFull()) {
+            return CompletableFuture.failedFuture(new BackendUnavailableException(name, "bulkhead cheio"));
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        queued.incrementAndGet();
+        waiting.add(() -> {
+            if (result.isDone()) {
+                // Cancelado enquanto esperava vaga: nem chega a chamar
+                inFlight.decrementAndGet();
+                return;
+            }
+            CompletableFuture<T> future;
+            try {
+                future = call.get();
+            } catch (Throwable t) {
+                future = CompletableFuture.failedFuture(t);
+            }
+            Futures.propagateCancellation(result, future);
+            future.whenComplete((value, error) -> {
+                inFlight.decrementAndGet();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+                drain();
+            });
+        });
+        drain();
+        return result;
+    }
+
+    /**
+     * No free slot and no room left in the queue.
+     */
+    public boolean isFull() {
+        return queued.get() >= maxQueue && inFlight.get() >= maxConcurrent;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    private void drain() {
+        if (drainWip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!waiting.isEmpty() && tryAcquire()) {
+                Runnable task = waiting.poll();
+                if (task == null) {
+                    inFlight.decrementAndGet();
+                    break;
+                }
+                queued.decrementAndGet();
+                task.run();
+            }
+            missed = drainWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker over a count-based sliding window.
+ *
+ * CLOSED: every call goes through and its outcome lands in a ring of the last
+ * {@code windowSize} calls; once at least {@code minimumCalls} are recorded and the failure
+ * rate reaches {@code failureRateThreshold}%, the circuit opens.
+ * OPEN: calls are refused until {@code openDurationMs} has passed.
+ * HALF_OPEN: only {@code halfOpenCalls} trial calls go through; all of them succeeding closes
+ * the circuit with an empty window, any failure opens it again.
+ */
+@Slf4j
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationMs;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    private State state = State.CLOSED;
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private long openUntil;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          long openDurationMs, int halfOpenCalls, LongSupplier clock) {
+        if (windowSize < 1 || minimumCalls < 1 || halfOpenCalls < 1) {
+            throw new IllegalArgumentException("windowSize, minimumCalls and halfOpenCalls must be >= 1");
+        }
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenCalls = halfOpenCalls;
+        this.clock = clock;
+        this.window = new boolean[windowSize];
+    }
+
+    /**
+     * Asks to make a call; every {@code true} must be followed by {@link #onSuccess},
+     * {@link #onFailure} or {@link #onIgnored}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() < openUntil) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+
+    /**
+     * Cheap check without taking a permit: false while open and not yet due for a trial.
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case HALF_OPEN -> halfOpenPermits > 0;
+            case OPEN -> clock.getAsLong() >= openUntil;
+        };
+    }
+
+    public synchronized void onSuccess() {
+        switch (state) {
+            case CLOSED -> record(false);
+            case HALF_OPEN -> {
+                if (++halfOpenSuccesses >= halfOpenCalls) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case OPEN -> { } // chamada começou antes de abrir: não muda nada
+        }
+    }
+
+    public synchronized void onFailure() {
+        switch (state) {
+            case CLOSED -> {
+                record(true);
+                if (windowCount >= minimumCalls && failureRate() >= failureRateThreshold) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            case HALF_OPEN -> transitionTo(State.OPEN);
+            case OPEN -> { }
+        }
+    }
+
+    /**
+     * The call was abandoned (cancelled) without an outcome: gives a half-open trial slot back.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenPermits < halfOpenCalls - halfOpenSuccesses) {
+            halfOpenPermits++;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Failure rate (%) of the current window, or -1 while it has fewer than {@code minimumCalls}.
+     */
+    public synchronized double getFailureRate() {
+        return windowCount < minimumCalls ? -1 : failureRate();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == windowSize) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+    }
+
+    private double failureRate() {
+        return windowCount == 0 ? 0 : windowFailures * 100.0 / windowCount;
+    }
+
+    private void transitionTo(State next) {
+        State previous = state;
+        state = next;
+        switch (next) {
+            case OPEN -> openUntil = clock.getAsLong() + openDurationMs;
+            case HALF_OPEN -> {
+                halfOpenPermits = halfOpenCalls;
+                halfOpenSuccesses = 0;
+            }
+            case CLOSED -> {
+                windowIndex = 0;
+                windowCount = 0;
+                windowFailures = 0;
+            }
+        }
+        if (next == State.OPEN) {
+            log.warn("🔌 [CIRCUITO] {}: {} → OPEN por {}ms", name, previous, openDurationMs);
+        } else {
+            log.info("🔌 [CIRCUITO] {}: {} → {}", name, previous, next);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CompletableFuture helpers.
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Cancelling {@code dependent} (a stage derived from {@code source}, or a future completed
+     * from it) also cancels {@code source}; plain CompletableFuture stages do not do this on
+     * their own, and a cancelled reactive {@code toFuture()} closes the HTTP request.
+     *
+     * @return {@code dependent}, for chaining
+     */
+    public static <T> CompletableFuture<T> propagateCancellation(CompletableFuture<T> dependent,
+                                                                 CompletableFuture<?> source) {
+        dependent.whenComplete((value, error) -> {
+            if (dependent.isCancelled()) {
+                source.cancel(true);
+            }
+        });
+        return dependent;
+    }
+}
@@ -0,0 +1,239 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Hedged requests for product fetches.
+ *
+ * When the primary call has not answered within the recent p{@code percentile} latency of its
+ * backend, a second call is fired (to the other backend or the same one) and the first non-null
+ * answer wins; the other call is cancelled. No hedge is sent before {@code min-samples}
+ * successful calls were observed, while the hedge target's circuit is not letting calls through
+ * or its bulkhead already has a queue (the slowness is our own queueing, a hedge only adds to it).
+ *
+ * Extra load is capped by a token bucket: every primary call earns {@code budget-percent}% of a
+ * hedge, up to {@code max-burst} saved hedges, so hedges stay under that share of the traffic.
+ *
+ * Métricas: {@code scrape.hedges{backend,outcome}} (fired, won, budget_exhausted, skipped) e
+ * {@code scrape.hedge.delay{backend}} (atraso atual em ms, -1 sem amostras suficientes).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class HedgingPolicy {
+
+    private static final int WINDOW_SIZE = 512;
+    // Recalcula o percentil a cada N amostras novas (ordenar 512 longs a cada busca é desperdício)
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${scraper.hedging.enabled:false}")
+    private boolean enabled;
+
+    @Value("${scraper.hedging.percentile:90}")
+    private int percentile;
+
+    @Value("${scraper.hedging.min-samples:50}")
+    private int minSamples;
+
+    @Value("${scraper.hedging.min-delay-ms:50}")
+    private long minDelayMs;
+
+    @Value("${scraper.hedging.budget-percent:5}")
+    private double budgetPercent;
+
+    @Value("${scraper.hedging.max-burst:10}")
+    private int maxBurst;
+
+    private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+    // Saldo de hedges em milésimos (1000 = um hedge)
+    private final AtomicLong budgetMilli = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs {@code primary}, hedging it with {@code hedge} when it is slow.
+     *
+     * @param backend     latency bucket of the primary call
+     * @param hedgeTarget guard of the backend the hedge goes to
+     */
+    public <T> CompletableFuture<T> execute(String backend, Supplier<CompletableFuture<T>> primary,
+                                            Supplier<CompletableFuture<T>> hedge, BackendGuard hedgeTarget) {
+        if (!enabled) {
+            return primary.get();
+        }
+        LatencyWindow window = windows.computeIfAbsent(backend, this::newWindow);
+        long delayNanos = window.hedgeDelayNanos();
+        deposit();
+
+        long start = System.nanoTime();
+        CompletableFuture<T> first = primary.get();
+        first.whenComplete((value, error) -> {
+            if (error == null && value != null) {
+                window.record(System.nanoTime() - start);
+            }
+        });
+        if (delayNanos < 0 || first.isDone()) {
+            return first;
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicReference<CompletableFuture<T>> second = new AtomicReference<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        // Quem vence cancela a outra chamada antes de completar o resultado
+        AtomicBoolean decided = new AtomicBoolean();
+        Futures.propagateCancellation(result, first);
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled() && second.get() != null) {
+                second.get().cancel(true);
+            }
+        });
+
+        first.whenComplete((value, error) -> {
+            if (error == null && value != null) {
+                if (decided.compareAndSet(false, true)) {
+                    if (second.get() != null) {
+                        second.get().cancel(true);
+                    }
+                    result.complete(value);
+                }
+            } else if (pending.decrementAndGet() == 0) {
+                settle(result, value, error);
+            }
+        });
+
+        CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS).execute(() -> {
+            if (decided.get() || result.isDone()) {
+                return;
+            }
+            if (!hedgeTarget.isCallPermitted() || hedgeTarget.getBulkhead().getQueued() > 0) {
+                count(backend, "skipped");
+                return;
+            }
+            if (!withdraw()) {
+                count(backend, "budget_exhausted");
+                return;
+            }
+            pending.incrementAndGet();
+            CompletableFuture<T> hedged = hedge.get();
+            second.set(hedged);
+            count(backend, "fired");
+            log.debug("🏁 [HEDGE] {} sem resposta em {}ms; disparando segunda chamada",
+                backend, TimeUnit.NANOSECONDS.toMillis(delayNanos));
+            hedged.whenComplete((value, error) -> {
+                if (error == null && value != null) {
+                    if (decided.compareAndSet(false, true)) {
+                        first.cancel(true);
+                        count(backend, "won");
+                        result.complete(value);
+                    }
+                } else if (pending.decrementAndGet() == 0) {
+                    settle(result, value, error);
+                }
+            });
+            if (decided.get() && !hedged.isDone()) {
+                hedged.cancel(true); // a primeira respondeu enquanto o hedge saía
+            }
+        });
+        return result;
+    }
+
+    private static <T> void settle(CompletableFuture<T> result, T value, Throwable error) {
+        if (error != null) {
+            result.completeExceptionally(error);
+        } else {
+            result.complete(value);
+        }
+    }
+
+    private void deposit() {
+        long add = Math.round(budgetPercent * 10);
+        long cap = maxBurst * 1000L;
+        budgetMilli.accumulateAndGet(add, (current, delta) -> Math.min(cap, current + delta));
+    }
+
+    private boolean withdraw() {
+        while (true) {
+            long current = budgetMilli.get();
+            if (current < 1000) {
+                return false;
+            }
+            if (budgetMilli.compareAndSet(current, current - 1000)) {
+                return true;
+            }
+        }
+    }
+
+    private void count(String backend, String outcome) {
+        Counter.builder("scrape.hedges").tag("backend", backend).tag("outcome", outcome)
+            .description("Chamadas de hedge (segunda tentativa de busca lenta)")
+            .register(meterRegistry).increment();
+    }
+
+    private LatencyWindow newWindow(String backend) {
+        LatencyWindow window = new LatencyWindow();
+        Gauge.builder("scrape.hedge.delay", window,
+                w -> {
+                    long nanos = w.hedgeDelayNanos();
+                    return nanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(nanos);
+                })
+            .tag("backend", backend)
+            .description("Atraso antes de disparar o hedge (percentil recente da latência)")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        return window;
+    }
+
+    /**
+     * Latencies of the last {@link #WINDOW_SIZE} successful calls of one backend.
+     */
+    final class LatencyWindow {
+
+        private final long[] samples = new long[WINDOW_SIZE];
+        private int next;
+        private int count;
+        private int sinceRecompute;
+        private volatile long cachedDelayNanos = -1;
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % WINDOW_SIZE;
+            count = Math.min(count + 1, WINDOW_SIZE);
+            if (count >= minSamples && (++sinceRecompute >= RECOMPUTE_EVERY || cachedDelayNanos < 0)) {
+                sinceRecompute = 0;
+                long[] sorted = Arrays.copyOf(samples, count);
+                Arrays.sort(sorted);
+                int rank = (int) Math.ceil(percentile / 100.0 * count);
+                long p = sorted[Math.max(rank, 1) - 1];
+                cachedDelayNanos = Math.max(p, TimeUnit.MILLISECONDS.toNanos(minDelayMs));
+            }
+        }
+
+        /**
+         * Hedge delay, or -1 while there are fewer than {@code min-samples} observations.
+         */
+        long hedgeDelayNanos() {
+            return cachedDelayNanos;
+        }
+    }
+}
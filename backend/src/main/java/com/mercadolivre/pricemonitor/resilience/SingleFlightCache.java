@@ -0,0 +1,115 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight with a short-lived result cache.
+ *
+ * Concurrent {@link #get} calls for the same key share one in-flight load; once it completes
+ * with a cacheable value, calls within {@code ttlMs} get that value without loading again.
+ * Failures and non-cacheable values are never kept, so the next call loads afresh.
+ * At most {@code maxEntries} results are kept (expired ones are swept when it fills up;
+ * past that, results are simply not cached).
+ */
+public final class SingleFlightCache<K, V> {
+
+    public enum Outcome {
+        /** Served from the result cache. */
+        HIT,
+        /** Joined a load already in flight. */
+        JOINED,
+        /** Started a new load. */
+        MISS
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final long ttlMs;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Predicate<V> cacheable;
+    private final Consumer<Outcome> onLookup;
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Map<K, Entry<V>> results = new ConcurrentHashMap<>();
+
+    public SingleFlightCache(long ttlMs, int maxEntries, LongSupplier clock, Predicate<V> cacheable,
+                             Consumer<Outcome> onLookup) {
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.cacheable = cacheable;
+        this.onLookup = onLookup;
+    }
+
+    /**
+     * Shared future for the key. Callers must not mutate the value (or cancel the future):
+     * it is handed to every caller of the same flight.
+     */
+    public CompletableFuture<V> get(K key, Supplier<CompletableFuture<V>> loader) {
+        if (ttlMs > 0) {
+            Entry<V> entry = results.get(key);
+            if (entry != null) {
+                if (clock.getAsLong() < entry.expiresAt()) {
+                    onLookup.accept(Outcome.HIT);
+                    return CompletableFuture.completedFuture(entry.value());
+                }
+                results.remove(key, entry);
+            }
+        }
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            onLookup.accept(Outcome.JOINED);
+            return existing;
+        }
+        onLookup.accept(Outcome.MISS);
+
+        CompletableFuture<V> load;
+        try {
+            load = loader.get();
+        } catch (Throwable t) {
+            load = CompletableFuture.failedFuture(t);
+        }
+        load.whenComplete((value, error) -> {
+            // Resultado gravado antes de sair do inFlight: quem chega depois acha um dos dois
+            if (error == null && ttlMs > 0 && cacheable.test(value)) {
+                store(key, value);
+            }
+            inFlight.remove(key, mine);
+            if (error != null) {
+                mine.completeExceptionally(error);
+            } else {
+                mine.complete(value);
+            }
+        });
+        return mine;
+    }
+
+    public int size() {
+        return results.size();
+    }
+
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private void store(K key, V value) {
+        long now = clock.getAsLong();
+        if (results.size() >= maxEntries) {
+            results.values().removeIf(entry -> now >= entry.expiresAt());
+            if (results.size() >= maxEntries) {
+                return;
+            }
+        }
+        results.put(key, new Entry<>(value, now + ttlMs));
+    }
+}
@@ -0,0 +1,192 @@
+package com.mercadolivre.pricemonitor.scheduler;
+
+import com.mercadolivre.pricemonitor.repository.NotificationRepository;
+import com.mercadolivre.pricemonitor.service.NotificationService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retenção da tabela de notificações.
+ *
+ * Remove notificações mais antigas que {@code notifications.retention.max-age-days} e,
+ * por usuário, as que passam de {@code notifications.retention.max-per-user} (a tela só
+ * mostra as 50 mais recentes). A exclusão é feita em lotes pequenos, cada um na sua
+ * própria transação, com uma pausa entre lotes para não disputar I/O e locks com o
+ * ciclo de preços. Roda numa thread própria: as pausas não seguram o pool do
+ * {@code @Scheduled}.
+ *
+ * Métricas: {@code notifications.purged{reason=age|cap}}, {@code notifications.rows}
+ * e {@code notifications.retention.duration}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationRetentionJob {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notifications.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${notifications.retention.max-age-days:90}")
+    private int maxAgeDays;
+
+    @Value("${notifications.retention.max-per-user:200}")
+    private int maxPerUser;
+
+    @Value("${notifications.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notifications.retention.throttle-ms:200}")
+    private long throttleMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "notification-retention");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong tableRows = new AtomicLong(-1);
+
+    private Counter purgedByAge;
+    private Counter purgedByCap;
+    private Timer duration;
+
+    @PostConstruct
+    public void init() {
+        purgedByAge = Counter.builder("notifications.purged").tag("reason", "age")
+            .description("Notificações removidas por idade").register(meterRegistry);
+        purgedByCap = Counter.builder("notifications.purged").tag("reason", "cap")
+            .description("Notificações removidas por excesso por usuário").register(meterRegistry);
+        duration = Timer.builder("notifications.retention.duration")
+            .description("Duração de cada execução da retenção").register(meterRegistry);
+        Gauge.builder("notifications.rows", tableRows, AtomicLong::get)
+            .description("Linhas na tabela notifications (medido a cada execução)")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Runs daily at 03:15 by default (low traffic, away from the :00/:30 price checks).
+     * The batches run on the job's own thread, not on the shared scheduler.
+     */
+    @Scheduled(cron = "${notifications.retention.cron:0 15 3 * * *}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.warn("🧹 [RETENTION] Execução anterior ainda em andamento, pulando");
+            return;
+        }
+        try {
+            worker.execute(this::run);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    void run() {
+        long start = System.nanoTime();
+        try {
+            long byAge = purgeByAge();
+            long byCap = purgeOverUserCap();
+            tableRows.set(notificationRepository.count());
+
+            log.info("🧹 [RETENTION] Concluído: {} por idade (> {} dias), {} por limite ({} por usuário) | {} linhas restantes",
+                byAge, maxAgeDays, byCap, maxPerUser, tableRows.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("🧹 [RETENTION] Interrompido");
+        } catch (Exception e) {
+            log.error("🧹 [RETENTION] ❌ Erro na retenção de notificações: {}", e.getMessage(), e);
+        } finally {
+            duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    long purgeByAge() throws InterruptedException {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(maxAgeDays);
+        long total = 0;
+        while (true) {
+            List<Long> ids = notificationRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            int deleted = deleteBatch(ids);
+            total += deleted;
+            purgedByAge.increment(deleted); // linhas de fato removidas (outro processo pode ter apagado antes)
+            if (ids.size() < batchSize) {
+                break;
+            }
+            Thread.sleep(throttleMs);
+        }
+        if (total > 0) {
+            // Não sabemos de quais usuários eram: força recontagem
+            notificationService.evictAllUnreadCounts();
+        }
+        return total;
+    }
+
+    long purgeOverUserCap() throws InterruptedException {
+        long total = 0;
+        for (Long userId : notificationRepository.findUserIdsWithMoreThan(maxPerUser)) {
+            // ID da notificação logo após as maxPerUser mais recentes: tudo até ela sai
+            List<Long> boundary = notificationRepository.findIdsByUserIdNewestFirst(userId, PageRequest.of(maxPerUser, 1));
+            if (boundary.isEmpty()) {
+                continue;
+            }
+            Long maxIdToDelete = boundary.get(0);
+
+            while (true) {
+                List<Long> ids = notificationRepository.findIdsByUserIdUpTo(userId, maxIdToDelete, PageRequest.of(0, batchSize));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                int deleted = deleteBatch(ids);
+                total += deleted;
+                purgedByCap.increment(deleted); // linhas de fato removidas (outro processo pode ter apagado antes)
+                if (ids.size() < batchSize) {
+                    break;
+                }
+                Thread.sleep(throttleMs);
+            }
+            notificationService.evictUnreadCount(userId);
+            Thread.sleep(throttleMs);
+        }
+        return total;
+    }
+
+    private int deleteBatch(List<Long> ids) {
+        Integer deleted = transactionTemplate.execute(status -> notificationRepository.deleteByIdIn(ids));
+        return deleted != null ? deleted : 0;
+    }
+}
@@ -1,7 +1,8 @@
 package com.mercadolivre.pricemonitor.scheduler;
 
-import com.mercadolivre.pricemonitor.service.AsyncProductUpdateService;
-import com.mercadolivre.pricemonitor.service.ScraperService;
+import com.mercadolivre.pricemonitor.service.PriceCycleCoordinator;
+import com.mercadolivre.pricemonitor.service.PriceCycleCoordinator.Outcome;
+import com.mercadolivre.pricemonitor.service.PriceCycleCoordinator.Trigger;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -12,22 +13,21 @@ import java.time.format.DateTimeFormatter;
 
 /**
  * Scheduled task for periodic price checking.
- * Triggers the asynchronous update service in a non-blocking manner.
+ * Hands the cycle to {@link PriceCycleCoordinator}, which never lets two full cycles overlap.
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class PriceCheckScheduler {
 
-    private final AsyncProductUpdateService asyncProductUpdateService;
-    private final ScraperService scraperService;
+    private final PriceCycleCoordinator priceCycleCoordinator;
 
     private static final DateTimeFormatter TIMESTAMP_FORMAT =
         DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     /**
      * Scheduled task that runs every 30 minutes.
-     * This implementation is fully non-blocking.
+     * Skipped when the previous cycle is still running.
      */
     @Scheduled(cron = "0 0/30 * * * *")
     public void checkPrices() {
@@ -36,26 +36,15 @@ public class PriceCheckScheduler {
         log.info("🕐 Triggering ASYNC Price Check Job at {}", startTime);
         log.info("========================================");
 
-        scraperService.isScraperAvailable().thenAcceptAsync(isAvailable -> {
-            if (isAvailable) {
-                log.info("✅ Scraper is available. Triggering async price update process.");
-                asyncProductUpdateService.updateAllProductsAsync();
-            } else {
-                log.error("❌ Scraper API is not available. Skipping price update trigger.");
-            }
-        }).exceptionally(ex -> {
-            log.error("Failed to check scraper availability: {}", ex.getMessage());
-            return null;
-        });
-
-        log.info("Scheduler has finished its work for this cycle and released the thread.");
+        Outcome outcome = priceCycleCoordinator.requestFullCycle(Trigger.SCHEDULED);
+        log.info("Scheduler has finished its work for this cycle and released the thread ({}).", outcome);
     }
 
     /**
-     * Manual trigger for the price check.
+     * Manual trigger for the price check; merged with a cycle already in flight.
      */
-    public void triggerManualCheck() {
+    public Outcome triggerManualCheck() {
         log.info("Manual async price check triggered");
-        checkPrices();
+        return priceCycleCoordinator.requestFullCycle(Trigger.MANUAL);
     }
 }
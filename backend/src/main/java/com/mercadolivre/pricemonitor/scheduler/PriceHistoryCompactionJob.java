@@ -0,0 +1,210 @@
+package com.mercadolivre.pricemonitor.scheduler;
+
+import com.mercadolivre.pricemonitor.dto.PricePoint;
+import com.mercadolivre.pricemonitor.model.PriceHistoryBlock;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryBlockRepository;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
+import com.mercadolivre.pricemonitor.service.PriceHistoryCodec;
+import com.mercadolivre.pricemonitor.service.ProductService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Compactação do histórico de preços frio.
+ *
+ * Linhas de {@code price_history} de meses inteiros mais antigos que
+ * {@code price-history.compaction.hot-days} viram um {@link PriceHistoryBlock} por produto
+ * e mês (~4 bytes por observação em vez de uma linha com FK e índices). Cada produto/mês é
+ * gravado e tem suas linhas apagadas na mesma transação; se o mês já tiver bloco (linhas
+ * atrasadas), as observações são mescladas nele. A janela quente nunca é menor que
+ * {@link ProductService#MAX_ANALYTICS_DAYS}, então as consultas de analytics continuam
+ * vendo tudo o que precisam sem ler blocos. Roda numa thread própria: as pausas entre
+ * produtos não seguram o pool do {@code @Scheduled}.
+ *
+ * Métricas: {@code price_history.compacted.rows}, {@code price_history.compacted.blocks}
+ * e {@code price_history.compaction.duration}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PriceHistoryCompactionJob {
+
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryBlockRepository blockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${price-history.compaction.enabled:true}")
+    private boolean enabled;
+
+    @Value("${price-history.compaction.hot-days:180}")
+    private int hotDays;
+
+    @Value("${price-history.compaction.product-batch-size:200}")
+    private int productBatchSize;
+
+    @Value("${price-history.compaction.throttle-ms:50}")
+    private long throttleMs;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "price-history-compaction");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter compactedRows;
+    private Counter writtenBlocks;
+    private Timer duration;
+
+    @PostConstruct
+    public void init() {
+        compactedRows = Counter.builder("price_history.compacted.rows")
+            .description("Linhas de histórico movidas para blocos compactados").register(meterRegistry);
+        writtenBlocks = Counter.builder("price_history.compacted.blocks")
+            .description("Blocos de histórico criados ou mesclados").register(meterRegistry);
+        duration = Timer.builder("price_history.compaction.duration")
+            .description("Duração de cada execução da compactação").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Runs daily at 03:45 by default, after the notification retention. The batches (and
+     * the pauses between them) run on the job's own thread, not on the shared scheduler.
+     */
+    @Scheduled(cron = "${price-history.compaction.cron:0 45 3 * * *}")
+    public void compact() {
+        if (!enabled) {
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.warn("🗜️ [COMPACTION] Execução anterior ainda em andamento, pulando");
+            return;
+        }
+        try {
+            worker.execute(this::run);
+        } catch (RejectedExecutionException e) {
+            running.set(false);
+        }
+    }
+
+    void run() {
+        long start = System.nanoTime();
+        try {
+            LocalDateTime cutoff = cutoff(LocalDate.now());
+            long rows = compactBefore(cutoff);
+            log.info("🗜️ [COMPACTION] Concluído: {} linhas anteriores a {} compactadas", rows, cutoff);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("🗜️ [COMPACTION] Interrompido");
+        } catch (Exception e) {
+            log.error("🗜️ [COMPACTION] ❌ Erro na compactação do histórico: {}", e.getMessage(), e);
+        } finally {
+            duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            running.set(false);
+        }
+    }
+
+    /**
+     * Start of the month that contains {@code today - hotDays}: only whole months are compacted.
+     */
+    LocalDateTime cutoff(LocalDate today) {
+        int days = Math.max(hotDays, ProductService.MAX_ANALYTICS_DAYS);
+        return today.minusDays(days).withDayOfMonth(1).atStartOfDay();
+    }
+
+    long compactBefore(LocalDateTime cutoff) throws InterruptedException {
+        long total = 0;
+        long afterProductId = 0L;
+        while (true) {
+            List<Long> productIds = priceHistoryRepository.findProductIdsWithHistoryBefore(
+                cutoff, afterProductId, PageRequest.of(0, productBatchSize));
+            for (Long productId : productIds) {
+                try {
+                    total += compactProduct(productId, cutoff);
+                } catch (RuntimeException e) {
+                    // Fica para a próxima execução; não trava os demais produtos
+                    log.error("🗜️ [COMPACTION] ❌ Produto {}: {}", productId, e.getMessage(), e);
+                }
+                Thread.sleep(throttleMs);
+            }
+            if (productIds.size() < productBatchSize) {
+                break;
+            }
+            afterProductId = productIds.get(productIds.size() - 1);
+        }
+        return total;
+    }
+
+    long compactProduct(Long productId, LocalDateTime cutoff) {
+        Map<YearMonth, List<PricePoint>> byMonth = new TreeMap<>();
+        for (PricePoint point : priceHistoryRepository.findPointsBefore(productId, cutoff)) {
+            byMonth.computeIfAbsent(YearMonth.from(point.recordedAt()), m -> new ArrayList<>()).add(point);
+        }
+
+        long total = 0;
+        for (Map.Entry<YearMonth, List<PricePoint>> month : byMonth.entrySet()) {
+            Integer rows = transactionTemplate.execute(status -> writeBlock(productId, month.getKey(), month.getValue()));
+            total += rows != null ? rows : 0;
+        }
+        return total;
+    }
+
+    private int writeBlock(Long productId, YearMonth month, List<PricePoint> rows) {
+        LocalDate monthStart = month.atDay(1);
+        PriceHistoryBlock block = blockRepository.findByProductIdAndMonthStart(productId, monthStart)
+            .orElseGet(PriceHistoryBlock::new);
+
+        List<PricePoint> samples = new ArrayList<>(rows);
+        if (block.getData() != null) {
+            samples.addAll(PriceHistoryCodec.decode(block.getData()));
+        }
+        samples.sort(Comparator.comparing(PricePoint::recordedAt));
+
+        block.setProductId(productId);
+        block.setMonthStart(monthStart);
+        block.setFirstRecordedAt(samples.get(0).recordedAt());
+        block.setLastRecordedAt(samples.get(samples.size() - 1).recordedAt());
+        block.setSampleCount(samples.size());
+        block.setMinPriceCents(samples.stream().mapToLong(PricePoint::priceCents).min().orElse(0));
+        block.setMaxPriceCents(samples.stream().mapToLong(PricePoint::priceCents).max().orElse(0));
+        block.setData(PriceHistoryCodec.encode(samples));
+        block.setCompactedAt(LocalDateTime.now());
+        blockRepository.save(block);
+
+        int deleted = priceHistoryRepository.deleteByIds(rows.stream().map(PricePoint::id).toList());
+        compactedRows.increment(deleted);
+        writtenBlocks.increment();
+        log.debug("🗜️ [COMPACTION] Produto {} {}: {} linhas -> bloco de {} bytes ({} amostras)",
+            productId, month, rows.size(), block.getData().length, samples.size());
+        return deleted;
+    }
+}
@@ -0,0 +1,72 @@
+package com.mercadolivre.pricemonitor.scheduler;
+
+import com.mercadolivre.pricemonitor.service.ProductStateStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Snapshot do estado de produtos em memória.
+ *
+ * Grava o {@link ProductStateStore} em disco a cada {@code products.state-store.snapshot.interval-ms}
+ * e uma última vez no desligamento, para a próxima subida restaurar o estado em milissegundos
+ * e só buscar no banco o que mudou desde então.
+ *
+ * Métrica: {@code products.state.snapshot.duration}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductStateSnapshotJob {
+
+    private final ProductStateStore productStateStore;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private Timer duration;
+
+    @PostConstruct
+    public void init() {
+        duration = Timer.builder("products.state.snapshot.duration")
+            .description("Duração da gravação do snapshot de estado").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${products.state-store.snapshot.interval-ms:300000}",
+               initialDelayString = "${products.state-store.snapshot.interval-ms:300000}")
+    public void save() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            if (productStateStore.saveSnapshot()) {
+                long elapsed = System.nanoTime() - start;
+                duration.record(elapsed, TimeUnit.NANOSECONDS);
+                log.debug("💾 [SNAPSHOT] Estado de {} produtos gravado em {}ms",
+                    productStateStore.size(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        } catch (Exception e) {
+            log.error("💾 [SNAPSHOT] ❌ Erro ao gravar snapshot de estado: {}", e.getMessage(), e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Última gravação antes de desligar: a próxima subida quase não precisa do banco.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void onShutdown() {
+        save();
+    }
+}
@@ -14,14 +14,22 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 @Slf4j
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String SSE_STREAM_PATH = "/api/notifications/stream";
+    // Depois do DELETE /api/users/me o token é revogado; só o progresso da exclusão continua acessível
+    private static final String DELETION_STATUS_PATH = "/api/users/me/deletion";
+
     @Autowired
     private JwtTokenProvider tokenProvider;
 
+    @Autowired
+    private StreamTicketService streamTicketService;
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -30,18 +38,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String token = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(token) && tokenProvider.validateToken(token)) {
-                Long userId = tokenProvider.getUserIdFromToken(token);
-                String email = tokenProvider.getEmailFromToken(token);
-
+            Optional<JwtPrincipal> authenticated = Optional.empty();
+            if (StringUtils.hasText(token)) {
+                // Um único parse/verificação por request (ou nenhum, se o token já está em cache)
+                boolean deletionStatus = "GET".equals(request.getMethod())
+                        && DELETION_STATUS_PATH.equals(request.getRequestURI());
+                authenticated = tokenProvider.authenticate(token, deletionStatus);
+            } else if ("GET".equals(request.getMethod()) && SSE_STREAM_PATH.equals(request.getRequestURI())) {
+                // EventSource (SSE) não permite headers: só aceita um ticket de uso único na query, nunca o JWT
+                authenticated = streamTicketService.redeem(request.getParameter("ticket"))
+                        .filter(principal -> !tokenProvider.isRevoked(principal.userId()));
+            }
+            authenticated.ifPresent(principal -> {
                 // Criar autenticação com uma lista de authorities vazia em vez de null
                 UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userId, null, Collections.emptyList());
-                authentication.setDetails(email);
+                        new UsernamePasswordAuthenticationToken(principal.userId(), null, Collections.emptyList());
+                authentication.setDetails(principal.email());
 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.debug("✅ Usuário autenticado: userId={}, email={}", userId, email);
-            }
+                log.debug("✅ Usuário autenticado: userId={}, email={}", principal.userId(), principal.email());
+            });
         } catch (Exception ex) {
             log.error("❌ Erro ao processar token JWT: {}", ex.getMessage());
         }
@@ -0,0 +1,15 @@
+package com.mercadolivre.pricemonitor.security;
+
+/**
+ * Dados extraídos de um JWT já verificado.
+ *
+ * @param userId        subject do token
+ * @param email         claim "email"
+ * @param expiresAtMillis expiração do token (epoch ms)
+ */
+public record JwtPrincipal(Long userId, String email, long expiresAtMillis) {
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -1,8 +1,11 @@
 package com.mercadolivre.pricemonitor.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -10,67 +13,123 @@ import org.springframework.stereotype.Component;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
 public class JwtTokenProvider {
-    
+
     @Value("${jwt.secret:meu-super-secreto-jwt-key-que-deve-ser-muito-longo-para-seguranca}")
     private String jwtSecret;
-    
+
     @Value("${jwt.expiration:86400000}") // 24 horas em ms
     private long jwtExpirationMs;
-    
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+
+    @Value("${jwt.cache.max-size:10000}") // 0 desliga o cache de tokens verificados
+    private int cacheMaxSize;
+
+    // Chave e parser são imutáveis e thread-safe: montados uma única vez
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+    private VerifiedTokenCache verifiedTokens;
+
+    // Contas excluídas: tokens ainda dentro da validade deixam de autenticar
+    private final Set<Long> revokedUserIds = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.jwtParser = Jwts.parser().verifyWith(signingKey).build();
+        this.verifiedTokens = new VerifiedTokenCache(cacheMaxSize);
     }
-    
+
     public String generateToken(Long userId, String email) {
         log.debug("🔑 Gerando token JWT para userId: {}, email: {}", userId, email);
-        
+
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
-        
+
         String token = Jwts.builder()
                 .subject(userId.toString())
                 .claim("email", email)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey(), Jwts.SIG.HS512)
+                .signWith(signingKey, Jwts.SIG.HS512)
                 .compact();
-        
+
         log.debug("✅ Token JWT gerado com sucesso");
         return token;
     }
-    
+
+    /**
+     * Verifica o token (assinatura + expiração) uma única vez e devolve o principal.
+     * Tokens já verificados vêm do cache até expirarem.
+     */
+    public Optional<JwtPrincipal> authenticate(String token) {
+        return authenticate(token, false);
+    }
+
+    /**
+     * Como {@link #authenticate(String)}; com {@code allowRevoked} o token de uma conta excluída
+     * também vale (só para acompanhar a própria exclusão), sem entrar no cache.
+     */
+    public Optional<JwtPrincipal> authenticate(String token, boolean allowRevoked) {
+        long now = System.currentTimeMillis();
+        JwtPrincipal cached = verifiedTokens.get(token, now);
+        if (cached != null) {
+            return revokedUserIds.contains(cached.userId()) && !allowRevoked ? Optional.empty() : Optional.of(cached);
+        }
+
+        try {
+            Claims claims = parseClaims(token);
+            Date expiration = claims.getExpiration();
+            JwtPrincipal principal = new JwtPrincipal(
+                Long.valueOf(claims.getSubject()),
+                claims.get("email", String.class),
+                expiration != null ? expiration.getTime() : Long.MAX_VALUE
+            );
+            if (revokedUserIds.contains(principal.userId())) {
+                if (allowRevoked) {
+                    return Optional.of(principal);
+                }
+                log.debug("🚫 Token de conta excluída recusado: userId={}", principal.userId());
+                return Optional.empty();
+            }
+            verifiedTokens.put(token, principal, now);
+            return Optional.of(principal);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.error("❌ Erro ao validar JWT: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Recusa daqui em diante todo token do usuário (conta excluída) e tira os já verificados do cache.
+     */
+    public void revokeUser(Long userId) {
+        revokedUserIds.add(userId);
+        verifiedTokens.removeUser(userId);
+    }
+
+    public boolean isRevoked(Long userId) {
+        return revokedUserIds.contains(userId);
+    }
+
     public Long getUserIdFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return Long.valueOf(claims.getSubject());
+        return Long.valueOf(parseClaims(token).getSubject());
     }
-    
+
     public String getEmailFromToken(String token) {
-        Claims claims = getAllClaimsFromToken(token);
-        return (String) claims.get("email");
+        return parseClaims(token).get("email", String.class);
     }
-    
+
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            log.error("❌ Erro ao validar JWT: {}", e.getMessage());
-            return false;
-        }
+        return authenticate(token).isPresent();
     }
-    
-    private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+
+    private Claims parseClaims(String token) {
+        return jwtParser.parseSignedClaims(token).getPayload();
     }
 }
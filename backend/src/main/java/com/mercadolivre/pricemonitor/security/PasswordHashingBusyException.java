@@ -0,0 +1,12 @@
+package com.mercadolivre.pricemonitor.security;
+
+/**
+ * O pool de hashing de senha está saturado (fila cheia ou espera acima do limite).
+ * Os controllers devolvem 503 com {@code Retry-After}.
+ */
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,160 @@
+package com.mercadolivre.pricemonitor.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executa encode/matches do bcrypt em um pool próprio e limitado.
+ *
+ * O bcrypt é CPU-bound de propósito: rodando direto nas threads do Tomcat, um pico de
+ * logins ocupa todos os núcleos e derruba o resto da API. Aqui no máximo
+ * {@code security.password.hash-threads} hashes rodam ao mesmo tempo; o excedente espera
+ * numa fila de {@code queue-capacity} posições por até {@code max-queue-wait-ms}. Fila
+ * cheia, espera estourada ou resposta além de {@code max-queue-wait-ms + hash-budget-ms}
+ * viram {@link PasswordHashingBusyException} (503).
+ *
+ * Métricas: {@code auth.password.hash{op}}, {@code auth.password.queue.wait},
+ * {@code auth.password.rejected} e {@code auth.password.queue.size}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${security.password.hash-threads:0}") // 0 = número de núcleos
+    private int hashThreads;
+
+    @Value("${security.password.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${security.password.max-queue-wait-ms:2000}")
+    private long maxQueueWaitMs;
+
+    @Value("${security.password.hash-budget-ms:1000}") // tempo máximo de um hash depois de sair da fila
+    private long hashBudgetMs;
+
+    private ThreadPoolExecutor executor;
+    private Timer matchesTimer;
+    private Timer encodeTimer;
+    private Timer queueWait;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+
+        matchesTimer = Timer.builder("auth.password.hash").tag("op", "matches")
+            .description("Tempo de CPU do bcrypt por operação").register(meterRegistry);
+        encodeTimer = Timer.builder("auth.password.hash").tag("op", "encode")
+            .description("Tempo de CPU do bcrypt por operação").register(meterRegistry);
+        queueWait = Timer.builder("auth.password.queue.wait")
+            .description("Espera na fila do pool de hashing").register(meterRegistry);
+        rejected = Counter.builder("auth.password.rejected")
+            .description("Operações recusadas por pool saturado").register(meterRegistry);
+        Gauge.builder("auth.password.queue.size", executor, e -> e.getQueue().size())
+            .register(meterRegistry);
+
+        log.info("🔐 Pool de hashing de senha: {} threads, fila {}, espera máx {}ms", threads, queueCapacity, maxQueueWaitMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        return submit(matchesTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) {
+        return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * true quando o hash foi gerado com outro algoritmo, com custo menor que o configurado
+     * (ou não tem prefixo {@code {id}}) e deve ser regravado. Baixar o custo não regrava nada:
+     * o {@code BCryptPasswordEncoder} só pede atualização quando o custo armazenado é menor. Não faz hashing, então roda na thread chamadora.
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        return encodedPassword != null && passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Timer timer, Callable<T> work) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long waitedNanos = System.nanoTime() - enqueuedAt;
+                queueWait.record(waitedNanos, TimeUnit.NANOSECONDS);
+                if (TimeUnit.NANOSECONDS.toMillis(waitedNanos) > maxQueueWaitMs) {
+                    // O cliente provavelmente já desistiu: não gasta CPU à toa
+                    throw new PasswordHashingBusyException("Tempo de espera na fila de hashing excedido");
+                }
+                return timer.recordCallable(work);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("⚠️ Pool de hashing de senha cheio ({} na fila)", executor.getQueue().size());
+            throw new PasswordHashingBusyException("Pool de hashing de senha cheio");
+        }
+
+        try {
+            return future.get(maxQueueWaitMs + hashBudgetMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Não segura a thread do Tomcat indefinidamente se o hash travar ou o pool estiver lento
+            future.cancel(true);
+            rejected.increment();
+            log.warn("⚠️ Hashing de senha sem resposta após {}ms", maxQueueWaitMs + hashBudgetMs);
+            throw new PasswordHashingBusyException("Tempo de hashing de senha excedido");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new PasswordHashingBusyException("Hashing de senha interrompido");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof PasswordHashingBusyException busy) {
+                rejected.increment();
+                log.warn("⚠️ Hashing de senha descartado após {}ms na fila", maxQueueWaitMs);
+                throw busy;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Falha no hashing de senha", cause);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.mercadolivre.pricemonitor.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tickets de uso único para abrir o stream SSE.
+ *
+ * O EventSource não envia headers, então a credencial precisa ir na URL, onde acaba em
+ * logs de acesso, histórico e proxies. Em vez do JWT (válido por dias), o cliente troca o
+ * token por um ticket aleatório num POST autenticado e usa só o ticket na query. O ticket
+ * vale por {@code sse.ticket-ttl-ms} e é consumido na primeira conexão.
+ */
+@Slf4j
+@Component
+public class StreamTicketService {
+
+    // Acima disso, cada emissão varre e descarta os tickets vencidos
+    private static final int PRUNE_THRESHOLD = 256;
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, JwtPrincipal> tickets = new ConcurrentHashMap<>();
+
+    @Value("${sse.ticket-ttl-ms:60000}")
+    private long ticketTtlMs = 60_000;
+
+    public String issue(Long userId, String email) {
+        long now = System.currentTimeMillis();
+        if (tickets.size() > PRUNE_THRESHOLD) {
+            tickets.values().removeIf(principal -> principal.isExpired(now));
+        }
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        // A expiração do principal é a do ticket
+        tickets.put(value, new JwtPrincipal(userId, email, now + ticketTtlMs));
+        return value;
+    }
+
+    /**
+     * Consome o ticket: devolve o principal de quem o emitiu uma única vez, se ainda não venceu.
+     */
+    public Optional<JwtPrincipal> redeem(String value) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        JwtPrincipal principal = tickets.remove(value);
+        if (principal == null || principal.isExpired(System.currentTimeMillis())) {
+            log.debug("🚫 Ticket de stream inválido, já usado ou vencido");
+            return Optional.empty();
+        }
+        return Optional.of(principal);
+    }
+
+    public long getTicketTtlMs() {
+        return ticketTtlMs;
+    }
+}
@@ -0,0 +1,67 @@
+package com.mercadolivre.pricemonitor.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache limitado de tokens já verificados → principal.
+ *
+ * Evita refazer parse + HMAC a cada request do mesmo usuário. Cada entrada expira junto
+ * com o token; ao atingir {@code maxSize} as entradas vencidas são removidas e, se ainda
+ * estiver cheio, uma fração arbitrária é descartada (é só cache: o pior caso é verificar
+ * o token de novo). {@code maxSize <= 0} desliga o cache.
+ */
+class VerifiedTokenCache {
+
+    private final int maxSize;
+    private final Map<String, JwtPrincipal> entries;
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>(Math.max(16, maxSize));
+    }
+
+    JwtPrincipal get(String token, long nowMillis) {
+        if (maxSize <= 0) {
+            return null;
+        }
+        JwtPrincipal principal = entries.get(token);
+        if (principal == null) {
+            return null;
+        }
+        if (principal.isExpired(nowMillis)) {
+            entries.remove(token, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    void put(String token, JwtPrincipal principal, long nowMillis) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(nowMillis);
+        }
+        entries.put(token, principal);
+    }
+
+    void removeUser(Long userId) {
+        entries.values().removeIf(principal -> principal.userId().equals(userId));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long nowMillis) {
+        entries.values().removeIf(principal -> principal.isExpired(nowMillis));
+        int toDrop = entries.size() - (maxSize - Math.max(1, maxSize / 10));
+        Iterator<String> keys = entries.keySet().iterator();
+        while (toDrop-- > 0 && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
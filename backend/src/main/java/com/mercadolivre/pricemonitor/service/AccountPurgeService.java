@@ -0,0 +1,330 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.AccountPurgeJob;
+import com.mercadolivre.pricemonitor.model.User;
+import com.mercadolivre.pricemonitor.repository.AccountPurgeJobRepository;
+import com.mercadolivre.pricemonitor.repository.MercadoLivreTokenRepository;
+import com.mercadolivre.pricemonitor.repository.NotificationRepository;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryBlockRepository;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import com.mercadolivre.pricemonitor.repository.UserRepository;
+import com.mercadolivre.pricemonitor.security.JwtTokenProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Exclusão de conta em segundo plano.
+ *
+ * {@link #requestDeletion} só anonimiza o usuário e tira os produtos do ciclo de preços
+ * (uma transação curta); depois do commit os tokens JWT do usuário param de autenticar e
+ * importações dele em andamento são canceladas, para nada recriar linhas já apagadas. O resto roda numa thread dedicada, fase a fase
+ * (histórico → notificações → tokens → produtos → usuário), em lotes de
+ * {@code account-purge.batch-size} linhas, cada lote commitado separadamente e com uma
+ * pausa de {@code account-purge.throttle-ms} entre eles. Assim nenhum lock fica preso por
+ * mais que um lote e o ciclo de preços continua escrevendo nas mesmas tabelas.
+ *
+ * O progresso fica em {@link AccountPurgeJob}; jobs interrompidos (restart, erro) são
+ * retomados pela fase em que pararam.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AccountPurgeService {
+
+    public static final String PRODUCT_STATUS_DELETING = "DELETING";
+
+    private static final Set<AccountPurgeJob.Status> OPEN_STATUSES =
+        EnumSet.of(AccountPurgeJob.Status.PENDING, AccountPurgeJob.Status.RUNNING);
+
+    private final UserRepository userRepository;
+    private final ProductRepository productRepository;
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryBlockRepository priceHistoryBlockRepository;
+    private final NotificationRepository notificationRepository;
+    private final MercadoLivreTokenRepository tokenRepository;
+    private final AccountPurgeJobRepository jobRepository;
+    private final NotificationService notificationService;
+    private final ProductQueryService productQueryService;
+    private final ProductStateStore productStateStore;
+    private final ProductImportService productImportService;
+    private final JwtTokenProvider tokenProvider;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${account-purge.batch-size:500}")
+    private int batchSize;
+
+    @Value("${account-purge.throttle-ms:100}")
+    private long throttleMs;
+
+    @Value("${account-purge.max-attempts:5}")
+    private int maxAttempts;
+
+    private final Set<Long> queuedJobs = ConcurrentHashMap.newKeySet();
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Timer duration;
+
+    @PostConstruct
+    public void init() {
+        duration = Timer.builder("account.purge.duration")
+            .description("Duração da remoção de dados de uma conta").register(meterRegistry);
+        Gauge.builder("account.purge.queued", queuedJobs, Set::size)
+            .description("Exclusões de conta na fila").register(meterRegistry);
+        jobRepository.findAllUserIds().forEach(tokenProvider::revokeUser);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    /**
+     * Anonimiza a conta e agenda a remoção dos dados. Retorna na hora.
+     */
+    @Transactional
+    public AccountPurgeJob requestDeletion(Long userId) {
+        User user = userRepository.findById(userId)
+            .filter(u -> u.getDeletedAt() == null)
+            .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
+
+        // Tombstone: libera o email, bloqueia login e apaga dados pessoais imediatamente
+        user.setDeletedAt(LocalDateTime.now());
+        user.setEmail("deleted-" + userId + "@deleted.invalid");
+        user.setFullName("Conta excluída");
+        user.setPassword("!");
+        user.setVerificationToken(null);
+        user.setResetPasswordToken(null);
+        user.setTelegramChatId(null);
+        user.setTelegramEnabled(false);
+        user.setTelegramLinkCode(null);
+        userRepository.save(user);
+
+        // Um UPDATE só: o ciclo de preços deixa de buscar esses produtos
+        int products = productRepository.updateStatusByUserId(userId, PRODUCT_STATUS_DELETING, LocalDateTime.now());
+        productQueryService.evict(userId);
+
+        AccountPurgeJob job = new AccountPurgeJob();
+        job.setUserId(userId);
+        AccountPurgeJob saved = jobRepository.save(job);
+
+        log.info("🗑️ Conta {} anonimizada, {} produtos marcados para exclusão (job {})", userId, products, saved.getId());
+        afterCommit(() -> {
+            tokenProvider.revokeUser(userId);
+            productImportService.cancelForUser(userId);
+            schedule(saved.getId());
+        });
+        return saved;
+    }
+
+    public Optional<AccountPurgeJob> findLatestJob(Long userId) {
+        return jobRepository.findTopByUserIdOrderByIdDesc(userId);
+    }
+
+    /**
+     * Retoma jobs pendentes (restart no meio de uma exclusão ou falha anterior).
+     */
+    @Scheduled(fixedDelayString = "${account-purge.resume-interval-ms:300000}", initialDelay = 60000)
+    public void resumePending() {
+        for (AccountPurgeJob job : jobRepository.findByStatusInOrderByIdAsc(OPEN_STATUSES)) {
+            schedule(job.getId());
+        }
+    }
+
+    private void schedule(Long jobId) {
+        if (queuedJobs.add(jobId)) {
+            worker.execute(() -> {
+                try {
+                    runJob(jobId);
+                } finally {
+                    queuedJobs.remove(jobId);
+                }
+            });
+        }
+    }
+
+    void runJob(Long jobId) {
+        AccountPurgeJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || !OPEN_STATUSES.contains(job.getStatus())) {
+            return;
+        }
+
+        Long userId = job.getUserId();
+        long start = System.nanoTime();
+        job.setStatus(AccountPurgeJob.Status.RUNNING);
+        job = jobRepository.save(job);
+        log.info("🗑️ [PURGE] Job {} (usuário {}) iniciando na fase {}", jobId, userId, job.getPhase());
+
+        try {
+            AccountPurgeJob.Phase[] phases = AccountPurgeJob.Phase.values();
+            for (int i = job.getPhase().ordinal(); i < phases.length; i++) {
+                job.setPhase(phases[i]);
+                job = jobRepository.save(job);
+                job = runPhase(job);
+            }
+
+            job.setStatus(AccountPurgeJob.Status.DONE);
+            job.setFinishedAt(LocalDateTime.now());
+            job.setLastError(null);
+            jobRepository.save(job);
+            notificationService.evictUnreadCount(userId);
+            productQueryService.evict(userId);
+
+            log.info("✅ [PURGE] Conta {} removida: {} históricos, {} notificações, {} tokens, {} produtos",
+                userId, job.getHistoryDeleted(), job.getNotificationsDeleted(), job.getTokensDeleted(), job.getProductsDeleted());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.setStatus(AccountPurgeJob.Status.PENDING);
+            jobRepository.save(job);
+            log.warn("🗑️ [PURGE] Job {} interrompido na fase {}, será retomado", jobId, job.getPhase());
+        } catch (Exception e) {
+            job.setAttempts(job.getAttempts() + 1);
+            job.setLastError(truncate(e.getMessage()));
+            job.setStatus(job.getAttempts() >= maxAttempts ? AccountPurgeJob.Status.FAILED : AccountPurgeJob.Status.PENDING);
+            jobRepository.save(job);
+            log.error("❌ [PURGE] Job {} falhou na fase {} (tentativa {}/{}): {}",
+                jobId, job.getPhase(), job.getAttempts(), maxAttempts, e.getMessage(), e);
+        } finally {
+            duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private AccountPurgeJob runPhase(AccountPurgeJob job) throws InterruptedException {
+        Long userId = job.getUserId();
+        switch (job.getPhase()) {
+            case HISTORY -> {
+                long n = deleteInBatches("price_history",
+                    () -> priceHistoryRepository.findIdsByProductUserId(userId, PageRequest.of(0, batchSize)),
+                    priceHistoryRepository::deleteByIds,
+                    progress(job, job::getHistoryDeleted, job::setHistoryDeleted));
+                long blocks = deleteInBatches("price_history_blocks",
+                    () -> priceHistoryBlockRepository.findIdsByProductUserId(userId, PageRequest.of(0, batchSize)),
+                    priceHistoryBlockRepository::deleteByIdIn,
+                    b -> { });
+                log.info("🗑️ [PURGE] Usuário {}: {} registros e {} blocos de histórico removidos", userId, n, blocks);
+            }
+            case NOTIFICATIONS -> purgeNotifications(job);
+            case TOKENS -> {
+                Integer n = transactionTemplate.execute(status -> tokenRepository.deleteByUserId(userId));
+                job.setTokensDeleted(job.getTokensDeleted() + (n != null ? n : 0));
+                rows("ml_tokens").increment(n != null ? n : 0);
+            }
+            case PRODUCTS -> deleteInBatches("products",
+                () -> productRepository.findIdsByUserId(userId, PageRequest.of(0, batchSize)),
+                ids -> {
+                    // Histórico gravado por um ciclo que já estava em andamento quando a conta foi excluída
+                    priceHistoryRepository.deleteByProductIdIn(ids);
+                    priceHistoryBlockRepository.deleteByProductIdIn(ids);
+                    productStateStore.removeAfterCommit(ids);
+                    return productRepository.deleteByIdIn(ids);
+                },
+                progress(job, job::getProductsDeleted, job::setProductsDeleted));
+            case USER -> {
+                // Notificações criadas depois da fase NOTIFICATIONS (mesmo motivo do histórico acima)
+                purgeNotifications(job);
+                transactionTemplate.execute(status -> {
+                    userRepository.deleteById(userId);
+                    return null;
+                });
+            }
+        }
+        return jobRepository.save(job);
+    }
+
+    private void purgeNotifications(AccountPurgeJob job) throws InterruptedException {
+        Long userId = job.getUserId();
+        deleteInBatches("notifications",
+            () -> notificationRepository.findIdsByUserIdUpTo(userId, Long.MAX_VALUE, PageRequest.of(0, batchSize)),
+            notificationRepository::deleteByIdIn,
+            progress(job, job::getNotificationsDeleted, job::setNotificationsDeleted));
+    }
+
+    /**
+     * Apaga lote a lote, cada um na sua transação, até a consulta voltar vazia.
+     */
+    private long deleteInBatches(String table, Supplier<List<Long>> nextBatch,
+                                 Function<List<Long>, Integer> delete, LongConsumer onBatch) throws InterruptedException {
+        Counter counter = rows(table);
+        long total = 0;
+        while (true) {
+            List<Long> ids = nextBatch.get();
+            if (ids.isEmpty()) {
+                return total;
+            }
+            Integer deleted = transactionTemplate.execute(status -> delete.apply(ids));
+            int n = deleted != null ? deleted : 0;
+            total += n;
+            counter.increment(n);
+            onBatch.accept(n);
+            if (ids.size() < batchSize) {
+                return total;
+            }
+            Thread.sleep(throttleMs);
+        }
+    }
+
+    private LongConsumer progress(AccountPurgeJob job, Supplier<Long> getter, Consumer<Long> setter) {
+        return n -> {
+            setter.accept(getter.get() + n);
+            jobRepository.save(job);
+        };
+    }
+
+    private Counter rows(String table) {
+        return Counter.builder("account.purge.rows").tag("table", table)
+            .description("Linhas removidas por exclusão de conta").register(meterRegistry);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
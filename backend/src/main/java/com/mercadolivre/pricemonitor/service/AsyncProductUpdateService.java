@@ -10,6 +10,8 @@ import org.springframework.stereotype.Service;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -23,21 +25,33 @@ public class AsyncProductUpdateService {
 
     private final ProductService productService;
     private final ScraperService scraperService;
+    private final PipelineMetrics pipelineMetrics;
+    private final PriceCheckRunTracker priceCheckRunTracker;
 
     /**
      * Asynchronously updates prices for all monitored products in parallel.
      * This method is non-blocking and will execute in a background thread pool.
+     * Only {@link PriceCycleCoordinator} should call it, so cycles never overlap.
+     *
+     * @param eligible products whose backend can take work now; the rest wait for the next cycle
+     * @return completes when every result of the cycle has been processed
      */
     @Async
-    public void updateAllProductsAsync() {
-        List<Product> products = productService.getAllProducts();
+    public CompletableFuture<Void> updateAllProductsAsync(Predicate<Product> eligible) {
+        long cycleStart = System.nanoTime();
+        List<Product> all = productService.getAllProducts();
+        List<Product> products = all.stream().filter(eligible).collect(Collectors.toList());
+        if (products.size() < all.size()) {
+            log.warn("[ASYNC] {} products deferred: their backend is not available.", all.size() - products.size());
+        }
 
         if (products.isEmpty()) {
             log.info("[ASYNC] No products to update.");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
         log.info("[ASYNC] Starting parallel price update for {} products.", products.size());
+        PriceCheckRunTracker.Cycle cycle = priceCheckRunTracker.begin(products);
 
         // Step 1: Create a map of product ID to product
         Map<Long, Product> productMap = products.stream()
@@ -45,21 +59,25 @@ public class AsyncProductUpdateService {
 
         // Step 2: Asynchronously scrape all products in parallel
         List<CompletableFuture<ScrapeResponse>> futures = products.stream()
-                .map(product -> scraperService.fetchProductData(product.getUrl())
+                .map(product -> {
+                    long fetchStart = System.nanoTime();
+                    return scraperService.fetchProductData(product.getUrl(), product.getUserId())
                         .thenApply(scrapeResponse -> {
+                            cycle.recordFetch(System.nanoTime() - fetchStart, scrapeResponse);
                             // Attach product ID to the response for context
                             if (scrapeResponse != null) {
                                 scrapeResponse.setProductIdForUpdate(product.getId());
                             }
                             return scrapeResponse;
-                        }))
+                        });
+                })
                 .collect(Collectors.toList());
 
         // Step 3: Wait for all scraping operations to complete
         CompletableFuture<Void> allFutures = CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
 
         // Step 4: Process the results once all are complete
-        allFutures.thenAccept(v -> {
+        return allFutures.thenAccept(v -> {
             long successCount = 0;
             long failCount = 0;
 
@@ -70,21 +88,36 @@ public class AsyncProductUpdateService {
                         Product product = productMap.get(scrapeData.getProductIdForUpdate());
                         if (product != null) {
                             // Each update is in its own transaction
-                            productService.updateSingleProduct(product, scrapeData);
-                            successCount++;
+                            long updateStart = System.nanoTime();
+                            boolean changed = productService.updateSingleProduct(product, scrapeData);
+                            if (scrapeData.isValid()) {
+                                cycle.recordUpdate(System.nanoTime() - updateStart, changed);
+                                successCount++;
+                            } else {
+                                // Resposta sem preço: nada foi gravado, conta como falha nos dois lugares
+                                cycle.recordFailure();
+                                failCount++;
+                            }
                         } else {
                             log.error("[ASYNC] Product not found in map for ID: {}", scrapeData.getProductIdForUpdate());
+                            cycle.recordFailure();
                             failCount++;
                         }
                     } else {
+                        cycle.recordFailure();
                         failCount++;
                     }
                 } catch (Exception e) {
                     log.error("[ASYNC] Error processing a scrape result: {}", e.getMessage());
+                    cycle.recordFailure();
                     failCount++;
                 }
             }
-            log.info("[ASYNC] Parallel price update complete. Success: {}, Failed: {}", successCount, failCount);
+            priceCheckRunTracker.finish(cycle);
+            long elapsed = System.nanoTime() - cycleStart;
+            pipelineMetrics.recordCycle(elapsed, successCount, failCount);
+            log.info("[ASYNC] Parallel price update complete. Success: {}, Failed: {} | {}ms",
+                successCount, failCount, TimeUnit.NANOSECONDS.toMillis(elapsed));
         }).exceptionally(ex -> {
             log.error("[ASYNC] A critical error occurred during the parallel update process.", ex);
             return null;
@@ -25,6 +25,10 @@ public class AsyncScrapingService {
     private final ProductRepository productRepository;
     private final PriceHistoryRepository priceHistoryRepository;
     private final ScraperService scraperService;
+    private final EventStreamService eventStreamService;
+    private final ProductQueryService productQueryService;
+    private final ProductStateStore productStateStore;
+    private final PipelineMetrics pipelineMetrics;
 
     /**
      * Scrape product data in background thread (non-blocking).
@@ -32,6 +36,15 @@ public class AsyncScrapingService {
      */
     @Async
     public void scrapeProductInBackground(Long productId, String url) {
+        scrapeProduct(productId, url);
+    }
+
+    /**
+     * Blocking version used by callers that throttle scrapes themselves (bulk import).
+     *
+     * @return true if the product ended up ACTIVE
+     */
+    public boolean scrapeProduct(Long productId, String url) {
         try {
             log.info("🔄 [ASYNC] Starting background scrape for product ID {}: {}", productId, url);
             
@@ -41,7 +54,7 @@ public class AsyncScrapingService {
             Product product = productRepository.findById(productId).orElse(null);
             if (product == null) {
                 log.warn("⚠️ Product {} was deleted while scraping", productId);
-                return;
+                return false;
             }
 
             if (scrapeData == null || !scrapeData.isValid()) {
@@ -49,22 +62,29 @@ public class AsyncScrapingService {
                 product.setStatus("ERROR");
                 product.setName("Erro ao carregar - " + extractSimpleName(product.getName()));
                 productRepository.save(product);
-                return;
+                productStateStore.putAfterCommit(product);
+                productQueryService.evict(product.getUserId());
+                eventStreamService.publish(product.getUserId(), EventStreamService.EVENT_PRODUCT, product);
+                return false;
             }
 
             // Atualizar com dados do scraper
             product.setName(scrapeData.getTitle());
             product.setImageUrl(scrapeData.getImageUrl());
-            product.setCurrentPrice(scrapeData.getPrice());
-            product.setOriginalPrice(scrapeData.getOriginalPrice());
+            product.setCurrentPriceCents(scrapeData.getPriceCents());
+            product.setOriginalPriceCents(scrapeData.getOriginalPriceCents());
             product.setDiscountPercent(scrapeData.getDiscountPercent());
             product.setLastCheckedAt(LocalDateTime.now());
             product.setStatus("ACTIVE");
             productRepository.save(product);
+            productStateStore.putAfterCommit(product);
+            productQueryService.evict(product.getUserId());
+            eventStreamService.publish(product.getUserId(), EventStreamService.EVENT_PRODUCT, product);
 
             // Salvar primeiro registro no histórico
-            PriceHistory history = new PriceHistory(product, scrapeData.getPrice());
+            PriceHistory history = new PriceHistory(product, scrapeData.getPriceCents());
             priceHistoryRepository.save(history);
+            pipelineMetrics.recordHistoryRow(PipelineMetrics.HISTORY_INITIAL);
 
             // Log com informação de desconto se houver
             if (scrapeData.getDiscountPercent() != null && scrapeData.getDiscountPercent() > 0) {
@@ -75,6 +95,7 @@ public class AsyncScrapingService {
                 log.info("✅ [ASYNC] Background scrape completed for product {}: '{}' at R$ {}", 
                     productId, product.getName(), product.getCurrentPrice());
             }
+            return true;
 
         } catch (Exception e) {
             log.error("❌ [ASYNC] Background scrape error for product {}: {}", productId, e.getMessage());
@@ -83,10 +104,14 @@ public class AsyncScrapingService {
                 if (product != null) {
                     product.setStatus("ERROR");
                     productRepository.save(product);
+                    productStateStore.putAfterCommit(product);
+                    productQueryService.evict(product.getUserId());
+                    eventStreamService.publish(product.getUserId(), EventStreamService.EVENT_PRODUCT, product);
                 }
             } catch (Exception ex) {
                 log.error("Failed to update product status: {}", ex.getMessage());
             }
+            return false;
         }
     }
 
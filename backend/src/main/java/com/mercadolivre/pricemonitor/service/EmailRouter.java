@@ -0,0 +1,387 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.email.EmailMessage;
+import com.mercadolivre.pricemonitor.email.EmailSender;
+import com.mercadolivre.pricemonitor.email.EmailTemplateRenderer;
+import com.mercadolivre.pricemonitor.email.RenderedEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ponto único de envio de emails.
+ *
+ * Escolhe o provedor ({@link EmailSender}) pela saúde e latência recente, faz failover
+ * para o próximo quando um envio falha e agrupa alertas de preço em lotes para os
+ * provedores que aceitam múltiplos destinatários por chamada.
+ *
+ * Ranking: provedores configurados e fora de cooldown, ordenados por
+ * {@code latênciaMédia + posição em email.providers.order * priority-weight-ms}.
+ * Após {@code failure-threshold} falhas seguidas o provedor entra em cooldown
+ * (dobrando a cada nova falha, até 10 min) e só é usado se todos os outros falharem.
+ *
+ * Métricas (Micrometer): {@code email.sent{provider,outcome}}, {@code email.send.duration{provider}},
+ * {@code email.batch.size{provider}}, {@code email.provider.available{provider}} e {@code email.queue.pending}.
+ */
+@Service
+@Slf4j
+public class EmailRouter {
+
+    private static final long MAX_COOLDOWN_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final double LATENCY_EWMA_ALPHA = 0.3;
+
+    private final List<EmailSender> senders;
+    private final EmailTemplateRenderer templateRenderer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${email.providers.order:brevo,resend,smtp}")
+    private String providerOrder;
+
+    @Value("${email.router.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${email.router.cooldown-ms:60000}")
+    private long cooldownMs;
+
+    @Value("${email.router.priority-weight-ms:500}")
+    private long priorityWeightMs;
+
+    @Value("${email.batch.max-pending:5000}")
+    private int maxPending;
+
+    private final Queue<EmailMessage> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    private volatile List<ProviderState> providers = List.of();
+
+    public EmailRouter(List<EmailSender> senders, EmailTemplateRenderer templateRenderer, MeterRegistry meterRegistry) {
+        this.senders = senders;
+        this.templateRenderer = templateRenderer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        List<String> order = Arrays.stream(providerOrder.split(","))
+            .map(String::trim)
+            .filter(s -> !s.isEmpty())
+            .toList();
+
+        List<ProviderState> states = new ArrayList<>();
+        for (EmailSender sender : senders) {
+            int index = order.indexOf(sender.name());
+            states.add(new ProviderState(sender, index < 0 ? order.size() : index, meterRegistry));
+        }
+        states.sort(Comparator.comparingInt(s -> s.priority));
+        this.providers = List.copyOf(states);
+
+        Gauge.builder("email.queue.pending", pendingCount, AtomicInteger::get)
+            .description("Alertas aguardando envio em lote")
+            .register(meterRegistry);
+
+        log.info("📧 [ROUTER] Provedores: {}", states.stream()
+            .map(s -> s.sender.name() + (s.sender.isConfigured() ? "" : " (não configurado)"))
+            .toList());
+    }
+
+    // ==================== EMAILS DA APLICAÇÃO ====================
+
+    /**
+     * Email de confirmação de cadastro (assíncrono para não travar o registro).
+     */
+    @Async
+    public void sendVerificationEmail(String userEmail, String fullName, String verificationToken, String frontendUrl) {
+        String baseUrl = frontendUrl.endsWith("/") ? frontendUrl : frontendUrl + "/";
+        String verificationLink = baseUrl + "verify-email?token=" + verificationToken;
+        log.info("📧 [ROUTER] Link de verificação: {}", verificationLink);
+
+        RenderedEmail email = templateRenderer.verification(fullName, verificationLink);
+        send(EmailMessage.of(userEmail, fullName, email));
+    }
+
+    /**
+     * Código de recuperação de senha (síncrono: o usuário está esperando na tela).
+     */
+    public boolean sendPasswordResetCode(String userEmail, String fullName, String code) {
+        RenderedEmail email = templateRenderer.passwordResetCode(fullName, code);
+        return send(EmailMessage.of(userEmail, fullName, email));
+    }
+
+    /**
+     * Alerta de queda de preço. Entra na fila de lote.
+     */
+    public void sendPriceDropNotification(String userEmail, String productName, String productUrl,
+                                          Double oldPrice, Double newPrice) {
+        enqueue(EmailMessage.of(userEmail, null,
+            templateRenderer.priceDrop(productName, productUrl, oldPrice, newPrice)));
+    }
+
+    /**
+     * Alerta de aumento de preço. Entra na fila de lote.
+     */
+    public void sendPriceIncreaseNotification(String userEmail, String productName, String productUrl,
+                                              Double oldPrice, Double newPrice) {
+        enqueue(EmailMessage.of(userEmail, null,
+            templateRenderer.priceIncrease(productName, productUrl, oldPrice, newPrice)));
+    }
+
+    // ==================== ROTEAMENTO ====================
+
+    /**
+     * Envia imediatamente, tentando os provedores em ordem de ranking.
+     *
+     * @return false se nenhum provedor conseguiu entregar
+     */
+    public boolean send(EmailMessage message) {
+        if (message.to() == null || message.to().isBlank()) {
+            log.debug("📧 [ROUTER] Email sem destinatário ignorado");
+            return false;
+        }
+        return deliver(List.of(message)) == 1;
+    }
+
+    @Async
+    public void sendAsync(EmailMessage message) {
+        send(message);
+    }
+
+    /**
+     * Coloca o email na fila de envio em lote (esvaziada por {@link #flushPending()}).
+     * Se a fila estiver cheia (ou a aplicação desligando) o envio é feito na hora, na thread de quem chamou.
+     */
+    public void enqueue(EmailMessage message) {
+        if (message.to() == null || message.to().isBlank()) {
+            log.debug("📧 [ROUTER] Email sem destinatário ignorado");
+            return;
+        }
+        if (closed) {
+            send(message);
+            return;
+        }
+        if (pendingCount.get() >= maxPending) {
+            log.warn("📧 [ROUTER] Fila de emails cheia ({}), enviando direto para {}", maxPending, message.to());
+            send(message);
+            return;
+        }
+        pending.add(message);
+        pendingCount.incrementAndGet();
+    }
+
+    /**
+     * Envia o que ainda está na fila no desligamento. Roda antes dos {@link EmailSender}
+     * serem destruídos (o router depende deles), então um deploy não descarta os alertas
+     * do último intervalo; o que chegar depois disso é enviado na hora.
+     */
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        int queued = pendingCount.get();
+        if (queued > 0) {
+            log.info("📧 [ROUTER] Desligando: enviando {} alerta(s) da fila", queued);
+        }
+        flushPending();
+    }
+
+    @Scheduled(fixedDelayString = "${email.batch.flush-interval-ms:5000}")
+    public void flushPending() {
+        if (pendingCount.get() == 0) {
+            return;
+        }
+
+        List<EmailMessage> batch = new ArrayList<>();
+        EmailMessage message;
+        while ((message = pending.poll()) != null) {
+            batch.add(message);
+        }
+        pendingCount.addAndGet(-batch.size());
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        int delivered = deliver(batch);
+        log.info("📧 [ROUTER] Lote processado: {}/{} emails entregues", delivered, batch.size());
+    }
+
+    /**
+     * Entrega a lista usando o melhor provedor; se ele falhar no meio, o restante
+     * (a partir do primeiro pedaço não entregue) segue para o próximo provedor.
+     *
+     * @return quantidade de emails entregues
+     */
+    private int deliver(List<EmailMessage> messages) {
+        List<ProviderState> ranked = rank();
+        if (ranked.isEmpty()) {
+            log.error("📧 [ROUTER] ❌ Nenhum provedor de email configurado, {} email(s) descartado(s)", messages.size());
+            return 0;
+        }
+
+        int from = 0;
+        for (ProviderState state : ranked) {
+            while (from < messages.size()) {
+                int to = Math.min(messages.size(), from + Math.max(1, state.sender.maxBatchSize()));
+                List<EmailMessage> chunk = messages.subList(from, to);
+                if (!attempt(state, chunk)) {
+                    break;
+                }
+                from = to;
+            }
+            if (from == messages.size()) {
+                return from;
+            }
+        }
+
+        log.error("📧 [ROUTER] ❌ Todos os provedores falharam, {} email(s) não entregue(s)", messages.size() - from);
+        return from;
+    }
+
+    private boolean attempt(ProviderState state, List<EmailMessage> chunk) {
+        long start = System.nanoTime();
+        try {
+            if (chunk.size() == 1) {
+                state.sender.send(chunk.get(0));
+            } else {
+                state.sender.sendBatch(chunk);
+            }
+            state.recordSuccess(System.nanoTime() - start, chunk.size());
+            return true;
+        } catch (RuntimeException e) {
+            state.recordFailure(System.nanoTime() - start, chunk.size(), failureThreshold, cooldownMs);
+            log.warn("📧 [ROUTER] ⚠️ Provedor {} falhou ({} email(s)): {}",
+                state.sender.name(), chunk.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Provedores configurados: primeiro os saudáveis por score, depois os em cooldown
+     * (o que sai do cooldown primeiro vem antes) como último recurso.
+     */
+    List<ProviderState> rank() {
+        long now = System.currentTimeMillis();
+        List<ProviderState> healthy = new ArrayList<>();
+        List<ProviderState> cooling = new ArrayList<>();
+        for (ProviderState state : providers) {
+            if (!state.sender.isConfigured()) {
+                continue;
+            }
+            if (state.isAvailable(now)) {
+                healthy.add(state);
+            } else {
+                cooling.add(state);
+            }
+        }
+        healthy.sort(Comparator.comparingDouble(s -> s.score(priorityWeightMs)));
+        cooling.sort(Comparator.comparingLong(s -> s.cooldownUntil));
+        healthy.addAll(cooling);
+        return healthy;
+    }
+
+    /**
+     * Estado atual de cada provedor (para diagnóstico).
+     */
+    public List<Map<String, Object>> getProviderStatus() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> status = new ArrayList<>();
+        for (ProviderState state : providers) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("provider", state.sender.name());
+            entry.put("configured", state.sender.isConfigured());
+            entry.put("available", state.isAvailable(now));
+            entry.put("consecutiveFailures", state.consecutiveFailures);
+            entry.put("latencyMs", state.latencyEwmaMs < 0 ? null : Math.round(state.latencyEwmaMs));
+            entry.put("sent", (long) state.sent.count());
+            entry.put("failed", (long) state.failed.count());
+            status.add(entry);
+        }
+        return status;
+    }
+
+    static final class ProviderState {
+
+        final EmailSender sender;
+        final int priority;
+
+        private final Counter sent;
+        private final Counter failed;
+        private final Timer duration;
+        private final DistributionSummary batchSize;
+
+        private volatile int consecutiveFailures;
+        private volatile long cooldownUntil;
+        private volatile double latencyEwmaMs = -1;
+
+        ProviderState(EmailSender sender, int priority, MeterRegistry registry) {
+            this.sender = sender;
+            this.priority = priority;
+            String provider = sender.name();
+            this.sent = Counter.builder("email.sent").tag("provider", provider).tag("outcome", "success")
+                .description("Emails entregues ao provedor").register(registry);
+            this.failed = Counter.builder("email.sent").tag("provider", provider).tag("outcome", "failure")
+                .description("Emails recusados pelo provedor").register(registry);
+            this.duration = Timer.builder("email.send.duration").tag("provider", provider)
+                .description("Duração de cada chamada ao provedor").register(registry);
+            this.batchSize = DistributionSummary.builder("email.batch.size").tag("provider", provider)
+                .description("Emails por chamada ao provedor").register(registry);
+            Gauge.builder("email.provider.available", this, s -> s.isAvailable(System.currentTimeMillis()) ? 1 : 0)
+                .tag("provider", provider).register(registry);
+        }
+
+        boolean isAvailable(long now) {
+            return now >= cooldownUntil;
+        }
+
+        double score(long priorityWeightMs) {
+            double latency = latencyEwmaMs < 0 ? 0 : latencyEwmaMs;
+            return latency + (double) priority * priorityWeightMs;
+        }
+
+        synchronized void recordSuccess(long elapsedNanos, int messages) {
+            consecutiveFailures = 0;
+            cooldownUntil = 0;
+            updateLatency(elapsedNanos);
+            sent.increment(messages);
+            duration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            batchSize.record(messages);
+        }
+
+        synchronized void recordFailure(long elapsedNanos, int messages, int threshold, long baseCooldownMs) {
+            consecutiveFailures++;
+            updateLatency(elapsedNanos);
+            failed.increment(messages);
+            duration.record(elapsedNanos, TimeUnit.NANOSECONDS);
+            if (consecutiveFailures >= threshold) {
+                int exponent = Math.min(consecutiveFailures - threshold, 10);
+                long cooldown = Math.min(MAX_COOLDOWN_MS, baseCooldownMs << exponent);
+                cooldownUntil = System.currentTimeMillis() + cooldown;
+                log.warn("📧 [ROUTER] Provedor {} em cooldown por {}s após {} falhas seguidas",
+                    sender.name(), cooldown / 1000, consecutiveFailures);
+            }
+        }
+
+        private void updateLatency(long elapsedNanos) {
+            double ms = elapsedNanos / 1_000_000.0;
+            latencyEwmaMs = latencyEwmaMs < 0 ? ms : LATENCY_EWMA_ALPHA * ms + (1 - LATENCY_EWMA_ALPHA) * latencyEwmaMs;
+        }
+    }
+}
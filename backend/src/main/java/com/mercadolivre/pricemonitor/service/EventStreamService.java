@@ -0,0 +1,254 @@
+package com.mercadolivre.pricemonitor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registro de conexões Server-Sent Events por usuário.
+ *
+ * O pipeline de atualização publica eventos ({@code notification}, {@code unread-count},
+ * {@code product}) para um userId e cada conexão aberta daquele usuário recebe uma cópia.
+ *
+ * Cada conexão tem um buffer limitado ({@code sse.buffer-size}); quem publica nunca
+ * bloqueia: a escrita no socket é feita por uma virtual thread por conexão. Se o cliente
+ * não consome rápido o suficiente e o buffer enche, a conexão é encerrada — o
+ * EventSource do navegador reconecta sozinho e o frontend recarrega o estado.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class EventStreamService {
+
+    public static final String EVENT_NOTIFICATION = "notification";
+    public static final String EVENT_UNREAD_COUNT = "unread-count";
+    public static final String EVENT_PRODUCT = "product";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${sse.max-connections:1000}")
+    private int maxConnections;
+
+    @Value("${sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${sse.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, List<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+    private Counter droppedConnections;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("sse.connections", connectionCount, AtomicInteger::get)
+            .description("Conexões SSE abertas")
+            .register(meterRegistry);
+        droppedConnections = Counter.builder("sse.connections.dropped")
+            .description("Conexões SSE encerradas por buffer cheio")
+            .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(list -> list.forEach(sub -> sub.emitter.complete()));
+        writers.shutdownNow();
+    }
+
+    /**
+     * Abre uma nova conexão para o usuário.
+     *
+     * @return o emitter, ou {@code null} se o limite global de conexões foi atingido
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            log.warn("📡 [SSE] Limite de {} conexões atingido, recusando usuário {}", maxConnections, userId);
+            return null;
+        }
+
+        Subscription subscription = new Subscription(userId, new SseEmitter(timeoutMs), bufferSize);
+        List<Subscription> userSubscriptions = subscriptions.compute(userId, (id, list) -> {
+            List<Subscription> target = list != null ? list : new CopyOnWriteArrayList<>();
+            target.add(subscription);
+            return target;
+        });
+
+        // Muitas abas abertas: derruba as conexões mais antigas
+        int excess = userSubscriptions.size() - maxConnectionsPerUser;
+        for (int i = 0; i < excess; i++) {
+            log.debug("📡 [SSE] Usuário {} excedeu {} conexões, encerrando a mais antiga", userId, maxConnectionsPerUser);
+            close(userSubscriptions.get(0));
+        }
+
+        subscription.emitter.onCompletion(() -> remove(subscription));
+        subscription.emitter.onTimeout(() -> close(subscription));
+        subscription.emitter.onError(e -> remove(subscription));
+
+        log.debug("📡 [SSE] Usuário {} conectado ({} conexões abertas)", userId, connectionCount.get());
+        return subscription.emitter;
+    }
+
+    public boolean hasSubscribers(Long userId) {
+        List<Subscription> list = subscriptions.get(userId);
+        return list != null && !list.isEmpty();
+    }
+
+    /**
+     * Envia um evento para todas as conexões do usuário (sem efeito se não houver nenhuma).
+     */
+    public void publish(Long userId, String eventName, Object data) {
+        List<Subscription> list = subscriptions.get(userId);
+        if (list == null || list.isEmpty()) {
+            return;
+        }
+        StreamEvent event = new StreamEvent(eventName, data);
+        for (Subscription subscription : list) {
+            offer(subscription, event);
+        }
+    }
+
+    /**
+     * Como {@link #publish}, mas só depois do commit da transação corrente (se houver),
+     * para o cliente nunca ver um estado que foi revertido.
+     */
+    public void publishAfterCommit(Long userId, String eventName, Object data) {
+        if (!hasSubscribers(userId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(userId, eventName, data);
+                }
+            });
+        } else {
+            publish(userId, eventName, data);
+        }
+    }
+
+    /**
+     * Comentário periódico para manter a conexão viva através de proxies
+     * e detectar clientes que sumiram.
+     */
+    @Scheduled(fixedDelayString = "${sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        StreamEvent heartbeat = new StreamEvent(null, null);
+        subscriptions.values().forEach(list -> list.forEach(sub -> offer(sub, heartbeat)));
+    }
+
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    private void offer(Subscription subscription, StreamEvent event) {
+        if (subscription.closed.get()) {
+            return;
+        }
+        if (!subscription.queue.offer(event)) {
+            log.warn("📡 [SSE] Buffer cheio para usuário {}, encerrando conexão", subscription.userId);
+            droppedConnections.increment();
+            close(subscription);
+            return;
+        }
+        scheduleWrite(subscription);
+    }
+
+    private void scheduleWrite(Subscription subscription) {
+        if (subscription.writing.compareAndSet(false, true)) {
+            writers.execute(() -> drain(subscription));
+        }
+    }
+
+    private void drain(Subscription subscription) {
+        try {
+            StreamEvent event;
+            while (!subscription.closed.get() && (event = subscription.queue.poll()) != null) {
+                subscription.emitter.send(event.toBuilder());
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("📡 [SSE] Cliente do usuário {} desconectou: {}", subscription.userId, e.getMessage());
+            close(subscription);
+        } finally {
+            subscription.writing.set(false);
+        }
+        if (!subscription.closed.get() && !subscription.queue.isEmpty()) {
+            scheduleWrite(subscription);
+        }
+    }
+
+    private void close(Subscription subscription) {
+        remove(subscription);
+        try {
+            subscription.emitter.complete();
+        } catch (Exception ignored) {
+            // Conexão já encerrada pelo container
+        }
+    }
+
+    private void remove(Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+        connectionCount.decrementAndGet();
+        subscription.queue.clear();
+        subscriptions.computeIfPresent(subscription.userId, (id, list) -> {
+            list.remove(subscription);
+            return list.isEmpty() ? null : list;
+        });
+    }
+
+    private record StreamEvent(String name, Object data) {
+
+        SseEmitter.SseEventBuilder toBuilder() {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().name(name).data(data, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    private static final class Subscription {
+
+        final Long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<StreamEvent> queue;
+        final AtomicBoolean writing = new AtomicBoolean();
+        final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscription(Long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -1,24 +1,20 @@
 package com.mercadolivre.pricemonitor.service;
 
-import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
-import com.mercadolivre.pricemonitor.repository.MercadoLivreTokenRepository;
-import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * Serviço para integração com a API do Mercado Livre.
  * Usa OAuth2 para autenticação e consulta dados de produtos.
- * Tokens são persistidos no banco de dados.
+ * Tokens são persistidos no banco de dados e geridos pelo {@link MercadoLivreTokenManager}.
  */
 @Service
 @SuppressWarnings("unchecked") // RestTemplate retorna Map raw type - comportamento esperado
@@ -27,49 +23,24 @@ public class MercadoLivreService {
          * Salva ou atualiza o token no banco de dados, vinculado ao usuário.
          */
         public void saveTokenForUser(Map<String, Object> tokenData, com.mercadolivre.pricemonitor.model.User user) {
-            String accessToken = (String) tokenData.get("access_token");
-            String refreshToken = (String) tokenData.get("refresh_token");
-            String tokenType = (String) tokenData.get("token_type");
-            Integer expiresIn = (Integer) tokenData.get("expires_in");
-            Object userIdObj = tokenData.get("user_id");
-            Long userIdMl = userIdObj != null ? Long.valueOf(userIdObj.toString()) : null;
-
-            LocalDateTime expiresAt = expiresIn != null
-                ? LocalDateTime.now().plusSeconds(expiresIn)
-                : LocalDateTime.now().plusHours(6);
-
-            // Buscar token existente ou criar novo para este usuário
-            MercadoLivreToken token = tokenRepository.findByUser(user)
-                    .orElse(new MercadoLivreToken());
-
-            token.setAccessToken(accessToken);
-            token.setRefreshToken(refreshToken);
-            token.setTokenType(tokenType);
-            token.setExpiresAt(expiresAt);
-            token.setUserIdMl(userIdMl);
-            token.setUser(user);
-
-            tokenRepository.save(token);
+            tokenManager.storeForUser(tokenData, user);
         }
     /**
      * Busca informações de um produto pelo usuário do sistema.
      */
     public Map<String, Object> getProductByUrlForUser(String url, com.mercadolivre.pricemonitor.model.User user) {
-        Optional<MercadoLivreToken> tokenOpt = tokenRepository.findByUser(user);
-        if (tokenOpt.isEmpty() || !tokenOpt.get().isValid()) {
-            throw new RuntimeException("Token Mercado Livre não disponível ou inválido para este usuário.");
-        }
-        MercadoLivreToken userToken = tokenOpt.get();
+        String accessToken = tokenManager.accessTokenForUser(user);
         String itemId = extractItemId(url);
         if (itemId == null) {
             throw new RuntimeException("Não foi possível extrair o ID do produto da URL");
         }
         String apiUrlItem = apiUrl + "/items/" + itemId;
         HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(userToken.getAccessToken());
+        headers.setBearerAuth(accessToken);
         HttpEntity<?> request = new HttpEntity<>(headers);
         try {
             ResponseEntity<Map> response = restTemplate.exchange(apiUrlItem, HttpMethod.GET, request, Map.class);
+            pipelineMetrics.recordPayload(PipelineMetrics.SOURCE_ML_API, response.getHeaders().getContentLength());
             if (response.getStatusCode() == HttpStatus.OK) {
                 return response.getBody();
             }
@@ -92,45 +63,16 @@ public class MercadoLivreService {
     private String apiUrl;
 
     private final RestTemplate restTemplate;
-    private final MercadoLivreTokenRepository tokenRepository;
-
-    // Cache em memória para evitar queries constantes
-    private MercadoLivreToken cachedToken;
+    private final MercadoLivreTokenManager tokenManager;
+    private final MercadoLivreTokenPool tokenPool;
+    private final PipelineMetrics pipelineMetrics;
 
-    public MercadoLivreService(MercadoLivreTokenRepository tokenRepository) {
+    public MercadoLivreService(MercadoLivreTokenManager tokenManager, MercadoLivreTokenPool tokenPool,
+                               PipelineMetrics pipelineMetrics) {
         this.restTemplate = new RestTemplate();
-        this.tokenRepository = tokenRepository;
-    }
-
-    /**
-     * Carrega token do banco ao iniciar.
-     */
-    @PostConstruct
-    public void init() {
-        loadTokenFromDatabase();
-    }
-
-    /**
-     * Carrega o token mais recente do banco de dados.
-     */
-    private void loadTokenFromDatabase() {
-        Optional<MercadoLivreToken> tokenOpt = tokenRepository.findLatestToken();
-        if (tokenOpt.isPresent()) {
-            cachedToken = tokenOpt.get();
-            if (cachedToken.isValid()) {
-                System.out.println("[ML_API] ✅ Token carregado do banco de dados!");
-            } else if (cachedToken.getRefreshToken() != null) {
-                System.out.println("[ML_API] ⚠️ Token expirado, tentando renovar...");
-                try {
-                    refreshAccessToken();
-                } catch (Exception e) {
-                    System.err.println("[ML_API] ❌ Falha ao renovar token: " + e.getMessage());
-                    cachedToken = null;
-                }
-            }
-        } else {
-            System.out.println("[ML_API] ℹ️ Nenhum token encontrado no banco. Autorização necessária.");
-        }
+        this.tokenManager = tokenManager;
+        this.tokenPool = tokenPool;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
     /**
@@ -182,7 +124,7 @@ public class MercadoLivreService {
                 Map<String, Object> tokenData = response.getBody();
                 
                 // Salvar no banco de dados
-                saveTokenToDatabase(tokenData);
+                tokenManager.store(tokenData);
                 
                 System.out.println("[ML_API] ✅ Token obtido e salvo no banco!");
                 return tokenData;
@@ -195,96 +137,53 @@ public class MercadoLivreService {
         return null;
     }
 
-    /**
-     * Salva ou atualiza o token no banco de dados.
-     */
-    private void saveTokenToDatabase(Map<String, Object> tokenData) {
-        String accessToken = (String) tokenData.get("access_token");
-        String refreshToken = (String) tokenData.get("refresh_token");
-        String tokenType = (String) tokenData.get("token_type");
-        Integer expiresIn = (Integer) tokenData.get("expires_in");
-        Object userIdObj = tokenData.get("user_id");
-        Long userId = userIdObj != null ? Long.valueOf(userIdObj.toString()) : null;
-
-        LocalDateTime expiresAt = expiresIn != null 
-            ? LocalDateTime.now().plusSeconds(expiresIn) 
-            : LocalDateTime.now().plusHours(6);
-
-        // Buscar token existente ou criar novo
-        MercadoLivreToken token = tokenRepository.findLatestToken()
-                .orElse(new MercadoLivreToken());
-
-        token.setAccessToken(accessToken);
-        token.setRefreshToken(refreshToken);
-        token.setTokenType(tokenType);
-        token.setExpiresAt(expiresAt);
-        token.setUserIdMl(userId);
-
-        cachedToken = tokenRepository.save(token);
-    }
-
     /**
      * Renova o access token usando o refresh token.
      */
     public void refreshAccessToken() {
-        if (cachedToken == null || cachedToken.getRefreshToken() == null) {
-            throw new RuntimeException("Refresh token não disponível. Faça login novamente.");
-        }
-
-        String tokenUrl = apiUrl + "/oauth/token";
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        Map<String, String> body = new HashMap<>();
-        body.put("grant_type", "refresh_token");
-        body.put("client_id", clientId);
-        body.put("client_secret", clientSecret);
-        body.put("refresh_token", cachedToken.getRefreshToken());
-
-        HttpEntity<Map<String, String>> request = new HttpEntity<>(body, headers);
-
-        try {
-            ResponseEntity<Map> response = restTemplate.postForEntity(tokenUrl, request, Map.class);
-            
-            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
-                Map<String, Object> tokenData = response.getBody();
-                saveTokenToDatabase(tokenData);
-                System.out.println("[ML_API] ✅ Token renovado e salvo no banco!");
-            }
-        } catch (Exception e) {
-            System.err.println("[ML_API] ❌ Erro ao renovar token: " + e.getMessage());
-            // Invalidar o token em cache e no banco quando refresh falha
-            if (cachedToken != null && cachedToken.getId() != null) {
-                tokenRepository.deleteById(cachedToken.getId());
-                System.out.println("[ML_API] 🗑️ Token inválido removido do banco de dados.");
-            }
-            cachedToken = null;
-            throw new RuntimeException("Falha ao renovar token: " + e.getMessage());
-        }
+        tokenManager.refreshAccessToken();
     }
 
     /**
      * Busca informações de um produto pelo ID.
      */
     public Map<String, Object> getProduct(String itemId) {
-        ensureValidToken();
+        return getProduct(itemId, null);
+    }
+
+    /**
+     * Busca informações de um produto pelo ID com o token escolhido pelo pool: o do dono
+     * do produto quando ele conectou a conta do ML, senão o de maior folga de cota.
+     */
+    public Map<String, Object> getProduct(String itemId, Long ownerUserId) {
+        MercadoLivreTokenPool.Lease lease = tokenPool.acquire(ownerUserId);
 
         String url = apiUrl + "/items/" + itemId;
 
         HttpHeaders headers = new HttpHeaders();
-        headers.setBearerAuth(cachedToken.getAccessToken());
+        headers.setBearerAuth(lease.accessToken());
 
         HttpEntity<?> request = new HttpEntity<>(headers);
 
+        int status = 0;
+        HttpHeaders responseHeaders = null;
         try {
             ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, request, Map.class);
+            status = response.getStatusCode().value();
+            responseHeaders = response.getHeaders();
+            pipelineMetrics.recordPayload(PipelineMetrics.SOURCE_ML_API, response.getHeaders().getContentLength());
             
             if (response.getStatusCode() == HttpStatus.OK) {
                 return response.getBody();
             }
+        } catch (HttpStatusCodeException e) {
+            status = e.getStatusCode().value();
+            responseHeaders = e.getResponseHeaders();
+            System.err.println("[ML_API] ❌ Erro ao buscar produto: " + e.getMessage());
         } catch (Exception e) {
             System.err.println("[ML_API] ❌ Erro ao buscar produto: " + e.getMessage());
+        } finally {
+            tokenPool.release(lease, status, responseHeaders);
         }
 
         return null;
@@ -295,11 +194,18 @@ public class MercadoLivreService {
      * Extrai o ID da URL e consulta a API.
      */
     public Map<String, Object> getProductByUrl(String url) {
+        return getProductByUrl(url, null);
+    }
+
+    /**
+     * Busca informações de um produto pela URL, com o token do dono quando houver.
+     */
+    public Map<String, Object> getProductByUrl(String url, Long ownerUserId) {
         String itemId = extractItemId(url);
         if (itemId == null) {
             throw new RuntimeException("Não foi possível extrair o ID do produto da URL");
         }
-        return getProduct(itemId);
+        return getProduct(itemId, ownerUserId);
     }
 
     /**
@@ -324,27 +230,17 @@ public class MercadoLivreService {
     }
 
     /**
-     * Garante que o token está válido, renovando se necessário.
+     * Verifica se há um token válido.
      */
-    private void ensureValidToken() {
-        if (cachedToken == null || cachedToken.getAccessToken() == null) {
-            throw new RuntimeException("Token não disponível. Faça login primeiro.");
-        }
-
-        // Renovar se vai expirar em breve
-        if (cachedToken.isExpiringSoon()) {
-            refreshAccessToken();
-        }
+    public boolean hasValidToken() {
+        return tokenManager.hasValidToken();
     }
 
     /**
-     * Verifica se há um token válido.
+     * Verifica se algum token (do app ou de um usuário conectado) pode fazer chamadas agora.
      */
-    public boolean hasValidToken() {
-        if (cachedToken == null) {
-            loadTokenFromDatabase();
-        }
-        return cachedToken != null && cachedToken.isValid();
+    public boolean hasApiToken() {
+        return tokenPool.hasAvailableToken();
     }
 
     /**
@@ -0,0 +1,428 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
+import com.mercadolivre.pricemonitor.model.User;
+import com.mercadolivre.pricemonitor.repository.MercadoLivreTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Owns the Mercado Livre OAuth tokens: the app token used by product fetches and the
+ * per-user tokens behind {@link MercadoLivreService#getProductByUrlForUser}.
+ *
+ * Tokens are immutable {@link Token} snapshots published through a volatile slot, so fetch
+ * threads never see a half-updated token. Refresh is single-flight per slot: concurrent callers
+ * that find the token about to expire wait for one refresh and reuse its result. A scheduled
+ * check refreshes tokens {@code mercadolivre.token.refresh-ahead-ms} before they expire, so
+ * fetches normally never wait on a refresh. User tokens are read from the database at most once
+ * per {@code mercadolivre.token.user-cache-ttl-ms}; every connected user is kept loaded, so
+ * {@link #pooledTokens} can offer them all to {@link MercadoLivreTokenPool}.
+ */
+@Service
+@Slf4j
+@SuppressWarnings("unchecked") // RestTemplate retorna Map raw type - comportamento esperado
+public class MercadoLivreTokenManager {
+
+    // Margem do caminho síncrono: abaixo dela quem pede o token espera a renovação
+    private static final Duration ON_DEMAND_MARGIN = Duration.ofMinutes(5);
+
+    /**
+     * Snapshot of a stored token; replaced as a whole, never changed in place.
+     */
+    public record Token(Long id, String accessToken, String refreshToken, LocalDateTime expiresAt) {
+
+        static Token of(MercadoLivreToken entity) {
+            return new Token(entity.getId(), entity.getAccessToken(), entity.getRefreshToken(), entity.getExpiresAt());
+        }
+
+        public boolean isValid(LocalDateTime now) {
+            return accessToken != null && expiresAt != null && now.isBefore(expiresAt);
+        }
+
+        public boolean expiresWithin(LocalDateTime now, Duration margin) {
+            return expiresAt == null || !now.plus(margin).isBefore(expiresAt);
+        }
+    }
+
+    private static final class TokenSlot {
+        private volatile Token token;
+        private volatile long loadedAtMs = -1;
+    }
+
+    private final MercadoLivreTokenRepository tokenRepository;
+    private final RestTemplate restTemplate;
+
+    @Value("${mercadolivre.client.id}")
+    private String clientId;
+
+    @Value("${mercadolivre.client.secret}")
+    private String clientSecret;
+
+    @Value("${mercadolivre.api.url}")
+    private String apiUrl;
+
+    @Value("${mercadolivre.token.refresh-ahead-ms:900000}")
+    private long refreshAheadMs = 900_000;
+
+    @Value("${mercadolivre.token.user-cache-ttl-ms:300000}")
+    private long userCacheTtlMs = 300_000;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    private final TokenSlot appSlot = new TokenSlot();
+    private final Map<Long, TokenSlot> userSlots = new ConcurrentHashMap<>();
+    private final Map<Long, Object> refreshLocks = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MercadoLivreTokenManager(MercadoLivreTokenRepository tokenRepository) {
+        this(tokenRepository, new RestTemplate());
+    }
+
+    MercadoLivreTokenManager(MercadoLivreTokenRepository tokenRepository, RestTemplate restTemplate) {
+        this.tokenRepository = tokenRepository;
+        this.restTemplate = restTemplate;
+    }
+
+    /**
+     * Carrega o token do banco ao iniciar, renovando se já estiver vencido.
+     */
+    @PostConstruct
+    public void init() {
+        loadAppToken();
+        loadUserTokens();
+        Token token = appSlot.token;
+        if (token == null) {
+            log.info("ℹ️ [ML_TOKEN] Nenhum token encontrado no banco. Autorização necessária.");
+        } else if (token.isValid(now())) {
+            log.info("✅ [ML_TOKEN] Token carregado do banco de dados!");
+        } else if (token.refreshToken() != null) {
+            log.warn("⚠️ [ML_TOKEN] Token expirado, tentando renovar...");
+            try {
+                refresh(appSlot, token);
+            } catch (RuntimeException e) {
+                log.error("❌ [ML_TOKEN] Falha ao renovar token: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Whether the app token is usable right now. Never touches the database.
+     */
+    public boolean hasValidToken() {
+        Token token = appSlot.token;
+        return token != null && token.isValid(now());
+    }
+
+    /**
+     * Access token for API calls, refreshed first when it is about to expire.
+     */
+    public String accessToken() {
+        Token token = appSlot.token;
+        if (token == null || token.accessToken() == null) {
+            throw new RuntimeException("Token não disponível. Faça login primeiro.");
+        }
+        return ensureFresh(appSlot, token).accessToken();
+    }
+
+    /**
+     * Access token of a user of the system (cached, refreshed when about to expire).
+     */
+    public String accessTokenForUser(User user) {
+        Token token = userToken(user.getId());
+        if (token == null) {
+            throw new RuntimeException("Token Mercado Livre não disponível ou inválido para este usuário.");
+        }
+        return token.accessToken();
+    }
+
+    /**
+     * Usable token of a user of the system, or null when the user has none (or it expired and
+     * could not be refreshed).
+     */
+    public Token userToken(Long userId) {
+        TokenSlot slot = userSlot(userId);
+        Token token = slot.token;
+        return token != null ? usable(slot, token) : null;
+    }
+
+    /**
+     * Every usable token (the app token and all connected users'), one entry per stored token.
+     */
+    public List<Token> pooledTokens() {
+        Map<Long, Token> tokens = new LinkedHashMap<>();
+        addUsable(tokens, appSlot);
+        userSlots.values().forEach(slot -> addUsable(tokens, slot));
+        return new ArrayList<>(tokens.values());
+    }
+
+    /**
+     * Saves the token returned by the authorization code exchange as the app token.
+     */
+    public void store(Map<String, Object> tokenData) {
+        synchronized (appSlot) {
+            MercadoLivreToken entity = tokenRepository.findLatestToken().orElse(new MercadoLivreToken());
+            apply(entity, tokenData);
+            appSlot.token = Token.of(tokenRepository.save(entity));
+            appSlot.loadedAtMs = clock.millis();
+        }
+    }
+
+    /**
+     * Saves or updates the token linked to a user of the system.
+     */
+    public void storeForUser(Map<String, Object> tokenData, User user) {
+        TokenSlot slot = userSlots.computeIfAbsent(user.getId(), id -> new TokenSlot());
+        synchronized (slot) {
+            MercadoLivreToken entity = tokenRepository.findByUser(user).orElse(new MercadoLivreToken());
+            apply(entity, tokenData);
+            entity.setUser(user);
+            slot.token = Token.of(tokenRepository.save(entity));
+            slot.loadedAtMs = clock.millis();
+        }
+    }
+
+    /**
+     * Forces a refresh of the app token.
+     */
+    public void refreshAccessToken() {
+        Token token = appSlot.token;
+        if (token == null || token.refreshToken() == null) {
+            throw new RuntimeException("Refresh token não disponível. Faça login novamente.");
+        }
+        refresh(appSlot, token);
+    }
+
+    /**
+     * Renova com antecedência os tokens perto de vencer (o do app e os dos usuários),
+     * para que as buscas não esperem pela renovação. Sem token do app, tenta carregar do banco
+     * (autorização feita por outra instância); usuários recém-conectados entram no cache.
+     */
+    @Scheduled(fixedDelayString = "${mercadolivre.token.refresh-check-ms:60000}", initialDelay = 60000)
+    public void refreshAheadOfExpiry() {
+        if (appSlot.token == null) {
+            loadAppToken();
+        }
+        loadUserTokens();
+        refreshAhead(appSlot, "app");
+        userSlots.forEach((userId, slot) -> {
+            if (slot.token == null && !isStale(slot)) {
+                userSlots.remove(userId, slot);
+            } else {
+                refreshAhead(slot, "usuário " + userId);
+            }
+        });
+    }
+
+    private void refreshAhead(TokenSlot slot, String owner) {
+        Token token = slot.token;
+        if (token == null || token.refreshToken() == null
+                || !token.expiresWithin(now(), Duration.ofMillis(refreshAheadMs))) {
+            return;
+        }
+        try {
+            refresh(slot, token);
+            log.info("🔄 [ML_TOKEN] Token ({}) renovado antes de vencer", owner);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ [ML_TOKEN] Renovação antecipada do token ({}) falhou: {}", owner, e.getMessage());
+        }
+    }
+
+    private void addUsable(Map<Long, Token> tokens, TokenSlot slot) {
+        Token token = slot.token;
+        if (token == null || tokens.containsKey(token.id())) {
+            return;
+        }
+        Token usable = usable(slot, token);
+        if (usable != null) {
+            tokens.put(usable.id(), usable);
+        }
+    }
+
+    private Token usable(TokenSlot slot, Token token) {
+        if (token.expiresWithin(now(), ON_DEMAND_MARGIN) && token.refreshToken() != null) {
+            try {
+                token = ensureFresh(slot, token);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+        return token.isValid(now()) ? token : null;
+    }
+
+    /**
+     * Token não perto de vencer segue direto; senão renova. Se a renovação falhar por erro
+     * transitório, o token atual ainda serve enquanto não vencer.
+     */
+    private Token ensureFresh(TokenSlot slot, Token token) {
+        if (!token.expiresWithin(now(), ON_DEMAND_MARGIN)) {
+            return token;
+        }
+        try {
+            return refresh(slot, token);
+        } catch (RuntimeException e) {
+            Token current = slot.token;
+            if (current != null && current.isValid(now())) {
+                log.warn("⚠️ [ML_TOKEN] Renovação falhou, usando token atual até vencer: {}", e.getMessage());
+                return current;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Renova o token observado. Uma renovação por token de cada vez (o token do app costuma ser
+     * também o de um usuário): quem chega enquanto outra está em andamento espera e usa o token
+     * que ela publicou. O refresh token do ML só vale uma vez, então antes de chamar a API
+     * confere no banco se outro slot ou outra instância já renovou.
+     */
+    private Token refresh(TokenSlot slot, Token observed) {
+        Object lock = observed.id() != null ? refreshLocks.computeIfAbsent(observed.id(), id -> new Object()) : slot;
+        synchronized (lock) {
+            Token current = slot.token;
+            if (current != observed) {
+                if (current == null) {
+                    throw new RuntimeException("Token removido durante a renovação. Faça login novamente.");
+                }
+                return current;
+            }
+            if (observed.refreshToken() == null) {
+                throw new RuntimeException("Refresh token não disponível. Faça login novamente.");
+            }
+
+            MercadoLivreToken entity = observed.id() != null ? tokenRepository.findById(observed.id()).orElse(null) : null;
+            if (entity == null) {
+                slot.token = null;
+                throw new RuntimeException("Token removido durante a renovação. Faça login novamente.");
+            }
+            if (!Objects.equals(entity.getRefreshToken(), observed.refreshToken())) {
+                Token latest = Token.of(entity);
+                publish(observed.id(), latest);
+                return latest;
+            }
+
+            Map<String, Object> tokenData;
+            try {
+                tokenData = requestRefresh(observed.refreshToken());
+            } catch (HttpClientErrorException e) {
+                // O ML recusou o refresh token: não adianta tentar de novo
+                log.error("❌ [ML_TOKEN] Refresh token recusado ({}); removendo token", e.getStatusCode());
+                tokenRepository.deleteById(observed.id());
+                publish(observed.id(), null);
+                throw new RuntimeException("Falha ao renovar token: " + e.getMessage());
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Falha ao renovar token: " + e.getMessage());
+            }
+
+            apply(entity, tokenData);
+            Token renewed = Token.of(tokenRepository.save(entity));
+            publish(observed.id(), renewed);
+            return renewed;
+        }
+    }
+
+    /**
+     * Troca o token {@code id} em todos os slots que o guardam (null remove).
+     */
+    private void publish(Long id, Token token) {
+        Token app = appSlot.token;
+        if (app != null && id.equals(app.id())) {
+            appSlot.token = token;
+        }
+        userSlots.values().forEach(slot -> {
+            Token held = slot.token;
+            if (held != null && id.equals(held.id())) {
+                slot.token = token;
+            }
+        });
+    }
+
+    private Map<String, Object> requestRefresh(String refreshToken) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        Map<String, String> body = new HashMap<>();
+        body.put("grant_type", "refresh_token");
+        body.put("client_id", clientId);
+        body.put("client_secret", clientSecret);
+        body.put("refresh_token", refreshToken);
+
+        ResponseEntity<Map> response = restTemplate.postForEntity(apiUrl + "/oauth/token",
+            new HttpEntity<>(body, headers), Map.class);
+        if (response.getStatusCode() != HttpStatus.OK || response.getBody() == null) {
+            throw new RuntimeException("Resposta inesperada do ML: " + response.getStatusCode());
+        }
+        return response.getBody();
+    }
+
+    private void loadAppToken() {
+        synchronized (appSlot) {
+            if (appSlot.token == null) {
+                appSlot.token = tokenRepository.findLatestToken().map(Token::of).orElse(null);
+                appSlot.loadedAtMs = clock.millis();
+            }
+        }
+    }
+
+    private void loadUserTokens() {
+        try {
+            tokenRepository.findAllUserIds().forEach(this::userSlot);
+        } catch (RuntimeException e) {
+            log.warn("⚠️ [ML_TOKEN] Falha ao carregar tokens dos usuários: {}", e.getMessage());
+        }
+    }
+
+    private TokenSlot userSlot(Long userId) {
+        TokenSlot slot = userSlots.computeIfAbsent(userId, id -> new TokenSlot());
+        if (isStale(slot)) {
+            synchronized (slot) {
+                if (isStale(slot)) {
+                    slot.token = tokenRepository.findByUserId(userId).map(Token::of).orElse(null);
+                    slot.loadedAtMs = clock.millis();
+                }
+            }
+        }
+        return slot;
+    }
+
+    private boolean isStale(TokenSlot slot) {
+        return slot.loadedAtMs < 0 || clock.millis() - slot.loadedAtMs >= userCacheTtlMs;
+    }
+
+    private void apply(MercadoLivreToken entity, Map<String, Object> tokenData) {
+        Integer expiresIn = (Integer) tokenData.get("expires_in");
+        Object userIdObj = tokenData.get("user_id");
+        LocalDateTime now = now();
+
+        entity.setAccessToken((String) tokenData.get("access_token"));
+        entity.setRefreshToken((String) tokenData.get("refresh_token"));
+        entity.setTokenType((String) tokenData.get("token_type"));
+        entity.setExpiresAt(expiresIn != null ? now.plusSeconds(expiresIn) : now.plusHours(6));
+        entity.setUserIdMl(userIdObj != null ? Long.valueOf(userIdObj.toString()) : null);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+}
@@ -0,0 +1,155 @@
+package com.mercadolivre.pricemonitor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Picks the OAuth token for each ML API call, so the rate limit is spread over every connected
+ * account instead of one token for the whole platform.
+ *
+ * A product is fetched with its owner's token when the owner connected a Mercado Livre account
+ * and that token has quota left; otherwise the call goes to the shared pool (the app token and
+ * every connected user's), to the token with the most headroom: remaining quota reported by the
+ * last response ({@code X-RateLimit-Remaining}) minus calls in flight, unknown quota counting as
+ * plenty. A token answered with 429, or with no quota left, sits out until {@code Retry-After}
+ * (or {@code mercadolivre.token-pool.cooldown-ms}).
+ *
+ * Métricas: {@code ml.token.leases{route=owner|shared}} e {@code ml.token.throttled}.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class MercadoLivreTokenPool {
+
+    public static final String ROUTE_OWNER = "owner";
+    public static final String ROUTE_SHARED = "shared";
+
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final long UNKNOWN_REMAINING = Integer.MAX_VALUE;
+
+    /**
+     * Token handed out for one call; must be given back through {@link #release}.
+     */
+    public record Lease(Long tokenId, String accessToken, String route) {
+    }
+
+    private static final class Quota {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile long remaining = -1;
+        private volatile long blockedUntilMs;
+
+        long headroom() {
+            return (remaining < 0 ? UNKNOWN_REMAINING : remaining) - inFlight.get();
+        }
+    }
+
+    private final MercadoLivreTokenManager tokenManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${mercadolivre.token-pool.cooldown-ms:60000}")
+    private long cooldownMs = 60_000;
+
+    private LongSupplier clock = System::currentTimeMillis;
+
+    private final Map<Long, Quota> quotas = new ConcurrentHashMap<>();
+
+    /**
+     * Whether any token could serve a call right now (owner's or shared).
+     */
+    public boolean hasAvailableToken() {
+        long now = clock.getAsLong();
+        return tokenManager.pooledTokens().stream().anyMatch(token -> quota(token.id()).blockedUntilMs <= now);
+    }
+
+    /**
+     * Token for a call fetching a product of {@code ownerUserId} (null: no owner, shared pool only).
+     *
+     * @throws RuntimeException when no token is usable or every one is out of quota
+     */
+    public Lease acquire(Long ownerUserId) {
+        long now = clock.getAsLong();
+        if (ownerUserId != null) {
+            MercadoLivreTokenManager.Token own = tokenManager.userToken(ownerUserId);
+            if (own != null && quota(own.id()).blockedUntilMs <= now) {
+                return lease(own, ROUTE_OWNER);
+            }
+        }
+
+        MercadoLivreTokenManager.Token best = null;
+        long bestHeadroom = Long.MIN_VALUE;
+        for (MercadoLivreTokenManager.Token token : tokenManager.pooledTokens()) {
+            Quota quota = quota(token.id());
+            if (quota.blockedUntilMs > now) {
+                continue;
+            }
+            long headroom = quota.headroom();
+            if (headroom > bestHeadroom) {
+                best = token;
+                bestHeadroom = headroom;
+            }
+        }
+        if (best == null) {
+            throw new RuntimeException("Nenhum token do Mercado Livre disponível (sem token ou sem cota)");
+        }
+        return lease(best, ROUTE_SHARED);
+    }
+
+    /**
+     * Gives the token back and learns its quota from the response.
+     *
+     * @param status  HTTP status of the response, 0 when there was none (network error)
+     * @param headers response headers, may be null
+     */
+    public void release(Lease lease, int status, HttpHeaders headers) {
+        Quota quota = quota(lease.tokenId());
+        quota.inFlight.decrementAndGet();
+
+        Long remaining = headerAsLong(headers, REMAINING_HEADER);
+        if (remaining != null) {
+            quota.remaining = remaining;
+        }
+        if (status == 429 || (remaining != null && remaining <= 0)) {
+            Long retryAfterSeconds = headerAsLong(headers, HttpHeaders.RETRY_AFTER);
+            long pauseMs = retryAfterSeconds != null ? retryAfterSeconds * 1000 : cooldownMs;
+            quota.blockedUntilMs = clock.getAsLong() + pauseMs;
+            Counter.builder("ml.token.throttled")
+                .description("Tokens do ML pausados por falta de cota")
+                .register(meterRegistry).increment();
+            log.warn("🚦 [ML_TOKEN] Token {} sem cota (status {}); pausado por {}ms", lease.tokenId(), status, pauseMs);
+        }
+    }
+
+    private Lease lease(MercadoLivreTokenManager.Token token, String route) {
+        quota(token.id()).inFlight.incrementAndGet();
+        Counter.builder("ml.token.leases").tag("route", route)
+            .description("Chamadas à API do ML por rota do token (dono do produto ou pool)")
+            .register(meterRegistry).increment();
+        return new Lease(token.id(), token.accessToken(), route);
+    }
+
+    private Quota quota(Long tokenId) {
+        return quotas.computeIfAbsent(tokenId, id -> new Quota());
+    }
+
+    private static Long headerAsLong(HttpHeaders headers, String name) {
+        String value = headers != null ? headers.getFirst(name) : null;
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -4,14 +4,25 @@ import com.mercadolivre.pricemonitor.model.Notification;
 import com.mercadolivre.pricemonitor.repository.NotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for managing user notifications (bell notifications).
+ *
+ * The unread count per user is cached in memory and updated incrementally after each
+ * commit (create / read / read-all / delete). A miss falls back to the DB count, and
+ * entries are reloaded after {@code notifications.unread-cache.ttl-ms} to bound any
+ * drift from concurrent loads or writes that bypass this service.
  */
 @Service
 @Slf4j
@@ -19,13 +30,29 @@ import java.util.Optional;
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final EventStreamService eventStreamService;
+
+    @Value("${notifications.unread-cache.ttl-ms:300000}")
+    private long unreadCacheTtlMs;
+
+    private final Map<Long, UnreadCounter> unreadCounts = new ConcurrentHashMap<>();
 
     /**
      * Create a new notification
      */
     public Notification createNotification(Notification notification) {
         log.info("🔔 Creating notification for user {}: {}", notification.getUserId(), notification.getType());
-        return notificationRepository.save(notification);
+        Notification saved = notificationRepository.save(notification);
+        Long userId = saved.getUserId();
+        boolean unread = !Boolean.TRUE.equals(saved.getIsRead());
+        afterCommit(() -> {
+            if (unread) {
+                adjustUnreadCount(userId, 1);
+            }
+            eventStreamService.publish(userId, EventStreamService.EVENT_NOTIFICATION, saved);
+            publishUnreadCount(userId);
+        });
+        return saved;
     }
 
     /**
@@ -53,10 +80,32 @@ public class NotificationService {
     }
 
     /**
-     * Get unread notifications count
+     * Get unread notifications count (cached, DB count on miss)
      */
     public long getUnreadCount(Long userId) {
-        return notificationRepository.countByUserIdAndIsReadFalse(userId);
+        long now = System.currentTimeMillis();
+        UnreadCounter counter = unreadCounts.get(userId);
+        if (counter != null && now - counter.loadedAt < unreadCacheTtlMs) {
+            return counter.count.get();
+        }
+        // compute() bloqueia os ajustes incrementais da mesma chave enquanto conta no banco
+        return unreadCounts.compute(userId, (id, current) ->
+            current != null && now - current.loadedAt < unreadCacheTtlMs
+                ? current
+                : new UnreadCounter(notificationRepository.countByUserIdAndIsReadFalse(id), now)
+        ).count.get();
+    }
+
+    /**
+     * Drop the cached unread count (next read goes to the DB).
+     * For bulk changes made outside this service (retention purge, account deletion).
+     */
+    public void evictUnreadCount(Long userId) {
+        unreadCounts.remove(userId);
+    }
+
+    public void evictAllUnreadCounts() {
+        unreadCounts.clear();
     }
 
     /**
@@ -73,9 +122,16 @@ public class NotificationService {
                         userId, notificationId);
                 return false;
             }
+            boolean wasUnread = !Boolean.TRUE.equals(notification.getIsRead());
             notification.setIsRead(true);
             notificationRepository.save(notification);
             log.info("✅ Notification {} marked as read", notificationId);
+            if (wasUnread) {
+                afterCommit(() -> {
+                    adjustUnreadCount(userId, -1);
+                    publishUnreadCount(userId);
+                });
+            }
             return true;
         }
         return false;
@@ -88,6 +144,10 @@ public class NotificationService {
     public void markAllAsRead(Long userId) {
         notificationRepository.markAllAsReadByUserId(userId);
         log.info("✅ All notifications marked as read for user {}", userId);
+        afterCommit(() -> {
+            resetUnreadCount(userId);
+            publishUnreadCount(userId);
+        });
     }
 
     /**
@@ -97,6 +157,10 @@ public class NotificationService {
     public void deleteAllByUserId(Long userId) {
         notificationRepository.deleteByUserId(userId);
         log.info("🗑️ All notifications deleted for user {}", userId);
+        afterCommit(() -> {
+            resetUnreadCount(userId);
+            publishUnreadCount(userId);
+        });
     }
 
     /**
@@ -105,4 +169,56 @@ public class NotificationService {
     public Optional<Notification> getById(Long id) {
         return notificationRepository.findById(id);
     }
+
+    /**
+     * Push the current unread count to the user's open SSE connections (if any)
+     */
+    private void publishUnreadCount(Long userId) {
+        if (eventStreamService.hasSubscribers(userId)) {
+            eventStreamService.publish(userId, EventStreamService.EVENT_UNREAD_COUNT,
+                Map.of("count", getUnreadCount(userId)));
+        }
+    }
+
+    /**
+     * Only cached users are adjusted; a missing entry is loaded from the DB on the next read.
+     */
+    private void adjustUnreadCount(Long userId, long delta) {
+        unreadCounts.computeIfPresent(userId, (id, counter) -> {
+            counter.count.updateAndGet(value -> Math.max(0, value + delta));
+            return counter;
+        });
+    }
+
+    private void resetUnreadCount(Long userId) {
+        unreadCounts.put(userId, new UnreadCounter(0, System.currentTimeMillis()));
+    }
+
+    /**
+     * Runs after the surrounding transaction commits (or right away if there is none),
+     * so the cache and SSE clients never see a rolled-back change.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class UnreadCounter {
+
+        final AtomicLong count;
+        final long loadedAt;
+
+        UnreadCounter(long count, long loadedAt) {
+            this.count = new AtomicLong(count);
+            this.loadedAt = loadedAt;
+        }
+    }
 }
@@ -0,0 +1,163 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters for the price pipeline: fetch → persist → notify, plus the whole cycle.
+ *
+ * Tags are fixed vocabularies (source, outcome, channel, write, reason) so cardinality
+ * stays constant no matter how many products or users there are; never tag with URLs or IDs.
+ *
+ * <ul>
+ *   <li>{@code scrape.fetch{source,outcome}}: fetch latency, retries included;</li>
+ *   <li>{@code scrape.retries{source}} and {@code scrape.payload.bytes{source}};</li>
+ *   <li>{@code scrape.coalesced{outcome}}: fetches served from cache, shared or new;</li>
+ *   <li>{@code price.persist{write}}: product write time ({@code full} save or {@code touch}), stopped
+ *       after the transaction commits so the flush and commit are included;</li>
+ *   <li>{@code price.history.rows{reason}}: history rows written;</li>
+ *   <li>{@code notifications.sent{channel,outcome}};</li>
+ *   <li>{@code price.cycle.duration}, {@code price.cycle.products{outcome}} and
+ *       {@code price.cycle.throughput} (products/s of the last cycle).</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class PipelineMetrics {
+
+    public static final String SOURCE_ML_API = "ml_api";
+    public static final String SOURCE_SCRAPER = "scraper";
+    // Scraper Python chamado porque a API do ML não estava disponível ou falhou
+    public static final String SOURCE_FALLBACK = "fallback";
+    // Segunda chamada ao scraper disparada pelo HedgingPolicy
+    public static final String SOURCE_HEDGE = "hedge";
+
+    public static final String CHANNEL_IN_APP = "in_app";
+    public static final String CHANNEL_EMAIL = "email";
+    public static final String CHANNEL_TELEGRAM = "telegram";
+
+    public static final String HISTORY_CHANGE = "change";
+    public static final String HISTORY_PERIODIC = "periodic";
+    public static final String HISTORY_INITIAL = "initial";
+
+    private final MeterRegistry meterRegistry;
+
+    private volatile double lastThroughput;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("price.cycle.throughput", this, m -> m.lastThroughput)
+            .description("Produtos por segundo no último ciclo de preços")
+            .register(meterRegistry);
+    }
+
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Stops a fetch sample; the outcome comes from the response (null = failed after retries).
+     *
+     * @return elapsed nanoseconds, for log lines
+     */
+    public long recordFetch(Timer.Sample sample, String source, ScrapeResponse response) {
+        String outcome = response == null ? "error" : response.isValid() ? "success" : "invalid";
+        return sample.stop(Timer.builder("scrape.fetch")
+            .description("Latência da busca de dados do produto, com retries")
+            .tag("source", source)
+            .tag("outcome", outcome)
+            .register(meterRegistry));
+    }
+
+    public void recordRetry(String source) {
+        Counter.builder("scrape.retries").tag("source", source)
+            .description("Novas tentativas de busca")
+            .register(meterRegistry).increment();
+    }
+
+    public void recordPayload(String source, long bytes) {
+        if (bytes < 0) {
+            return; // tamanho desconhecido (sem Content-Length)
+        }
+        DistributionSummary.builder("scrape.payload.bytes").tag("source", source)
+            .description("Tamanho da resposta da fonte de dados")
+            .baseUnit("bytes")
+            .register(meterRegistry).record(bytes);
+    }
+
+    /**
+     * Stops the persist timer once the surrounding transaction commits: the save is only
+     * flushed at commit, so stopping earlier would time the dirty-checking, not the write.
+     * Rolled-back writes are not recorded. Without a transaction the timer stops right away.
+     */
+    public void recordPersist(Timer.Sample sample, boolean fullWrite) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stopPersist(sample, fullWrite);
+                }
+            });
+        } else {
+            stopPersist(sample, fullWrite);
+        }
+    }
+
+    private void stopPersist(Timer.Sample sample, boolean fullWrite) {
+        sample.stop(Timer.builder("price.persist")
+            .description("Gravação do produto após a verificação")
+            .tag("write", fullWrite ? "full" : "touch")
+            .register(meterRegistry));
+    }
+
+    /**
+     * Fetch lookups in the coalescing layer: {@code hit} (cached result), {@code joined}
+     * (shared an in-flight fetch) or {@code miss} (new fetch).
+     */
+    public void recordCoalesce(String outcome) {
+        Counter.builder("scrape.coalesced").tag("outcome", outcome)
+            .description("Buscas atendidas por cache, compartilhadas ou novas")
+            .register(meterRegistry).increment();
+    }
+
+    public void recordHistoryRow(String reason) {
+        Counter.builder("price.history.rows").tag("reason", reason)
+            .description("Linhas gravadas no histórico de preços")
+            .register(meterRegistry).increment();
+    }
+
+    public void recordNotification(String channel, boolean success) {
+        Counter.builder("notifications.sent")
+            .tag("channel", channel)
+            .tag("outcome", success ? "success" : "failure")
+            .description("Alertas de preço por canal")
+            .register(meterRegistry).increment();
+    }
+
+    public void recordCycle(long elapsedNanos, long succeeded, long failed) {
+        Timer.builder("price.cycle.duration")
+            .description("Duração do ciclo completo de verificação de preços")
+            .register(meterRegistry).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        cycleProducts("success").increment(succeeded);
+        cycleProducts("failure").increment(failed);
+        double seconds = elapsedNanos / 1e9;
+        lastThroughput = seconds > 0 ? (succeeded + failed) / seconds : 0;
+    }
+
+    private Counter cycleProducts(String outcome) {
+        return Counter.builder("price.cycle.products").tag("outcome", outcome)
+            .description("Produtos processados pelo ciclo de preços")
+            .register(meterRegistry);
+    }
+}
@@ -0,0 +1,159 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.model.PriceCheckRun;
+import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.repository.PriceCheckRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ledger of price check cycles ({@code price_check_runs}).
+ *
+ * {@link #begin} opens a {@link Cycle} that the update service feeds from its worker
+ * threads (fetch latency and outcome per product, time spent writing); {@link #finish}
+ * turns it into a {@link PriceCheckRun} with p50/p95/p99 fetch latency, flags cycles that
+ * took longer than the scheduling interval and saves it. Recording never breaks a cycle.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PriceCheckRunTracker {
+
+    static final int MAX_RECENT = 500;
+
+    private final PriceCheckRunRepository runRepository;
+
+    // Intervalo do PriceCheckScheduler (cron a cada 30 min): ciclo mais longo que isso atropela o próximo
+    @Value("${price-check.overrun-threshold-ms:1800000}")
+    private long overrunThresholdMs;
+
+    public Cycle begin(List<Product> products) {
+        int distinct = (int) products.stream()
+            .map(p -> ProductUrls.canonicalize(p.getUrl()))
+            .filter(Objects::nonNull)
+            .distinct()
+            .count();
+        return new Cycle(products.size(), distinct);
+    }
+
+    /**
+     * Closes the cycle, logs the report and saves it; returns null if saving failed.
+     */
+    public PriceCheckRun finish(Cycle cycle) {
+        PriceCheckRun run = cycle.toRun(overrunThresholdMs);
+        log.info("📈 [CICLO] {} produtos ({} itens distintos) em {}ms | {} buscados, {} mudaram, {} iguais, {} falharam "
+                + "| busca p50={}ms p95={}ms p99={}ms | banco {}ms | {} produtos/s",
+            run.getProductsScanned(), run.getDistinctItems(), run.getDurationMs(), run.getFetched(), run.getChanged(),
+            run.getUnchanged(), run.getFailed(), run.getFetchP50Ms(), run.getFetchP95Ms(), run.getFetchP99Ms(),
+            run.getDbTimeMs(), String.format("%.1f", run.getThroughput()));
+        if (run.isOverran()) {
+            log.warn("📈 [CICLO] ⚠️ Ciclo levou {}ms, mais que o intervalo de {}ms entre ciclos",
+                run.getDurationMs(), overrunThresholdMs);
+        }
+        try {
+            return runRepository.save(run);
+        } catch (Exception e) {
+            log.error("📈 [CICLO] ❌ Erro ao gravar registro do ciclo: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public List<PriceCheckRun> recent(int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_RECENT));
+        return runRepository.findAllByOrderByStartedAtDesc(PageRequest.of(0, size));
+    }
+
+    /**
+     * Counters of one cycle; safe to feed from several threads.
+     */
+    public static final class Cycle {
+
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final long startNanos = System.nanoTime();
+        private final int productsScanned;
+        private final int distinctItems;
+
+        private final long[] fetchNanos;
+        private final AtomicInteger fetchCount = new AtomicInteger();
+        private final AtomicInteger fetched = new AtomicInteger();
+        private final AtomicInteger changed = new AtomicInteger();
+        private final AtomicInteger unchanged = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final LongAdder dbNanos = new LongAdder();
+
+        Cycle(int productsScanned, int distinctItems) {
+            this.productsScanned = productsScanned;
+            this.distinctItems = distinctItems;
+            this.fetchNanos = new long[productsScanned];
+        }
+
+        /**
+         * One fetch finished (response null = failed after retries).
+         */
+        public void recordFetch(long elapsedNanos, ScrapeResponse response) {
+            int slot = fetchCount.getAndIncrement();
+            if (slot < fetchNanos.length) {
+                fetchNanos[slot] = elapsedNanos;
+            }
+            if (response != null) {
+                fetched.incrementAndGet();
+            }
+        }
+
+        public void recordUpdate(long elapsedNanos, boolean priceChanged) {
+            dbNanos.add(elapsedNanos);
+            (priceChanged ? changed : unchanged).incrementAndGet();
+        }
+
+        public void recordFailure() {
+            failed.incrementAndGet();
+        }
+
+        PriceCheckRun toRun(long overrunThresholdMs) {
+            long durationMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            // Lido depois de allOf(): todas as escritas no array já aconteceram
+            long[] latencies = Arrays.copyOf(fetchNanos, Math.min(fetchCount.get(), fetchNanos.length));
+            Arrays.sort(latencies);
+
+            PriceCheckRun run = new PriceCheckRun();
+            run.setStartedAt(startedAt);
+            run.setFinishedAt(LocalDateTime.now());
+            run.setDurationMs(durationMs);
+            run.setProductsScanned(productsScanned);
+            run.setDistinctItems(distinctItems);
+            run.setFetched(fetched.get());
+            run.setChanged(changed.get());
+            run.setUnchanged(unchanged.get());
+            run.setFailed(failed.get());
+            run.setFetchP50Ms(percentileMs(latencies, 50));
+            run.setFetchP95Ms(percentileMs(latencies, 95));
+            run.setFetchP99Ms(percentileMs(latencies, 99));
+            run.setDbTimeMs(TimeUnit.NANOSECONDS.toMillis(dbNanos.sum()));
+            run.setOverran(durationMs > overrunThresholdMs);
+            return run;
+        }
+    }
+
+    /**
+     * Nearest-rank percentile of a sorted array, or null when empty.
+     */
+    static Long percentileMs(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return null;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.length);
+        return TimeUnit.NANOSECONDS.toMillis(sortedNanos[Math.max(rank, 1) - 1]);
+    }
+}
@@ -0,0 +1,219 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.resilience.BackendGuards;
+import com.mercadolivre.pricemonitor.resilience.BackendHealthMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single entry point for price update cycles.
+ *
+ * At most one full cycle is in flight. A scheduled tick that finds a cycle still running is
+ * skipped (the cycle overran its interval). A manual refresh that arrives shortly after a cycle
+ * started is merged into it, since every product is still ahead of it; a later one sets a
+ * follow-up flag, and any number of those collapse into a single cycle run right after the
+ * current one.
+ *
+ * Work is routed per backend using the cached {@link BackendHealthMonitor} status: with the
+ * scraper down the cycle still updates the products served by the ML API (and the others wait
+ * for the next cycle); only with both backends down is the cycle skipped.
+ *
+ * {@link #refreshUser} is the priority lane: it enqueues only that user's products and fetches
+ * them right away, outside the full cycle, with at most {@code price-check.priority.concurrency}
+ * fetches in flight. A product already waiting in the lane is not enqueued twice.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PriceCycleCoordinator {
+
+    public enum Trigger { SCHEDULED, MANUAL }
+
+    public enum Outcome {
+        /** A new full cycle was started. */
+        STARTED,
+        /** Merged into the cycle already running. */
+        MERGED,
+        /** Queued as the follow-up of the running cycle. */
+        QUEUED,
+        /** Scheduled tick dropped because the previous cycle is still running. */
+        SKIPPED
+    }
+
+    private final AsyncProductUpdateService asyncProductUpdateService;
+    private final ScraperService scraperService;
+    private final ProductService productService;
+    private final BackendHealthMonitor backendHealthMonitor;
+    private final MeterRegistry meterRegistry;
+
+    // Pedido manual até essa idade do ciclo em andamento ainda é atendido por ele
+    @Value("${price-check.merge-window-ms:60000}")
+    private long mergeWindowMs;
+
+    @Value("${price-check.priority.concurrency:4}")
+    private int priorityConcurrency;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean followUp = new AtomicBoolean();
+    private volatile long cycleStartedAt;
+
+    private final Queue<Product> priorityQueue = new ConcurrentLinkedQueue<>();
+    private final Set<Long> priorityQueued = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger priorityInFlight = new AtomicInteger();
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("price.cycle.priority.queue", priorityQueued, Set::size)
+            .description("Produtos na fila prioritária de atualização (aguardando ou em andamento)")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Asks for a full cycle; never starts a second one while another is in flight.
+     */
+    public Outcome requestFullCycle(Trigger trigger) {
+        Outcome outcome;
+        if (running.compareAndSet(false, true)) {
+            startCycle(trigger);
+            outcome = Outcome.STARTED;
+        } else if (trigger == Trigger.SCHEDULED) {
+            log.warn("⏭️ [CICLO] Ciclo anterior ainda em andamento há {}ms; pulando este disparo agendado",
+                System.currentTimeMillis() - cycleStartedAt);
+            outcome = Outcome.SKIPPED;
+        } else if (System.currentTimeMillis() - cycleStartedAt <= mergeWindowMs) {
+            outcome = Outcome.MERGED;
+        } else {
+            followUp.set(true);
+            outcome = Outcome.QUEUED;
+        }
+        Counter.builder("price.cycle.requests")
+            .tag("trigger", trigger.name().toLowerCase())
+            .tag("outcome", outcome.name().toLowerCase())
+            .description("Pedidos de ciclo completo de preços")
+            .register(meterRegistry).increment();
+        return outcome;
+    }
+
+    public boolean isCycleRunning() {
+        return running.get();
+    }
+
+    private void startCycle(Trigger trigger) {
+        cycleStartedAt = System.currentTimeMillis();
+        followUp.set(false);
+        log.info("🕐 [CICLO] Iniciando ciclo completo ({})", trigger);
+        boolean scraperReady = backendHealthMonitor.isReady(BackendGuards.SCRAPER);
+        boolean mlApiReady = backendHealthMonitor.isReady(BackendGuards.ML_API);
+        CompletableFuture<Void> cycle;
+        if (!scraperReady && !mlApiReady) {
+            log.error("❌ [CICLO] API do ML e scraper indisponíveis. Pulando o ciclo.");
+            cycle = CompletableFuture.completedFuture(null);
+        } else {
+            if (!scraperReady) {
+                log.warn("⚠️ [CICLO] Scraper indisponível: só produtos servidos pela API do ML neste ciclo");
+            }
+            try {
+                cycle = asyncProductUpdateService.updateAllProductsAsync(product ->
+                    scraperReady || BackendGuards.ML_API.equals(scraperService.backendFor(product.getUrl())));
+            } catch (Exception e) {
+                cycle = CompletableFuture.failedFuture(e);
+            }
+        }
+        cycle
+            .whenComplete((v, ex) -> {
+                if (ex != null) {
+                    log.error("❌ [CICLO] Ciclo terminou com erro: {}", ex.getMessage());
+                }
+                running.set(false);
+                if (followUp.getAndSet(false) && running.compareAndSet(false, true)) {
+                    log.info("🔁 [CICLO] Pedidos manuais durante o ciclo: rodando o ciclo seguinte");
+                    startCycle(Trigger.MANUAL);
+                }
+            });
+    }
+
+    /**
+     * Enqueues the user's products in the priority lane.
+     *
+     * @return how many products were newly enqueued
+     */
+    public int refreshUser(Long userId) {
+        List<Product> products = productService.getProductsByUserId(userId);
+        int enqueued = 0;
+        for (Product product : products) {
+            if (priorityQueued.add(product.getId())) {
+                priorityQueue.add(product);
+                enqueued++;
+            }
+        }
+        log.info("⚡ [PRIORIDADE] {} de {} produtos do usuário {} na fila", enqueued, products.size(), userId);
+        drainPriority();
+        return enqueued;
+    }
+
+    private void drainPriority() {
+        while (true) {
+            int inFlight = priorityInFlight.get();
+            if (inFlight >= priorityConcurrency) {
+                return;
+            }
+            if (!priorityInFlight.compareAndSet(inFlight, inFlight + 1)) {
+                continue;
+            }
+            Product product = priorityQueue.poll();
+            if (product == null) {
+                priorityInFlight.decrementAndGet();
+                // Um refreshUser pode ter enfileirado entre o poll e o decremento
+                if (priorityQueue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            CompletableFuture<Void> refresh = refreshNow(product);
+            if (refresh.isDone()) {
+                // Concluído na hora: libera aqui mesmo, sem recursão
+                releasePriority(product);
+                continue;
+            }
+            refresh.whenComplete((v, ex) -> {
+                releasePriority(product);
+                drainPriority();
+            });
+        }
+    }
+
+    private void releasePriority(Product product) {
+        priorityQueued.remove(product.getId());
+        priorityInFlight.decrementAndGet();
+    }
+
+    private CompletableFuture<Void> refreshNow(Product product) {
+        if (!"ACTIVE".equals(product.getStatus())) {
+            // Produto em erro/pendente: o scrape completo também recupera status e nome
+            productService.updateSingleProductAsync(product);
+            return CompletableFuture.completedFuture(null);
+        }
+        return scraperService.fetchProductData(product.getUrl(), product.getUserId())
+            .thenAccept(data -> productService.updateSingleProduct(product, data))
+            .exceptionally(ex -> {
+                log.error("⚡ [PRIORIDADE] Erro ao atualizar produto {}: {}", product.getId(), ex.getMessage());
+                return null;
+            });
+    }
+}
@@ -0,0 +1,102 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.PricePoint;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary format of {@code PriceHistoryBlock.data}.
+ *
+ * <pre>
+ * version (1 byte) | count (varint)
+ * first second (zigzag varint) | first cents (zigzag varint)
+ * then per sample: delta seconds (zigzag varint) | delta cents (zigzag varint)
+ * </pre>
+ *
+ * Samples 12h apart with an unchanged price take 4 bytes. Timestamps keep second
+ * precision (same as the DATETIME column).
+ */
+public final class PriceHistoryCodec {
+
+    static final byte VERSION = 1;
+
+    private PriceHistoryCodec() {
+    }
+
+    /**
+     * Encodes samples in the given order (callers sort by time so deltas stay small).
+     */
+    public static byte[] encode(List<PricePoint> samples) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8 + samples.size() * 4);
+        out.write(VERSION);
+        writeVarint(out, samples.size());
+
+        long prevSecond = 0;
+        long prevCents = 0;
+        for (PricePoint sample : samples) {
+            long second = sample.recordedAt().toEpochSecond(ZoneOffset.UTC);
+            long cents = sample.priceCents();
+            writeVarint(out, zigzag(second - prevSecond));
+            writeVarint(out, zigzag(cents - prevCents));
+            prevSecond = second;
+            prevCents = cents;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a block. Points have no ID: the rows they came from were deleted.
+     */
+    public static List<PricePoint> decode(byte[] data) {
+        int[] pos = {0};
+        if (data.length == 0 || data[pos[0]++] != VERSION) {
+            throw new IllegalArgumentException("Versão de bloco de histórico desconhecida");
+        }
+        int count = (int) readVarint(data, pos);
+        List<PricePoint> samples = new ArrayList<>(count);
+
+        long second = 0;
+        long cents = 0;
+        for (int i = 0; i < count; i++) {
+            second += unzigzag(readVarint(data, pos));
+            cents += unzigzag(readVarint(data, pos));
+            samples.add(new PricePoint(null, cents, LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC)));
+        }
+        return samples;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] data, int[] pos) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (pos[0] >= data.length) {
+                throw new IllegalArgumentException("Bloco de histórico truncado");
+            }
+            byte b = data[pos[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Varint inválido no bloco de histórico");
+    }
+}
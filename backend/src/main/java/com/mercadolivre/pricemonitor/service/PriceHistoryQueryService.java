@@ -0,0 +1,164 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.PriceHistoryPage;
+import com.mercadolivre.pricemonitor.dto.PricePoint;
+import com.mercadolivre.pricemonitor.dto.PriceSeries;
+import com.mercadolivre.pricemonitor.model.PriceHistory;
+import com.mercadolivre.pricemonitor.model.PriceHistoryBlock;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryBlockRepository;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Range-bounded reads of a product's price history.
+ *
+ * Raw rows are served in keyset pages (by history ID, oldest first). Chart series are
+ * built by reading the range in chunks of {@code price-history.read-chunk-size} rows and
+ * folding each chunk into a {@link PriceSeriesDownsampler}, so a year of history costs
+ * a few bounded queries and the response carries at most {@code max-points} points.
+ *
+ * Series, {@link #latest} and {@link #findSince} also read the compacted monthly blocks
+ * ({@code PriceHistoryCompactionJob}); raw pages only cover the hot table, since cold
+ * samples no longer have a row ID to page on.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PriceHistoryQueryService {
+
+    static final int MAX_PAGE_SIZE = 1000;
+    private static final int BLOCK_PAGE_SIZE = 6;
+
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryBlockRepository blockRepository;
+
+    @Value("${price-history.series.default-points:200}")
+    private int defaultPoints;
+
+    @Value("${price-history.series.max-points:1000}")
+    private int maxPoints;
+
+    @Value("${price-history.default-range-days:30}")
+    private int defaultRangeDays;
+
+    @Value("${price-history.read-chunk-size:2000}")
+    private int readChunkSize;
+
+    /**
+     * Raw history rows in [from, to), oldest first, {@code limit} at a time.
+     */
+    public PriceHistoryPage page(Long productId, LocalDateTime from, LocalDateTime to, Long after, int limit) {
+        Range range = range(from, to);
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Pede um a mais só para saber se há próxima página
+        List<PricePoint> rows = priceHistoryRepository.findPointsAfter(
+            productId, after != null ? after : 0L, range.from(), range.to(), PageRequest.of(0, size + 1));
+
+        boolean hasMore = rows.size() > size;
+        List<PricePoint> items = hasMore ? List.copyOf(rows.subList(0, size)) : rows;
+        Long nextCursor = hasMore ? items.get(items.size() - 1).id() : null;
+        return new PriceHistoryPage(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Min/max/last per bucket over [from, to), with about {@code points} buckets.
+     */
+    public PriceSeries series(Long productId, LocalDateTime from, LocalDateTime to, Integer points) {
+        Range range = range(from, to);
+        int target = points == null ? defaultPoints : Math.max(1, Math.min(points, maxPoints));
+        PriceSeriesDownsampler sampler = new PriceSeriesDownsampler(range.from(), range.to(), target);
+
+        // Meses compactados primeiro; o downsampler não depende da ordem
+        for (PriceHistoryBlock block : blockRepository.findOverlapping(productId, range.from(), range.to())) {
+            for (PricePoint point : PriceHistoryCodec.decode(block.getData())) {
+                sampler.accept(point.recordedAt(), point.priceCents());
+            }
+        }
+
+        long afterId = 0L;
+        int chunks = 0;
+        while (true) {
+            List<PricePoint> chunk = priceHistoryRepository.findPointsAfter(
+                productId, afterId, range.from(), range.to(), PageRequest.of(0, readChunkSize));
+            for (PricePoint point : chunk) {
+                sampler.accept(point.recordedAt(), point.priceCents());
+            }
+            chunks++;
+            if (chunk.size() < readChunkSize) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).id();
+        }
+
+        log.debug("📈 Série do produto {}: {} registros em {} consultas -> {} buckets de {}s",
+            productId, sampler.getAccepted(), chunks, target, sampler.getBucketSeconds());
+        return new PriceSeries(productId, range.from(), range.to(), sampler.getBucketSeconds(),
+            sampler.getAccepted(), sampler.points());
+    }
+
+    /**
+     * The {@code limit} most recent observations, newest first. Hot rows come first; compacted
+     * months are only decoded when the hot table holds fewer than {@code limit} rows.
+     * Cold points have a null ID.
+     */
+    public List<PricePoint> latest(Long productId, int limit) {
+        List<PricePoint> latest = new ArrayList<>(priceHistoryRepository.findLatestPoints(productId, PageRequest.of(0, limit)));
+        int page = 0;
+        while (latest.size() < limit) {
+            List<PriceHistoryBlock> blocks = blockRepository.findByProductIdOrderByMonthStartDesc(
+                productId, PageRequest.of(page++, BLOCK_PAGE_SIZE));
+            for (PriceHistoryBlock block : blocks) {
+                List<PricePoint> month = PriceHistoryCodec.decode(block.getData());
+                for (int i = month.size() - 1; i >= 0 && latest.size() < limit; i--) {
+                    latest.add(month.get(i));
+                }
+            }
+            if (blocks.size() < BLOCK_PAGE_SIZE) {
+                break;
+            }
+        }
+        latest.sort(Comparator.comparing(PricePoint::recordedAt).reversed());
+        return latest;
+    }
+
+    /**
+     * Every observation since {@code since}, oldest first, cold blocks merged with hot rows.
+     * Cold points have a null ID.
+     */
+    public List<PricePoint> findSince(Long productId, LocalDateTime since) {
+        List<PricePoint> merged = new ArrayList<>();
+        for (PriceHistoryBlock block : blockRepository.findByProductIdAndLastRecordedAtGreaterThanEqualOrderByMonthStartAsc(productId, since)) {
+            for (PricePoint point : PriceHistoryCodec.decode(block.getData())) {
+                if (!point.recordedAt().isBefore(since)) {
+                    merged.add(point);
+                }
+            }
+        }
+        for (PriceHistory row : priceHistoryRepository.findByProductIdSince(productId, since)) {
+            merged.add(new PricePoint(row.getId(), row.getPriceCents(), row.getRecordedAt()));
+        }
+        return merged;
+    }
+
+    private record Range(LocalDateTime from, LocalDateTime to) {
+    }
+
+    private Range range(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(defaultRangeDays);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("'from' deve ser anterior a 'to'");
+        }
+        return new Range(start, end);
+    }
+}
@@ -0,0 +1,114 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.PriceSeries;
+import com.mercadolivre.pricemonitor.model.Money;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Folds a stream of price samples (in centavos) into fixed-width min/max/last buckets in a single pass.
+ *
+ * Memory is O(buckets), not O(samples), and samples may arrive in any order: "last" is
+ * the sample with the latest timestamp in its bucket. Samples outside [from, to) are ignored.
+ */
+public class PriceSeriesDownsampler {
+
+    private final LocalDateTime from;
+    private final long fromMillis;
+    private final long bucketMillis;
+    private final int buckets;
+
+    private final long[] min;
+    private final long[] max;
+    private final long[] last;
+    private final long[] lastAt;
+    private final int[] count;
+    private long accepted;
+
+    public PriceSeriesDownsampler(LocalDateTime from, LocalDateTime to, int targetPoints) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' deve ser anterior a 'to'");
+        }
+        if (targetPoints < 1) {
+            throw new IllegalArgumentException("targetPoints deve ser >= 1");
+        }
+        this.from = from;
+        this.fromMillis = toMillis(from);
+        long span = toMillis(to) - fromMillis;
+        this.bucketMillis = Math.max(1, (span + targetPoints - 1) / targetPoints);
+        this.buckets = (int) Math.min(targetPoints, (span + bucketMillis - 1) / bucketMillis);
+
+        this.min = new long[buckets];
+        this.max = new long[buckets];
+        this.last = new long[buckets];
+        this.lastAt = new long[buckets];
+        this.count = new int[buckets];
+    }
+
+    public void accept(LocalDateTime recordedAt, long priceCents) {
+        if (recordedAt == null) {
+            return;
+        }
+        long at = toMillis(recordedAt);
+        long offset = at - fromMillis;
+        if (offset < 0) {
+            return;
+        }
+        long index = offset / bucketMillis;
+        if (index >= buckets) {
+            return;
+        }
+        int i = (int) index;
+        long p = priceCents;
+        if (count[i] == 0) {
+            min[i] = p;
+            max[i] = p;
+            last[i] = p;
+            lastAt[i] = at;
+        } else {
+            if (p < min[i]) min[i] = p;
+            if (p > max[i]) max[i] = p;
+            if (at >= lastAt[i]) {
+                last[i] = p;
+                lastAt[i] = at;
+            }
+        }
+        count[i]++;
+        accepted++;
+    }
+
+    public long getBucketSeconds() {
+        return Math.max(1, bucketMillis / 1000);
+    }
+
+    public long getAccepted() {
+        return accepted;
+    }
+
+    public List<PriceSeries.Point> points() {
+        List<PriceSeries.Point> points = new ArrayList<>();
+        for (int i = 0; i < buckets; i++) {
+            if (count[i] == 0) {
+                continue;
+            }
+            points.add(new PriceSeries.Point(
+                from.plus(i * bucketMillis, ChronoUnit.MILLIS),
+                fromMillis(lastAt[i]),
+                Money.toReais(min[i]), Money.toReais(max[i]), Money.toReais(last[i]), count[i]));
+        }
+        return points;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+            (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,151 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reads the URLs of a bulk import straight from the request stream (JSON or CSV), keeping
+ * only the canonical, de-duplicated set in memory.
+ *
+ * JSON: {@code ["https://...", {"url": "https://..."}]}. CSV: one product per line, the first
+ * cell that looks like a URL is used (so header rows and extra columns are ignored).
+ */
+public class ProductImportReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final int maxUrls;
+    private final Set<String> urls = new LinkedHashSet<>();
+    private int received;
+    private int invalid;
+    private int duplicates;
+
+    public ProductImportReader(int maxUrls) {
+        this.maxUrls = maxUrls;
+    }
+
+    public static boolean isCsv(String contentType, String filename) {
+        String type = contentType != null ? contentType.toLowerCase(Locale.ROOT) : "";
+        String name = filename != null ? filename.toLowerCase(Locale.ROOT) : "";
+        return type.contains("csv") || type.startsWith("text/plain") || name.endsWith(".csv") || name.endsWith(".txt");
+    }
+
+    public ProductImportReader read(InputStream in, boolean csv) throws IOException {
+        if (csv) {
+            readCsv(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } else {
+            readJson(in);
+        }
+        return this;
+    }
+
+    public void readJson(InputStream in) throws IOException {
+        try (JsonParser parser = JSON.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Envie um array JSON de URLs");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token == JsonToken.VALUE_STRING) {
+                    add(parser.getText());
+                } else if (token == JsonToken.START_OBJECT) {
+                    String url = null;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String field = parser.currentName();
+                        parser.nextToken();
+                        if ("url".equals(field) && parser.currentToken() == JsonToken.VALUE_STRING) {
+                            url = parser.getText();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    add(url);
+                } else {
+                    parser.skipChildren();
+                    received++;
+                    invalid++;
+                }
+            }
+        }
+    }
+
+    public void readCsv(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String url = firstUrlCell(line);
+            if (url != null) {
+                add(url);
+            } else if (received > 0 || !looksLikeHeader(line)) {
+                received++;
+                invalid++;
+            }
+        }
+    }
+
+    private void add(String raw) {
+        received++;
+        String canonical = ProductUrls.canonicalize(raw);
+        if (canonical == null) {
+            invalid++;
+            return;
+        }
+        if (urls.contains(canonical)) {
+            duplicates++;
+            return;
+        }
+        if (urls.size() >= maxUrls) {
+            throw new IllegalArgumentException("Máximo de " + maxUrls + " URLs por importação");
+        }
+        urls.add(canonical);
+    }
+
+    private static String firstUrlCell(String line) {
+        for (String cell : line.split("[,;\\t]")) {
+            String value = cell.strip();
+            if (value.startsWith("\"")) {
+                value = value.replace("\"", "");
+            }
+            String lower = value.toLowerCase(Locale.ROOT);
+            if (lower.startsWith("http://") || lower.startsWith("https://") || lower.startsWith("www.")
+                    || lower.contains("mercadoli")) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    private static boolean looksLikeHeader(String line) {
+        return !line.contains("/");
+    }
+
+    public Set<String> getUrls() {
+        return urls;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getInvalid() {
+        return invalid;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+}
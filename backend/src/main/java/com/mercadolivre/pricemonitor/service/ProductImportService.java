@@ -0,0 +1,368 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ProductImportStatus;
+import com.mercadolivre.pricemonitor.model.User;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import com.mercadolivre.pricemonitor.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk catalogue import.
+ *
+ * The controller streams the request through {@link ProductImportReader} (canonical,
+ * de-duplicated URLs only). Here the import is checked against the user's existing URLs
+ * with a single query, inserted with JDBC batches of {@code products.import.insert-batch-size}
+ * (one transaction per batch) on a single import worker. The initial scrapes then go to a
+ * shared dispatcher that starts one every {@code products.import.scrape-interval-ms}, at most
+ * {@code products.import.scrape-concurrency} at a time, taking turns between the jobs with
+ * scrapes left: an import of hundreds of URLs does not flood the scraper, and does not hold
+ * back another user's import either. Progress is kept in memory per job ID.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO products (name, url, user_id, status, notify_on_price_drop, notify_on_price_increase, last_checked_at, created_at) " +
+        "VALUES (?, ?, ?, 'PENDING', ?, ?, ?, ?)";
+
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncScrapingService asyncScrapingService;
+    private final ProductQueryService productQueryService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${products.import.max-urls:5000}")
+    private int maxUrls;
+
+    @Value("${products.import.insert-batch-size:500}")
+    private int insertBatchSize;
+
+    @Value("${products.import.scrape-concurrency:4}")
+    private int scrapeConcurrency;
+
+    @Value("${products.import.scrape-interval-ms:250}")
+    private long scrapeIntervalMs;
+
+    @Value("${products.import.job-retention-ms:3600000}")
+    private long jobRetentionMs;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    // Inserções rodam uma por vez; os scrapes de todos os jobs dividem o despachante e o pool
+    private final ExecutorService importWorker = Executors.newSingleThreadExecutor(daemon("product-import"));
+    private ExecutorService scrapePool;
+    private ScheduledExecutorService scrapeDispatcher;
+    private Semaphore scrapePermits;
+
+    // Jobs com scrapes pendentes, em rodízio: cada despacho pega um scrape do primeiro e o manda pro fim
+    private final Deque<ImportJob> scrapeQueue = new ArrayDeque<>();
+
+    private Counter insertedCounter;
+
+    @PostConstruct
+    public void init() {
+        scrapePool = Executors.newFixedThreadPool(Math.max(1, scrapeConcurrency), daemon("product-import-scrape"));
+        scrapePermits = new Semaphore(Math.max(1, scrapeConcurrency));
+        scrapeDispatcher = Executors.newSingleThreadScheduledExecutor(daemon("product-import-dispatch"));
+        long interval = Math.max(1, scrapeIntervalMs);
+        scrapeDispatcher.scheduleWithFixedDelay(this::dispatchNextScrape, interval, interval, TimeUnit.MILLISECONDS);
+        insertedCounter = Counter.builder("products.import.inserted")
+            .description("Produtos criados por importação em massa").register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importWorker.shutdownNow();
+        scrapeDispatcher.shutdownNow();
+        scrapePool.shutdownNow();
+    }
+
+    public ProductImportReader newReader() {
+        return new ProductImportReader(maxUrls);
+    }
+
+    /**
+     * Registers the job and runs it in background. Throws IllegalStateException when the
+     * user already has an import in progress or the account is being deleted.
+     */
+    public synchronized ProductImportStatus startImport(Long userId, ProductImportReader reader) {
+        boolean active = userRepository.findById(userId).filter(user -> user.getDeletedAt() == null).isPresent();
+        if (!active) {
+            throw new IllegalStateException("Conta em exclusão");
+        }
+        purgeFinishedJobs();
+        boolean running = jobs.values().stream()
+            .anyMatch(job -> job.userId.equals(userId) && job.finishedAt == null);
+        if (running) {
+            throw new IllegalStateException("Já existe uma importação em andamento");
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, reader);
+        jobs.put(job.id, job);
+        log.info("📥 Importação {} criada para userId {}: {} URLs únicas ({} recebidas)",
+            job.id, userId, reader.getUrls().size(), reader.getReceived());
+
+        importWorker.execute(() -> run(job, reader.getUrls()));
+        return job.toStatus();
+    }
+
+    /**
+     * Stops the user's running imports (account deletion): no more inserts, queued scrapes dropped.
+     */
+    public void cancelForUser(Long userId) {
+        for (ImportJob job : jobs.values()) {
+            if (!job.userId.equals(userId) || job.finishedAt != null) {
+                continue;
+            }
+            job.cancelled = true;
+            job.error = "Conta em exclusão";
+            int dropped = 0;
+            while (job.toScrape.poll() != null) {
+                dropped++;
+            }
+            if (dropped > 0 && job.scrapesLeft.addAndGet(-dropped) == 0) {
+                finish(job);
+            }
+            log.info("🛑 Importação {} cancelada: conta {} em exclusão", job.id, userId);
+        }
+    }
+
+    public Optional<ProductImportStatus> getStatus(String jobId, Long userId) {
+        return Optional.ofNullable(jobs.get(jobId))
+            .filter(job -> job.userId.equals(userId))
+            .map(ImportJob::toStatus);
+    }
+
+    /**
+     * Insert phase, on the import worker. The scrapes are queued for the dispatcher and the job
+     * finishes when the last one completes.
+     */
+    void run(ImportJob job, Set<String> urls) {
+        Map<String, Long> created;
+        try {
+            job.status = "INSERTING";
+            created = insertNewProducts(job, urls);
+            productQueryService.evict(job.userId);
+        } catch (Exception e) {
+            job.status = "FAILED";
+            job.error = e.getMessage();
+            job.finishedAt = LocalDateTime.now();
+            log.error("❌ Importação {} falhou: {}", job.id, e.getMessage(), e);
+            return;
+        }
+
+        if (created.isEmpty() || job.cancelled) {
+            finish(job);
+            return;
+        }
+        job.status = "SCRAPING";
+        job.scrapesLeft.set(created.size());
+        job.toScrape.addAll(created.entrySet());
+        synchronized (scrapeQueue) {
+            scrapeQueue.addLast(job);
+        }
+    }
+
+    private void finish(ImportJob job) {
+        job.status = job.cancelled ? "FAILED" : "DONE";
+        job.finishedAt = LocalDateTime.now();
+        log.info("✅ Importação {} concluída: {} inseridos, {} já monitorados, {} scrapes ok, {} falhas",
+            job.id, job.inserted.get(), job.alreadyMonitored, job.scraped.get(), job.scrapeFailed.get());
+    }
+
+    /**
+     * @return canonical URL → new product ID, in import order
+     */
+    private Map<String, Long> insertNewProducts(ImportJob job, Set<String> urls) {
+        // Uma consulta: tudo que o usuário já monitora, canonicalizado (URLs antigas podem ter query string)
+        List<String> existingUrls = productRepository.findUrlsByUserId(job.userId);
+        Set<String> existing = existingUrls.stream()
+            .map(ProductUrls::canonicalize)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+
+        List<String> toInsert = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            if (existing.contains(url)) {
+                job.alreadyMonitored++;
+            } else {
+                toInsert.add(url);
+            }
+        }
+
+        int allowed = allowedNewProducts(job.userId, existingUrls.size());
+        if (toInsert.size() > allowed) {
+            job.overLimit = toInsert.size() - allowed;
+            toInsert = toInsert.subList(0, allowed);
+        }
+
+        Map<String, Long> created = new LinkedHashMap<>();
+        for (int from = 0; from < toInsert.size() && !job.cancelled; from += insertBatchSize) {
+            List<String> batch = toInsert.subList(from, Math.min(from + insertBatchSize, toInsert.size()));
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            transactionTemplate.execute(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, url) -> {
+                    ps.setString(1, truncate(ProductService.extractProductNameFromUrl(url), 255));
+                    ps.setString(2, url);
+                    ps.setLong(3, job.userId);
+                    ps.setBoolean(4, true);
+                    ps.setBoolean(5, true);
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                });
+                return null;
+            });
+            for (Object[] row : productRepository.findIdAndUrlByUserIdAndUrlIn(job.userId, batch)) {
+                created.putIfAbsent((String) row[1], ((Number) row[0]).longValue());
+            }
+            job.inserted.addAndGet(batch.size());
+            insertedCounter.increment(batch.size());
+        }
+        return created;
+    }
+
+    private int allowedNewProducts(Long userId, int existingCount) {
+        User user = userRepository.findById(userId).orElse(null);
+        if (user != null && !Boolean.TRUE.equals(user.getEmailVerified())) {
+            return Math.max(0, ProductService.UNVERIFIED_USER_PRODUCT_LIMIT - existingCount);
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Starts at most one scrape per tick, when a slot in the scrape pool is free.
+     */
+    void dispatchNextScrape() {
+        if (!scrapePermits.tryAcquire()) {
+            return;
+        }
+        ImportJob job;
+        Map.Entry<String, Long> next;
+        synchronized (scrapeQueue) {
+            job = scrapeQueue.pollFirst();
+            next = job != null ? job.toScrape.poll() : null;
+            if (job != null && !job.toScrape.isEmpty()) {
+                scrapeQueue.addLast(job);
+            }
+        }
+        if (next == null) {
+            scrapePermits.release();
+            return;
+        }
+        try {
+            scrapePool.execute(() -> scrape(job, next));
+        } catch (RejectedExecutionException e) {
+            scrapePermits.release(); // desligando
+        }
+    }
+
+    private void scrape(ImportJob job, Map.Entry<String, Long> entry) {
+        try {
+            if (job.cancelled) {
+                return;
+            }
+            if (asyncScrapingService.scrapeProduct(entry.getValue(), entry.getKey())) {
+                job.scraped.incrementAndGet();
+            } else {
+                job.scrapeFailed.incrementAndGet();
+            }
+        } catch (Exception e) {
+            job.scrapeFailed.incrementAndGet();
+            log.warn("⚠️ Importação {}: scrape de {} falhou: {}", job.id, entry.getKey(), e.getMessage());
+        } finally {
+            scrapePermits.release();
+            if (job.scrapesLeft.decrementAndGet() == 0) {
+                finish(job);
+            }
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(jobRetentionMs * 1_000_000);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    static final class ImportJob {
+        final String id;
+        final Long userId;
+        final int received;
+        final int invalid;
+        final int duplicates;
+        final LocalDateTime createdAt = LocalDateTime.now();
+        final AtomicInteger inserted = new AtomicInteger();
+        final AtomicInteger scraped = new AtomicInteger();
+        final AtomicInteger scrapeFailed = new AtomicInteger();
+        final Queue<Map.Entry<String, Long>> toScrape = new ConcurrentLinkedQueue<>();
+        final AtomicInteger scrapesLeft = new AtomicInteger();
+        volatile String status = "QUEUED";
+        volatile boolean cancelled;
+        volatile int alreadyMonitored;
+        volatile int overLimit;
+        volatile LocalDateTime finishedAt;
+        volatile String error;
+
+        ImportJob(String id, Long userId, ProductImportReader reader) {
+            this.id = id;
+            this.userId = userId;
+            this.received = reader.getReceived();
+            this.invalid = reader.getInvalid();
+            this.duplicates = reader.getDuplicates();
+        }
+
+        ProductImportStatus toStatus() {
+            return new ProductImportStatus(id, status, received, invalid, duplicates, alreadyMonitored, overLimit,
+                inserted.get(), scraped.get(), scrapeFailed.get(), createdAt, finishedAt, error);
+        }
+    }
+}
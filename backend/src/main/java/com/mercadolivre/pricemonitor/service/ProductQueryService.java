@@ -0,0 +1,261 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ProductPage;
+import com.mercadolivre.pricemonitor.dto.ProductState;
+import com.mercadolivre.pricemonitor.dto.ProductSummary;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read side of the product list (dashboard load and polling).
+ *
+ * Lists come from a {@link ProductSummary} projection in a read-only transaction, and each
+ * user's full list is kept as an immutable snapshot until a write to one of their products
+ * calls {@link #evict} (or {@code products.list-cache.ttl-ms} passes, as a safety net for
+ * bulk updates). Pages are keyset-based on the product ID and are cut from the snapshot,
+ * so paging through 2,000 products costs one query.
+ *
+ * Prices, discount and last check are overlaid from {@link ProductStateStore} on every read,
+ * so a price check does not need to evict the snapshot; only name/image/status changes do.
+ *
+ * The cache is bounded by {@code max-users} snapshots and by {@code max-bytes} of estimated
+ * heap across all snapshots; a single list larger than the whole budget is not cached.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ProductQueryService {
+
+    static final int MAX_PAGE_SIZE = 500;
+    // Registro + IDs/preços boxed + duas LocalDateTime, sem as strings
+    static final long ROW_OVERHEAD_BYTES = 300;
+    static final long STRING_OVERHEAD_BYTES = 40;
+
+    private final ProductRepository productRepository;
+    private final ProductStateStore productStateStore;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${products.list-cache.ttl-ms:60000}") // 0 desliga o cache
+    private long ttlMs;
+
+    @Value("${products.list-cache.max-users:2000}")
+    private int maxUsers;
+
+    @Value("${products.list-cache.max-bytes:67108864}")
+    private long maxBytes;
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    // Incrementado a cada evict: um load que começou antes não grava snapshot velho
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final AtomicLong cachedBytes = new AtomicLong();
+
+    private Counter hits;
+    private Counter misses;
+
+    private record Snapshot(List<ProductSummary> items, long loadedAt, long bytes) {
+    }
+
+    @PostConstruct
+    public void init() {
+        hits = Counter.builder("products.list.cache").tag("result", "hit").register(meterRegistry);
+        misses = Counter.builder("products.list.cache").tag("result", "miss").register(meterRegistry);
+        Gauge.builder("products.list.cache.users", snapshots, Map::size).register(meterRegistry);
+        Gauge.builder("products.list.cache.bytes", cachedBytes, AtomicLong::get)
+            .description("Heap estimado dos snapshots em cache").register(meterRegistry);
+    }
+
+    /**
+     * All products of a user, ordered by ID, with the current in-memory state. The returned list is immutable.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductSummary> listForUser(Long userId) {
+        return withState(snapshot(userId));
+    }
+
+    private List<ProductSummary> snapshot(Long userId) {
+        if (ttlMs <= 0) {
+            return productRepository.findSummariesByUserId(userId);
+        }
+        long now = System.currentTimeMillis();
+        Snapshot snapshot = snapshots.get(userId);
+        if (snapshot != null && now - snapshot.loadedAt() < ttlMs) {
+            hits.increment();
+            return snapshot.items();
+        }
+
+        misses.increment();
+        AtomicLong version = versions.computeIfAbsent(userId, id -> new AtomicLong());
+        long before = version.get();
+        List<ProductSummary> items = List.copyOf(productRepository.findSummariesByUserId(userId));
+        long bytes = estimateBytes(items);
+        // Lista maior que o orçamento inteiro: serve do banco sem guardar
+        if (version.get() == before && bytes <= maxBytes) {
+            if (snapshots.size() >= maxUsers || cachedBytes.get() + bytes > maxBytes) {
+                trim(now, bytes);
+            }
+            store(userId, new Snapshot(items, now, bytes));
+        }
+        return items;
+    }
+
+    /**
+     * Keyset page: up to {@code limit} products with ID greater than {@code afterId}.
+     */
+    @Transactional(readOnly = true)
+    public ProductPage page(Long userId, Long afterId, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long after = afterId != null ? afterId : 0L;
+
+        List<ProductSummary> items;
+        boolean hasMore;
+        if (ttlMs <= 0) {
+            // Sem cache: uma linha a mais diz se há próxima página
+            List<ProductSummary> rows = productRepository.findSummariesByUserIdAfter(userId, after, PageRequest.of(0, size + 1));
+            hasMore = rows.size() > size;
+            items = withState(hasMore ? rows.subList(0, size) : rows);
+        } else {
+            List<ProductSummary> all = snapshot(userId);
+            int from = firstIndexAfter(all, after);
+            int to = Math.min(from + size, all.size());
+            items = withState(all.subList(from, to));
+            hasMore = to < all.size();
+        }
+
+        Long nextCursor = hasMore ? items.get(items.size() - 1).id() : null;
+        return new ProductPage(items, nextCursor, hasMore);
+    }
+
+    /**
+     * Drops the user's snapshot. Inside a transaction this runs after commit, so the next
+     * read sees the new data.
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        Runnable evict = () -> {
+            versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+            drop(userId);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Também agora: leituras durante a transação não devem recarregar o snapshot velho
+            evict.run();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        } else {
+            evict.run();
+        }
+    }
+
+    public void evictAll() {
+        versions.values().forEach(AtomicLong::incrementAndGet);
+        snapshots.keySet().forEach(this::drop);
+    }
+
+    private void store(Long userId, Snapshot snapshot) {
+        Snapshot previous = snapshots.put(userId, snapshot);
+        cachedBytes.addAndGet(snapshot.bytes() - (previous != null ? previous.bytes() : 0));
+    }
+
+    private void drop(Long userId) {
+        Snapshot removed = snapshots.remove(userId);
+        if (removed != null) {
+            cachedBytes.addAndGet(-removed.bytes());
+        }
+    }
+
+    /**
+     * Rough heap size of a snapshot: fixed cost per row plus its strings (2 bytes per char,
+     * the worst case of compact strings). Good enough to keep a few huge accounts from
+     * holding gigabytes.
+     */
+    static long estimateBytes(List<ProductSummary> items) {
+        long total = 0;
+        for (ProductSummary item : items) {
+            total += ROW_OVERHEAD_BYTES + chars(item.name()) + chars(item.url())
+                + chars(item.imageUrl()) + chars(item.status());
+        }
+        return total;
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + 2L * value.length();
+    }
+
+    private List<ProductSummary> withState(List<ProductSummary> items) {
+        if (!productStateStore.isEnabled()) {
+            return items;
+        }
+        List<ProductSummary> result = new ArrayList<>(items.size());
+        for (ProductSummary item : items) {
+            ProductState state = productStateStore.get(item.id());
+            result.add(state != null ? item.withState(state) : item);
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Binary search on the ID-ordered list.
+     */
+    static int firstIndexAfter(List<ProductSummary> items, long afterId) {
+        int low = 0;
+        int high = items.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (items.get(mid).id() <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Makes room for a snapshot of {@code incomingBytes}: expired snapshots first, then the
+     * oldest ones until both limits fit.
+     */
+    private void trim(long now, long incomingBytes) {
+        for (Map.Entry<Long, Snapshot> entry : snapshots.entrySet()) {
+            if (now - entry.getValue().loadedAt() >= ttlMs && snapshots.remove(entry.getKey(), entry.getValue())) {
+                cachedBytes.addAndGet(-entry.getValue().bytes());
+            }
+        }
+        if (snapshots.size() < maxUsers && cachedBytes.get() + incomingBytes <= maxBytes) {
+            return;
+        }
+        List<Map.Entry<Long, Snapshot>> oldestFirst = new ArrayList<>(snapshots.entrySet());
+        oldestFirst.sort(Comparator.comparingLong(e -> e.getValue().loadedAt()));
+        for (Map.Entry<Long, Snapshot> entry : oldestFirst) {
+            if (snapshots.size() < maxUsers && cachedBytes.get() + incomingBytes <= maxBytes) {
+                break;
+            }
+            if (snapshots.remove(entry.getKey(), entry.getValue())) {
+                cachedBytes.addAndGet(-entry.getValue().bytes());
+            }
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.mercadolivre.pricemonitor.service;
 
 import com.mercadolivre.pricemonitor.dto.AnalyticsResponse;
+import com.mercadolivre.pricemonitor.dto.PricePoint;
+import com.mercadolivre.pricemonitor.dto.ProductState;
 import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.model.Money;
 import com.mercadolivre.pricemonitor.model.PriceHistory;
 import com.mercadolivre.pricemonitor.model.Product;
 import com.mercadolivre.pricemonitor.model.User;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryBlockRepository;
 import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
 import com.mercadolivre.pricemonitor.repository.ProductRepository;
 import com.mercadolivre.pricemonitor.repository.UserRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -29,12 +34,18 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryBlockRepository priceHistoryBlockRepository;
+    private final PriceHistoryQueryService priceHistoryQueryService;
     private final UserRepository userRepository;
     private final ScraperService scraperService;
-    private final BrevoEmailService brevoEmailService; // Use Brevo API (works on Railway)
+    private final EmailRouter emailRouter;
     private final NotificationService notificationService;
     private final TelegramService telegramService;
     private final AsyncScrapingService asyncScrapingService; // For background scraping
+    private final EventStreamService eventStreamService;
+    private final ProductQueryService productQueryService;
+    private final ProductStateStore productStateStore;
+    private final PipelineMetrics pipelineMetrics;
 
     public List<Product> getProductsByUserId(Long userId) {
         log.debug("Fetching products for userId: {}", userId);
@@ -42,7 +53,7 @@ public class ProductService {
     }
 
     public List<Product> getAllProducts() {
-        return productRepository.findAll();
+        return productRepository.findAllMonitored();
     }
 
     public Optional<Product> getProductById(Long id) {
@@ -76,10 +87,12 @@ public class ProductService {
         return url.trim();
     }
 
-    public List<PriceHistory> getPriceHistory(Long productId) {
-        return productRepository.findById(productId)
-                .map(priceHistoryRepository::findTop30ByProductOrderByRecordedAtDesc)
-                .orElse(List.of());
+    public List<PricePoint> getPriceHistory(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            return List.of();
+        }
+        // Inclui os meses já compactados, se o histórico quente não tiver 30 pontos
+        return priceHistoryQueryService.latest(productId, 30);
     }
 
     /**
@@ -97,7 +110,7 @@ public class ProductService {
         
         List<Long> idsToDelete = new ArrayList<>();
         Long currentProductId = null;
-        Double lastPrice = null;
+        long lastPriceCents = 0;
         
         for (PriceHistory ph : allHistory) {
             Long productId = ph.getProduct().getId();
@@ -105,18 +118,17 @@ public class ProductService {
             // Novo produto - resetar lastPrice
             if (!productId.equals(currentProductId)) {
                 currentProductId = productId;
-                lastPrice = ph.getPrice();
+                lastPriceCents = ph.getPriceCents();
                 continue; // Primeiro registro do produto, manter
             }
             
-            // Mesmo produto - verificar se preço é igual ao anterior
-            if (lastPrice != null && ph.getPrice() != null 
-                && Math.abs(lastPrice - ph.getPrice()) < 0.01) {
+            // Mesmo produto - verificar se preço é igual ao anterior (centavos: comparação exata)
+            if (ph.getPriceCents() == lastPriceCents) {
                 // Preço igual ao anterior - marcar para deletar
                 idsToDelete.add(ph.getId());
             } else {
                 // Preço diferente - atualizar lastPrice
-                lastPrice = ph.getPrice();
+                lastPriceCents = ph.getPriceCents();
             }
         }
         
@@ -140,14 +152,21 @@ public class ProductService {
 
     @Transactional
     public void removeProduct(Long id) {
+        productRepository.findById(id).map(Product::getUserId).ifPresent(productQueryService::evict);
         priceHistoryRepository.deleteByProductId(id);
+        priceHistoryBlockRepository.deleteByProductId(id);
         productRepository.deleteById(id);
+        productStateStore.removeAfterCommit(List.of(id));
         log.info("Removed product with ID: {}", id);
     }
 
     // Limite de produtos para usuários não verificados (fase de teste)
     public static final int UNVERIFIED_USER_PRODUCT_LIMIT = 4;
 
+    // Janela máxima do /analytics: as consultas nativas só leem a tabela quente,
+    // então a compactação nunca move histórico mais novo que isso
+    public static final int MAX_ANALYTICS_DAYS = 90;
+
     /**
      * Adds a new product to monitor. Scrapes the initial price immediately using a blocking call.
      * This is acceptable for a single, user-initiated action.
@@ -160,9 +179,14 @@ public class ProductService {
      */
     @Transactional
     public Product addProduct(String url, Long userId) {
-        // Verificar limite de produtos para usuários não verificados
         User user = userRepository.findById(userId).orElse(null);
-        if (user != null && !Boolean.TRUE.equals(user.getEmailVerified())) {
+        if (user == null || user.getDeletedAt() != null) {
+            // Conta em exclusão: um produto novo voltaria a criar linhas que o purge já apagou
+            throw new IllegalStateException("Conta em exclusão");
+        }
+
+        // Verificar limite de produtos para usuários não verificados
+        if (!Boolean.TRUE.equals(user.getEmailVerified())) {
             long productCount = productRepository.countByUserId(userId);
             if (productCount >= UNVERIFIED_USER_PRODUCT_LIMIT) {
                 log.warn("⚠️ Usuário {} atingiu limite de {} produtos (email não verificado)", userId, UNVERIFIED_USER_PRODUCT_LIMIT);
@@ -193,6 +217,8 @@ public class ProductService {
         product.setStatus("PENDING");
 
         Product saved = productRepository.save(product);
+        productStateStore.putAfterCommit(saved);
+        productQueryService.evict(userId);
         log.info("⏳ Product added with PENDING status for userId {}: {}", userId, url);
 
         // Disparar scraping em background via serviço separado (garante que @Async funciona!)
@@ -204,7 +230,7 @@ public class ProductService {
     /**
      * Extract a temporary product name from URL for immediate feedback.
      */
-    private String extractProductNameFromUrl(String url) {
+    static String extractProductNameFromUrl(String url) {
         try {
             // Try to extract MLB ID or product slug from URL
             // Example: https://www.mercadolivre.com.br/produto-xyz-MLB12345
@@ -238,47 +264,64 @@ public class ProductService {
      * Saves to price history when:
      * 1. The price actually changes, OR
      * 2. At least once per day (for statistics purposes)
+     *
+     * @return true if the price changed (false for unchanged or invalid data)
      */
     @Transactional
-    public void updateSingleProduct(Product product, ScrapeResponse scrapeData) {
+    public boolean updateSingleProduct(Product product, ScrapeResponse scrapeData) {
         if (scrapeData == null || !scrapeData.isValid()) {
             log.warn("Skipping update for product '{}' - scraper returned invalid data.", product.getName());
-            return;
+            return false;
         }
 
-        Double oldPrice = product.getCurrentPrice();
-        Double newPrice = scrapeData.getPrice();
+        // Estado quente (memória) é a referência para detectar mudança; sem ele, a entidade
+        ProductState state = productStateStore.get(product.getId());
+        Long oldPrice = state != null ? state.currentPriceCents() : product.getCurrentPriceCents();
+        long newPrice = scrapeData.getPriceCents(); // isValid() garante preço > 0
         
-        // Verificar se o preço realmente mudou (com tolerância para evitar falsos positivos)
-        boolean priceChanged = false;
-        if (oldPrice == null && newPrice != null) {
-            priceChanged = true; // Primeira vez que tem preço
-        } else if (oldPrice != null && newPrice != null) {
-            // Só considera mudança se diferença for maior que 0.01 (1 centavo)
-            priceChanged = Math.abs(oldPrice - newPrice) >= 0.01;
-        }
-
-        // Só atualiza lastPrice quando o preço realmente muda (para manter a variação visível)
-        if (priceChanged) {
-            product.setLastPrice(oldPrice);
+        // Centavos: mudança é comparação exata (null = primeira vez que tem preço)
+        boolean priceChanged = oldPrice == null || oldPrice != newPrice;
+        boolean hotChanged = priceChanged
+            || !Objects.equals(product.getOriginalPriceCents(), scrapeData.getOriginalPriceCents())
+            || !Objects.equals(product.getDiscountPercent(), scrapeData.getDiscountPercent());
+        boolean slowChanged = !Objects.equals(product.getName(), scrapeData.getTitle())
+            || (scrapeData.getImageUrl() != null && !scrapeData.getImageUrl().equals(product.getImageUrl()));
+        LocalDateTime now = LocalDateTime.now();
+
+        Timer.Sample persist = pipelineMetrics.start();
+        if (hotChanged || slowChanged) {
+            // Só atualiza lastPrice quando o preço realmente muda (para manter a variação visível)
+            if (priceChanged) {
+                product.setLastPriceCents(oldPrice);
+            }
+            product.setCurrentPriceCents(newPrice);
+            product.setOriginalPriceCents(scrapeData.getOriginalPriceCents());
+            product.setDiscountPercent(scrapeData.getDiscountPercent());
+            product.setLastCheckedAt(now);
+            product.setName(scrapeData.getTitle());
+            if (scrapeData.getImageUrl() != null) {
+                product.setImageUrl(scrapeData.getImageUrl());
+            }
+            productRepository.save(product);
+        } else {
+            // Nada mudou (caso comum): só marca a verificação, sem reescrever a linha inteira
+            productRepository.touchLastChecked(product.getId(), now);
+            product.setLastCheckedAt(now);
         }
-        product.setCurrentPrice(newPrice);
-        product.setOriginalPrice(scrapeData.getOriginalPrice());
-        product.setDiscountPercent(scrapeData.getDiscountPercent());
-        product.setLastCheckedAt(LocalDateTime.now());
-        product.setName(scrapeData.getTitle());
-        if (scrapeData.getImageUrl() != null) {
-            product.setImageUrl(scrapeData.getImageUrl());
+        pipelineMetrics.recordPersist(persist, hotChanged || slowChanged);
+        productStateStore.putAfterCommit(product);
+        // A lista sobrepõe preços/status do estado em memória; só nome/imagem invalidam o snapshot
+        if (slowChanged || !productStateStore.isEnabled()) {
+            productQueryService.evict(product.getUserId());
         }
-
-        productRepository.save(product);
+        eventStreamService.publishAfterCommit(product.getUserId(), EventStreamService.EVENT_PRODUCT, product);
 
         // Verificar se deve salvar no histórico
         boolean shouldSaveHistory = priceChanged;
         
         // Se o preço não mudou, verificar se já tem registro hoje
         if (!priceChanged) {
-            List<PriceHistory> recentHistory = priceHistoryRepository.findByProductIdSince(
+            List<PricePoint> recentHistory = priceHistoryQueryService.findSince(
                 product.getId(), 
                 LocalDateTime.now().minusHours(12) // Verifica últimas 12 horas
             );
@@ -292,8 +335,10 @@ public class ProductService {
         if (shouldSaveHistory) {
             PriceHistory history = new PriceHistory(product, newPrice);
             priceHistoryRepository.save(history);
+            pipelineMetrics.recordHistoryRow(priceChanged ? PipelineMetrics.HISTORY_CHANGE : PipelineMetrics.HISTORY_PERIODIC);
             if (priceChanged) {
-                log.info("📊 Histórico salvo: '{}' - R$ {} → R$ {}", product.getName(), oldPrice, newPrice);
+                log.info("📊 Histórico salvo: '{}' - R$ {} → R$ {}", product.getName(),
+                    Money.toReaisOrNull(oldPrice), Money.toReais(newPrice));
             }
         }
 
@@ -303,21 +348,26 @@ public class ProductService {
             discountInfo = String.format(" (🏷️ %d%% OFF)", product.getDiscountPercent());
         }
         log.info("✅ Verificado '{}': R$ {}{} ({})", 
-            product.getName(), newPrice, discountInfo, priceChanged ? "MUDOU" : "igual");
+            product.getName(), Money.toReais(newPrice), discountInfo, priceChanged ? "MUDOU" : "igual");
         
         // Handle notifications (só notifica se mudou)
         if (priceChanged) {
             checkPriceAndNotify(product, oldPrice, newPrice);
         }
+        return priceChanged;
     }
 
     /**
      * Checks for price changes and sends notifications if necessary.
      */
-    private void checkPriceAndNotify(Product product, Double oldPrice, Double newPrice) {
-        if (oldPrice == null) return;
+    private void checkPriceAndNotify(Product product, Long oldPriceCents, long newPriceCents) {
+        if (oldPriceCents == null) return;
         // Only notify if price actually changed
-        if (oldPrice.equals(newPrice)) return;
+        if (oldPriceCents == newPriceCents) return;
+
+        // Notificações, emails e Telegram exibem reais
+        double oldPrice = Money.toReais(oldPriceCents);
+        double newPrice = Money.toReais(newPriceCents);
 
         Optional<User> userOpt = userRepository.findById(product.getUserId());
         if (userOpt.isEmpty()) {
@@ -335,29 +385,31 @@ public class ProductService {
                 oldPrice,
                 newPrice
             );
+            pipelineMetrics.recordNotification(PipelineMetrics.CHANNEL_IN_APP, true);
             log.info("🔔 In-app notification created for product: {}", product.getName());
         } catch (Exception e) {
+            pipelineMetrics.recordNotification(PipelineMetrics.CHANNEL_IN_APP, false);
             log.error("Failed to create in-app notification: {}", e.getMessage());
         }
 
         // Send email notification based on user preferences
-        if (newPrice < oldPrice) {
+        if (newPriceCents < oldPriceCents) {
             logPriceChange("PRICE DROP 🔻", product, oldPrice, newPrice);
             if (product.getNotifyOnPriceDrop()) {
-                log.info("📧 Tentando enviar email de queda de preço para: {} | Brevo configurado: {}", 
-                    user.getEmail(), brevoEmailService.isConfigured());
-                brevoEmailService.sendPriceDropNotification(user.getEmail(), product.getName(), product.getUrl(), oldPrice, newPrice);
+                log.info("📧 Enfileirando email de queda de preço para: {}", user.getEmail());
+                emailRouter.sendPriceDropNotification(user.getEmail(), product.getName(), product.getUrl(), oldPrice, newPrice);
+                pipelineMetrics.recordNotification(PipelineMetrics.CHANNEL_EMAIL, true); // enfileirado; envio em email.sent
                 // Also send Telegram notification
                 telegramService.sendPriceDropNotification(user, product.getName(), product.getUrl(), oldPrice, newPrice);
             } else {
                 log.info("📧 Notificação de queda de preço desativada para produto: {}", product.getName());
             }
-        } else if (newPrice > oldPrice) {
+        } else {
             logPriceChange("PRICE INCREASE 📈", product, oldPrice, newPrice);
             if (product.getNotifyOnPriceIncrease()) {
-                log.info("📧 Tentando enviar email de aumento de preço para: {} | Brevo configurado: {}", 
-                    user.getEmail(), brevoEmailService.isConfigured());
-                brevoEmailService.sendPriceIncreaseNotification(user.getEmail(), product.getName(), product.getUrl(), oldPrice, newPrice);
+                log.info("📧 Enfileirando email de aumento de preço para: {}", user.getEmail());
+                emailRouter.sendPriceIncreaseNotification(user.getEmail(), product.getName(), product.getUrl(), oldPrice, newPrice);
+                pipelineMetrics.recordNotification(PipelineMetrics.CHANNEL_EMAIL, true);
                 // Also send Telegram notification
                 telegramService.sendPriceIncreaseNotification(user, product.getName(), product.getUrl(), oldPrice, newPrice);
             } else {
@@ -369,7 +421,7 @@ public class ProductService {
     /**
      * Generic logger for price changes.
      */
-    private void logPriceChange(String event, Product product, Double oldPrice, Double newPrice) {
+    private void logPriceChange(String event, Product product, double oldPrice, double newPrice) {
         double change = newPrice - oldPrice;
         double percentChange = (change / oldPrice) * 100;
         
@@ -389,6 +441,7 @@ public class ProductService {
 
     @Transactional
     public Product updateProduct(Product product) {
+        productQueryService.evict(product.getUserId());
         return productRepository.save(product);
     }
 
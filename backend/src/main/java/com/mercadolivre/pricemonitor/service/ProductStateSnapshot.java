@@ -0,0 +1,116 @@
+package com.mercadolivre.pricemonitor.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File format of the {@link ProductStateStore} snapshot, read and written through a
+ * memory-mapped buffer.
+ *
+ * <pre>
+ * header (32 bytes): magic, version, record size, count (int each), saved-at millis, reserved (long)
+ * record (45 bytes): id, current, last, original, checked-at millis (long), discount (int), status (byte)
+ * </pre>
+ *
+ * Values are the store's raw slots (null sentinels included), so loading is a straight copy.
+ * The file is written to a temporary sibling and moved into place, so a crash mid-write
+ * leaves the previous snapshot intact.
+ */
+final class ProductStateSnapshot {
+
+    static final int MAGIC = 0x504D5353; // "PMSS"
+    static final int VERSION = 1; // mudar se o layout ou os códigos de status mudarem
+    static final int HEADER_BYTES = 4 * Integer.BYTES + 2 * Long.BYTES;
+    static final int RECORD_BYTES = ProductStateStore.BYTES_PER_SLOT;
+
+    private ProductStateSnapshot() {
+    }
+
+    static void write(Path path, long savedAtMillis, ProductStateStore store) throws IOException {
+        Path target = path.toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        MappedByteBuffer[] mapped = new MappedByteBuffer[1];
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            store.exportTo(count -> {
+                MappedByteBuffer buffer = map(channel, HEADER_BYTES + (long) count * RECORD_BYTES);
+                buffer.putInt(MAGIC).putInt(VERSION).putInt(RECORD_BYTES).putInt(count)
+                    .putLong(savedAtMillis).putLong(0L);
+                mapped[0] = buffer;
+                return (id, current, last, original, checkedAt, discount, status) -> buffer
+                    .putLong(id).putLong(current).putLong(last).putLong(original).putLong(checkedAt)
+                    .putInt(discount).put(status);
+            });
+            mapped[0].force();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Timestamp in the header, without loading the records.
+     */
+    static long savedAtMillis(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return header(channel).savedAtMillis();
+        }
+    }
+
+    /**
+     * Loads every record into the store and returns how many there were.
+     */
+    static int read(Path path, ProductStateStore store) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = header(channel);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+                (long) header.count() * RECORD_BYTES);
+            store.restore(header.count(), sink -> {
+                for (int i = 0; i < header.count(); i++) {
+                    sink.accept(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(),
+                        buffer.getLong(), buffer.getInt(), buffer.get());
+                }
+            });
+            return header.count();
+        }
+    }
+
+    private record Header(int count, long savedAtMillis) {
+    }
+
+    private static Header header(FileChannel channel) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_BYTES) {
+            throw new IOException("snapshot truncado");
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != RECORD_BYTES) {
+            throw new IOException("formato de snapshot desconhecido");
+        }
+        int count = buffer.getInt();
+        long savedAtMillis = buffer.getLong();
+        if (count < 0 || fileSize != HEADER_BYTES + (long) count * RECORD_BYTES) {
+            throw new IOException("snapshot truncado");
+        }
+        return new Header(count, savedAtMillis);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long bytes) {
+        if (bytes > Integer.MAX_VALUE) {
+            throw new UncheckedIOException(new IOException("snapshot maior que 2 GB"));
+        }
+        try {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
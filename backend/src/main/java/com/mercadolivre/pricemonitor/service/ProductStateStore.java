@@ -0,0 +1,659 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ProductState;
+import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.LongFunction;
+
+/**
+ * In-memory current state of every product (prices, discount, last check, status), keyed by
+ * the primitive product ID.
+ *
+ * Storage is an open-addressing hash table (linear probing, backward-shift deletion) over
+ * parallel primitive arrays, so an entry costs {@value #BYTES_PER_SLOT} bytes per slot and no
+ * objects. Reads are optimistic ({@link StampedLock}) and only fall back to a read lock when a
+ * write raced them. The store is warmed from the database when the application is ready and
+ * written through after commit by the price check and the background scrape; a missing entry
+ * just means "ask the database".
+ *
+ * To make restarts cheap the table is also saved to a memory-mapped snapshot file
+ * ({@link ProductStateSnapshot}, fixed-size records keyed by product ID). On boot the snapshot
+ * is loaded in one pass and the database is only asked for rows checked or updated since it was
+ * written (minus a safety margin), which replace the restored entries, plus the list of product
+ * IDs, so products deleted since then are dropped. Without a usable snapshot the store falls
+ * back to a full load.
+ *
+ * Métricas: {@code products.state.size} e {@code products.state.bytes}.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductStateStore {
+
+    static final int BYTES_PER_SLOT = 5 * Long.BYTES + Integer.BYTES + Byte.BYTES;
+
+    private static final long EMPTY_KEY = 0L; // IDs começam em 1
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+    private static final int MIN_CAPACITY = 1024;
+
+    // Índice = código gravado em statuses[]; 0 = nulo/desconhecido
+    private static final String[] STATUSES = {null, "PENDING", "ACTIVE", "ERROR", AccountPurgeService.PRODUCT_STATUS_DELETING};
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${products.state-store.enabled:true}")
+    private boolean enabled;
+
+    @Value("${products.state-store.warmup-batch-size:5000}")
+    private int warmupBatchSize;
+
+    @Value("${products.state-store.snapshot.path:data/product-state.snapshot}") // vazio desliga
+    private String snapshotPath;
+
+    @Value("${products.state-store.snapshot.max-age-ms:86400000}")
+    private long snapshotMaxAgeMs;
+
+    // Linhas verificadas até esse tempo antes do snapshot também são relidas (commits em andamento)
+    @Value("${products.state-store.snapshot.reconcile-margin-ms:60000}")
+    private long reconcileMarginMs;
+
+    private final StampedLock lock = new StampedLock();
+
+    private long[] keys;
+    private long[] currentCents;
+    private long[] lastCents;
+    private long[] originalCents;
+    private long[] checkedAtMillis;
+    private int[] discounts;
+    private byte[] statuses;
+    private int size;
+    // Só grava snapshot depois de aquecido, para não trocar um snapshot bom por uma tabela vazia
+    private volatile boolean warmedUp;
+    // Escritas ao vivo durante o aquecimento: a reconciliação não passa por cima delas
+    private final Set<Long> writtenDuringWarmUp = ConcurrentHashMap.newKeySet();
+    private volatile boolean warmUpFinished;
+
+    /**
+     * One raw entry as stored in the table; absent values are the {@code NULL_*} sentinels.
+     */
+    @FunctionalInterface
+    interface RecordSink {
+        void accept(long id, long current, long last, long original, long checkedAtMillis, int discount, byte status);
+    }
+
+    @PostConstruct
+    public void init() {
+        allocate(MIN_CAPACITY);
+        Gauge.builder("products.state.size", this, ProductStateStore::size)
+            .description("Produtos com estado em memória").register(meterRegistry);
+        Gauge.builder("products.state.bytes", this, ProductStateStore::estimatedBytes)
+            .description("Memória estimada do estado de produtos").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Restores the snapshot and reconciles it with the rows changed since it was written and
+     * with the current product IDs, or loads every product in ID pages when there is no usable
+     * snapshot. Entries written while warming up win over the rows read here.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!enabled) {
+            warmUpFinished = true;
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            LocalDateTime savedAt = restoreSnapshot();
+            if (savedAt != null) {
+                LocalDateTime since = savedAt.minusNanos(reconcileMarginMs * 1_000_000);
+                // Status sem nova verificação (ex.: DELETING) não tem checkedAt maior: a linha do banco vale
+                int changed = load(afterId -> productRepository.findStatesChangedSince(since, afterId,
+                    PageRequest.of(0, warmupBatchSize)), true);
+                int deleted = removeDeleted();
+                log.info("🧠 Estado de {} produtos restaurado do snapshot de {} ({} alterados, {} removidos desde então) em {}ms",
+                    size(), savedAt, changed, deleted, System.currentTimeMillis() - start);
+            } else {
+                load(afterId -> productRepository.findStatesAfter(afterId, PageRequest.of(0, warmupBatchSize)), false);
+                log.info("🧠 Estado de {} produtos carregado do banco em {}ms",
+                    size(), System.currentTimeMillis() - start);
+            }
+            warmedUp = true;
+            log.info("🧠 Memória do estado: {} KB (~{} KB por 100 mil produtos)",
+                estimatedBytes() / 1024, bytesPer100k() / 1024);
+        } catch (Exception e) {
+            // Sem estado aquecido tudo continua funcionando, só lendo do banco
+            log.error("🧠 ❌ Erro ao aquecer estado de produtos: {}", e.getMessage(), e);
+        } finally {
+            warmUpFinished = true;
+            writtenDuringWarmUp.clear();
+        }
+    }
+
+    /**
+     * With {@code reconcile} the rows replace the restored entries (except the ones written live
+     * meanwhile); otherwise an entry is only replaced by a more recent check.
+     */
+    private int load(LongFunction<List<ProductState>> pageAfter, boolean reconcile) {
+        int loaded = 0;
+        long afterId = 0L;
+        while (true) {
+            List<ProductState> page = pageAfter.apply(afterId);
+            for (ProductState state : page) {
+                write(state, reconcile && !writtenDuringWarmUp.contains(state.productId()));
+            }
+            loaded += page.size();
+            if (page.size() < warmupBatchSize) {
+                return loaded;
+            }
+            afterId = page.get(page.size() - 1).productId();
+        }
+    }
+
+    /**
+     * Drops entries whose product no longer exists. The live IDs come in ascending pages and are
+     * merged against the sorted keys taken before the scan, so products added meanwhile stay.
+     */
+    private int removeDeleted() {
+        long[] tracked = sortedKeys();
+        int removed = 0;
+        int next = 0;
+        long afterId = 0L;
+        while (true) {
+            List<Long> ids = productRepository.findIdsAfter(afterId, PageRequest.of(0, warmupBatchSize));
+            for (Long id : ids) {
+                while (next < tracked.length && tracked[next] < id) {
+                    removed += removeIfNotRewritten(tracked[next++]);
+                }
+                if (next < tracked.length && tracked[next] == id) {
+                    next++;
+                }
+            }
+            if (ids.size() < warmupBatchSize) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+        while (next < tracked.length) {
+            removed += removeIfNotRewritten(tracked[next++]);
+        }
+        return removed;
+    }
+
+    private int removeIfNotRewritten(long productId) {
+        if (writtenDuringWarmUp.contains(productId)) {
+            return 0;
+        }
+        removeSlot(productId);
+        return 1;
+    }
+
+    private long[] sortedKeys() {
+        long stamp = lock.readLock();
+        try {
+            long[] result = new long[size];
+            int n = 0;
+            for (long key : keys) {
+                if (key != EMPTY_KEY) {
+                    result[n++] = key;
+                }
+            }
+            Arrays.sort(result);
+            return result;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Snapshot timestamp, or null when there is no snapshot, it is too old or it cannot be read.
+     */
+    private LocalDateTime restoreSnapshot() {
+        Path path = snapshotFile();
+        if (path == null || !Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            long savedAtMillis = ProductStateSnapshot.savedAtMillis(path);
+            LocalDateTime savedAt = fromMillis(savedAtMillis);
+            if (savedAt.isBefore(LocalDateTime.now().minusNanos(snapshotMaxAgeMs * 1_000_000))) {
+                log.info("🧠 Snapshot de estado de {} é antigo demais, carregando do banco", savedAt);
+                return null;
+            }
+            ProductStateSnapshot.read(path, this);
+            return savedAt;
+        } catch (IOException | RuntimeException e) {
+            log.warn("🧠 Snapshot de estado ilegível ({}), carregando do banco: {}", path, e.getMessage());
+            clear();
+            return null;
+        }
+    }
+
+    /**
+     * Writes the whole table to the snapshot file. Returns false when snapshots are off or the
+     * store has not been warmed up yet.
+     */
+    public boolean saveSnapshot() throws IOException {
+        Path path = snapshotFile();
+        if (!enabled || !warmedUp || path == null) {
+            return false;
+        }
+        ProductStateSnapshot.write(path, toMillis(LocalDateTime.now()), this);
+        return true;
+    }
+
+    private Path snapshotFile() {
+        return snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+    }
+
+    /**
+     * Current state of a product, or null if it is not tracked.
+     */
+    public ProductState get(long productId) {
+        if (!enabled || productId == EMPTY_KEY) {
+            return null;
+        }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            ProductState state = read(productId);
+            if (lock.validate(stamp)) {
+                return state;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return read(productId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void put(ProductState state) {
+        if (enabled) {
+            if (!warmUpFinished) {
+                writtenDuringWarmUp.add(state.productId());
+            }
+            write(state, true);
+        }
+    }
+
+    /**
+     * Writes the product's state now, or after commit when called inside a transaction.
+     */
+    public void putAfterCommit(Product product) {
+        if (!enabled || product.getId() == null) {
+            return;
+        }
+        ProductState state = ProductState.of(product);
+        afterCommit(() -> put(state));
+    }
+
+    public void removeAfterCommit(Collection<Long> productIds) {
+        if (enabled && !productIds.isEmpty()) {
+            List<Long> ids = List.copyOf(productIds);
+            afterCommit(() -> ids.forEach(this::remove));
+        }
+    }
+
+    public void remove(long productId) {
+        if (!warmUpFinished) {
+            writtenDuringWarmUp.add(productId);
+        }
+        removeSlot(productId);
+    }
+
+    private void removeSlot(long productId) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = find(keys, productId);
+            if (slot >= 0) {
+                deleteSlot(slot);
+                size--;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long estimatedBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) keys.length * BYTES_PER_SLOT;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Memory per 100k products at the current load factor (table sized for the current count).
+     */
+    public long bytesPer100k() {
+        long stamp = lock.readLock();
+        try {
+            int count = Math.max(size, 1);
+            return (long) keys.length * BYTES_PER_SLOT * 100_000L / count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // ---------------------------------------------------------------- snapshot
+
+    /**
+     * Hands every entry to the sink returned by {@code open} (called with the entry count).
+     * The table is copied under the read lock and handed out after it is released, so writers
+     * only wait for the array copies, not for the file I/O.
+     */
+    void exportTo(IntFunction<RecordSink> open) {
+        long[] k;
+        long[] cur;
+        long[] last;
+        long[] orig;
+        long[] checked;
+        int[] disc;
+        byte[] st;
+        int count;
+        long stamp = lock.readLock();
+        try {
+            k = keys.clone();
+            cur = currentCents.clone();
+            last = lastCents.clone();
+            orig = originalCents.clone();
+            checked = checkedAtMillis.clone();
+            disc = discounts.clone();
+            st = statuses.clone();
+            count = size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+
+        RecordSink sink = open.apply(count);
+        for (int i = 0; i < k.length; i++) {
+            if (k[i] != EMPTY_KEY) {
+                sink.accept(k[i], cur[i], last[i], orig[i], checked[i], disc[i], st[i]);
+            }
+        }
+    }
+
+    /**
+     * Bulk insert of {@code count} raw entries under one write lock, with the table sized up front.
+     */
+    void restore(int count, Consumer<RecordSink> source) {
+        long stamp = lock.writeLock();
+        try {
+            ensureCapacity(size + count);
+            source.accept((id, current, last, original, checkedAt, discount, status) ->
+                writeRaw(id, current, last, original, checkedAt, discount, status, false));
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void clear() {
+        long stamp = lock.writeLock();
+        try {
+            allocate(MIN_CAPACITY);
+            size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ---------------------------------------------------------------- tabela
+
+    private ProductState read(long productId) {
+        // Sob leitura otimista os arrays podem ser de gerações diferentes: só confia se baterem
+        long[] k = keys;
+        long[] cur = currentCents;
+        long[] last = lastCents;
+        long[] orig = originalCents;
+        long[] checked = checkedAtMillis;
+        int[] disc = discounts;
+        byte[] st = statuses;
+        int capacity = k.length;
+        if (cur.length != capacity || last.length != capacity || orig.length != capacity
+            || checked.length != capacity || disc.length != capacity || st.length != capacity) {
+            return null;
+        }
+        int slot = find(k, productId);
+        if (slot < 0) {
+            return null;
+        }
+        int status = st[slot];
+        return new ProductState(productId, boxed(cur[slot]), boxed(last[slot]), boxed(orig[slot]),
+            disc[slot] == NULL_INT ? null : disc[slot],
+            checked[slot] == NULL_LONG ? null : fromMillis(checked[slot]),
+            status > 0 && status < STATUSES.length ? STATUSES[status] : null);
+    }
+
+    private void write(ProductState state, boolean overwrite) {
+        long stamp = lock.writeLock();
+        try {
+            writeRaw(state.productId(), unboxed(state.currentPriceCents()), unboxed(state.lastPriceCents()),
+                unboxed(state.originalPriceCents()),
+                state.lastCheckedAt() != null ? toMillis(state.lastCheckedAt()) : NULL_LONG,
+                state.discountPercent() != null ? state.discountPercent() : NULL_INT,
+                statusCode(state.status()), overwrite);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Caller holds the write lock. Without {@code overwrite} an existing entry is only replaced
+     * by a strictly more recent check.
+     */
+    private void writeRaw(long id, long current, long last, long original, long checkedAt, int discount,
+                          byte status, boolean overwrite) {
+        if (id == EMPTY_KEY) {
+            return;
+        }
+        int slot = find(keys, id);
+        if (slot >= 0 && !overwrite && checkedAtMillis[slot] >= checkedAt) {
+            return;
+        }
+        if (slot < 0) {
+            ensureCapacity(size + 1);
+            slot = insertionSlot(id);
+            keys[slot] = id;
+            size++;
+        }
+        currentCents[slot] = current;
+        lastCents[slot] = last;
+        originalCents[slot] = original;
+        checkedAtMillis[slot] = checkedAt;
+        discounts[slot] = discount;
+        statuses[slot] = status;
+    }
+
+    private void ensureCapacity(int entries) {
+        int capacity = keys.length;
+        while (entries * 4L > capacity * 3L) { // carga máxima 0.75
+            capacity *= 2;
+        }
+        if (capacity != keys.length) {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * Slot holding {@code id}, or -1. Bounded by the capacity so a racing optimistic read cannot spin.
+     */
+    private static int find(long[] table, long id) {
+        int mask = table.length - 1;
+        int slot = hash(id) & mask;
+        for (int probes = 0; probes < table.length; probes++) {
+            long key = table[slot];
+            if (key == id) {
+                return slot;
+            }
+            if (key == EMPTY_KEY) {
+                return -1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int insertionSlot(long id) {
+        int mask = keys.length - 1;
+        int slot = hash(id) & mask;
+        while (keys[slot] != EMPTY_KEY) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Backward-shift deletion: moves later entries of the probe chain into the hole, so lookups
+     * never need tombstones.
+     */
+    private void deleteSlot(int hole) {
+        int mask = keys.length - 1;
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = keys[slot];
+            if (key == EMPTY_KEY) {
+                break;
+            }
+            int home = hash(key) & mask;
+            // A entrada pode ir para o buraco se a posição ideal dela não estiver entre (hole, slot]
+            boolean canMove = hole <= slot ? (home <= hole || home > slot) : (home <= hole && home > slot);
+            if (canMove) {
+                copySlot(slot, hole);
+                hole = slot;
+            }
+        }
+        keys[hole] = EMPTY_KEY;
+    }
+
+    private void copySlot(int from, int to) {
+        keys[to] = keys[from];
+        currentCents[to] = currentCents[from];
+        lastCents[to] = lastCents[from];
+        originalCents[to] = originalCents[from];
+        checkedAtMillis[to] = checkedAtMillis[from];
+        discounts[to] = discounts[from];
+        statuses[to] = statuses[from];
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldCurrent = currentCents;
+        long[] oldLast = lastCents;
+        long[] oldOriginal = originalCents;
+        long[] oldChecked = checkedAtMillis;
+        int[] oldDiscounts = discounts;
+        byte[] oldStatuses = statuses;
+
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = insertionSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                currentCents[slot] = oldCurrent[i];
+                lastCents[slot] = oldLast[i];
+                originalCents[slot] = oldOriginal[i];
+                checkedAtMillis[slot] = oldChecked[i];
+                discounts[slot] = oldDiscounts[i];
+                statuses[slot] = oldStatuses[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        currentCents = new long[capacity];
+        lastCents = new long[capacity];
+        originalCents = new long[capacity];
+        checkedAtMillis = new long[capacity];
+        discounts = new int[capacity];
+        statuses = new byte[capacity];
+    }
+
+    private static int hash(long id) {
+        // Espalha IDs sequenciais (mix do SplitMix64)
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static byte statusCode(String status) {
+        for (int i = 1; i < STATUSES.length; i++) {
+            if (STATUSES[i].equals(status)) {
+                return (byte) i;
+            }
+        }
+        return 0;
+    }
+
+    private static long unboxed(Long value) {
+        return value != null ? value : NULL_LONG;
+    }
+
+    private static Long boxed(long value) {
+        return value != NULL_LONG ? value : null;
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+            (int) Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
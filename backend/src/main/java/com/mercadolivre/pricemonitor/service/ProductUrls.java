@@ -0,0 +1,105 @@
+package com.mercadolivre.pricemonitor.service;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Canonical form of product URLs, used to dedup bulk imports against each other and
+ * against what the user already monitors, and to coalesce fetches of the same item.
+ */
+public final class ProductUrls {
+
+    static final int MAX_URL_LENGTH = 2048;
+
+    // Mesmos padrões do MercadoLivreService.extractItemId: catálogo (/p/MLB123) e anúncio (MLB-123)
+    private static final Pattern ML_CATALOG_ID = Pattern.compile("/p/(ML[A-Z]\\d+)");
+    private static final Pattern ML_ITEM_ID = Pattern.compile("(ML[A-Z])-?(\\d+)");
+
+    private ProductUrls() {
+    }
+
+    /**
+     * Trims, drops query string and fragment, lower-cases scheme and host and removes a
+     * trailing slash. Returns null when the value is not an http(s) URL.
+     */
+    public static String canonicalize(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        String url = raw.strip();
+        if (url.length() >= 2 && url.startsWith("\"") && url.endsWith("\"")) {
+            url = url.substring(1, url.length() - 1).strip();
+        }
+        if (url.isEmpty()) {
+            return null;
+        }
+
+        int cut = indexOfAny(url, '#', '?');
+        if (cut >= 0) {
+            url = url.substring(0, cut);
+        }
+
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd < 0) {
+            // "www.mercadolivre.com.br/..." colado sem esquema
+            if (!url.toLowerCase(Locale.ROOT).contains("mercadoli")) {
+                return null;
+            }
+            url = "https://" + url;
+            schemeEnd = "https".length();
+        }
+        String scheme = url.substring(0, schemeEnd).toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https")) {
+            return null;
+        }
+
+        int hostStart = schemeEnd + 3;
+        int pathStart = url.indexOf('/', hostStart);
+        String host = (pathStart < 0 ? url.substring(hostStart) : url.substring(hostStart, pathStart)).toLowerCase(Locale.ROOT);
+        if (host.isEmpty() || host.indexOf(' ') >= 0) {
+            return null;
+        }
+        String path = pathStart < 0 ? "" : url.substring(pathStart);
+        while (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+
+        String canonical = scheme + "://" + host + path;
+        return canonical.length() <= MAX_URL_LENGTH ? canonical : null;
+    }
+
+    /**
+     * Identity of the item behind a URL: the Mercado Livre catalog or listing ID when there
+     * is one (so slug and tracking variations of the same listing match), otherwise the
+     * canonical URL, or the raw value when it cannot be canonicalized.
+     */
+    public static String itemKey(String raw) {
+        String canonical = canonicalize(raw);
+        String url = canonical != null ? canonical : raw;
+        if (url == null) {
+            return null;
+        }
+        if (url.contains("mercadolivre.com.br") || url.contains("mercadolibre.com")) {
+            Matcher catalog = ML_CATALOG_ID.matcher(url);
+            if (catalog.find()) {
+                return "ml-catalog:" + catalog.group(1);
+            }
+            Matcher item = ML_ITEM_ID.matcher(url);
+            if (item.find()) {
+                return "ml-item:" + item.group(1) + item.group(2);
+            }
+        }
+        return url;
+    }
+
+    private static int indexOfAny(String value, char a, char b) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == a || c == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
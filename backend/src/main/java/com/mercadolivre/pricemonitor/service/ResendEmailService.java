@@ -1,26 +1,36 @@
 package com.mercadolivre.pricemonitor.service;
 
+import com.mercadolivre.pricemonitor.email.EmailMessage;
+import com.mercadolivre.pricemonitor.email.EmailSendException;
+import com.mercadolivre.pricemonitor.email.EmailSender;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Email service using Resend API (HTTP-based, works on Railway).
+ * Email sender using Resend API (HTTP-based, works on Railway).
  * Resend is free for up to 3000 emails/month.
  */
 @Service
 @Slf4j
-public class ResendEmailService {
+public class ResendEmailService implements EmailSender {
 
-    private static final String RESEND_API_URL = "https://api.resend.com/emails";
+    /** Limite do endpoint /emails/batch da Resend. */
+    private static final int RESEND_BATCH_LIMIT = 100;
+
+    @Value("${resend.api.url:https://api.resend.com}")
+    private String apiUrl;
 
     @Value("${resend.api.key:}")
     private String apiKey;
@@ -31,205 +41,98 @@ public class ResendEmailService {
     @Value("${resend.from.name:MonitoraPreco}")
     private String fromName;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Autowired
+    @Qualifier("emailRestTemplate")
+    private RestTemplate restTemplate;
 
     @PostConstruct
     public void init() {
         boolean configured = isConfigured();
-        log.info("📧 [RESEND] Inicializando - API Key configurada: {} | From: {} <{}>", 
+        log.info("📧 [RESEND] Inicializando - API Key configurada: {} | From: {} <{}>",
             configured, fromName, fromEmail);
         if (!configured) {
-            log.warn("📧 [RESEND] API Key está vazia ou não configurada. Usando fallback SMTP.");
-            log.warn("📧 [RESEND] apiKey value: '{}'", apiKey != null ? (apiKey.isBlank() ? "<blank>" : "re_***" + apiKey.substring(Math.max(0, apiKey.length()-4))) : "<null>");
+            log.warn("📧 [RESEND] API Key está vazia ou não configurada. Provedor ignorado pelo roteador.");
         }
     }
 
+    @Override
+    public String name() {
+        return "resend";
+    }
+
     /**
      * Check if Resend is configured
      */
+    @Override
     public boolean isConfigured() {
-        boolean result = apiKey != null && !apiKey.isBlank() && !apiKey.equals("your-resend-api-key");
-        log.debug("📧 [RESEND] isConfigured check: apiKey={}, result={}", 
-            apiKey != null ? (apiKey.isBlank() ? "<blank>" : "re_***") : "<null>", result);
-        return result;
+        return apiKey != null && !apiKey.isBlank() && !apiKey.equals("your-resend-api-key");
+    }
+
+    @Override
+    public int maxBatchSize() {
+        return RESEND_BATCH_LIMIT;
     }
 
     /**
      * Send email via Resend API
      */
-    public boolean sendEmail(String to, String subject, String htmlBody) {
-        if (!isConfigured()) {
-            log.warn("📧 [RESEND] API key não configurada, email não enviado");
-            return false;
-        }
-
-        try {
-            log.info("📧 [RESEND] Enviando email para: {}", to);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
-
-            Map<String, Object> body = new HashMap<>();
-            body.put("from", fromName + " <" + fromEmail + ">");
-            body.put("to", List.of(to));
-            body.put("subject", subject);
-            body.put("html", htmlBody);
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-
-            ResponseEntity<String> response = restTemplate.exchange(
-                RESEND_API_URL,
-                HttpMethod.POST,
-                request,
-                String.class
-            );
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.info("📧 [RESEND] ✅ Email enviado com SUCESSO para {}", to);
-                return true;
-            } else {
-                log.error("📧 [RESEND] ❌ Erro ao enviar email: {}", response.getBody());
-                return false;
-            }
-
-        } catch (Exception e) {
-            log.error("📧 [RESEND] ❌ Erro ao enviar email para {}: {}", to, e.getMessage(), e);
-            return false;
-        }
+    @Override
+    public void send(EmailMessage message) {
+        log.info("📧 [RESEND] Enviando email para: {}", message.to());
+        post("/emails", toPayload(message));
+        log.info("📧 [RESEND] ✅ Email enviado com SUCESSO para {}", message.to());
     }
 
     /**
-     * Send verification email
+     * Send up to 100 emails in a single request (POST /emails/batch).
      */
-    @Async
-    public void sendVerificationEmail(String userEmail, String fullName, String verificationToken, String frontendUrl) {
-        try {
-            log.info("📧 [RESEND] Iniciando envio de email de verificação para: {}", userEmail);
-            
-            String baseUrl = frontendUrl.endsWith("/") ? frontendUrl : frontendUrl + "/";
-            String verificationLink = baseUrl + "verify-email?token=" + verificationToken;
-            
-            log.info("📧 [RESEND] Link de verificação: {}", verificationLink);
-
-            String subject = "✉️ Confirme seu email - MonitoraPreço";
-            
-            String htmlBody = String.format("""
-                <div style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto;">
-                    <div style="background: linear-gradient(135deg, #1e293b 0%%, #0f172a 100%%); padding: 30px; border-radius: 10px 10px 0 0; text-align: center;">
-                        <h1 style="color: #f59e0b; margin: 0; font-size: 28px;">MonitoraPreço</h1>
-                        <p style="color: #94a3b8; margin: 10px 0 0 0;">Inteligência Competitiva</p>
-                    </div>
-                    
-                    <div style="background: #f8f9fa; padding: 30px; border: 1px solid #e9ecef;">
-                        <h2 style="color: #333; margin-top: 0;">Olá, %s! 👋</h2>
-                        
-                        <p style="color: #555; font-size: 16px; line-height: 1.6;">
-                            Obrigado por se cadastrar no MonitoraPreço! Para ativar sua conta e começar a monitorar seus concorrentes, confirme seu email clicando no botão abaixo:
-                        </p>
-                        
-                        <div style="text-align: center; margin: 30px 0;">
-                            <a href="%s" style="display: inline-block; background: linear-gradient(135deg, #f59e0b 0%%, #d97706 100%%); color: white; padding: 15px 40px; text-decoration: none; border-radius: 8px; font-weight: bold; font-size: 16px;">
-                                ✉️ Confirmar Email
-                            </a>
-                        </div>
-                        
-                        <p style="color: #888; font-size: 14px;">
-                            Se o botão não funcionar, copie e cole este link no navegador:<br>
-                            <a href="%s" style="color: #f59e0b; word-break: break-all;">%s</a>
-                        </p>
-                        
-                        <p style="color: #888; font-size: 13px; margin-top: 20px;">
-                            ⏰ Este link expira em 24 horas.
-                        </p>
-                    </div>
-                    
-                    <div style="background: #1e293b; color: #94a3b8; padding: 20px; border-radius: 0 0 10px 10px; font-size: 12px; text-align: center;">
-                        <p style="margin: 0;">Se você não criou esta conta, ignore este email.</p>
-                        <p style="margin: 10px 0 0 0; color: #64748b;">© %d MonitoraPreço - Todos os direitos reservados</p>
-                    </div>
-                </div>
-                """,
-                getFirstName(fullName),
-                verificationLink,
-                verificationLink,
-                verificationLink,
-                java.time.Year.now().getValue()
-            );
+    @Override
+    public void sendBatch(List<EmailMessage> messages) {
+        if (messages.size() == 1) {
+            send(messages.get(0));
+            return;
+        }
 
-            sendEmail(userEmail, subject, htmlBody);
-            
-        } catch (Exception e) {
-            log.error("📧 [RESEND] ❌ Erro ao enviar email de verificação para {}: {}", userEmail, e.getMessage(), e);
+        List<Map<String, Object>> payload = new ArrayList<>(messages.size());
+        for (EmailMessage message : messages) {
+            payload.add(toPayload(message));
         }
+
+        log.info("📧 [RESEND] Enviando lote de {} emails", messages.size());
+        post("/emails/batch", payload);
+        log.info("📧 [RESEND] ✅ Lote de {} emails enviado", messages.size());
     }
 
-    /**
-     * Send password reset email
-     */
-    @Async
-    public void sendPasswordResetEmail(String userEmail, String fullName, String resetToken, String frontendUrl) {
-        try {
-            log.info("🔑 [RESEND] Iniciando envio de email de reset para: {}", userEmail);
-            
-            String resetLink = frontendUrl + "reset-password?token=" + resetToken;
-            
-            log.info("🔑 [RESEND] Link de reset: {}", resetLink);
-
-            String subject = "🔑 Recuperação de Senha - MonitoraPreço";
-            
-            String htmlBody = String.format("""
-                <div style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto;">
-                    <div style="background: linear-gradient(135deg, #1e293b 0%%, #0f172a 100%%); padding: 30px; border-radius: 10px 10px 0 0; text-align: center;">
-                        <h1 style="color: #f59e0b; margin: 0; font-size: 28px;">MonitoraPreço</h1>
-                        <p style="color: #94a3b8; margin: 10px 0 0 0;">Recuperação de Senha</p>
-                    </div>
-                    
-                    <div style="background: #f8f9fa; padding: 30px; border: 1px solid #e9ecef;">
-                        <h2 style="color: #333; margin-top: 0;">Olá, %s! 👋</h2>
-                        
-                        <p style="color: #555; font-size: 16px; line-height: 1.6;">
-                            Recebemos uma solicitação para redefinir sua senha. Clique no botão abaixo para criar uma nova senha:
-                        </p>
-                        
-                        <div style="text-align: center; margin: 30px 0;">
-                            <a href="%s" style="display: inline-block; background: linear-gradient(135deg, #f59e0b 0%%, #d97706 100%%); color: white; padding: 15px 40px; text-decoration: none; border-radius: 8px; font-weight: bold; font-size: 16px;">
-                                🔑 Redefinir Senha
-                            </a>
-                        </div>
-                        
-                        <p style="color: #888; font-size: 14px;">
-                            Se o botão não funcionar, copie e cole este link:<br>
-                            <a href="%s" style="color: #f59e0b; word-break: break-all;">%s</a>
-                        </p>
-                        
-                        <p style="color: #888; font-size: 13px; margin-top: 20px;">
-                            ⏰ Este link expira em 1 hora.
-                        </p>
-                    </div>
-                    
-                    <div style="background: #1e293b; color: #94a3b8; padding: 20px; border-radius: 0 0 10px 10px; font-size: 12px; text-align: center;">
-                        <p style="margin: 0;">Se você não solicitou isso, ignore este email.</p>
-                    </div>
-                </div>
-                """,
-                getFirstName(fullName),
-                resetLink,
-                resetLink,
-                resetLink
-            );
+    private Map<String, Object> toPayload(EmailMessage message) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("from", fromName + " <" + fromEmail + ">");
+        body.put("to", List.of(message.to()));
+        body.put("subject", message.subject());
+        body.put("html", message.htmlBody());
+        return body;
+    }
 
-            sendEmail(userEmail, subject, htmlBody);
-            
-        } catch (Exception e) {
-            log.error("🔑 [RESEND] ❌ Erro ao enviar email de reset para {}: {}", userEmail, e.getMessage(), e);
+    private void post(String path, Object body) {
+        if (!isConfigured()) {
+            throw new EmailSendException("Resend API key não configurada");
         }
-    }
 
-    private String getFirstName(String fullName) {
-        if (fullName == null || fullName.isBlank()) {
-            return "Usuário";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setBearerAuth(apiKey);
+
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(
+                apiUrl + path,
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers),
+                String.class
+            );
+            if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new EmailSendException("Resend respondeu " + response.getStatusCode() + ": " + response.getBody());
+            }
+        } catch (RestClientException e) {
+            throw new EmailSendException("Erro na chamada à Resend: " + e.getMessage(), e);
         }
-        return fullName.trim().split(" ")[0];
     }
 }
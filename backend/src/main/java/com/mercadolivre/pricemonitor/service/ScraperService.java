@@ -1,48 +1,106 @@
 package com.mercadolivre.pricemonitor.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mercadolivre.pricemonitor.dto.ScrapeRequest;
 import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.resilience.BackendGuards;
+import com.mercadolivre.pricemonitor.resilience.BackendHealthMonitor;
+import com.mercadolivre.pricemonitor.resilience.BackendUnavailableException;
+import com.mercadolivre.pricemonitor.resilience.Futures;
+import com.mercadolivre.pricemonitor.resilience.HedgingPolicy;
+import com.mercadolivre.pricemonitor.resilience.SingleFlightCache;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import reactor.util.retry.Retry;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.time.Duration;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 /**
  * Service responsible for fetching product data.
  * Uses Mercado Livre API when OAuth token is available,
  * falls back to Python scraper otherwise.
+ *
+ * Each backend is called through its {@link BackendGuards} circuit breaker and bulkhead:
+ * with the ML API circuit open (or its health probes failing) the scraper is used right away,
+ * and with the scraper circuit open calls return empty without touching the network (and
+ * retries stop).
+ * With {@link HedgingPolicy} enabled, a slow fetch gets a second request to the scraper.
+ *
+ * Fetches are coalesced by item ({@link ProductUrls#itemKey}): concurrent fetches of the same
+ * item share one request, and a valid result is reused for {@code scraper.coalescing.ttl-ms}
+ * (several users adding the same deal within a minute cost one scrape).
+ *
+ * Scraper calls go through the pooled client from {@code ScraperHttpClientConfig}: a hung scraper
+ * fails the attempt after {@code scraper.http.response-timeout-ms} and is retried like any error.
  */
 @Service
 @Slf4j
 public class ScraperService {
 
     private final WebClient webClient;
-    private final String scraperApiUrl;
     private final MercadoLivreService mercadoLivreService;
+    private final PipelineMetrics pipelineMetrics;
+    private final ObjectMapper objectMapper;
+    private final BackendGuards backendGuards;
+    private final HedgingPolicy hedgingPolicy;
+    private final BackendHealthMonitor backendHealthMonitor;
+
+    @Value("${scraper.retry.max-retries:3}")
+    private int maxRetries = 3;
+
+    @Value("${scraper.retry.backoff-ms:1000}")
+    private long retryBackoffMs = 1000;
+
+    // 0 desliga o cache de resultados (buscas simultâneas continuam compartilhadas)
+    @Value("${scraper.coalescing.ttl-ms:60000}")
+    private long coalescingTtlMs = 60_000;
+
+    @Value("${scraper.coalescing.max-entries:10000}")
+    private int coalescingMaxEntries = 10_000;
+
+    private SingleFlightCache<String, ScrapeResponse> fetches;
 
     @Autowired
     public ScraperService(
-            @Value("${scraper.api.url}") String scraperApiUrl,
-            MercadoLivreService mercadoLivreService) {
-        this.scraperApiUrl = scraperApiUrl;
+            @Qualifier("scraperWebClient") WebClient webClient,
+            MercadoLivreService mercadoLivreService,
+            PipelineMetrics pipelineMetrics,
+            ObjectMapper objectMapper,
+            BackendGuards backendGuards,
+            HedgingPolicy hedgingPolicy,
+            BackendHealthMonitor backendHealthMonitor) {
+        this.webClient = webClient;
         this.mercadoLivreService = mercadoLivreService;
-        this.webClient = WebClient.builder()
-                .baseUrl(scraperApiUrl)
-                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                .build();
-        log.info("ScraperService initialized with WebClient for URL: {}", scraperApiUrl);
+        this.pipelineMetrics = pipelineMetrics;
+        this.objectMapper = objectMapper;
+        this.backendGuards = backendGuards;
+        this.hedgingPolicy = hedgingPolicy;
+        this.backendHealthMonitor = backendHealthMonitor;
+    }
+
+    @PostConstruct
+    public void init() {
+        fetches = new SingleFlightCache<>(coalescingTtlMs, coalescingMaxEntries, System::currentTimeMillis,
+            response -> response != null && response.isValid(),
+            outcome -> pipelineMetrics.recordCoalesce(outcome.name().toLowerCase()));
     }
 
     /**
@@ -51,29 +109,77 @@ public class ScraperService {
      * - Se tem token OAuth válido, usa a API oficial
      * - Se não tem token, usa o scraper Python como fallback
      * Para outros sites, usa o scraper Python.
+     * Com hedging ligado, busca lenta (acima do p90 recente) ganha uma segunda chamada ao
+     * scraper e vale a primeira resposta.
+     * Buscas do mesmo item ao mesmo tempo (ou dentro do TTL) compartilham o resultado.
      *
      * @param productUrl The product URL.
-     * @return A CompletableFuture containing the ScrapeResponse, or empty if an error occurs.
+     * @return A CompletableFuture containing the ScrapeResponse (a copy owned by the caller),
+     *         or empty if an error occurs.
      */
     public CompletableFuture<ScrapeResponse> fetchProductData(String productUrl) {
+        return fetchProductData(productUrl, null);
+    }
+
+    /**
+     * Same as {@link #fetchProductData(String)}, calling the ML API with the token of the
+     * product's owner when they connected a Mercado Livre account ({@link MercadoLivreTokenPool}).
+     */
+    public CompletableFuture<ScrapeResponse> fetchProductData(String productUrl, Long ownerUserId) {
         String cleanUrl = cleanMercadoLivreUrl(productUrl);
         log.info("🧹 URL limpa: {}", cleanUrl);
 
+        String key = ProductUrls.itemKey(cleanUrl);
+        if (key == null) {
+            return fetchItem(cleanUrl, ownerUserId);
+        }
+        // Resultado compartilhado entre chamadores: cada um recebe sua cópia
+        return fetches.get(key, () -> fetchItem(cleanUrl, ownerUserId))
+            .thenApply(response -> response != null ? response.copy() : null);
+    }
+
+    /**
+     * Backend a fetch of this URL goes to right now: the ML API for Mercado Livre URLs while
+     * there is a usable token and the API is healthy ({@link BackendHealthMonitor}), otherwise
+     * the scraper.
+     *
+     * @return {@link BackendGuards#ML_API} or {@link BackendGuards#SCRAPER}
+     */
+    public String backendFor(String productUrl) {
+        return usesMercadoLivreApi(cleanMercadoLivreUrl(productUrl)) ? BackendGuards.ML_API : BackendGuards.SCRAPER;
+    }
+
+    private boolean usesMercadoLivreApi(String cleanUrl) {
+        return isMercadoLivreUrl(cleanUrl) && mercadoLivreService.hasApiToken()
+            && backendHealthMonitor.isReady(BackendGuards.ML_API);
+    }
+
+    /**
+     * One fetch of the item, from the backend chosen by URL and token availability.
+     */
+    private CompletableFuture<ScrapeResponse> fetchItem(String cleanUrl, Long ownerUserId) {
+        // Hedge vai sempre ao scraper: o outro backend para a API do ML, o mesmo nos demais casos
+        Supplier<CompletableFuture<ScrapeResponse>> hedge =
+            () -> fetchFromPythonScraper(cleanUrl, PipelineMetrics.SOURCE_HEDGE);
+
         // Detecta se é URL do Mercado Livre
         if (isMercadoLivreUrl(cleanUrl)) {
-            if (mercadoLivreService.hasValidToken()) {
+            if (usesMercadoLivreApi(cleanUrl)) {
                 log.info("🔑 Usando API oficial do Mercado Livre para: {}", cleanUrl);
-                return fetchFromMercadoLivreApi(cleanUrl);
+                return hedgingPolicy.execute(BackendGuards.ML_API,
+                    () -> fetchFromMercadoLivreApi(cleanUrl, ownerUserId), hedge, backendGuards.scraper());
             } else {
-                // Sem token OAuth - usar scraper Python como fallback
-                log.warn("⚠️ Token Mercado Livre não disponível. Usando scraper Python como fallback.");
-                return fetchFromPythonScraper(cleanUrl);
+                // Sem token OAuth (ou API do ML fora do ar) - usar scraper Python como fallback
+                log.warn("⚠️ Token Mercado Livre ou API indisponível. Usando scraper Python como fallback.");
+                return hedgingPolicy.execute(BackendGuards.SCRAPER,
+                    () -> fetchFromPythonScraper(cleanUrl, PipelineMetrics.SOURCE_FALLBACK), hedge, backendGuards.scraper());
             }
         }
 
         // Para outros sites, usa o scraper Python normalmente
         log.info("🔧 Usando scraper Python para: {}", cleanUrl);
-        return fetchFromPythonScraper(cleanUrl);
+        return hedgingPolicy.execute(BackendGuards.SCRAPER,
+            () -> fetchFromPythonScraper(cleanUrl, PipelineMetrics.SOURCE_SCRAPER), hedge, backendGuards.scraper());
     }
 
     /**
@@ -122,112 +228,158 @@ public class ScraperService {
     }
 
     /**
-     * Fetches product data from ML official API.
+     * Fetches product data from ML official API, falling back to the scraper when the call
+     * fails or the ML API circuit is open (no blocking wait on the fallback).
      */
-    private CompletableFuture<ScrapeResponse> fetchFromMercadoLivreApi(String productUrl) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                long startTime = System.currentTimeMillis();
-                Map<String, Object> productData = mercadoLivreService.getProductByUrl(productUrl);
-                
-                if (productData != null) {
-                    String title = (String) productData.get("title");
-                    Object priceObj = productData.get("price");
-                    Double price = priceObj != null ? Double.valueOf(priceObj.toString()) : null;
-                    
-                    // Buscar preço original (promoção)
-                    Double originalPrice = null;
-                    Integer discountPercent = null;
-                    Object originalPriceObj = productData.get("original_price");
-                    if (originalPriceObj != null) {
-                        originalPrice = Double.valueOf(originalPriceObj.toString());
-                        if (price != null && originalPrice > price) {
-                            discountPercent = (int) Math.round((1 - (price / originalPrice)) * 100);
-                        }
+    private CompletableFuture<ScrapeResponse> fetchFromMercadoLivreApi(String productUrl, Long ownerUserId) {
+        CompletableFuture<ScrapeResponse> api = backendGuards.mlApi()
+                .call(() -> CompletableFuture.supplyAsync(() -> callMercadoLivreApi(productUrl, ownerUserId)), Objects::isNull);
+        return Futures.propagateCancellation(api
+                .exceptionally(error -> {
+                    if (unwrap(error) instanceof BackendUnavailableException) {
+                        log.debug("⚡ Circuito da API do ML aberto; indo direto ao scraper: {}", productUrl);
+                    } else {
+                        log.error("❌ ML API error: {}", error.getMessage());
                     }
-                    
-                    // Buscar imagem
-                    String imageUrl = null;
-                    Object pictures = productData.get("pictures");
-                    if (pictures instanceof java.util.List && !((java.util.List<?>) pictures).isEmpty()) {
-                        Object firstPic = ((java.util.List<?>) pictures).get(0);
-                        if (firstPic instanceof Map) {
-                            imageUrl = (String) ((Map<?, ?>) firstPic).get("url");
-                        }
+                    return null;
+                })
+                .thenCompose(result -> {
+                    if (result != null) {
+                        return CompletableFuture.completedFuture(result);
                     }
-                    if (imageUrl == null) {
-                        imageUrl = (String) productData.get("thumbnail");
+                    log.warn("⚠️ ML API falhou, tentando scraper Python...");
+                    return fetchFromPythonScraper(productUrl, PipelineMetrics.SOURCE_FALLBACK);
+                }), api);
+    }
+
+    /**
+     * Blocking ML API call (RestTemplate), run inside the ML API bulkhead.
+     *
+     * @return the product, or null if the API failed (counts as a failure for the circuit)
+     */
+    private ScrapeResponse callMercadoLivreApi(String productUrl, Long ownerUserId) {
+        Timer.Sample sample = pipelineMetrics.start();
+        ScrapeResponse result = null;
+        try {
+            Map<String, Object> productData = mercadoLivreService.getProductByUrl(productUrl, ownerUserId);
+            
+            if (productData != null) {
+                String title = (String) productData.get("title");
+                Object priceObj = productData.get("price");
+                Double price = priceObj != null ? Double.valueOf(priceObj.toString()) : null;
+                
+                // Buscar preço original (promoção)
+                Double originalPrice = null;
+                Integer discountPercent = null;
+                Object originalPriceObj = productData.get("original_price");
+                if (originalPriceObj != null) {
+                    originalPrice = Double.valueOf(originalPriceObj.toString());
+                    if (price != null && originalPrice > price) {
+                        discountPercent = (int) Math.round((1 - (price / originalPrice)) * 100);
                     }
-                    
-                    long duration = System.currentTimeMillis() - startTime;
-                    if (discountPercent != null && discountPercent > 0) {
-                        log.info("✅ ML API success: title='{}' | price=R${} (🏷️ {}% OFF) | duration={}ms",
-                                title, price, discountPercent, duration);
-                    } else {
-                        log.info("✅ ML API success: title='{}' | price=R${} | duration={}ms",
-                                title, price, duration);
+                }
+                
+                // Buscar imagem
+                String imageUrl = null;
+                Object pictures = productData.get("pictures");
+                if (pictures instanceof java.util.List && !((java.util.List<?>) pictures).isEmpty()) {
+                    Object firstPic = ((java.util.List<?>) pictures).get(0);
+                    if (firstPic instanceof Map) {
+                        imageUrl = (String) ((Map<?, ?>) firstPic).get("url");
                     }
-                    
-                    return new ScrapeResponse(title, price, imageUrl, originalPrice, discountPercent, null);
                 }
-            } catch (Exception e) {
-                log.error("❌ ML API error: {} - Falling back to scraper", e.getMessage());
+                if (imageUrl == null) {
+                    imageUrl = (String) productData.get("thumbnail");
+                }
+                
+                result = new ScrapeResponse(title, price, imageUrl, originalPrice, discountPercent, null);
+                long duration = TimeUnit.NANOSECONDS.toMillis(
+                    pipelineMetrics.recordFetch(sample, PipelineMetrics.SOURCE_ML_API, result));
+                if (discountPercent != null && discountPercent > 0) {
+                    log.info("✅ ML API success: title='{}' | price=R${} (🏷️ {}% OFF) | duration={}ms",
+                            title, price, discountPercent, duration);
+                } else {
+                    log.info("✅ ML API success: title='{}' | price=R${} | duration={}ms",
+                            title, price, duration);
+                }
+                return result;
             }
-            
-            // Se falhou, tentar com o scraper
-            log.warn("⚠️ ML API falhou, tentando scraper Python...");
-            return fetchFromPythonScraper(productUrl).join();
-        });
+        } catch (Exception e) {
+            log.error("❌ ML API error: {} - Falling back to scraper", e.getMessage());
+        }
+        pipelineMetrics.recordFetch(sample, PipelineMetrics.SOURCE_ML_API, result);
+        return null;
     }
 
     /**
-     * Fetches product data from Python scraper API.
+     * Fetches product data from Python scraper API, through the scraper circuit and bulkhead.
+     * Completes with null when the scraper failed or its circuit is open.
+     *
+     * @param source metrics tag: {@code scraper}, or {@code fallback} when standing in for the ML API
      */
-    private CompletableFuture<ScrapeResponse> fetchFromPythonScraper(String productUrl) {
+    private CompletableFuture<ScrapeResponse> fetchFromPythonScraper(String productUrl, String source) {
+        CompletableFuture<ScrapeResponse> guarded = backendGuards.scraper()
+                .call(() -> callPythonScraper(productUrl, source), Objects::isNull);
+        return Futures.propagateCancellation(guarded
+                .exceptionally(error -> {
+                    // Recusado pelo circuito/bulkhead (callPythonScraper não falha) ou cancelado pelo hedge
+                    log.debug("⚡ Scraper indisponível ({}); pulando URL: {}", unwrap(error).getMessage(), productUrl);
+                    return null;
+                }), guarded);
+    }
+
+    private CompletableFuture<ScrapeResponse> callPythonScraper(String productUrl, String source) {
         String endpoint = "/scrape";
-        log.debug("Calling async scraper API: {} | Product URL: {}", scraperApiUrl + endpoint, productUrl);
+        log.debug("Calling async scraper API: {} | Product URL: {}", endpoint, productUrl);
 
         ScrapeRequest request = new ScrapeRequest(productUrl);
 
-        long startTime = System.currentTimeMillis();
+        Timer.Sample sample = pipelineMetrics.start();
 
-        return webClient.post()
+        CompletableFuture<ScrapeResponse> response = webClient.post()
                 .uri(endpoint)
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(ScrapeResponse.class)
-                .doOnSuccess(response -> {
-                    long duration = System.currentTimeMillis() - startTime;
-                    log.info("✅ Scraper success: title='{}' | price=R${} | duration={}ms",
-                            response.getTitle(), response.getPrice(), duration);
+                .bodyToMono(byte[].class)
+                .map(body -> {
+                    // Lido como bytes para medir o tamanho da resposta
+                    pipelineMetrics.recordPayload(source, body.length);
+                    return parse(body);
                 })
                 .doOnError(error -> log.error("❌ Scraper API error for URL '{}': {}", productUrl, error.getMessage()))
-                .retryWhen(Retry.backoff(2, Duration.ofSeconds(1))
-                        .maxAttempts(3)
-                        .doBeforeRetry(signal -> log.warn("🔄 Retry attempt {}/3 for URL: {}", 
-                            signal.totalRetries() + 1, productUrl))
+                .retryWhen(Retry.backoff(maxRetries, Duration.ofMillis(retryBackoffMs))
+                        // Circuito aberto (ou em teste) no meio das tentativas: não insiste
+                        .filter(error -> backendGuards.scraper().isClosed())
+                        .doBeforeRetry(signal -> {
+                            pipelineMetrics.recordRetry(source);
+                            log.warn("🔄 Retry attempt {}/{} for URL: {}", signal.totalRetries() + 1, maxRetries, productUrl);
+                        })
                 )
                 .onErrorResume(e -> {
-                    log.error("❌ Scraper failed after 3 retry attempts for URL: {}", productUrl);
+                    log.error("❌ Scraper failed after retries for URL: {}", productUrl);
                     return Mono.empty();
                 })
                 .toFuture();
+        // Cancelar (hedge perdedor) cancela a assinatura e fecha a requisição HTTP
+        return Futures.propagateCancellation(response.thenApply(data -> {
+            long duration = TimeUnit.NANOSECONDS.toMillis(pipelineMetrics.recordFetch(sample, source, data));
+            if (data != null) {
+                log.info("✅ Scraper success: title='{}' | price=R${} | duration={}ms",
+                        data.getTitle(), data.getPrice(), duration);
+            }
+            return data;
+        }), response);
     }
 
-    /**
-     * Asynchronously checks if the scraper API is available.
-     *
-     * @return A CompletableFuture containing true if the API is available, false otherwise.
-     */
-    public CompletableFuture<Boolean> isScraperAvailable() {
-        return webClient.get()
-                .uri("/")
-                .retrieve()
-                .bodyToMono(String.class)
-                .map(response -> true)
-                .doOnSuccess(available -> log.info("✅ Async Scraper API is available"))
-                .doOnError(error -> log.error("❌ Async Scraper API is NOT available at {}: {}", scraperApiUrl, error.getMessage()))
-                .onErrorReturn(false)
-                .toFuture();
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private ScrapeResponse parse(byte[] body) {
+        try {
+            return objectMapper.readValue(body, ScrapeResponse.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
-}
\ No newline at end of file
+}
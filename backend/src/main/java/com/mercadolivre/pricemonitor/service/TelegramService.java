@@ -43,11 +43,13 @@ public class TelegramService {
 
     private final RestTemplate restTemplate = new RestTemplate();
     private final UserRepository userRepository;
+    private final PipelineMetrics pipelineMetrics;
     
     private long lastUpdateId = 0;
 
-    public TelegramService(UserRepository userRepository) {
+    public TelegramService(UserRepository userRepository, PipelineMetrics pipelineMetrics) {
         this.userRepository = userRepository;
+        this.pipelineMetrics = pipelineMetrics;
     }
 
     @PostConstruct
@@ -282,8 +284,15 @@ public class TelegramService {
      */
     @Async
     public void sendMessage(String chatId, String text) {
+        postMessage(chatId, text);
+    }
+
+    /**
+     * Synchronous send; true if Telegram accepted the message.
+     */
+    private boolean postMessage(String chatId, String text) {
         if (!isEnabled() || chatId == null || chatId.isBlank()) {
-            return;
+            return false;
         }
 
         try {
@@ -303,12 +312,13 @@ public class TelegramService {
             
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.debug("📱 Telegram message sent to {}", chatId);
-            } else {
-                log.warn("📱 Telegram API error: {}", response.getBody());
+                return true;
             }
+            log.warn("📱 Telegram API error: {}", response.getBody());
         } catch (Exception e) {
             log.error("❌ Failed to send Telegram message: {}", e.getMessage());
         }
+        return false;
     }
 
     /**
@@ -344,7 +354,7 @@ public class TelegramService {
             oldPrice, newPrice, savings, productUrl
         );
 
-        sendMessage(user.getTelegramChatId(), message);
+        pipelineMetrics.recordNotification(PipelineMetrics.CHANNEL_TELEGRAM, postMessage(user.getTelegramChatId(), message));
         log.info("📱 Telegram price drop sent to user {}", user.getEmail());
     }
 
@@ -372,7 +382,7 @@ public class TelegramService {
             oldPrice, newPrice, increase, productUrl
         );
 
-        sendMessage(user.getTelegramChatId(), message);
+        pipelineMetrics.recordNotification(PipelineMetrics.CHANNEL_TELEGRAM, postMessage(user.getTelegramChatId(), message));
         log.info("📱 Telegram price increase sent to user {}", user.getEmail());
     }
 
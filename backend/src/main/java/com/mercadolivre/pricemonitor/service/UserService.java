@@ -3,13 +3,16 @@ package com.mercadolivre.pricemonitor.service;
 import com.mercadolivre.pricemonitor.dto.RegisterRequest;
 import com.mercadolivre.pricemonitor.model.Notification;
 import com.mercadolivre.pricemonitor.model.User;
-import com.mercadolivre.pricemonitor.repository.NotificationRepository;
 import com.mercadolivre.pricemonitor.repository.UserRepository;
+import com.mercadolivre.pricemonitor.security.PasswordHashingService;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -23,22 +26,28 @@ public class UserService {
     private UserRepository userRepository;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashing;
 
     @Autowired
-    private EmailService emailService;
+    private EmailRouter emailRouter;
 
     @Autowired
-    private ResendEmailService resendEmailService;
+    private NotificationService notificationService;
 
     @Autowired
-    private BrevoEmailService brevoEmailService;
-
-    @Autowired
-    private NotificationRepository notificationRepository;
+    private PlatformTransactionManager transactionManager;
 
     @Value("${frontend.url:http://localhost:5173/}")
     private String frontendUrl;
+
+    // Transação curta e própria só para o UPDATE do hash (o bcrypt roda antes, sem conexão aberta)
+    private TransactionTemplate hashUpgradeTransaction;
+
+    @PostConstruct
+    public void init() {
+        hashUpgradeTransaction = new TransactionTemplate(transactionManager);
+        hashUpgradeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
     
     public User registerUser(RegisterRequest request) {
         log.info("📝 Registrando novo usuário: {}", request.getEmail());
@@ -56,7 +65,7 @@ public class UserService {
         User user = new User();
         user.setEmail(request.getEmail());
         user.setFullName(request.getFullName());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashing.encode(request.getPassword()));
         user.setEmailVerified(false);
         user.setVerificationToken(verificationToken);
         user.setVerificationTokenExpires(LocalDateTime.now().plusHours(24));
@@ -71,33 +80,14 @@ public class UserService {
             log.error("❌ Erro ao criar notificação de boas-vindas: {}", e.getMessage());
         }
         
-        // Enviar email de verificação - Prioridade: 1) Brevo 2) Resend 3) Gmail SMTP
+        // Enviar email de verificação (o EmailRouter escolhe o provedor e faz failover)
         try {
-            if (brevoEmailService.isConfigured()) {
-                log.info("📧 Usando Brevo API para enviar email");
-                brevoEmailService.sendVerificationEmail(
-                    savedUser.getEmail(),
-                    savedUser.getFullName(),
-                    verificationToken,
-                    frontendUrl
-                );
-            } else if (resendEmailService.isConfigured()) {
-                log.info("📧 Usando Resend API para enviar email");
-                resendEmailService.sendVerificationEmail(
-                    savedUser.getEmail(),
-                    savedUser.getFullName(),
-                    verificationToken,
-                    frontendUrl
-                );
-            } else {
-                log.info("📧 Usando Gmail SMTP para enviar email");
-                emailService.sendVerificationEmail(
-                    savedUser.getEmail(),
-                    savedUser.getFullName(),
-                    verificationToken,
-                    frontendUrl
-                );
-            }
+            emailRouter.sendVerificationEmail(
+                savedUser.getEmail(),
+                savedUser.getFullName(),
+                verificationToken,
+                frontendUrl
+            );
             log.info("📧 Email de verificação enviado para: {}", savedUser.getEmail());
         } catch (Exception e) {
             log.error("❌ Erro ao enviar email de verificação: {}", e.getMessage());
@@ -119,7 +109,7 @@ public class UserService {
             "Clique em Configurações → Verificar Email"
         );
         notification.setIsRead(false);
-        notificationRepository.save(notification);
+        notificationService.createNotification(notification);
         log.info("🔔 Notificação de boas-vindas criada para usuário: {}", user.getEmail());
     }
     
@@ -132,7 +122,31 @@ public class UserService {
     }
     
     public boolean validatePassword(String rawPassword, String encodedPassword) {
-        return passwordEncoder.matches(rawPassword, encodedPassword);
+        return passwordHashing.matches(rawPassword, encodedPassword);
+    }
+
+    /**
+     * Regrava o hash com o algoritmo/custo atual quando o login acabou de validar a senha
+     * (hash sem prefixo {bcrypt} ou com custo menor que security.password.bcrypt-strength).
+     * Falhas aqui nunca derrubam o login: o UPDATE roda na sua própria transação, então um erro
+     * nele não marca a transação de quem chamou para rollback.
+     */
+    public void upgradePasswordHashIfNeeded(User user, String rawPassword) {
+        String currentHash = user.getPassword();
+        if (!passwordHashing.needsUpgrade(currentHash)) {
+            return;
+        }
+        try {
+            String newHash = passwordHashing.encode(rawPassword);
+            Integer updated = hashUpgradeTransaction.execute(status ->
+                userRepository.updatePasswordHashIfUnchanged(user.getId(), currentHash, newHash));
+            if (updated != null && updated > 0) {
+                user.setPassword(newHash);
+                log.info("🔐 Hash de senha atualizado para usuário: {}", user.getId());
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ Não foi possível atualizar o hash de senha do usuário {}: {}", user.getId(), e.getMessage());
+        }
     }
 
     /**
@@ -153,12 +167,16 @@ public class UserService {
         
         // Enviar email com código
         try {
-            emailService.sendPasswordResetCode(
+            boolean sent = emailRouter.sendPasswordResetCode(
                 user.getEmail(),
                 user.getFullName(),
                 resetCode
             );
-            log.info("📧 Código de recuperação enviado para: {}", email);
+            if (sent) {
+                log.info("📧 Código de recuperação enviado para: {}", email);
+            } else {
+                log.error("❌ Nenhum provedor conseguiu enviar o código de recuperação para: {}", email);
+            }
         } catch (Exception e) {
             log.error("❌ Erro ao enviar código de recuperação: {}", e.getMessage());
             throw new RuntimeException("Erro ao enviar email de recuperação");
@@ -201,7 +219,7 @@ public class UserService {
         }
         
         // Atualizar senha
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHashing.encode(newPassword));
         user.setResetPasswordToken(null);
         user.setResetPasswordTokenExpires(null);
         
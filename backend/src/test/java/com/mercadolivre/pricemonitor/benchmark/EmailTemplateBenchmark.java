@@ -0,0 +1,140 @@
+package com.mercadolivre.pricemonitor.benchmark;
+
+import com.mercadolivre.pricemonitor.email.EmailTemplateRenderer;
+import com.mercadolivre.pricemonitor.email.RenderedEmail;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderização do alerta de queda de preço: {@code String.format} (caminho antigo) vs
+ * {@link EmailTemplateRenderer} (layout pré-compilado).
+ *
+ * Rodar com {@code main} (usa -prof gc para reportar gc.alloc.rate.norm = bytes/op):
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mercadolivre.pricemonitor.benchmark.EmailTemplateBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private final EmailTemplateRenderer renderer = new EmailTemplateRenderer();
+
+    private final String productName = "Smartphone Samsung Galaxy S23 Ultra 256GB 12GB RAM Preto";
+    private final String productUrl = "https://produto.mercadolivre.com.br/MLB-3456789012-smartphone-samsung-galaxy-s23";
+    private final double oldPrice = 5999.90;
+    private final double newPrice = 4799.00;
+
+    @Benchmark
+    public String legacyStringFormat() {
+        double savings = oldPrice - newPrice;
+        double percentDrop = (savings / oldPrice) * 100;
+        String urgencyBadge = percentDrop >= 20 ? "🔥 OFERTA IMPERDÍVEL"
+            : percentDrop >= 10 ? "⚡ GRANDE DESCONTO" : "💰 PREÇO BAIXOU";
+        String urgencyColor = percentDrop >= 20 ? "#dc3545" : percentDrop >= 10 ? "#fd7e14" : "#28a745";
+
+        String subject = String.format("🔻 Preço caiu %.0f%%! %s", percentDrop, productName.substring(0, 32) + "...");
+        String htmlBody = String.format("""
+            <div style="font-family: 'Segoe UI', Arial, sans-serif; max-width: 600px; margin: 0 auto; background: #0f172a;">
+                <!-- Header com urgência -->
+                <div style="background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); padding: 25px; border-radius: 12px 12px 0 0;">
+                    <div style="background: %s; display: inline-block; padding: 6px 12px; border-radius: 20px; margin-bottom: 10px;">
+                        <span style="color: white; font-size: 12px; font-weight: bold;">%s</span>
+                    </div>
+                    <h1 style="color: white; margin: 0; font-size: 22px;">⚠️ Seu concorrente reduziu o preço!</h1>
+                    <p style="color: rgba(255,255,255,0.8); margin: 8px 0 0 0; font-size: 14px;">Detectado agora pelo MonitoraPreço</p>
+                </div>
+                
+                <!-- Corpo principal -->
+                <div style="background: #1e293b; padding: 25px; border: 1px solid #334155;">
+                    <h2 style="color: #f1f5f9; margin-top: 0; font-size: 18px;">%s</h2>
+                    
+                    <!-- Card de preço destacado -->
+                    <div style="background: linear-gradient(135deg, #1e3a5f 0%%, #0f172a 100%%); padding: 20px; border-radius: 12px; margin: 20px 0; border: 2px solid #3b82f6;">
+                        <table style="width: 100%%; border-collapse: collapse;">
+                            <tr>
+                                <td style="padding: 8px 0;">
+                                    <span style="color: #94a3b8; font-size: 13px;">Preço anterior:</span><br>
+                                    <span style="text-decoration: line-through; color: #64748b; font-size: 18px;">R$ %.2f</span>
+                                </td>
+                                <td style="text-align: right; padding: 8px 0;">
+                                    <span style="color: #94a3b8; font-size: 13px;">Novo preço:</span><br>
+                                    <span style="color: #22c55e; font-size: 28px; font-weight: bold;">R$ %.2f</span>
+                                </td>
+                            </tr>
+                        </table>
+                        
+                        <div style="background: #22c55e; padding: 12px; border-radius: 8px; margin-top: 15px; text-align: center;">
+                            <span style="color: white; font-size: 16px; font-weight: bold;">
+                                💸 Economia de R$ %.2f (%.1f%% OFF)
+                            </span>
+                        </div>
+                    </div>
+                    
+                    <!-- Alerta competitivo -->
+                    <div style="background: #fef3c7; padding: 15px; border-radius: 8px; margin: 20px 0; border-left: 4px solid #f59e0b;">
+                        <p style="margin: 0; color: #92400e; font-size: 14px;">
+                            <strong>⚡ Ação recomendada:</strong> Ajuste seu preço para manter competitividade no Mercado Livre.
+                        </p>
+                    </div>
+                    
+                    <!-- Botão CTA -->
+                    <div style="text-align: center; margin-top: 25px;">
+                        <a href="%s" style="display: inline-block; background: linear-gradient(135deg, #3b82f6 0%%, #2563eb 100%%); color: white; padding: 14px 32px; text-decoration: none; border-radius: 8px; font-weight: bold; font-size: 16px; box-shadow: 0 4px 15px rgba(59, 130, 246, 0.4);">
+                            Ver Produto no ML →
+                        </a>
+                    </div>
+                </div>
+                
+                <!-- Footer -->
+                <div style="background: #0f172a; color: #64748b; padding: 20px; border-radius: 0 0 12px 12px; font-size: 12px; text-align: center; border-top: 1px solid #1e293b;">
+                    <p style="margin: 0;">📊 MonitoraPreço - Inteligência Competitiva para Mercado Livre</p>
+                    <p style="margin: 8px 0 0 0; color: #475569;">Monitoramento automático 24/7 dos seus concorrentes</p>
+                </div>
+            </div>
+            """,
+            urgencyColor,
+            urgencyBadge,
+            productName,
+            oldPrice,
+            newPrice,
+            savings,
+            percentDrop,
+            productUrl
+        );
+        return subject + htmlBody;
+    }
+
+    @Benchmark
+    public String precompiledTemplate() {
+        RenderedEmail email = renderer.priceDrop(productName, productUrl, oldPrice, newPrice);
+        return email.subject() + email.htmlBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(EmailTemplateBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
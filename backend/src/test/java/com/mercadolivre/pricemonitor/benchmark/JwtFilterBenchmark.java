@@ -0,0 +1,129 @@
+package com.mercadolivre.pricemonitor.benchmark;
+
+import com.mercadolivre.pricemonitor.security.JwtAuthenticationFilter;
+import com.mercadolivre.pricemonitor.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests/s através do {@link JwtAuthenticationFilter}.
+ *
+ * <ul>
+ *   <li>{@code legacyTripleParse}: caminho antigo — validate + getUserId + getEmail,
+ *       cada um recriando chave e parser e refazendo parse + HMAC-SHA512;</li>
+ *   <li>{@code filterSingleParse}: filtro atual com cache desligado (1 parse por request);</li>
+ *   <li>{@code filterCached}: filtro atual com cache de tokens verificados (caso comum).</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mercadolivre.pricemonitor.benchmark.JwtFilterBenchmark
+ * </pre>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-com-tamanho-suficiente-para-hs512-0123456789-abcdefghijklmnop";
+
+    private JwtAuthenticationFilter uncachedFilter;
+    private JwtAuthenticationFilter cachedFilter;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtTokenProvider uncached = provider(0);
+        JwtTokenProvider cached = provider(10_000);
+        token = cached.generateToken(42L, "benchmark@test.com");
+
+        uncachedFilter = filter(uncached);
+        cachedFilter = filter(cached);
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object legacyTripleParse() {
+        // Reproduz JwtTokenProvider antes da mudança
+        Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).build()
+            .parseSignedClaims(token);
+        Claims forUserId = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).build()
+            .parseSignedClaims(token).getPayload();
+        Claims forEmail = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).build()
+            .parseSignedClaims(token).getPayload();
+        return Long.valueOf(forUserId.getSubject()) + (String) forEmail.get("email");
+    }
+
+    @Benchmark
+    public Object filterSingleParse() throws ServletException, IOException {
+        return doFilter(uncachedFilter);
+    }
+
+    @Benchmark
+    public Object filterCached() throws ServletException, IOException {
+        return doFilter(cachedFilter);
+    }
+
+    private Object doFilter(JwtAuthenticationFilter filter) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static JwtTokenProvider provider(int cacheMaxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", cacheMaxSize);
+        provider.init();
+        return provider;
+    }
+
+    private static JwtAuthenticationFilter filter(JwtTokenProvider provider) {
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "tokenProvider", provider);
+        return filter;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(JwtFilterBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,159 @@
+package com.mercadolivre.pricemonitor.benchmark;
+
+import com.mercadolivre.pricemonitor.dto.ProductState;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import com.mercadolivre.pricemonitor.service.ProductStateStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tempo de subida do {@link ProductStateStore} com 1 milhão de produtos.
+ *
+ * <ul>
+ *   <li>{@code fullLoad}: caminho sem snapshot — páginas de {@link ProductState} vindas do
+ *       repositório (aqui já em memória, então é o piso: no banco real soma-se a consulta);</li>
+ *   <li>{@code snapshotRestore}: leitura do arquivo mapeado em memória + reconciliação sem deltas;</li>
+ *   <li>{@code snapshotWrite}: custo da gravação periódica.</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.mercadolivre.pricemonitor.benchmark.ProductStateStartupBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductStateStartupBenchmark {
+
+    private static final int PAGE_SIZE = 5000;
+
+    @Param("1000000")
+    private int products;
+
+    private Path dir;
+    private Path snapshot;
+    private List<List<ProductState>> pages;
+    private ProductRepository repository;
+    private ProductStateStore warmed;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("product-state-bench");
+        snapshot = dir.resolve("product-state.snapshot");
+
+        LocalDateTime checkedAt = LocalDateTime.now().minusHours(1);
+        pages = new ArrayList<>();
+        List<ProductState> page = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= products; id++) {
+            long price = 1_000 + id % 50_000;
+            page.add(new ProductState(id, price, price + 500, id % 3 == 0 ? price + 2_000 : null,
+                id % 3 == 0 ? 15 : null, checkedAt, "ACTIVE"));
+            if (page.size() == PAGE_SIZE) {
+                pages.add(page);
+                page = new ArrayList<>(PAGE_SIZE);
+            }
+        }
+        if (!page.isEmpty()) {
+            pages.add(page);
+        }
+
+        repository = mock(ProductRepository.class);
+        when(repository.findStatesAfter(anyLong(), any(Pageable.class)))
+            .thenAnswer(inv -> pageAfter(inv.getArgument(0)));
+        when(repository.findStatesChangedSince(any(), anyLong(), any(Pageable.class))).thenReturn(List.of());
+        when(repository.findIdsAfter(anyLong(), any(Pageable.class)))
+            .thenAnswer(inv -> pageAfter(inv.getArgument(0)).stream().map(ProductState::productId).toList());
+
+        // Snapshot de referência, gravado por um store aquecido do "banco"
+        warmed = store(null);
+        warmed.warmUp();
+        ReflectionTestUtils.setField(warmed, "snapshotPath", snapshot.toString());
+        warmed.saveSnapshot();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int fullLoad() {
+        ProductStateStore store = store(null);
+        store.warmUp();
+        return store.size();
+    }
+
+    @Benchmark
+    public int snapshotRestore() {
+        ProductStateStore store = store(snapshot);
+        store.warmUp();
+        return store.size();
+    }
+
+    @Benchmark
+    public boolean snapshotWrite() throws IOException {
+        return warmed.saveSnapshot();
+    }
+
+    private List<ProductState> pageAfter(long afterId) {
+        int index = (int) (afterId / PAGE_SIZE);
+        return index < pages.size() ? pages.get(index) : List.of();
+    }
+
+    private ProductStateStore store(Path snapshotPath) {
+        ProductStateStore store = new ProductStateStore(repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "warmupBatchSize", PAGE_SIZE);
+        ReflectionTestUtils.setField(store, "snapshotPath", snapshotPath != null ? snapshotPath.toString() : "");
+        ReflectionTestUtils.setField(store, "snapshotMaxAgeMs", Long.MAX_VALUE / 2_000_000);
+        ReflectionTestUtils.setField(store, "reconcileMarginMs", 60_000L);
+        store.init();
+        return store;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(ProductStateStartupBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
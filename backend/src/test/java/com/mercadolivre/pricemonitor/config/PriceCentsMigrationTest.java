@@ -0,0 +1,86 @@
+package com.mercadolivre.pricemonitor.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceCentsMigration Tests")
+class PriceCentsMigrationTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private PriceCentsMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        migration = new PriceCentsMigration(jdbcTemplate);
+        ReflectionTestUtils.setField(migration, "enabled", true);
+        ReflectionTestUtils.setField(migration, "batchSize", 10_000);
+    }
+
+    // Todas as colunas legadas existem e já aceitam NULL
+    private void legacyColumnsPresent() throws Exception {
+        ResultSet columns = mock(ResultSet.class);
+        when(columns.next()).thenReturn(true);
+        lenient().when(columns.getInt("NULLABLE")).thenReturn(DatabaseMetaData.columnNullable);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getColumns(any(), any(), anyString(), anyString())).thenReturn(columns);
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+            .thenAnswer(inv -> ((ConnectionCallback<?>) inv.getArgument(0)).doInConnection(connection));
+
+        Map<String, Object> nothingPending = new HashMap<>();
+        nothingPending.put("min_id", null);
+        nothingPending.put("max_id", null);
+        when(jdbcTemplate.queryForMap(anyString())).thenReturn(nothingPending);
+    }
+
+    @Test
+    @DisplayName("Erro na migração deve impedir a subida")
+    void erroImpedeSubida() {
+        when(jdbcTemplate.execute(any(ConnectionCallback.class)))
+            .thenThrow(new DataAccessResourceFailureException("conexão perdida"));
+
+        assertThrows(IllegalStateException.class, () -> migration.migrate());
+    }
+
+    @Test
+    @DisplayName("Histórico ainda sem centavos deve impedir a subida")
+    void historicoSemCentavosImpedeSubida() throws Exception {
+        legacyColumnsPresent();
+        when(jdbcTemplate.queryForObject(contains("price_cents IS NULL"), eq(Long.class))).thenReturn(3L);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> migration.migrate());
+        assertTrue(error.getMessage().contains("3 linhas"), error.getMessage());
+    }
+
+    @Test
+    @DisplayName("Base migrada deve subir normalmente")
+    void baseMigradaSobe() throws Exception {
+        legacyColumnsPresent();
+        when(jdbcTemplate.queryForObject(contains("price_cents IS NULL"), eq(Long.class))).thenReturn(0L);
+
+        assertDoesNotThrow(() -> migration.migrate());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+}
@@ -0,0 +1,202 @@
+package com.mercadolivre.pricemonitor.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de carga e de limites do cliente do scraper contra um scraper local (HTTP/1.1 keep-alive).
+ */
+@DisplayName("ScraperHttpClientConfig Tests")
+class ScraperHttpClientConfigTest {
+
+    private static final String JSON = "{\"title\":\"Produto\",\"price\":99.9}";
+
+    private HttpServer stub;
+    private ExecutorService stubExecutor;
+    private final AtomicInteger stubInFlight = new AtomicInteger();
+    private final AtomicInteger stubMaxInFlight = new AtomicInteger();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private volatile long stubDelayMs;
+    private volatile String acceptEncoding;
+
+    private final ScraperHttpClientConfig config = new ScraperHttpClientConfig();
+    private ConnectionProvider connectionProvider;
+    private String url;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/scrape", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            stubMaxInFlight.accumulateAndGet(stubInFlight.incrementAndGet(), Math::max);
+            try {
+                sleep(stubDelayMs);
+                respond(exchange, JSON.getBytes(StandardCharsets.UTF_8), null);
+            } finally {
+                stubInFlight.decrementAndGet();
+            }
+        });
+        stub.createContext("/slow", exchange -> {
+            sleep(3000);
+            respond(exchange, JSON.getBytes(StandardCharsets.UTF_8), null);
+        });
+        stub.createContext("/big", exchange -> respond(exchange, new byte[4096], null));
+        stub.createContext("/gzip", exchange -> {
+            acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(JSON.getBytes(StandardCharsets.UTF_8));
+            }
+            respond(exchange, compressed.toByteArray(), "gzip");
+        });
+        stubExecutor = Executors.newFixedThreadPool(16);
+        stub.setExecutor(stubExecutor);
+        stub.start();
+        url = "http://127.0.0.1:" + stub.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body, String contentEncoding) throws IOException {
+        exchange.getRequestBody().readAllBytes();
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        if (contentEncoding != null) {
+            exchange.getResponseHeaders().add("Content-Encoding", contentEncoding);
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+
+    private WebClient client() {
+        connectionProvider = config.scraperConnectionProvider();
+        return config.scraperWebClient(connectionProvider, url);
+    }
+
+    private static Mono<byte[]> post(WebClient client, String path) {
+        return client.post().uri(path).bodyValue("{\"url\":\"https://example.com\"}")
+            .retrieve().bodyToMono(byte[].class);
+    }
+
+    private static boolean causedBy(Throwable error, String simpleName) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause.getClass().getSimpleName().equals(simpleName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    @DisplayName("Carga: 200 buscas simultâneas usam no máximo max-connections conexões reaproveitadas")
+    void cargaRespeitaPool() {
+        ReflectionTestUtils.setField(config, "maxConnections", 4);
+        WebClient client = client();
+        stubDelayMs = 5;
+
+        List<byte[]> bodies = Flux.merge(IntStream.range(0, 200).mapToObj(i -> post(client, "/scrape")).toList())
+            .collectList()
+            .block(Duration.ofSeconds(30));
+
+        assertEquals(200, bodies.size());
+        bodies.forEach(body -> assertEquals(JSON, new String(body, StandardCharsets.UTF_8)));
+        assertTrue(stubMaxInFlight.get() <= 4, "no máximo 4 requisições no scraper: " + stubMaxInFlight.get());
+        assertTrue(clientPorts.size() <= 4, "conexões keep-alive reaproveitadas: " + clientPorts.size());
+    }
+
+    @Test
+    @DisplayName("Fila de espera cheia deve recusar a busca na hora")
+    void filaCheiaRecusa() {
+        ReflectionTestUtils.setField(config, "maxConnections", 1);
+        ReflectionTestUtils.setField(config, "pendingAcquireMaxCount", 2);
+        WebClient client = client();
+        stubDelayMs = 300;
+
+        List<Throwable> errors = Flux.merge(IntStream.range(0, 10)
+                .mapToObj(i -> post(client, "/scrape")
+                    .then(Mono.<Throwable>empty())
+                    .onErrorResume(Mono::just))
+                .toList())
+            .collectList()
+            .block(Duration.ofSeconds(30));
+
+        assertFalse(errors.isEmpty(), "ao menos uma busca recusada");
+        errors.forEach(error -> assertTrue(causedBy(error, "PoolAcquirePendingLimitException"), error.toString()));
+        assertEquals(1, stubMaxInFlight.get());
+    }
+
+    @Test
+    @DisplayName("Scraper travado deve falhar no timeout de resposta")
+    void scraperTravadoFalhaNoTimeout() {
+        ReflectionTestUtils.setField(config, "responseTimeoutMs", 200L);
+        WebClient client = client();
+
+        Throwable error = assertThrows(RuntimeException.class, () -> post(client, "/slow").block(Duration.ofSeconds(10)));
+
+        // Timeout de leitura: a busca falhou antes do scraper responder (o /slow leva 3s)
+        assertTrue(causedBy(error, "ReadTimeoutException"), error.toString());
+    }
+
+    @Test
+    @DisplayName("Resposta acima de max-response-bytes deve ser recusada")
+    void respostaGrandeRecusada() {
+        ReflectionTestUtils.setField(config, "maxResponseBytes", 1024);
+        WebClient client = client();
+
+        Throwable error = assertThrows(RuntimeException.class, () -> post(client, "/big").block(Duration.ofSeconds(10)));
+
+        assertTrue(causedBy(error, "DataBufferLimitException"), error.toString());
+    }
+
+    @Test
+    @DisplayName("Resposta comprimida deve ser descompactada")
+    void respostaComprimida() {
+        WebClient client = client();
+
+        byte[] body = post(client, "/gzip").block(Duration.ofSeconds(10));
+
+        assertNotNull(acceptEncoding);
+        assertTrue(acceptEncoding.contains("gzip"), acceptEncoding);
+        assertEquals(JSON, new String(body, StandardCharsets.UTF_8));
+    }
+}
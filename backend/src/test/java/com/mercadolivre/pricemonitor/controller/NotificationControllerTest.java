@@ -0,0 +1,130 @@
+package com.mercadolivre.pricemonitor.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import com.mercadolivre.pricemonitor.security.JwtAuthenticationFilter;
+import com.mercadolivre.pricemonitor.security.JwtTokenProvider;
+import com.mercadolivre.pricemonitor.security.StreamTicketService;
+import com.mercadolivre.pricemonitor.service.EventStreamService;
+import com.mercadolivre.pricemonitor.service.NotificationService;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationController Tests")
+class NotificationControllerTest {
+
+    private static final String SECRET = "segredo-de-teste-com-tamanho-suficiente-para-hs512-0123456789-abcdefghijklmnop";
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private EventStreamService eventStreamService;
+
+    private JwtTokenProvider tokenProvider;
+    private StreamTicketService streamTicketService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", 100);
+        tokenProvider.init();
+        streamTicketService = new StreamTicketService();
+
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(jwtFilter, "tokenProvider", tokenProvider);
+        ReflectionTestUtils.setField(jwtFilter, "streamTicketService", streamTicketService);
+        // Como o SecurityContextHolderFilter: cada request começa sem autenticação
+        Filter clearContext = (request, response, chain) -> {
+            SecurityContextHolder.clearContext();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+        // Como o .authenticated() do SecurityConfig: sem autenticação, 401
+        Filter requireAuthentication = (request, response, chain) -> {
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                ((HttpServletResponse) response).sendError(HttpServletResponse.SC_UNAUTHORIZED);
+                return;
+            }
+            chain.doFilter(request, response);
+        };
+        NotificationController controller = new NotificationController(
+            notificationService, eventStreamService, streamTicketService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+            .addFilters(clearContext, jwtFilter, requireAuthentication)
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Stream deve abrir com ticket emitido por POST autenticado, uma única vez")
+    void streamAbreComTicketDeUsoUnico() throws Exception {
+        String token = tokenProvider.generateToken(7L, "seller@test.com");
+        when(eventStreamService.subscribe(7L)).thenReturn(new SseEmitter());
+
+        String body = mockMvc.perform(post("/api/notifications/stream/ticket")
+                .header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.expiresInMs").value(60_000))
+            .andReturn().getResponse().getContentAsString();
+        String ticket = JsonPath.read(body, "$.ticket");
+
+        mockMvc.perform(get("/api/notifications/stream").param("ticket", ticket))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/notifications/stream").param("ticket", ticket))
+            .andExpect(status().isUnauthorized());
+
+        verify(eventStreamService, times(1)).subscribe(7L);
+    }
+
+    @Test
+    @DisplayName("JWT na query string não deve mais autenticar o stream")
+    void jwtNaQueryNaoAutentica() throws Exception {
+        String token = tokenProvider.generateToken(7L, "seller@test.com");
+
+        mockMvc.perform(get("/api/notifications/stream").param("access_token", token))
+            .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/notifications/stream").param("ticket", token))
+            .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(eventStreamService);
+    }
+
+    @Test
+    @DisplayName("Ticket emitido antes da exclusão da conta não deve abrir o stream")
+    void ticketDeContaExcluidaNaoAutentica() throws Exception {
+        String ticket = streamTicketService.issue(7L, "seller@test.com");
+        tokenProvider.revokeUser(7L);
+
+        mockMvc.perform(get("/api/notifications/stream").param("ticket", ticket))
+            .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,116 @@
+package com.mercadolivre.pricemonitor.controller;
+
+import com.mercadolivre.pricemonitor.model.AccountPurgeJob;
+import com.mercadolivre.pricemonitor.repository.UserRepository;
+import com.mercadolivre.pricemonitor.security.JwtAuthenticationFilter;
+import com.mercadolivre.pricemonitor.security.JwtTokenProvider;
+import com.mercadolivre.pricemonitor.security.PasswordHashingService;
+import com.mercadolivre.pricemonitor.service.AccountPurgeService;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserController Tests")
+class UserControllerTest {
+
+    private static final String SECRET = "segredo-de-teste-com-tamanho-suficiente-para-hs512-0123456789-abcdefghijklmnop";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHashingService passwordHashing;
+
+    @Mock
+    private AccountPurgeService accountPurgeService;
+
+    @InjectMocks
+    private UserController userController;
+
+    private JwtTokenProvider tokenProvider;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 60_000L);
+        ReflectionTestUtils.setField(tokenProvider, "cacheMaxSize", 100);
+        tokenProvider.init();
+
+        JwtAuthenticationFilter jwtFilter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(jwtFilter, "tokenProvider", tokenProvider);
+        // Como o SecurityContextHolderFilter: cada request começa sem autenticação
+        Filter clearContext = (request, response, chain) -> {
+            SecurityContextHolder.clearContext();
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                SecurityContextHolder.clearContext();
+            }
+        };
+        mockMvc = MockMvcBuilders.standaloneSetup(userController).addFilters(clearContext, jwtFilter).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Progresso da exclusão deve responder com o mesmo token usado no DELETE")
+    void progressoDaExclusaoComTokenRevogado() throws Exception {
+        String token = tokenProvider.generateToken(7L, "seller@test.com");
+        AccountPurgeJob job = new AccountPurgeJob();
+        job.setId(99L);
+        job.setUserId(7L);
+        // Como o AccountPurgeService depois do commit: o token do usuário deixa de valer
+        when(accountPurgeService.requestDeletion(7L)).thenAnswer(inv -> {
+            tokenProvider.revokeUser(7L);
+            return job;
+        });
+        when(accountPurgeService.findLatestJob(7L)).thenReturn(Optional.of(job));
+
+        mockMvc.perform(delete("/api/users/me").header("Authorization", "Bearer " + token))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.jobId").value(99));
+
+        mockMvc.perform(get("/api/users/me/deletion").header("Authorization", "Bearer " + token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(99))
+            .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    @DisplayName("Token revogado não deve valer fora do progresso da exclusão")
+    void tokenRevogadoSoVeProgresso() throws Exception {
+        String token = tokenProvider.generateToken(7L, "seller@test.com");
+        tokenProvider.revokeUser(7L);
+
+        mockMvc.perform(put("/api/users/profile").header("Authorization", "Bearer " + token)
+                .contentType("application/json").content("{\"fullName\":\"Outro\"}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("Usuário não autenticado"));
+        verifyNoInteractions(userRepository);
+    }
+}
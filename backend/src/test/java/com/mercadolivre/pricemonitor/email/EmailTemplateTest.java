@@ -0,0 +1,62 @@
+package com.mercadolivre.pricemonitor.email;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EmailTemplate Tests")
+class EmailTemplateTest {
+
+    @Test
+    @DisplayName("Deve substituir placeholders na ordem declarada")
+    void deveRenderizarPlaceholders() {
+        EmailTemplate template = EmailTemplate.compile("teste",
+            "<p>{{nome}} pagou R$ {{preco}} ({{nome}})</p>", "preco", "nome");
+
+        assertEquals("<p>Ana pagou R$ 10.00 (Ana)</p>", template.render("10.00", "Ana"));
+    }
+
+    @Test
+    @DisplayName("Deve renderizar null como vazio e reaproveitar o builder")
+    void deveRenderizarNullComoVazio() {
+        EmailTemplate template = EmailTemplate.compile("teste", "[{{a}}]", "a");
+        StringBuilder out = new StringBuilder("x");
+
+        template.renderTo(out, (CharSequence) null);
+
+        assertEquals("x[]", out.toString());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar placeholder não declarado")
+    void deveRejeitarPlaceholderNaoDeclarado() {
+        assertThrows(IllegalArgumentException.class,
+            () -> EmailTemplate.compile("teste", "{{desconhecido}}", "a"));
+        assertThrows(IllegalArgumentException.class,
+            () -> EmailTemplate.compile("teste", "{{a", "a"));
+    }
+
+    @Test
+    @DisplayName("Deve formatar valores como o %.2f")
+    void deveFormatarValores() {
+        assertEquals("1234.50", EmailFormat.money(1234.5));
+        assertEquals("-3.10", EmailFormat.money(-3.1));
+        assertEquals("20", EmailFormat.decimal(19.6, 0));
+        assertEquals("12.5", EmailFormat.decimal(12.46, 1));
+    }
+
+    @Test
+    @DisplayName("Alerta de queda deve conter valores formatados e link")
+    void alertaDeQuedaDeveConterValores() {
+        RenderedEmail email = new EmailTemplateRenderer()
+            .priceDrop("Produto Teste", "https://ml.com/p", 200.0, 150.0);
+
+        assertTrue(email.subject().startsWith("🔻 Preço caiu 25%!"));
+        assertTrue(email.htmlBody().contains("R$ 200.00"));
+        assertTrue(email.htmlBody().contains("R$ 150.00"));
+        assertTrue(email.htmlBody().contains("25.0% OFF"));
+        assertTrue(email.htmlBody().contains("href=\"https://ml.com/p\""));
+        assertFalse(email.htmlBody().contains("{{"));
+    }
+}
@@ -0,0 +1,154 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sondas contra um servidor local: o scraper responde em {@code /}, a API do ML em {@code /ml/sites/MLB}.
+ */
+@DisplayName("BackendHealthMonitor Tests")
+class BackendHealthMonitorTest {
+
+    private HttpServer stub;
+    private final AtomicInteger scraperStatus = new AtomicInteger(200);
+    private final AtomicInteger mlStatus = new AtomicInteger(200);
+
+    private SimpleMeterRegistry registry;
+    private BackendGuards guards;
+    private BackendHealthMonitor monitor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/", exchange -> {
+            int status = exchange.getRequestURI().getPath().startsWith("/ml/") ? mlStatus.get() : scraperStatus.get();
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        stub.start();
+
+        registry = new SimpleMeterRegistry();
+        guards = new BackendGuards(registry);
+        ReflectionTestUtils.setField(guards, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(guards, "minimumCalls", 4);
+        ReflectionTestUtils.setField(guards, "failureRateThreshold", 50.0);
+        ReflectionTestUtils.setField(guards, "openDurationMs", 60_000L);
+        ReflectionTestUtils.setField(guards, "halfOpenCalls", 1);
+        ReflectionTestUtils.setField(guards, "mlApiMaxConcurrent", 2);
+        ReflectionTestUtils.setField(guards, "scraperMaxConcurrent", 2);
+        ReflectionTestUtils.setField(guards, "maxQueue", 100);
+        guards.init();
+
+        String base = "http://127.0.0.1:" + stub.getAddress().getPort();
+        monitor = new BackendHealthMonitor(guards, registry, base, base + "/ml");
+        ReflectionTestUtils.setField(monitor, "timeoutMs", 2000L);
+        monitor.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+    }
+
+    @Test
+    @DisplayName("Antes da primeira sonda os backends contam como prontos")
+    void prontoAntesDaPrimeiraSonda() {
+        assertTrue(monitor.isReady(BackendGuards.SCRAPER));
+        assertTrue(monitor.isReady(BackendGuards.ML_API));
+        assertFalse(monitor.getStatus(BackendGuards.SCRAPER).isProbed());
+    }
+
+    @Test
+    @DisplayName("Sonda com sucesso deve registrar a latência média")
+    void sondaRegistraLatencia() {
+        monitor.probeAll();
+
+        BackendHealthMonitor.Status status = monitor.getStatus(BackendGuards.SCRAPER);
+        assertTrue(status.isProbed());
+        assertTrue(status.getLatencyEwmaMs() >= 0);
+        assertEquals(1.0, registry.get("backend.health.ready").tag("backend", BackendGuards.SCRAPER).gauge().value());
+    }
+
+    @Test
+    @DisplayName("Backend só fica indisponível após falhas seguidas e volta na primeira resposta")
+    void histereseDeProntidao() {
+        scraperStatus.set(500);
+
+        monitor.probeAll();
+        assertTrue(monitor.isReady(BackendGuards.SCRAPER), "uma falha não basta");
+        monitor.probeAll();
+        assertFalse(monitor.isReady(BackendGuards.SCRAPER));
+        assertTrue(monitor.isReady(BackendGuards.ML_API), "cada backend tem seu estado");
+        assertNotNull(monitor.getStatus(BackendGuards.SCRAPER).getLastError());
+
+        scraperStatus.set(200);
+        monitor.probeAll();
+        assertTrue(monitor.isReady(BackendGuards.SCRAPER));
+        assertEquals(0, monitor.getStatus(BackendGuards.SCRAPER).getConsecutiveFailures());
+    }
+
+    @Test
+    @DisplayName("Sonda que estoura o tempo deve fechar a conexão, não deixá-la pendurada")
+    void timeoutFechaConexao() throws Exception {
+        try (ServerSocket silent = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            String base = "http://127.0.0.1:" + silent.getLocalPort();
+            BackendHealthMonitor slow = new BackendHealthMonitor(guards, new SimpleMeterRegistry(), base, base);
+            ReflectionTestUtils.setField(slow, "timeoutMs", 200L);
+            slow.init();
+
+            var probe = slow.probe(BackendGuards.SCRAPER);
+            try (Socket connection = silent.accept()) {
+                connection.setSoTimeout(5_000);
+                probe.join();
+                assertTrue(slow.getStatus(BackendGuards.SCRAPER).getLastError().contains("TimeoutException"));
+                assertTrue(readsUntilClosed(connection.getInputStream()), "conexão deveria ter sido fechada pelo cliente");
+            }
+        }
+    }
+
+    /** Lê (e descarta a requisição) até o cliente fechar a conexão; false se ela continuar aberta. */
+    private static boolean readsUntilClosed(InputStream in) throws IOException {
+        byte[] buffer = new byte[1024];
+        try {
+            while (in.read(buffer) != -1) {
+                // requisição do cliente
+            }
+            return true;
+        } catch (SocketTimeoutException e) {
+            return false;
+        } catch (IOException e) {
+            return true; // reset também é conexão encerrada
+        }
+    }
+
+    @Test
+    @DisplayName("Circuito aberto deve tornar o backend indisponível mesmo com sonda ok")
+    void circuitoAbertoNaoEstaPronto() {
+        CircuitBreaker circuitBreaker = guards.mlApi().getCircuitBreaker();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(circuitBreaker.tryAcquirePermission());
+            circuitBreaker.onFailure();
+        }
+
+        monitor.probeAll();
+
+        assertTrue(monitor.getStatus(BackendGuards.ML_API).isProbeReady());
+        assertFalse(monitor.isReady(BackendGuards.ML_API));
+    }
+}
@@ -0,0 +1,117 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import com.mercadolivre.pricemonitor.resilience.CircuitBreaker.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("CircuitBreaker Tests")
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        // janela de 10, mínimo 4 chamadas, abre com 50%, 5s aberto, 2 chamadas de teste
+        circuitBreaker = new CircuitBreaker("test", 10, 4, 50, 5_000, 2, now::get);
+    }
+
+    private void call(boolean success) {
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        if (success) {
+            circuitBreaker.onSuccess();
+        } else {
+            circuitBreaker.onFailure();
+        }
+    }
+
+    @Test
+    @DisplayName("Não deve abrir antes do mínimo de chamadas")
+    void naoAbreAntesDoMinimo() {
+        call(false);
+        call(false);
+        call(false);
+
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertEquals(-1, circuitBreaker.getFailureRate());
+    }
+
+    @Test
+    @DisplayName("Deve abrir ao atingir a taxa de falha e recusar chamadas enquanto aberto")
+    void abreNaTaxaDeFalha() {
+        call(true);
+        call(true);
+        call(false);
+        call(false);
+
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.isCallPermitted());
+    }
+
+    @Test
+    @DisplayName("Janela deslizante deve esquecer resultados antigos")
+    void janelaDeslizante() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        for (int i = 0; i < 3; i++) {
+            call(false);
+        }
+        assertEquals(State.CLOSED, circuitBreaker.getState(), "3 de 7 = 42%");
+
+        for (int i = 0; i < 7; i++) {
+            call(true);
+        }
+        assertEquals(30.0, circuitBreaker.getFailureRate(), 0.001, "só as 10 últimas contam");
+
+        for (int i = 0; i < 3; i++) {
+            call(true);
+        }
+        assertEquals(0.0, circuitBreaker.getFailureRate(), 0.001);
+    }
+
+    @Test
+    @DisplayName("Meio-aberto: chamadas de teste com sucesso fecham o circuito")
+    void meioAbertoFecha() {
+        openCircuit();
+        now.addAndGet(5_000);
+
+        assertTrue(circuitBreaker.isCallPermitted());
+        call(true);
+        assertEquals(State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertFalse(circuitBreaker.tryAcquirePermission(), "só 2 chamadas de teste");
+        circuitBreaker.onSuccess();
+
+        assertEquals(State.CLOSED, circuitBreaker.getState());
+        assertEquals(-1, circuitBreaker.getFailureRate(), "janela zerada ao fechar");
+    }
+
+    @Test
+    @DisplayName("Meio-aberto: uma falha reabre o circuito por mais um período")
+    void meioAbertoReabre() {
+        openCircuit();
+        now.addAndGet(5_000);
+
+        call(false);
+
+        assertEquals(State.OPEN, circuitBreaker.getState());
+        now.addAndGet(4_999);
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        now.addAndGet(1);
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < 4; i++) {
+            call(false);
+        }
+        assertEquals(State.OPEN, circuitBreaker.getState());
+    }
+}
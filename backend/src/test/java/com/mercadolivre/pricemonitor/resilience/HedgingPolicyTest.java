@@ -0,0 +1,137 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("HedgingPolicy Tests")
+class HedgingPolicyTest {
+
+    private SimpleMeterRegistry registry;
+    private HedgingPolicy policy;
+    private BackendGuard target;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        policy = new HedgingPolicy(registry);
+        ReflectionTestUtils.setField(policy, "enabled", true);
+        ReflectionTestUtils.setField(policy, "percentile", 90);
+        ReflectionTestUtils.setField(policy, "minSamples", 10);
+        ReflectionTestUtils.setField(policy, "minDelayMs", 20L);
+        ReflectionTestUtils.setField(policy, "budgetPercent", 100.0);
+        ReflectionTestUtils.setField(policy, "maxBurst", 10);
+        target = new BackendGuard("scraper",
+            new CircuitBreaker("scraper", 10, 5, 50, 1_000, 1, System::currentTimeMillis),
+            new Bulkhead("scraper", 4, 100), registry);
+    }
+
+    /** Amostras rápidas para o percentil sair do "sem dados". */
+    private void warmUp() {
+        for (int i = 0; i < 10; i++) {
+            policy.execute("scraper", () -> CompletableFuture.completedFuture("ok"), this::neverCalled, target);
+        }
+    }
+
+    private CompletableFuture<String> neverCalled() {
+        throw new AssertionError("hedge não deveria ter sido disparado");
+    }
+
+    private double hedges(String outcome) {
+        var counter = registry.find("scrape.hedges").tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    @DisplayName("Sem amostras suficientes não deve disparar hedge")
+    void semAmostrasNaoDispara() throws Exception {
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        CompletableFuture<String> result = policy.execute("scraper", () -> primary, this::neverCalled, target);
+
+        assertSame(primary, result);
+    }
+
+    @Test
+    @DisplayName("Primária lenta: hedge dispara após o percentil, vence e a primária é cancelada")
+    void hedgeVenceECancelaPrimaria() throws Exception {
+        warmUp();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        CompletableFuture<String> result = policy.execute("scraper", () -> primary,
+            () -> CompletableFuture.completedFuture("hedge"), target);
+
+        assertEquals("hedge", result.get(2, TimeUnit.SECONDS));
+        assertTrue(primary.isCancelled());
+        assertEquals(1, hedges("fired"));
+        assertEquals(1, hedges("won"));
+    }
+
+    @Test
+    @DisplayName("Primária responde antes do hedge: hedge em andamento é cancelado")
+    void primariaVenceCancelaHedge() throws Exception {
+        warmUp();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        CompletableFuture<String> hedge = new CompletableFuture<>();
+
+        CompletableFuture<String> result = policy.execute("scraper", () -> primary, () -> hedge, target);
+        Thread.sleep(100); // passa do atraso de 20ms: hedge já saiu
+        primary.complete("primária");
+
+        assertEquals("primária", result.get(1, TimeUnit.SECONDS));
+        assertTrue(hedge.isCancelled());
+        assertEquals(0, hedges("won"));
+    }
+
+    @Test
+    @DisplayName("Primária falha com hedge em andamento: espera o hedge")
+    void primariaFalhaEsperaHedge() throws Exception {
+        warmUp();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+        CompletableFuture<String> hedge = new CompletableFuture<>();
+
+        CompletableFuture<String> result = policy.execute("scraper", () -> primary, () -> hedge, target);
+        Thread.sleep(100);
+        primary.complete(null);
+        assertFalse(result.isDone());
+        hedge.complete("hedge");
+
+        assertEquals("hedge", result.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Orçamento esgotado não deve disparar mais hedges")
+    void orcamentoLimitaHedges() throws Exception {
+        ReflectionTestUtils.setField(policy, "budgetPercent", 5.0); // 10 buscas de aquecimento = 0,5 hedge
+        warmUp();
+        AtomicInteger fired = new AtomicInteger();
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        CompletableFuture<String> result = policy.execute("scraper", () -> primary, () -> {
+            fired.incrementAndGet();
+            return CompletableFuture.completedFuture("hedge");
+        }, target);
+        Thread.sleep(100);
+        primary.complete("primária");
+
+        assertEquals("primária", result.get(1, TimeUnit.SECONDS));
+        assertEquals(0, fired.get());
+        assertEquals(1, hedges("budget_exhausted"));
+    }
+
+    @Test
+    @DisplayName("Desligado deve só executar a primária")
+    void desligado() {
+        ReflectionTestUtils.setField(policy, "enabled", false);
+        CompletableFuture<String> primary = new CompletableFuture<>();
+
+        assertSame(primary, policy.execute("scraper", () -> primary, this::neverCalled, target));
+    }
+}
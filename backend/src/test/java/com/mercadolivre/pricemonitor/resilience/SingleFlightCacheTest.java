@@ -0,0 +1,113 @@
+package com.mercadolivre.pricemonitor.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SingleFlightCache Tests")
+class SingleFlightCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final List<SingleFlightCache.Outcome> outcomes = new ArrayList<>();
+    private SingleFlightCache<String, String> cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SingleFlightCache<>(60_000, 2, now::get, Objects::nonNull, outcomes::add);
+    }
+
+    private CompletableFuture<String> load(String value) {
+        loads.incrementAndGet();
+        return CompletableFuture.completedFuture(value);
+    }
+
+    @Test
+    @DisplayName("Chamadas simultâneas da mesma chave devem compartilhar uma carga")
+    void chamadasSimultaneasCompartilham() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = cache.get("a", () -> { loads.incrementAndGet(); return pending; });
+        CompletableFuture<String> second = cache.get("a", () -> load("outra"));
+        assertEquals(1, cache.inFlight());
+        pending.complete("valor");
+
+        assertEquals("valor", first.get());
+        assertEquals("valor", second.get());
+        assertEquals(1, loads.get());
+        assertEquals(List.of(SingleFlightCache.Outcome.MISS, SingleFlightCache.Outcome.JOINED), outcomes);
+        assertEquals(0, cache.inFlight());
+    }
+
+    @Test
+    @DisplayName("Resultado deve ser reaproveitado dentro do TTL e recarregado depois")
+    void resultadoExpiraAposTtl() throws Exception {
+        cache.get("a", () -> load("v1")).get();
+
+        now.addAndGet(59_999);
+        assertEquals("v1", cache.get("a", () -> load("v2")).get());
+        assertEquals(1, loads.get());
+
+        now.addAndGet(1);
+        assertEquals("v2", cache.get("a", () -> load("v2")).get());
+        assertEquals(2, loads.get());
+        assertEquals(List.of(SingleFlightCache.Outcome.MISS, SingleFlightCache.Outcome.HIT,
+            SingleFlightCache.Outcome.MISS), outcomes);
+    }
+
+    @Test
+    @DisplayName("Falhas e valores não cacheáveis não devem ser guardados")
+    void falhasNaoSaoGuardadas() throws Exception {
+        CompletableFuture<String> failed = cache.get("a", () -> CompletableFuture.failedFuture(new RuntimeException("boom")));
+        assertTrue(failed.isCompletedExceptionally());
+        assertNull(cache.get("b", () -> load(null)).get());
+
+        assertEquals("ok", cache.get("a", () -> load("ok")).get());
+        assertEquals("ok", cache.get("b", () -> load("ok")).get());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    @DisplayName("Loader que lança exceção deve falhar o future e liberar a chave")
+    void loaderQueLancaLiberaChave() throws Exception {
+        CompletableFuture<String> failed = cache.get("a", () -> { throw new IllegalStateException("boom"); });
+
+        assertTrue(failed.isCompletedExceptionally());
+        assertEquals(0, cache.inFlight());
+        assertEquals("ok", cache.get("a", () -> load("ok")).get());
+    }
+
+    @Test
+    @DisplayName("Cache cheio deve descartar expirados e não passar do limite")
+    void respeitaLimiteDeEntradas() throws Exception {
+        cache.get("a", () -> load("a")).get();
+        cache.get("b", () -> load("b")).get();
+        cache.get("c", () -> load("c")).get();
+        assertEquals(2, cache.size());
+
+        now.addAndGet(60_000);
+        cache.get("c", () -> load("c")).get();
+        assertEquals(1, cache.size(), "expirados saem quando o cache enche");
+    }
+
+    @Test
+    @DisplayName("TTL zero deve manter só o compartilhamento de chamadas em andamento")
+    void ttlZeroNaoGuardaResultado() throws Exception {
+        cache = new SingleFlightCache<>(0, 10, now::get, Objects::nonNull, outcomes::add);
+
+        cache.get("a", () -> load("v1")).get();
+        cache.get("a", () -> load("v2")).get();
+
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,132 @@
+package com.mercadolivre.pricemonitor.scheduler;
+
+import com.mercadolivre.pricemonitor.repository.NotificationRepository;
+import com.mercadolivre.pricemonitor.service.NotificationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationRetentionJob Tests")
+class NotificationRetentionJobTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private NotificationService notificationService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NotificationRetentionJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new NotificationRetentionJob(notificationRepository, notificationService, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(job, "enabled", true);
+        ReflectionTestUtils.setField(job, "maxAgeDays", 90);
+        ReflectionTestUtils.setField(job, "maxPerUser", 2);
+        ReflectionTestUtils.setField(job, "batchSize", 2);
+        ReflectionTestUtils.setField(job, "throttleMs", 0L);
+        job.init();
+
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().when(notificationRepository.deleteByIdIn(anyList()))
+            .thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+    }
+
+    @Test
+    @DisplayName("Deve remover notificações antigas em lotes")
+    void deveRemoverNotificacoesAntigasEmLotes() throws InterruptedException {
+        when(notificationRepository.findIdsCreatedBefore(any(), eq(PageRequest.of(0, 2))))
+            .thenReturn(List.of(1L, 2L), List.of(3L));
+
+        assertEquals(3, job.purgeByAge());
+
+        verify(notificationRepository).deleteByIdIn(List.of(1L, 2L));
+        verify(notificationRepository).deleteByIdIn(List.of(3L));
+        verify(notificationService).evictAllUnreadCounts();
+        assertEquals(3.0, meterRegistry.get("notifications.purged").tag("reason", "age").counter().count());
+    }
+
+    @Test
+    @DisplayName("Métrica deve contar as linhas de fato removidas, não os IDs do lote")
+    void metricaContaLinhasRemovidas() throws InterruptedException {
+        when(notificationRepository.findIdsCreatedBefore(any(), eq(PageRequest.of(0, 2))))
+            .thenReturn(List.of(1L));
+        when(notificationRepository.deleteByIdIn(List.of(1L))).thenReturn(0); // já apagada por outro processo
+
+        assertEquals(0, job.purgeByAge());
+
+        assertEquals(0.0, meterRegistry.get("notifications.purged").tag("reason", "age").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve manter só as notificações mais recentes de cada usuário")
+    void deveManterSoAsMaisRecentesPorUsuario() throws InterruptedException {
+        when(notificationRepository.findUserIdsWithMoreThan(2L)).thenReturn(List.of(7L));
+        when(notificationRepository.findIdsByUserIdNewestFirst(7L, PageRequest.of(2, 1))).thenReturn(List.of(40L));
+        when(notificationRepository.findIdsByUserIdUpTo(eq(7L), eq(40L), any()))
+            .thenReturn(List.of(10L, 20L), List.of(40L));
+
+        assertEquals(3, job.purgeOverUserCap());
+
+        verify(notificationService).evictUnreadCount(7L);
+        assertEquals(3.0, meterRegistry.get("notifications.purged").tag("reason", "cap").counter().count());
+    }
+
+    @Test
+    @DisplayName("Não deve excluir nada quando não há notificações antigas")
+    void naoDeveExcluirSemNotificacoesAntigas() throws InterruptedException {
+        when(notificationRepository.findIdsCreatedBefore(any(), any())).thenReturn(List.of());
+
+        assertEquals(0, job.purgeByAge());
+
+        verify(notificationRepository, never()).deleteByIdIn(anyList());
+        verify(notificationService, never()).evictAllUnreadCounts();
+    }
+
+    @Test
+    @DisplayName("Lotes devem rodar fora da thread do @Scheduled")
+    void loteRodaForaDoAgendador() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> batchThread = new AtomicReference<>();
+        when(notificationRepository.findIdsCreatedBefore(any(), any())).thenAnswer(inv -> {
+            batchThread.set(Thread.currentThread().getName());
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        job.purge();
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals("notification-retention", batchThread.get());
+        job.purge(); // ainda rodando: deve pular
+        release.countDown();
+        job.shutdown();
+        verify(notificationRepository, times(1)).findIdsCreatedBefore(any(), any());
+    }
+}
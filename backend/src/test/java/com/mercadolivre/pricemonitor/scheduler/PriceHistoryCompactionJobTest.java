@@ -0,0 +1,129 @@
+package com.mercadolivre.pricemonitor.scheduler;
+
+import com.mercadolivre.pricemonitor.dto.PricePoint;
+import com.mercadolivre.pricemonitor.model.PriceHistoryBlock;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryBlockRepository;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
+import com.mercadolivre.pricemonitor.service.PriceHistoryCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceHistoryCompactionJob Tests")
+class PriceHistoryCompactionJobTest {
+
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @Mock
+    private PriceHistoryBlockRepository blockRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PriceHistoryCompactionJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new PriceHistoryCompactionJob(priceHistoryRepository, blockRepository, transactionTemplate, meterRegistry);
+        ReflectionTestUtils.setField(job, "enabled", true);
+        ReflectionTestUtils.setField(job, "hotDays", 180);
+        ReflectionTestUtils.setField(job, "productBatchSize", 2);
+        ReflectionTestUtils.setField(job, "throttleMs", 0L);
+        job.init();
+
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().when(priceHistoryRepository.deleteByIds(anyList()))
+            .thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+    }
+
+    @Test
+    @DisplayName("Deve gerar um bloco por mês e apagar as linhas compactadas")
+    void deveGerarUmBlocoPorMes() {
+        when(priceHistoryRepository.findPointsBefore(5L, CUTOFF)).thenReturn(List.of(
+            new PricePoint(1L, 10_000L, LocalDateTime.of(2024, 1, 10, 8, 0)),
+            new PricePoint(2L, 9_000L, LocalDateTime.of(2024, 1, 20, 8, 0)),
+            new PricePoint(3L, 9_500L, LocalDateTime.of(2024, 2, 5, 8, 0))));
+        when(blockRepository.findByProductIdAndMonthStart(eq(5L), any())).thenReturn(Optional.empty());
+
+        assertEquals(3, job.compactProduct(5L, CUTOFF));
+
+        ArgumentCaptor<PriceHistoryBlock> blocks = ArgumentCaptor.forClass(PriceHistoryBlock.class);
+        verify(blockRepository, times(2)).save(blocks.capture());
+        PriceHistoryBlock january = blocks.getAllValues().get(0);
+        assertEquals(LocalDate.of(2024, 1, 1), january.getMonthStart());
+        assertEquals(2, january.getSampleCount());
+        assertEquals(9_000L, january.getMinPriceCents());
+        assertEquals(10_000L, january.getMaxPriceCents());
+        assertEquals(2, PriceHistoryCodec.decode(january.getData()).size());
+
+        verify(priceHistoryRepository).deleteByIds(List.of(1L, 2L));
+        verify(priceHistoryRepository).deleteByIds(List.of(3L));
+        assertEquals(3.0, meterRegistry.get("price_history.compacted.rows").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve mesclar linhas atrasadas no bloco já existente do mês")
+    void deveMesclarNoBlocoExistente() {
+        PriceHistoryBlock existing = new PriceHistoryBlock();
+        existing.setId(77L);
+        existing.setData(PriceHistoryCodec.encode(List.of(
+            new PricePoint(null, 12_000L, LocalDateTime.of(2024, 1, 2, 8, 0)))));
+        when(blockRepository.findByProductIdAndMonthStart(5L, LocalDate.of(2024, 1, 1))).thenReturn(Optional.of(existing));
+        when(priceHistoryRepository.findPointsBefore(5L, CUTOFF)).thenReturn(List.of(
+            new PricePoint(9L, 11_000L, LocalDateTime.of(2024, 1, 1, 8, 0))));
+
+        job.compactProduct(5L, CUTOFF);
+
+        verify(blockRepository).save(existing);
+        List<PricePoint> merged = PriceHistoryCodec.decode(existing.getData());
+        assertEquals(2, merged.size());
+        assertEquals(11_000L, merged.get(0).priceCents(), "amostras ordenadas por horário");
+        assertEquals(LocalDateTime.of(2024, 1, 2, 8, 0), existing.getLastRecordedAt());
+    }
+
+    @Test
+    @DisplayName("Corte deve cair no início do mês e respeitar a janela do analytics")
+    void corteDeveRespeitarJanelaMinima() {
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), job.cutoff(LocalDate.of(2024, 7, 15)));
+
+        ReflectionTestUtils.setField(job, "hotDays", 7);
+        assertEquals(LocalDateTime.of(2024, 4, 1, 0, 0), job.cutoff(LocalDate.of(2024, 7, 15)));
+    }
+
+    @Test
+    @DisplayName("Deve percorrer os produtos por cursor")
+    void devePercorrerProdutosPorCursor() throws InterruptedException {
+        when(priceHistoryRepository.findProductIdsWithHistoryBefore(eq(CUTOFF), eq(0L), any())).thenReturn(List.of(1L, 2L));
+        when(priceHistoryRepository.findProductIdsWithHistoryBefore(eq(CUTOFF), eq(2L), any())).thenReturn(List.of(3L));
+        when(priceHistoryRepository.findPointsBefore(anyLong(), eq(CUTOFF))).thenReturn(List.of());
+
+        assertEquals(0, job.compactBefore(CUTOFF));
+
+        verify(priceHistoryRepository, times(3)).findPointsBefore(anyLong(), eq(CUTOFF));
+        verify(blockRepository, never()).save(any());
+    }
+}
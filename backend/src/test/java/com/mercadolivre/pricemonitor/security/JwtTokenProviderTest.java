@@ -0,0 +1,85 @@
+package com.mercadolivre.pricemonitor.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("JwtTokenProvider Tests")
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "segredo-de-teste-com-tamanho-suficiente-para-hs512-0123456789-abcdefghijklmnop";
+
+    static JwtTokenProvider provider(long expirationMs, int cacheMaxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "cacheMaxSize", cacheMaxSize);
+        provider.init();
+        return provider;
+    }
+
+    @Test
+    @DisplayName("Deve autenticar token válido e extrair userId e email")
+    void deveAutenticarTokenValido() {
+        JwtTokenProvider provider = provider(60_000, 100);
+        String token = provider.generateToken(42L, "user@test.com");
+
+        Optional<JwtPrincipal> principal = provider.authenticate(token);
+
+        assertTrue(principal.isPresent());
+        assertEquals(42L, principal.get().userId());
+        assertEquals("user@test.com", principal.get().email());
+        assertEquals(42L, provider.getUserIdFromToken(token));
+        assertEquals("user@test.com", provider.getEmailFromToken(token));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token adulterado ou expirado")
+    void deveRejeitarTokenInvalido() {
+        JwtTokenProvider provider = provider(60_000, 100);
+        String token = provider.generateToken(1L, "a@test.com");
+
+        assertTrue(provider.authenticate(token + "x").isEmpty());
+        assertTrue(provider.authenticate("nao-e-um-jwt").isEmpty());
+
+        JwtTokenProvider expiring = provider(-1_000, 100);
+        assertTrue(expiring.authenticate(expiring.generateToken(1L, "a@test.com")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Conta excluída: token já em cache e tokens novos deixam de autenticar")
+    void deveRecusarTokensDeUsuarioRevogado() {
+        JwtTokenProvider provider = provider(60_000, 100);
+        String token = provider.generateToken(7L, "seller@test.com");
+        String other = provider.generateToken(8L, "other@test.com");
+        assertTrue(provider.authenticate(token).isPresent());
+
+        provider.revokeUser(7L);
+
+        assertTrue(provider.authenticate(token).isEmpty());
+        assertTrue(provider.authenticate(provider.generateToken(7L, "seller@test.com")).isEmpty());
+        assertTrue(provider.authenticate(other).isPresent());
+    }
+
+    @Test
+    @DisplayName("Cache deve respeitar tamanho máximo e expiração")
+    void cacheDeveRespeitarLimites() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        long now = 1_000;
+        for (int i = 0; i < 50; i++) {
+            cache.put("t" + i, new JwtPrincipal((long) i, "e", now + 10_000), now);
+        }
+        assertTrue(cache.size() <= 10);
+
+        cache.put("vencido", new JwtPrincipal(1L, "e", now + 5), now);
+        assertNull(cache.get("vencido", now + 5));
+
+        VerifiedTokenCache disabled = new VerifiedTokenCache(0);
+        disabled.put("t", new JwtPrincipal(1L, "e", Long.MAX_VALUE), now);
+        assertNull(disabled.get("t", now));
+    }
+}
@@ -0,0 +1,169 @@
+package com.mercadolivre.pricemonitor.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PasswordHashingService Tests")
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService service;
+
+    private static PasswordEncoder delegating(int strength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    private static PasswordHashingService service(PasswordEncoder encoder, int threads, int queue) {
+        PasswordHashingService service = new PasswordHashingService(encoder, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "hashThreads", threads);
+        ReflectionTestUtils.setField(service, "queueCapacity", queue);
+        ReflectionTestUtils.setField(service, "maxQueueWaitMs", 2000L);
+        ReflectionTestUtils.setField(service, "hashBudgetMs", 1000L);
+        service.init();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve aceitar hash legado sem prefixo e pedir atualização")
+    void deveAceitarHashLegadoEPedirAtualizacao() {
+        service = service(delegating(5), 1, 4);
+        String legacy = new BCryptPasswordEncoder(4).encode("senha123");
+
+        assertTrue(service.matches("senha123", legacy));
+        assertFalse(service.matches("errada", legacy));
+        assertTrue(service.needsUpgrade(legacy));
+
+        String current = service.encode("senha123");
+        assertTrue(current.startsWith("{bcrypt}"));
+        assertFalse(service.needsUpgrade(current));
+    }
+
+    @Test
+    @DisplayName("Deve pedir atualização quando o custo configurado aumenta")
+    void devePedirAtualizacaoQuandoCustoAumenta() {
+        PasswordHashingService previous = service(delegating(4), 1, 4);
+        String weak = previous.encode("senha123");
+        previous.shutdown();
+
+        service = service(delegating(6), 1, 4);
+
+        assertTrue(service.matches("senha123", weak));
+        assertTrue(service.needsUpgrade(weak));
+    }
+
+    @Test
+    @DisplayName("Baixar o custo configurado não deve pedir atualização")
+    void naoDevePedirAtualizacaoQuandoCustoDiminui() {
+        PasswordHashingService previous = service(delegating(6), 1, 4);
+        String strong = previous.encode("senha123");
+        previous.shutdown();
+
+        service = service(delegating(4), 1, 4);
+
+        assertTrue(service.matches("senha123", strong));
+        assertFalse(service.needsUpgrade(strong));
+    }
+
+    @Test
+    @DisplayName("Hash sem resposta dentro de espera + orçamento deve virar PasswordHashingBusyException")
+    void deveDesistirQuandoHashEstouraOrcamento() {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder stuck = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        service = service(stuck, 1, 1);
+        ReflectionTestUtils.setField(service, "maxQueueWaitMs", 50L);
+        ReflectionTestUtils.setField(service, "hashBudgetMs", 50L);
+
+        try {
+            long start = System.nanoTime();
+            assertThrows(PasswordHashingBusyException.class, () -> service.encode("a"));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recusar com PasswordHashingBusyException quando a fila está cheia")
+    void deveRecusarQuandoFilaCheia() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+        service = service(blocking, 1, 1);
+
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> service.encode("a")); // ocupa a única thread
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> service.encode("b")); // ocupa a única vaga da fila
+            waitForQueued();
+
+            assertThrows(PasswordHashingBusyException.class, () -> service.encode("c"));
+        } finally {
+            release.countDown();
+            callers.shutdown();
+            callers.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private void waitForQueued() throws InterruptedException {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "executor");
+        for (int i = 0; i < 100 && executor.getQueue().isEmpty(); i++) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.mercadolivre.pricemonitor.security;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("StreamTicketService Tests")
+class StreamTicketServiceTest {
+
+    @Test
+    @DisplayName("Ticket deve valer uma única vez e carregar o usuário que o emitiu")
+    void ticketDeUsoUnico() {
+        StreamTicketService service = new StreamTicketService();
+        String ticket = service.issue(7L, "seller@test.com");
+
+        Optional<JwtPrincipal> principal = service.redeem(ticket);
+
+        assertTrue(principal.isPresent());
+        assertEquals(7L, principal.get().userId());
+        assertEquals("seller@test.com", principal.get().email());
+        assertTrue(service.redeem(ticket).isEmpty(), "segundo uso deve ser recusado");
+        assertTrue(service.redeem(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Ticket vencido deve ser recusado")
+    void ticketVencido() {
+        StreamTicketService service = new StreamTicketService();
+        ReflectionTestUtils.setField(service, "ticketTtlMs", -1L);
+
+        assertTrue(service.redeem(service.issue(7L, "seller@test.com")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Tickets devem ser diferentes a cada emissão")
+    void ticketsDiferentes() {
+        StreamTicketService service = new StreamTicketService();
+
+        assertNotEquals(service.issue(7L, "a@test.com"), service.issue(7L, "a@test.com"));
+    }
+}
@@ -0,0 +1,179 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.AccountPurgeJob;
+import com.mercadolivre.pricemonitor.model.User;
+import com.mercadolivre.pricemonitor.repository.AccountPurgeJobRepository;
+import com.mercadolivre.pricemonitor.repository.MercadoLivreTokenRepository;
+import com.mercadolivre.pricemonitor.repository.NotificationRepository;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryBlockRepository;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import com.mercadolivre.pricemonitor.repository.UserRepository;
+import com.mercadolivre.pricemonitor.security.JwtTokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AccountPurgeService Tests")
+class AccountPurgeServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private ProductRepository productRepository;
+    @Mock private PriceHistoryRepository priceHistoryRepository;
+    @Mock private PriceHistoryBlockRepository priceHistoryBlockRepository;
+    @Mock private NotificationRepository notificationRepository;
+    @Mock private MercadoLivreTokenRepository tokenRepository;
+    @Mock private AccountPurgeJobRepository jobRepository;
+    @Mock private NotificationService notificationService;
+    @Mock private ProductQueryService productQueryService;
+    @Mock private ProductStateStore productStateStore;
+    @Mock private ProductImportService productImportService;
+    @Mock private JwtTokenProvider tokenProvider;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private AccountPurgeService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new AccountPurgeService(userRepository, productRepository, priceHistoryRepository,
+            priceHistoryBlockRepository, notificationRepository, tokenRepository, jobRepository, notificationService,
+            productQueryService, productStateStore, productImportService, tokenProvider, transactionTemplate,
+            new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "batchSize", 2);
+        ReflectionTestUtils.setField(service, "throttleMs", 0L);
+        ReflectionTestUtils.setField(service, "maxAttempts", 3);
+        service.init();
+
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+        lenient().when(jobRepository.save(any(AccountPurgeJob.class))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private AccountPurgeJob pendingJob() {
+        AccountPurgeJob job = new AccountPurgeJob();
+        job.setId(10L);
+        job.setUserId(7L);
+        return job;
+    }
+
+    @Test
+    @DisplayName("Deve anonimizar a conta e tirar os produtos do ciclo na hora")
+    void deveAnonimizarContaNaHora() {
+        User user = new User();
+        user.setId(7L);
+        user.setEmail("seller@test.com");
+        user.setFullName("Vendedor");
+        user.setPassword("hash");
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(jobRepository.save(any(AccountPurgeJob.class))).thenAnswer(inv -> {
+            AccountPurgeJob job = inv.getArgument(0);
+            job.setId(10L);
+            return job;
+        });
+        lenient().when(jobRepository.findById(10L)).thenReturn(Optional.empty());
+
+        AccountPurgeJob job = service.requestDeletion(7L);
+
+        assertEquals(10L, job.getId());
+        assertNotNull(user.getDeletedAt());
+        assertEquals("deleted-7@deleted.invalid", user.getEmail());
+        assertNotEquals("Vendedor", user.getFullName());
+        verify(productRepository).updateStatusByUserId(eq(7L), eq(AccountPurgeService.PRODUCT_STATUS_DELETING), any());
+        verify(priceHistoryRepository, never()).deleteByProductUserId(anyLong());
+        verify(tokenProvider).revokeUser(7L);
+        verify(productImportService).cancelForUser(7L);
+    }
+
+    @Test
+    @DisplayName("Tokens de contas já excluídas devem ser recusados após restart")
+    void deveRevogarTokensNoBoot() {
+        when(jobRepository.findAllUserIds()).thenReturn(List.of(3L, 7L));
+
+        service.init();
+
+        verify(tokenProvider).revokeUser(3L);
+        verify(tokenProvider).revokeUser(7L);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar exclusão de conta já excluída")
+    void deveRejeitarContaJaExcluida() {
+        User user = new User();
+        user.setId(7L);
+        user.setDeletedAt(LocalDateTime.now());
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        assertThrows(IllegalArgumentException.class, () -> service.requestDeletion(7L));
+        verify(jobRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Deve apagar os dados em lotes, fase a fase, e concluir o job")
+    void deveApagarEmLotesEConcluir() {
+        AccountPurgeJob job = pendingJob();
+        when(jobRepository.findById(10L)).thenReturn(Optional.of(job));
+        when(priceHistoryRepository.findIdsByProductUserId(7L, PageRequest.of(0, 2)))
+            .thenReturn(List.of(1L, 2L), List.of(3L));
+        when(priceHistoryRepository.deleteByIds(anyList())).thenAnswer(inv -> ((List<?>) inv.getArgument(0)).size());
+        when(notificationRepository.findIdsByUserIdUpTo(eq(7L), eq(Long.MAX_VALUE), any()))
+            .thenReturn(List.of(50L), List.of());
+        when(notificationRepository.deleteByIdIn(anyList())).thenReturn(1);
+        when(tokenRepository.deleteByUserId(7L)).thenReturn(1);
+        when(productRepository.findIdsByUserId(7L, PageRequest.of(0, 2))).thenReturn(List.of(100L));
+        when(productRepository.deleteByIdIn(List.of(100L))).thenReturn(1);
+
+        service.runJob(10L);
+
+        assertEquals(AccountPurgeJob.Status.DONE, job.getStatus());
+        assertEquals(3L, job.getHistoryDeleted());
+        assertEquals(1L, job.getNotificationsDeleted());
+        assertEquals(1L, job.getTokensDeleted());
+        assertEquals(1L, job.getProductsDeleted());
+        assertNotNull(job.getFinishedAt());
+        verify(priceHistoryRepository, times(2)).deleteByIds(anyList());
+        verify(priceHistoryBlockRepository).findIdsByProductUserId(7L, PageRequest.of(0, 2));
+        verify(priceHistoryBlockRepository).deleteByProductIdIn(List.of(100L));
+        verify(userRepository).deleteById(7L);
+        verify(notificationService).evictUnreadCount(7L);
+    }
+
+    @Test
+    @DisplayName("Deve retomar da fase em que parou e registrar falha")
+    void deveRetomarDaFaseERegistrarFalha() {
+        AccountPurgeJob job = pendingJob();
+        job.setPhase(AccountPurgeJob.Phase.PRODUCTS);
+        when(jobRepository.findById(10L)).thenReturn(Optional.of(job));
+        when(productRepository.findIdsByUserId(eq(7L), any())).thenThrow(new RuntimeException("lock timeout"));
+
+        service.runJob(10L);
+
+        verify(priceHistoryRepository, never()).findIdsByProductUserId(anyLong(), any());
+        assertEquals(AccountPurgeJob.Status.PENDING, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertEquals("lock timeout", job.getLastError());
+        verify(userRepository, never()).deleteById(anyLong());
+    }
+}
@@ -0,0 +1,79 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.model.PriceCheckRun;
+import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.repository.PriceCheckRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("AsyncProductUpdateService Tests")
+class AsyncProductUpdateServiceTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private ScraperService scraperService;
+
+    @Mock
+    private PipelineMetrics pipelineMetrics;
+
+    @Mock
+    private PriceCheckRunRepository runRepository;
+
+    private AsyncProductUpdateService service;
+
+    @BeforeEach
+    void setUp() {
+        PriceCheckRunTracker tracker = new PriceCheckRunTracker(runRepository);
+        ReflectionTestUtils.setField(tracker, "overrunThresholdMs", 1_800_000L);
+        service = new AsyncProductUpdateService(productService, scraperService, pipelineMetrics, tracker);
+    }
+
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setUserId(1L);
+        product.setUrl("https://produto.mercadolivre.com.br/MLB-" + id + "-x");
+        return product;
+    }
+
+    @Test
+    @DisplayName("Resposta inválida conta como falha no ciclo e no registro da execução")
+    void respostaInvalidaContaComoFalha() {
+        Product valid = product(1L);
+        Product invalid = product(2L);
+        when(productService.getAllProducts()).thenReturn(List.of(valid, invalid));
+        when(scraperService.fetchProductData(valid.getUrl(), 1L)).thenReturn(CompletableFuture.completedFuture(
+            new ScrapeResponse("Produto", 10.0, null, null, null, null)));
+        when(scraperService.fetchProductData(invalid.getUrl(), 1L)).thenReturn(CompletableFuture.completedFuture(
+            new ScrapeResponse(null, null, null, null, null, null)));
+        when(productService.updateSingleProduct(any(), any())).thenReturn(true).thenReturn(false);
+        when(runRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        service.updateAllProductsAsync(p -> true).join();
+
+        verify(pipelineMetrics).recordCycle(anyLong(), eq(1L), eq(1L));
+        ArgumentCaptor<PriceCheckRun> run = ArgumentCaptor.forClass(PriceCheckRun.class);
+        verify(runRepository).save(run.capture());
+        assertEquals(1, run.getValue().getFailed());
+        assertEquals(1, run.getValue().getChanged());
+    }
+}
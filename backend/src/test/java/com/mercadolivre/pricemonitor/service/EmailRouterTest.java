@@ -0,0 +1,236 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.email.EmailMessage;
+import com.mercadolivre.pricemonitor.email.EmailSendException;
+import com.mercadolivre.pricemonitor.email.EmailSender;
+import com.mercadolivre.pricemonitor.email.EmailTemplateRenderer;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EmailRouter Tests")
+class EmailRouterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    @DisplayName("Deve usar o provedor prioritário quando saudável")
+    void deveUsarProvedorPrioritario() {
+        FakeSender brevo = new FakeSender("brevo", 1);
+        FakeSender smtp = new FakeSender("smtp", 1);
+        EmailRouter router = router(List.of(smtp, brevo));
+
+        assertTrue(router.send(message("a@test.com")));
+
+        assertEquals(1, brevo.delivered.size());
+        assertEquals(0, smtp.delivered.size());
+        assertEquals(1.0, meterRegistry.get("email.sent").tag("provider", "brevo").tag("outcome", "success").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve fazer failover e colocar provedor em cooldown após falhas seguidas")
+    void deveFazerFailoverEEntrarEmCooldown() {
+        FakeSender brevo = new FakeSender("brevo", 1);
+        brevo.failing = true;
+        FakeSender smtp = new FakeSender("smtp", 1);
+        EmailRouter router = router(List.of(brevo, smtp));
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(router.send(message("u" + i + "@test.com")));
+        }
+        assertEquals(3, smtp.delivered.size());
+        assertEquals(3, brevo.attempts);
+
+        // Em cooldown: nem é tentado
+        router.send(message("x@test.com"));
+        assertEquals(3, brevo.attempts);
+        assertEquals("smtp", router.rank().get(0).sender.name());
+        assertEquals(3.0, meterRegistry.get("email.sent").tag("provider", "brevo").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    @DisplayName("Deve agrupar alertas em lotes do tamanho aceito pelo provedor")
+    void deveAgruparAlertasEmLotes() {
+        FakeSender resend = new FakeSender("resend", 2);
+        EmailRouter router = router(List.of(resend));
+
+        for (int i = 0; i < 5; i++) {
+            router.enqueue(message("u" + i + "@test.com"));
+        }
+        router.flushPending();
+
+        assertEquals(5, resend.delivered.size());
+        assertEquals(List.of(2, 2, 1), resend.callSizes);
+    }
+
+    @Test
+    @DisplayName("Desligamento deve enviar a fila antes de destruir os provedores")
+    void desligamentoEnviaFila() {
+        FakeSender brevo = new FakeSender("brevo", 10);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean("brevoSender", EmailSender.class, () -> brevo, bd -> bd.setDestroyMethodName("close"));
+            context.registerBean(EmailTemplateRenderer.class);
+            context.registerBean(SimpleMeterRegistry.class);
+            context.registerBean(EmailRouter.class);
+            context.refresh();
+
+            EmailRouter router = context.getBean(EmailRouter.class);
+            router.enqueue(message("a@test.com"));
+            router.enqueue(message("b@test.com"));
+            assertEquals(0, brevo.attempts, "ainda na fila");
+        }
+
+        assertEquals(2, brevo.delivered.size());
+        assertEquals(List.of(2), brevo.callSizes);
+        assertTrue(brevo.closed);
+    }
+
+    @Test
+    @DisplayName("Deve ignorar provedores não configurados")
+    void deveIgnorarProvedoresNaoConfigurados() {
+        FakeSender brevo = new FakeSender("brevo", 1);
+        brevo.configured = false;
+        EmailRouter router = router(List.of(brevo));
+
+        assertFalse(router.send(message("a@test.com")));
+        assertEquals(0, brevo.attempts);
+    }
+
+    @Test
+    @DisplayName("Deve fazer failover entre provedores HTTP reais (servidores fake locais)")
+    void deveFazerFailoverEntreProvedoresHttp() throws IOException {
+        List<String> brevoBodies = new CopyOnWriteArrayList<>();
+        HttpServer brevoServer = fakeServer("/smtp/email", 500, "{\"message\":\"erro\"}", brevoBodies);
+        List<String> resendBodies = new CopyOnWriteArrayList<>();
+        HttpServer resendServer = fakeServer("/emails/batch", 200, "{\"data\":[]}", resendBodies);
+
+        BrevoEmailService brevo = new BrevoEmailService();
+        ReflectionTestUtils.setField(brevo, "apiUrl", baseUrl(brevoServer));
+        ReflectionTestUtils.setField(brevo, "apiKey", "xkeysib-test");
+        ReflectionTestUtils.setField(brevo, "batchMaxSize", 100);
+        ReflectionTestUtils.setField(brevo, "restTemplate", new RestTemplate());
+
+        ResendEmailService resend = new ResendEmailService();
+        ReflectionTestUtils.setField(resend, "apiUrl", baseUrl(resendServer));
+        ReflectionTestUtils.setField(resend, "apiKey", "re_test");
+        ReflectionTestUtils.setField(resend, "restTemplate", new RestTemplate());
+
+        EmailRouter router = router(List.of(brevo, resend));
+        router.enqueue(message("a@test.com"));
+        router.enqueue(message("b@test.com"));
+        router.flushPending();
+
+        assertEquals(1, brevoBodies.size());
+        assertTrue(brevoBodies.get(0).contains("messageVersions"));
+        assertEquals(1, resendBodies.size());
+        assertTrue(resendBodies.get(0).contains("a@test.com"));
+        assertTrue(resendBodies.get(0).contains("b@test.com"));
+    }
+
+    private EmailRouter router(List<EmailSender> senders) {
+        EmailRouter router = new EmailRouter(senders, new EmailTemplateRenderer(), meterRegistry);
+        ReflectionTestUtils.setField(router, "providerOrder", "brevo,resend,smtp");
+        ReflectionTestUtils.setField(router, "failureThreshold", 3);
+        ReflectionTestUtils.setField(router, "cooldownMs", 60_000L);
+        ReflectionTestUtils.setField(router, "priorityWeightMs", 500L);
+        ReflectionTestUtils.setField(router, "maxPending", 100);
+        router.init();
+        return router;
+    }
+
+    private static EmailMessage message(String to) {
+        return new EmailMessage(to, null, "Assunto", "<p>corpo</p>");
+    }
+
+    private HttpServer fakeServer(String path, int status, String response, List<String> bodies) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext(path, exchange -> {
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        servers.add(server);
+        return server;
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static class FakeSender implements EmailSender {
+
+        private final String name;
+        private final int batchSize;
+        private final List<EmailMessage> delivered = new ArrayList<>();
+        private final List<Integer> callSizes = new ArrayList<>();
+        private boolean configured = true;
+        private boolean failing;
+        private boolean closed;
+        private int attempts;
+
+        FakeSender(String name, int batchSize) {
+            this.name = name;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public boolean isConfigured() {
+            return configured;
+        }
+
+        @Override
+        public int maxBatchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public void send(EmailMessage message) {
+            sendBatch(List.of(message));
+        }
+
+        @Override
+        public void sendBatch(List<EmailMessage> messages) {
+            attempts++;
+            if (failing || closed) {
+                throw new EmailSendException(name + " fora do ar");
+            }
+            callSizes.add(messages.size());
+            delivered.addAll(messages);
+        }
+
+        void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.mercadolivre.pricemonitor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EventStreamService Tests")
+class EventStreamServiceTest {
+
+    private EventStreamService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new EventStreamService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "maxConnections", 3);
+        ReflectionTestUtils.setField(service, "maxConnectionsPerUser", 2);
+        ReflectionTestUtils.setField(service, "bufferSize", 4);
+        ReflectionTestUtils.setField(service, "timeoutMs", 60_000L);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve recusar conexões acima do limite global")
+    void deveRecusarConexoesAcimaDoLimiteGlobal() {
+        assertNotNull(service.subscribe(1L));
+        assertNotNull(service.subscribe(2L));
+        assertNotNull(service.subscribe(3L));
+
+        assertNull(service.subscribe(4L));
+        assertEquals(3, service.getConnectionCount());
+        assertFalse(service.hasSubscribers(4L));
+    }
+
+    @Test
+    @DisplayName("Deve encerrar a conexão mais antiga quando o usuário excede o limite")
+    void deveEncerrarConexaoMaisAntigaDoUsuario() {
+        service.subscribe(1L);
+        service.subscribe(1L);
+        SseEmitter newest = service.subscribe(1L);
+
+        assertNotNull(newest);
+        assertEquals(2, service.getConnectionCount());
+        assertTrue(service.hasSubscribers(1L));
+    }
+
+    @Test
+    @DisplayName("Publicar para usuário sem conexões não deve falhar")
+    void publicarSemConexoesNaoDeveFalhar() {
+        assertDoesNotThrow(() -> service.publish(99L, EventStreamService.EVENT_UNREAD_COUNT, Map.of("count", 1L)));
+        assertDoesNotThrow(() -> service.publishAfterCommit(99L, EventStreamService.EVENT_PRODUCT, Map.of()));
+        assertEquals(0, service.getConnectionCount());
+    }
+}
@@ -0,0 +1,216 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.MercadoLivreToken;
+import com.mercadolivre.pricemonitor.model.User;
+import com.mercadolivre.pricemonitor.repository.MercadoLivreTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MercadoLivreTokenManager Tests")
+class MercadoLivreTokenManagerTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-10T12:00:00Z");
+
+    @Mock
+    private MercadoLivreTokenRepository tokenRepository;
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    private MercadoLivreTokenManager manager;
+    private MercadoLivreToken stored;
+
+    @BeforeEach
+    void setUp() {
+        manager = new MercadoLivreTokenManager(tokenRepository, restTemplate);
+        ReflectionTestUtils.setField(manager, "clientId", "client");
+        ReflectionTestUtils.setField(manager, "clientSecret", "secret");
+        ReflectionTestUtils.setField(manager, "apiUrl", "https://api.test");
+        ReflectionTestUtils.setField(manager, "clock", Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.ofInstant(NOW, ZoneOffset.UTC);
+    }
+
+    private MercadoLivreToken token(String access, LocalDateTime expiresAt) {
+        MercadoLivreToken token = new MercadoLivreToken();
+        token.setId(1L);
+        token.setAccessToken(access);
+        token.setRefreshToken("refresh-" + access);
+        token.setExpiresAt(expiresAt);
+        return token;
+    }
+
+    private void givenAppToken(LocalDateTime expiresAt) {
+        stored = token("velho", expiresAt);
+        when(tokenRepository.findLatestToken()).thenReturn(Optional.of(stored));
+        manager.init();
+    }
+
+    private void givenRefreshAnswers(String newAccess) {
+        lenient().when(tokenRepository.findById(1L)).thenAnswer(inv -> Optional.of(stored));
+        lenient().when(tokenRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+            .thenReturn(ResponseEntity.ok(Map.of("access_token", newAccess, "refresh_token", "r2",
+                "expires_in", 21600)));
+    }
+
+    @Test
+    @DisplayName("Token vencendo com várias threads deve ser renovado uma única vez")
+    void renovacaoUnicaComConcorrencia() throws Exception {
+        givenAppToken(now().plusMinutes(2));
+        givenRefreshAnswers("novo");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return manager.accessToken();
+            }));
+        }
+        start.countDown();
+        for (Future<String> result : results) {
+            assertEquals("novo", result.get(5, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(), eq(Map.class));
+        verify(tokenRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("Token longe de vencer não deve ser renovado nem consultar o banco")
+    void tokenValidoSemRenovacao() {
+        givenAppToken(now().plusHours(5));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("velho", manager.accessToken());
+            assertTrue(manager.hasValidToken());
+        }
+
+        verifyNoInteractions(restTemplate);
+        verify(tokenRepository, times(1)).findLatestToken();
+    }
+
+    @Test
+    @DisplayName("Renovação antecipada deve trocar o token antes da margem de vencimento")
+    void renovacaoAntecipada() {
+        givenAppToken(now().plusMinutes(10));
+        givenRefreshAnswers("novo");
+
+        manager.refreshAheadOfExpiry();
+
+        assertEquals("novo", manager.accessToken());
+        assertEquals(now().plusSeconds(21600), stored.getExpiresAt());
+    }
+
+    @Test
+    @DisplayName("Falha transitória na renovação antecipada deve manter o token atual")
+    void falhaTransitoriaMantemToken() {
+        givenAppToken(now().plusMinutes(10));
+        when(tokenRepository.findById(1L)).thenReturn(Optional.of(stored));
+        when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+            .thenThrow(new ResourceAccessException("timeout"));
+
+        manager.refreshAheadOfExpiry();
+
+        assertTrue(manager.hasValidToken());
+        assertEquals("velho", manager.accessToken());
+        verify(tokenRepository, never()).deleteById(any());
+    }
+
+    @Test
+    @DisplayName("Refresh token recusado pelo ML deve remover o token")
+    void refreshRecusadoRemoveToken() {
+        stored = token("velho", now().minusMinutes(1));
+        when(tokenRepository.findLatestToken()).thenReturn(Optional.of(stored));
+        when(tokenRepository.findById(1L)).thenReturn(Optional.of(stored));
+        manager.init();
+        when(restTemplate.postForEntity(anyString(), any(), eq(Map.class)))
+            .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST, "invalid_grant"));
+
+        assertThrows(RuntimeException.class, () -> manager.refreshAccessToken());
+
+        assertFalse(manager.hasValidToken());
+        verify(tokenRepository).deleteById(1L);
+    }
+
+    @Test
+    @DisplayName("Token por usuário deve vir do cache e ser relido após o TTL")
+    void tokenPorUsuarioEmCache() {
+        User user = new User();
+        user.setId(7L);
+        when(tokenRepository.findByUserId(7L)).thenReturn(Optional.of(token("do-usuario", now().plusHours(5))));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("do-usuario", manager.accessTokenForUser(user));
+        }
+        verify(tokenRepository, times(1)).findByUserId(7L);
+
+        ReflectionTestUtils.setField(manager, "clock",
+            Clock.fixed(NOW.plusMillis(300_000), ZoneOffset.UTC));
+        manager.accessTokenForUser(user);
+        verify(tokenRepository, times(2)).findByUserId(7L);
+    }
+
+    @Test
+    @DisplayName("Usuário sem token deve falhar sem consultar o banco a cada chamada")
+    void usuarioSemToken() {
+        User user = new User();
+        user.setId(8L);
+        when(tokenRepository.findByUserId(8L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> manager.accessTokenForUser(user));
+        assertThrows(RuntimeException.class, () -> manager.accessTokenForUser(user));
+
+        verify(tokenRepository, times(1)).findByUserId(8L);
+    }
+
+    @Test
+    @DisplayName("Token do app que também é de um usuário deve ser renovado uma vez para os dois")
+    void tokenCompartilhadoRenovadoUmaVez() {
+        givenAppToken(now().plusMinutes(2));
+        givenRefreshAnswers("novo");
+        when(tokenRepository.findByUserId(7L)).thenReturn(Optional.of(token("velho", now().plusMinutes(2))));
+
+        assertEquals("novo", manager.userToken(7L).accessToken());
+        assertEquals("novo", manager.accessToken());
+        assertEquals(1, manager.pooledTokens().size());
+
+        verify(restTemplate, times(1)).postForEntity(anyString(), any(), eq(Map.class));
+    }
+}
@@ -0,0 +1,116 @@
+package com.mercadolivre.pricemonitor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MercadoLivreTokenPool Tests")
+class MercadoLivreTokenPoolTest {
+
+    @Mock
+    private MercadoLivreTokenManager tokenManager;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private SimpleMeterRegistry registry;
+    private MercadoLivreTokenPool pool;
+
+    private final MercadoLivreTokenManager.Token app = token(1L, "app");
+    private final MercadoLivreTokenManager.Token alice = token(2L, "alice");
+    private final MercadoLivreTokenManager.Token bob = token(3L, "bob");
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        pool = new MercadoLivreTokenPool(tokenManager, registry);
+        ReflectionTestUtils.setField(pool, "clock", (LongSupplier) now::get);
+    }
+
+    private static MercadoLivreTokenManager.Token token(Long id, String access) {
+        return new MercadoLivreTokenManager.Token(id, access, "refresh", LocalDateTime.now().plusHours(6));
+    }
+
+    private static HttpHeaders remaining(long value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-RateLimit-Remaining", String.valueOf(value));
+        return headers;
+    }
+
+    @Test
+    @DisplayName("Produto de usuário conectado deve usar o token do dono")
+    void usaTokenDoDono() {
+        when(tokenManager.userToken(2L)).thenReturn(alice);
+
+        MercadoLivreTokenPool.Lease lease = pool.acquire(2L);
+
+        assertEquals("alice", lease.accessToken());
+        assertEquals(MercadoLivreTokenPool.ROUTE_OWNER, lease.route());
+        verify(tokenManager, never()).pooledTokens();
+    }
+
+    @Test
+    @DisplayName("Dono sem token deve cair no pool compartilhado")
+    void donoSemTokenUsaPool() {
+        when(tokenManager.userToken(9L)).thenReturn(null);
+        when(tokenManager.pooledTokens()).thenReturn(List.of(app));
+
+        MercadoLivreTokenPool.Lease lease = pool.acquire(9L);
+
+        assertEquals("app", lease.accessToken());
+        assertEquals(MercadoLivreTokenPool.ROUTE_SHARED, lease.route());
+    }
+
+    @Test
+    @DisplayName("Pool deve escolher o token com mais cota sobrando")
+    void escolheTokenComMaisCota() {
+        when(tokenManager.pooledTokens()).thenReturn(List.of(app, alice, bob));
+        pool.release(pool.acquire(null), 200, remaining(10));
+
+        // app informou 10 restantes; alice e bob sem informação contam como folga
+        MercadoLivreTokenPool.Lease first = pool.acquire(null);
+        MercadoLivreTokenPool.Lease second = pool.acquire(null);
+
+        assertEquals(2L, first.tokenId());
+        assertEquals(3L, second.tokenId(), "chamada em andamento reduz a folga de alice");
+    }
+
+    @Test
+    @DisplayName("Token que recebe 429 deve ficar de fora até o Retry-After")
+    void tokenComLimiteFicaDeFora() {
+        when(tokenManager.userToken(2L)).thenReturn(alice);
+        when(tokenManager.pooledTokens()).thenReturn(List.of(alice, bob));
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, "30");
+
+        pool.release(pool.acquire(2L), 429, headers);
+
+        assertEquals("bob", pool.acquire(2L).accessToken());
+        now.addAndGet(30_000);
+        assertEquals("alice", pool.acquire(2L).accessToken());
+        assertEquals(1, registry.get("ml.token.throttled").counter().count());
+    }
+
+    @Test
+    @DisplayName("Sem nenhum token com cota deve falhar")
+    void semTokenDisponivel() {
+        when(tokenManager.pooledTokens()).thenReturn(List.of(app));
+        pool.release(pool.acquire(null), 200, remaining(0));
+
+        assertFalse(pool.hasAvailableToken());
+        assertThrows(RuntimeException.class, () -> pool.acquire(null));
+    }
+}
@@ -0,0 +1,100 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.Notification;
+import com.mercadolivre.pricemonitor.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationService Tests")
+class NotificationServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private EventStreamService eventStreamService;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationService, "unreadCacheTtlMs", 300_000L);
+    }
+
+    @Test
+    @DisplayName("Deve consultar o banco só no primeiro acesso ao contador")
+    void deveConsultarBancoSoNoPrimeiroAcesso() {
+        when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(3L);
+
+        assertEquals(3, notificationService.getUnreadCount(1L));
+        assertEquals(3, notificationService.getUnreadCount(1L));
+
+        verify(notificationRepository, times(1)).countByUserIdAndIsReadFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Deve atualizar o contador ao criar e marcar como lida")
+    void deveAtualizarContadorIncrementalmente() {
+        when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(2L);
+        when(notificationRepository.save(any(Notification.class))).thenAnswer(inv -> inv.getArgument(0));
+        notificationService.getUnreadCount(1L);
+
+        notificationService.createPriceChangeNotification(1L, 10L, "Produto", 100.0, 90.0);
+        assertEquals(3, notificationService.getUnreadCount(1L));
+
+        Notification unread = new Notification();
+        unread.setId(5L);
+        unread.setUserId(1L);
+        unread.setIsRead(false);
+        when(notificationRepository.findById(5L)).thenReturn(Optional.of(unread));
+
+        assertTrue(notificationService.markAsRead(5L, 1L));
+        assertEquals(2, notificationService.getUnreadCount(1L));
+
+        // Marcar de novo não decrementa
+        assertTrue(notificationService.markAsRead(5L, 1L));
+        assertEquals(2, notificationService.getUnreadCount(1L));
+        verify(notificationRepository, times(1)).countByUserIdAndIsReadFalse(1L);
+    }
+
+    @Test
+    @DisplayName("Deve zerar o contador ao marcar todas como lidas ou excluir")
+    void deveZerarContador() {
+        when(notificationRepository.countByUserIdAndIsReadFalse(1L)).thenReturn(7L);
+        notificationService.getUnreadCount(1L);
+
+        notificationService.markAllAsRead(1L);
+        assertEquals(0, notificationService.getUnreadCount(1L));
+
+        notificationService.deleteAllByUserId(2L);
+        assertEquals(0, notificationService.getUnreadCount(2L));
+        verify(notificationRepository, never()).countByUserIdAndIsReadFalse(2L);
+    }
+
+    @Test
+    @DisplayName("Não deve decrementar notificação de outro usuário")
+    void naoDeveMarcarNotificacaoDeOutroUsuario() {
+        Notification other = new Notification();
+        other.setId(9L);
+        other.setUserId(2L);
+        other.setIsRead(false);
+        when(notificationRepository.findById(9L)).thenReturn(Optional.of(other));
+
+        assertFalse(notificationService.markAsRead(9L, 1L));
+        verify(notificationRepository, never()).save(any());
+    }
+}
@@ -0,0 +1,94 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PipelineMetrics Tests")
+class PipelineMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private PipelineMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new PipelineMetrics(registry);
+        metrics.init();
+    }
+
+    @Test
+    @DisplayName("Deve marcar o resultado da busca pela resposta: sucesso, inválida ou erro")
+    void deveMarcarResultadoDaBusca() {
+        metrics.recordFetch(metrics.start(), PipelineMetrics.SOURCE_ML_API,
+            new ScrapeResponse("Produto", 10.0, null, null, null, null));
+        metrics.recordFetch(metrics.start(), PipelineMetrics.SOURCE_SCRAPER,
+            new ScrapeResponse(null, null, null, null, null, null));
+        metrics.recordFetch(metrics.start(), PipelineMetrics.SOURCE_FALLBACK, null);
+
+        assertEquals(1, registry.get("scrape.fetch").tags("source", "ml_api", "outcome", "success").timer().count());
+        assertEquals(1, registry.get("scrape.fetch").tags("source", "scraper", "outcome", "invalid").timer().count());
+        assertEquals(1, registry.get("scrape.fetch").tags("source", "fallback", "outcome", "error").timer().count());
+    }
+
+    @Test
+    @DisplayName("Tempo de gravação só deve ser registrado depois do commit")
+    void gravacaoDeveSerMedidaAteOCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            metrics.recordPersist(metrics.start(), true);
+            assertNull(registry.find("price.persist").timer(), "flush e commit ainda não aconteceram");
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, registry.get("price.persist").tag("write", "full").timer().count());
+    }
+
+    @Test
+    @DisplayName("Tamanho desconhecido da resposta não deve entrar na distribuição")
+    void deveIgnorarTamanhoDesconhecido() {
+        metrics.recordPayload(PipelineMetrics.SOURCE_SCRAPER, 2_048);
+        metrics.recordPayload(PipelineMetrics.SOURCE_SCRAPER, -1);
+
+        assertEquals(1, registry.get("scrape.payload.bytes").summary().count());
+        assertEquals(2_048, registry.get("scrape.payload.bytes").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Deve registrar ciclo com produtos por resultado e vazão")
+    void deveRegistrarCiclo() {
+        metrics.recordCycle(TimeUnit.SECONDS.toNanos(4), 90, 10);
+
+        assertEquals(1, registry.get("price.cycle.duration").timer().count());
+        assertEquals(90, registry.get("price.cycle.products").tag("outcome", "success").counter().count());
+        assertEquals(10, registry.get("price.cycle.products").tag("outcome", "failure").counter().count());
+        assertEquals(25.0, registry.get("price.cycle.throughput").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Tags devem ter cardinalidade fixa, independente do volume")
+    void tagsDevemTerCardinalidadeFixa() {
+        for (int i = 0; i < 1_000; i++) {
+            metrics.recordNotification(PipelineMetrics.CHANNEL_EMAIL, true);
+            metrics.recordHistoryRow(i % 2 == 0 ? PipelineMetrics.HISTORY_CHANGE : PipelineMetrics.HISTORY_PERIODIC);
+            metrics.recordRetry(PipelineMetrics.SOURCE_SCRAPER);
+        }
+
+        long meters = registry.getMeters().stream().map(Meter::getId).distinct().count();
+        assertEquals(5, meters); // throughput, notifications.sent, 2x price.history.rows, scrape.retries
+        assertEquals(1_000, registry.get("notifications.sent").tags("channel", "email", "outcome", "success")
+            .counter().count());
+    }
+}
@@ -0,0 +1,123 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.model.PriceCheckRun;
+import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.repository.PriceCheckRunRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceCheckRunTracker Tests")
+class PriceCheckRunTrackerTest {
+
+    @Mock
+    private PriceCheckRunRepository runRepository;
+
+    private PriceCheckRunTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new PriceCheckRunTracker(runRepository);
+        ReflectionTestUtils.setField(tracker, "overrunThresholdMs", 1_800_000L);
+    }
+
+    private static Product product(String url) {
+        Product product = new Product();
+        product.setUrl(url);
+        return product;
+    }
+
+    private static ScrapeResponse valid() {
+        return new ScrapeResponse("Produto", 10.0, null, null, null, null);
+    }
+
+    @Test
+    @DisplayName("Deve contar produtos, itens distintos e resultados do ciclo")
+    void deveContarResultados() {
+        when(runRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        PriceCheckRunTracker.Cycle cycle = tracker.begin(List.of(
+            product("https://produto.mercadolivre.com.br/MLB-1-a"),
+            product("https://produto.mercadolivre.com.br/MLB-1-a?tracking=x"),
+            product("https://produto.mercadolivre.com.br/MLB-2-b")));
+
+        cycle.recordFetch(TimeUnit.MILLISECONDS.toNanos(100), valid());
+        cycle.recordFetch(TimeUnit.MILLISECONDS.toNanos(200), valid());
+        cycle.recordFetch(TimeUnit.MILLISECONDS.toNanos(300), null);
+        cycle.recordUpdate(TimeUnit.MILLISECONDS.toNanos(5), true);
+        cycle.recordUpdate(TimeUnit.MILLISECONDS.toNanos(7), false);
+        cycle.recordFailure();
+
+        PriceCheckRun run = tracker.finish(cycle);
+
+        assertEquals(3, run.getProductsScanned());
+        assertEquals(2, run.getDistinctItems(), "query string não conta como outro item");
+        assertEquals(2, run.getFetched());
+        assertEquals(1, run.getChanged());
+        assertEquals(1, run.getUnchanged());
+        assertEquals(1, run.getFailed());
+        assertEquals(200L, run.getFetchP50Ms());
+        assertEquals(300L, run.getFetchP99Ms());
+        assertEquals(12L, run.getDbTimeMs());
+        assertFalse(run.isOverran());
+        assertNotNull(run.getFinishedAt());
+    }
+
+    @Test
+    @DisplayName("Percentil por posição (nearest rank) e nulo sem amostras")
+    void percentis() {
+        long[] sorted = new long[100];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = TimeUnit.MILLISECONDS.toNanos(i + 1);
+        }
+
+        assertEquals(50L, PriceCheckRunTracker.percentileMs(sorted, 50));
+        assertEquals(95L, PriceCheckRunTracker.percentileMs(sorted, 95));
+        assertEquals(99L, PriceCheckRunTracker.percentileMs(sorted, 99));
+        assertEquals(1L, PriceCheckRunTracker.percentileMs(new long[]{TimeUnit.MILLISECONDS.toNanos(1)}, 99));
+        assertNull(PriceCheckRunTracker.percentileMs(new long[0], 50));
+    }
+
+    @Test
+    @DisplayName("Ciclo mais longo que o intervalo deve ser marcado como overran")
+    void deveMarcarOverran() {
+        when(runRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        ReflectionTestUtils.setField(tracker, "overrunThresholdMs", -1L);
+
+        PriceCheckRun run = tracker.finish(tracker.begin(List.of()));
+
+        assertTrue(run.isOverran());
+        assertNull(run.getFetchP50Ms());
+    }
+
+    @Test
+    @DisplayName("Erro ao gravar não deve propagar para o ciclo")
+    void erroAoGravarNaoPropaga() {
+        when(runRepository.save(any())).thenThrow(new RuntimeException("db down"));
+
+        assertNull(tracker.finish(tracker.begin(List.of(product("https://x.com/MLB-1")))));
+    }
+
+    @Test
+    @DisplayName("Limite de recent deve ficar entre 1 e MAX_RECENT")
+    void limiteDeRecent() {
+        tracker.recent(10_000);
+        tracker.recent(0);
+
+        verify(runRepository).findAllByOrderByStartedAtDesc(argThat((Pageable p) -> p.getPageSize() == PriceCheckRunTracker.MAX_RECENT));
+        verify(runRepository).findAllByOrderByStartedAtDesc(argThat((Pageable p) -> p.getPageSize() == 1));
+    }
+}
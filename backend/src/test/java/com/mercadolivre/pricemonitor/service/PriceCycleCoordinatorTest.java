@@ -0,0 +1,165 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.resilience.BackendGuards;
+import com.mercadolivre.pricemonitor.resilience.BackendHealthMonitor;
+import com.mercadolivre.pricemonitor.service.PriceCycleCoordinator.Outcome;
+import com.mercadolivre.pricemonitor.service.PriceCycleCoordinator.Trigger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceCycleCoordinator Tests")
+class PriceCycleCoordinatorTest {
+
+    @Mock
+    private AsyncProductUpdateService asyncProductUpdateService;
+
+    @Mock
+    private ScraperService scraperService;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private BackendHealthMonitor backendHealthMonitor;
+
+    private PriceCycleCoordinator coordinator;
+
+    @BeforeEach
+    void setUp() {
+        coordinator = new PriceCycleCoordinator(asyncProductUpdateService, scraperService, productService,
+            backendHealthMonitor, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(coordinator, "mergeWindowMs", 60_000L);
+        ReflectionTestUtils.setField(coordinator, "priorityConcurrency", 2);
+        coordinator.init();
+    }
+
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setUrl("https://produto.mercadolivre.com.br/MLB-" + id);
+        product.setStatus("ACTIVE");
+        return product;
+    }
+
+    @Test
+    @DisplayName("Deve manter no máximo um ciclo completo em andamento")
+    void umCicloPorVez() {
+        CompletableFuture<Void> cycle = new CompletableFuture<>();
+        when(backendHealthMonitor.isReady(anyString())).thenReturn(true);
+        when(asyncProductUpdateService.updateAllProductsAsync(any())).thenReturn(cycle);
+
+        assertEquals(Outcome.STARTED, coordinator.requestFullCycle(Trigger.SCHEDULED));
+        assertEquals(Outcome.SKIPPED, coordinator.requestFullCycle(Trigger.SCHEDULED));
+        assertEquals(Outcome.MERGED, coordinator.requestFullCycle(Trigger.MANUAL));
+        verify(asyncProductUpdateService, times(1)).updateAllProductsAsync(any());
+
+        cycle.complete(null);
+
+        assertFalse(coordinator.isCycleRunning());
+        verify(asyncProductUpdateService, times(1)).updateAllProductsAsync(any());
+    }
+
+    @Test
+    @DisplayName("Pedidos manuais após a janela viram um único ciclo seguinte")
+    void pedidosManuaisViramUmCicloSeguinte() {
+        ReflectionTestUtils.setField(coordinator, "mergeWindowMs", -1L);
+        CompletableFuture<Void> first = new CompletableFuture<>();
+        CompletableFuture<Void> second = new CompletableFuture<>();
+        when(backendHealthMonitor.isReady(anyString())).thenReturn(true);
+        when(asyncProductUpdateService.updateAllProductsAsync(any())).thenReturn(first, second);
+
+        coordinator.requestFullCycle(Trigger.SCHEDULED);
+        assertEquals(Outcome.QUEUED, coordinator.requestFullCycle(Trigger.MANUAL));
+        assertEquals(Outcome.QUEUED, coordinator.requestFullCycle(Trigger.MANUAL));
+
+        first.complete(null);
+        verify(asyncProductUpdateService, times(2)).updateAllProductsAsync(any());
+        assertTrue(coordinator.isCycleRunning());
+
+        second.complete(null);
+        verify(asyncProductUpdateService, times(2)).updateAllProductsAsync(any());
+        assertFalse(coordinator.isCycleRunning());
+    }
+
+    @Test
+    @DisplayName("Backends fora do ar ou erro no ciclo deve liberar o próximo")
+    void falhaLiberaProximoCiclo() {
+        when(backendHealthMonitor.isReady(anyString())).thenReturn(false, false, true);
+        when(asyncProductUpdateService.updateAllProductsAsync(any()))
+            .thenReturn(CompletableFuture.failedFuture(new RuntimeException("db down")));
+
+        assertEquals(Outcome.STARTED, coordinator.requestFullCycle(Trigger.SCHEDULED));
+        assertFalse(coordinator.isCycleRunning());
+        assertEquals(Outcome.STARTED, coordinator.requestFullCycle(Trigger.SCHEDULED));
+        assertFalse(coordinator.isCycleRunning());
+    }
+
+    @Test
+    @DisplayName("Scraper fora do ar: ciclo roda só com os produtos servidos pela API do ML")
+    @SuppressWarnings("unchecked")
+    void scraperForaDoArRodaSoApiDoMl() {
+        when(backendHealthMonitor.isReady(BackendGuards.SCRAPER)).thenReturn(false);
+        when(backendHealthMonitor.isReady(BackendGuards.ML_API)).thenReturn(true);
+        when(asyncProductUpdateService.updateAllProductsAsync(any()))
+            .thenReturn(CompletableFuture.completedFuture(null));
+        Product viaApi = product(1);
+        Product viaScraper = product(2);
+        viaScraper.setUrl("https://www.example.com/produto/2");
+        when(scraperService.backendFor(viaApi.getUrl())).thenReturn(BackendGuards.ML_API);
+        when(scraperService.backendFor(viaScraper.getUrl())).thenReturn(BackendGuards.SCRAPER);
+
+        assertEquals(Outcome.STARTED, coordinator.requestFullCycle(Trigger.SCHEDULED));
+
+        ArgumentCaptor<Predicate<Product>> eligible = ArgumentCaptor.forClass(Predicate.class);
+        verify(asyncProductUpdateService).updateAllProductsAsync(eligible.capture());
+        assertTrue(eligible.getValue().test(viaApi));
+        assertFalse(eligible.getValue().test(viaScraper));
+    }
+
+    @Test
+    @DisplayName("Fila prioritária deve buscar só os produtos do usuário, sem duplicar e com concorrência limitada")
+    void filaPrioritaria() {
+        List<Product> products = List.of(product(1), product(2), product(3));
+        when(productService.getProductsByUserId(7L)).thenReturn(products);
+        List<CompletableFuture<ScrapeResponse>> fetches = new ArrayList<>();
+        when(scraperService.fetchProductData(anyString(), any())).thenAnswer(inv -> {
+            CompletableFuture<ScrapeResponse> fetch = new CompletableFuture<>();
+            fetches.add(fetch);
+            return fetch;
+        });
+
+        assertEquals(3, coordinator.refreshUser(7L));
+        assertEquals(2, fetches.size(), "no máximo 2 buscas simultâneas");
+        assertEquals(0, coordinator.refreshUser(7L), "produtos já na fila não entram de novo");
+
+        ScrapeResponse data = new ScrapeResponse("Produto", 10.0, null, null, null, null);
+        fetches.get(0).complete(data);
+        assertEquals(3, fetches.size());
+        fetches.get(1).complete(data);
+        fetches.get(2).complete(data);
+
+        verify(productService, times(3)).updateSingleProduct(any(Product.class), eq(data));
+        verify(asyncProductUpdateService, never()).updateAllProductsAsync(any());
+        assertEquals(3, coordinator.refreshUser(7L), "depois de concluídos podem ser pedidos de novo");
+    }
+}
@@ -0,0 +1,62 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.PricePoint;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PriceHistoryCodec Tests")
+class PriceHistoryCodecTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 8, 30, 15);
+
+    @Test
+    @DisplayName("Deve codificar e decodificar sem perder preço nem horário")
+    void deveFazerIdaEVolta() {
+        List<PricePoint> samples = List.of(
+            new PricePoint(1L, 129_990L, START),
+            new PricePoint(2L, 114_999L, START.plusHours(12)),
+            new PricePoint(3L, 114_999L, START.plusHours(24)),
+            new PricePoint(4L, 1L, START.plusHours(24)),
+            new PricePoint(5L, 2_500_000L, START.plusDays(20)));
+
+        List<PricePoint> decoded = PriceHistoryCodec.decode(PriceHistoryCodec.encode(samples));
+
+        assertEquals(samples.size(), decoded.size());
+        for (int i = 0; i < samples.size(); i++) {
+            assertNull(decoded.get(i).id());
+            assertEquals(samples.get(i).priceCents(), decoded.get(i).priceCents());
+            assertEquals(samples.get(i).recordedAt(), decoded.get(i).recordedAt());
+        }
+    }
+
+    @Test
+    @DisplayName("Um mês de amostras a cada 12h deve caber em poucos bytes por amostra")
+    void deveSerCompacto() {
+        List<PricePoint> samples = new ArrayList<>();
+        for (int i = 0; i < 62; i++) {
+            samples.add(new PricePoint((long) i, i % 10 == 0 ? 19_990L : 18_990L, START.plusHours(12L * i)));
+        }
+
+        byte[] data = PriceHistoryCodec.encode(samples);
+
+        assertTrue(data.length <= 62 * 6, "tamanho: " + data.length);
+        assertEquals(0, PriceHistoryCodec.decode(PriceHistoryCodec.encode(List.of())).size());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar bloco truncado ou de versão desconhecida")
+    void deveRejeitarBlocoInvalido() {
+        byte[] data = PriceHistoryCodec.encode(List.of(new PricePoint(1L, 1_000L, START)));
+
+        assertThrows(IllegalArgumentException.class, () -> PriceHistoryCodec.decode(new byte[] {9, 0}));
+        assertThrows(IllegalArgumentException.class,
+            () -> PriceHistoryCodec.decode(Arrays.copyOf(data, data.length - 1)));
+    }
+}
@@ -0,0 +1,123 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.PriceHistoryPage;
+import com.mercadolivre.pricemonitor.dto.PricePoint;
+import com.mercadolivre.pricemonitor.dto.PriceSeries;
+import com.mercadolivre.pricemonitor.model.PriceHistoryBlock;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryBlockRepository;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PriceHistoryQueryService Tests")
+class PriceHistoryQueryServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @Mock
+    private PriceHistoryBlockRepository blockRepository;
+
+    private PriceHistoryQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PriceHistoryQueryService(priceHistoryRepository, blockRepository);
+        ReflectionTestUtils.setField(service, "defaultPoints", 24);
+        ReflectionTestUtils.setField(service, "maxPoints", 48);
+        ReflectionTestUtils.setField(service, "defaultRangeDays", 30);
+        ReflectionTestUtils.setField(service, "readChunkSize", 2);
+    }
+
+    private static List<PricePoint> points(long... ids) {
+        return LongStream.of(ids)
+            .mapToObj(id -> new PricePoint(id, 10_000L - id, FROM.plusHours(id)))
+            .toList();
+    }
+
+    @Test
+    @DisplayName("Deve paginar o histórico bruto por cursor")
+    void devePaginarPorCursor() {
+        when(priceHistoryRepository.findPointsAfter(1L, 0L, FROM, TO, PageRequest.of(0, 3)))
+            .thenReturn(points(1, 2, 3));
+
+        PriceHistoryPage page = service.page(1L, FROM, TO, null, 2);
+
+        assertEquals(2, page.items().size());
+        assertTrue(page.hasMore());
+        assertEquals(2L, page.nextCursor());
+    }
+
+    @Test
+    @DisplayName("Deve ler a série em blocos limitados até esgotar o intervalo")
+    void deveLerSerieEmBlocos() {
+        when(priceHistoryRepository.findPointsAfter(eq(1L), eq(0L), eq(FROM), eq(TO), any())).thenReturn(points(1, 2));
+        when(priceHistoryRepository.findPointsAfter(eq(1L), eq(2L), eq(FROM), eq(TO), any())).thenReturn(points(3, 4));
+        when(priceHistoryRepository.findPointsAfter(eq(1L), eq(4L), eq(FROM), eq(TO), any())).thenReturn(points(5));
+
+        PriceHistoryBlock cold = new PriceHistoryBlock();
+        cold.setData(PriceHistoryCodec.encode(List.of(new PricePoint(null, 9_900L, FROM.plusMinutes(10)))));
+        when(blockRepository.findOverlapping(1L, FROM, TO)).thenReturn(List.of(cold));
+
+        PriceSeries series = service.series(1L, FROM, TO, 1000);
+
+        assertEquals(6, series.rawCount(), "5 linhas quentes + 1 amostra do bloco compactado");
+        assertEquals(6, series.points().size());
+        assertEquals(1800, series.bucketSeconds(), "pontos limitados a max-points (48)");
+        verify(priceHistoryRepository, times(3)).findPointsAfter(eq(1L), anyLong(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Últimos pontos devem completar com os meses compactados")
+    void ultimosPontosCompletamComBlocos() {
+        when(priceHistoryRepository.findLatestPoints(1L, PageRequest.of(0, 4))).thenReturn(points(6, 5));
+        PriceHistoryBlock cold = new PriceHistoryBlock();
+        cold.setData(PriceHistoryCodec.encode(List.of(
+            new PricePoint(null, 9_700L, FROM.plusHours(1)),
+            new PricePoint(null, 9_800L, FROM.plusHours(2)),
+            new PricePoint(null, 9_900L, FROM.plusHours(3)))));
+        when(blockRepository.findByProductIdOrderByMonthStartDesc(eq(1L), any())).thenReturn(List.of(cold));
+
+        List<PricePoint> latest = service.latest(1L, 4);
+
+        assertEquals(4, latest.size());
+        assertEquals(List.of(6L, 5L), latest.subList(0, 2).stream().map(PricePoint::id).toList());
+        assertEquals(List.of(9_900L, 9_800L), latest.subList(2, 4).stream().map(PricePoint::priceCents).toList(),
+            "amostras frias mais recentes primeiro");
+    }
+
+    @Test
+    @DisplayName("Últimos pontos não devem ler blocos quando o histórico quente basta")
+    void ultimosPontosSemBlocos() {
+        when(priceHistoryRepository.findLatestPoints(1L, PageRequest.of(0, 2))).thenReturn(points(6, 5));
+
+        assertEquals(2, service.latest(1L, 2).size());
+        verifyNoInteractions(blockRepository);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar intervalo invertido")
+    void deveRejeitarIntervaloInvertido() {
+        assertThrows(IllegalArgumentException.class, () -> service.series(1L, TO, FROM, null));
+        assertThrows(IllegalArgumentException.class, () -> service.page(1L, TO, FROM, null, 10));
+        verifyNoInteractions(priceHistoryRepository);
+    }
+}
@@ -0,0 +1,71 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.PriceSeries;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PriceSeriesDownsampler Tests")
+class PriceSeriesDownsamplerTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    @Test
+    @DisplayName("Deve agrupar em buckets com mínimo, máximo e último preço")
+    void deveAgruparEmBuckets() {
+        PriceSeriesDownsampler sampler = new PriceSeriesDownsampler(FROM, FROM.plusDays(2), 2);
+
+        sampler.accept(FROM.plusHours(1), 10_000L);
+        sampler.accept(FROM.plusHours(5), 8_000L);
+        sampler.accept(FROM.plusHours(3), 12_000L);
+        sampler.accept(FROM.plusHours(30), 9_000L);
+
+        List<PriceSeries.Point> points = sampler.points();
+
+        assertEquals(2, points.size());
+        PriceSeries.Point first = points.get(0);
+        assertEquals(FROM, first.bucketStart());
+        assertEquals(80.0, first.min());
+        assertEquals(120.0, first.max());
+        assertEquals(80.0, first.last(), "último é o de maior timestamp, não o último recebido");
+        assertEquals(FROM.plusHours(5), first.recordedAt());
+        assertEquals(3, first.count());
+
+        assertEquals(FROM.plusDays(1), points.get(1).bucketStart());
+        assertEquals(90.0, points.get(1).last());
+        assertEquals(4, sampler.getAccepted());
+        assertEquals(86_400, sampler.getBucketSeconds());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar amostras fora do intervalo e omitir buckets vazios")
+    void deveIgnorarForaDoIntervalo() {
+        PriceSeriesDownsampler sampler = new PriceSeriesDownsampler(FROM, FROM.plusDays(10), 10);
+
+        sampler.accept(FROM.minusSeconds(1), 100L);
+        sampler.accept(FROM.plusDays(10), 200L);
+        sampler.accept(FROM.plusDays(4), 5_000L);
+        sampler.accept(null, 300L);
+
+        assertEquals(1, sampler.getAccepted());
+        assertEquals(1, sampler.points().size());
+        assertEquals(FROM.plusDays(4), sampler.points().get(0).bucketStart());
+    }
+
+    @Test
+    @DisplayName("Não deve gerar mais pontos que o solicitado")
+    void naoDeveExcederPontosSolicitados() {
+        PriceSeriesDownsampler sampler = new PriceSeriesDownsampler(FROM, FROM.plusDays(365), 100);
+        for (int minute = 0; minute < 365 * 24 * 60; minute += 30) {
+            sampler.accept(FROM.plusMinutes(minute), 10_000L + (minute % 7));
+        }
+
+        assertTrue(sampler.points().size() <= 100);
+        assertEquals(365 * 24 * 2, sampler.getAccepted());
+        assertThrows(IllegalArgumentException.class, () -> new PriceSeriesDownsampler(FROM, FROM, 10));
+    }
+}
@@ -0,0 +1,72 @@
+package com.mercadolivre.pricemonitor.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ProductImportReader Tests")
+class ProductImportReaderTest {
+
+    @Test
+    @DisplayName("Deve canonicalizar URLs")
+    void deveCanonicalizarUrls() {
+        assertEquals("https://produto.mercadolivre.com.br/MLB-123-celular",
+            ProductUrls.canonicalize("  HTTPS://Produto.MercadoLivre.com.br/MLB-123-celular/?tracking=abc#reviews "));
+        assertEquals("https://www.mercadolivre.com.br/p/MLB1",
+            ProductUrls.canonicalize("www.mercadolivre.com.br/p/MLB1"));
+        assertNull(ProductUrls.canonicalize("ftp://mercadolivre.com.br/x"));
+        assertNull(ProductUrls.canonicalize("não é url"));
+        assertNull(ProductUrls.canonicalize(""));
+    }
+
+    @Test
+    @DisplayName("Deve ler array JSON com strings e objetos, removendo duplicadas")
+    void deveLerJson() throws IOException {
+        String json = """
+            ["https://ml.com.br/a?x=1", {"url": "https://ml.com.br/b", "nome": "B"},
+             "https://ml.com.br/a#top", 42, "lixo"]
+            """;
+
+        ProductImportReader reader = new ProductImportReader(100)
+            .read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), false);
+
+        assertEquals(List.of("https://ml.com.br/a", "https://ml.com.br/b"), List.copyOf(reader.getUrls()));
+        assertEquals(5, reader.getReceived());
+        assertEquals(1, reader.getDuplicates());
+        assertEquals(2, reader.getInvalid());
+    }
+
+    @Test
+    @DisplayName("Deve ler CSV ignorando cabeçalho e colunas extras")
+    void deveLerCsv() throws IOException {
+        String csv = """
+            nome;url;preco
+            Celular;https://ml.com.br/celular;1999
+            "Fone";"https://ml.com.br/fone?utm=x";99
+
+            sem url aqui, nada
+            """;
+
+        ProductImportReader reader = new ProductImportReader(100);
+        reader.readCsv(new StringReader(csv));
+
+        assertEquals(List.of("https://ml.com.br/celular", "https://ml.com.br/fone"), List.copyOf(reader.getUrls()));
+        assertEquals(1, reader.getInvalid());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar importação acima do limite de URLs")
+    void deveRejeitarAcimaDoLimite() {
+        String json = "[\"https://ml.com.br/1\", \"https://ml.com.br/2\", \"https://ml.com.br/3\"]";
+
+        assertThrows(IllegalArgumentException.class, () -> new ProductImportReader(2)
+            .read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), false));
+    }
+}
@@ -0,0 +1,227 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ProductImportStatus;
+import com.mercadolivre.pricemonitor.model.User;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import com.mercadolivre.pricemonitor.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductImportService Tests")
+class ProductImportServiceTest {
+
+    @Mock private ProductRepository productRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private AsyncScrapingService asyncScrapingService;
+    @Mock private ProductQueryService productQueryService;
+
+    private ProductImportService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ProductImportService(productRepository, userRepository, jdbcTemplate, transactionTemplate,
+            asyncScrapingService, productQueryService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "maxUrls", 100);
+        ReflectionTestUtils.setField(service, "insertBatchSize", 2);
+        ReflectionTestUtils.setField(service, "scrapeConcurrency", 2);
+        ReflectionTestUtils.setField(service, "scrapeIntervalMs", 0L);
+        ReflectionTestUtils.setField(service, "jobRetentionMs", 60_000L);
+        service.init();
+
+        lenient().when(transactionTemplate.execute(any()))
+            .thenAnswer(inv -> ((TransactionCallback<?>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private ProductImportReader reader(String csv) throws Exception {
+        ProductImportReader reader = new ProductImportReader(100);
+        reader.readCsv(new StringReader(csv));
+        return reader;
+    }
+
+    private static void awaitFinished(ProductImportService.ImportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (job.finishedAt == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertNotNull(job.finishedAt, "importação não terminou");
+    }
+
+    private static User user(boolean verified) {
+        User user = new User();
+        user.setId(1L);
+        user.setEmailVerified(verified);
+        return user;
+    }
+
+    @Test
+    @DisplayName("Deve ignorar URLs já monitoradas e inserir o resto em lotes JDBC")
+    @SuppressWarnings("unchecked")
+    void deveInserirEmLotesIgnorandoExistentes() throws Exception {
+        ProductImportReader reader = reader("""
+            https://ml.com.br/a
+            https://ml.com.br/b
+            https://ml.com.br/c
+            https://ml.com.br/d
+            """);
+        // Produto antigo gravado com query string: mesma URL canônica
+        when(productRepository.findUrlsByUserId(1L)).thenReturn(List.of("https://ml.com.br/a?utm=1"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(true)));
+        when(productRepository.findIdAndUrlByUserIdAndUrlIn(eq(1L), anyCollection())).thenAnswer(inv -> {
+            Collection<String> urls = inv.getArgument(1);
+            return urls.stream().map(url -> new Object[]{(long) url.charAt(url.length() - 1), url}).toList();
+        });
+        when(asyncScrapingService.scrapeProduct(anyLong(), anyString())).thenReturn(true, true, false);
+
+        ProductImportService.ImportJob job = new ProductImportService.ImportJob("job-1", 1L, reader);
+        service.run(job, reader.getUrls());
+        awaitFinished(job);
+
+        ArgumentCaptor<Collection<String>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), batches.capture(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(List.of(List.of("https://ml.com.br/b", "https://ml.com.br/c"), List.of("https://ml.com.br/d")),
+            batches.getAllValues().stream().map(List::copyOf).toList());
+
+        ProductImportStatus status = job.toStatus();
+        assertEquals("DONE", status.status());
+        assertEquals(1, status.alreadyMonitored());
+        assertEquals(3, status.inserted());
+        assertEquals(2, status.scraped());
+        assertEquals(1, status.scrapeFailed());
+        verify(asyncScrapingService).scrapeProduct((long) 'b', "https://ml.com.br/b");
+        verify(productQueryService).evict(1L);
+    }
+
+    @Test
+    @DisplayName("Deve respeitar o limite de produtos de usuário não verificado")
+    void deveRespeitarLimiteNaoVerificado() throws Exception {
+        ProductImportReader reader = reader("""
+            https://ml.com.br/1
+            https://ml.com.br/2
+            https://ml.com.br/3
+            https://ml.com.br/4
+            """);
+        when(productRepository.findUrlsByUserId(1L)).thenReturn(List.of("https://ml.com.br/x", "https://ml.com.br/y"));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(false)));
+        when(productRepository.findIdAndUrlByUserIdAndUrlIn(eq(1L), anyCollection())).thenReturn(List.of());
+
+        ProductImportService.ImportJob job = new ProductImportService.ImportJob("job-2", 1L, reader);
+        service.run(job, reader.getUrls());
+
+        ProductImportStatus status = job.toStatus();
+        assertEquals(ProductService.UNVERIFIED_USER_PRODUCT_LIMIT - 2, status.inserted());
+        assertEquals(4 - (ProductService.UNVERIFIED_USER_PRODUCT_LIMIT - 2), status.overLimit());
+    }
+
+    @Test
+    @DisplayName("Deve recusar segunda importação simultânea do mesmo usuário")
+    void deveRecusarImportacaoSimultanea() throws Exception {
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(productRepository.findUrlsByUserId(1L)).thenAnswer(inv -> {
+            inserting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        lenient().when(userRepository.findById(1L)).thenReturn(Optional.of(user(true)));
+
+        ProductImportStatus first = service.startImport(1L, reader("https://ml.com.br/1\n"));
+        assertTrue(inserting.await(5, TimeUnit.SECONDS));
+
+        assertThrows(IllegalStateException.class, () -> service.startImport(1L, reader("https://ml.com.br/2\n")));
+        assertEquals("INSERTING", service.getStatus(first.jobId(), 1L).orElseThrow().status());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Conta em exclusão não deve iniciar importação e a em andamento é cancelada")
+    void contaEmExclusaoNaoImporta() throws Exception {
+        User deleted = user(true);
+        deleted.setDeletedAt(LocalDateTime.now());
+        when(userRepository.findById(1L)).thenReturn(Optional.of(deleted));
+
+        assertThrows(IllegalStateException.class, () -> service.startImport(1L, reader("https://ml.com.br/1\n")));
+
+        ProductImportService.ImportJob job = new ProductImportService.ImportJob("job-3", 2L, reader("https://ml.com.br/2\n"));
+        @SuppressWarnings("unchecked")
+        Map<String, ProductImportService.ImportJob> jobs =
+            (Map<String, ProductImportService.ImportJob>) ReflectionTestUtils.getField(service, "jobs");
+        jobs.put(job.id, job);
+        service.cancelForUser(2L);
+        service.run(job, Set.of("https://ml.com.br/2"));
+
+        assertEquals("FAILED", job.toStatus().status());
+        assertNotNull(job.finishedAt);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        verifyNoInteractions(asyncScrapingService);
+    }
+
+    @Test
+    @DisplayName("Importação grande de um usuário não deve segurar a de outro")
+    void importacoesDeUsuariosDiferentesSeAlternam() throws Exception {
+        service.shutdown();
+        ReflectionTestUtils.setField(service, "scrapeIntervalMs", 20L);
+        ReflectionTestUtils.setField(service, "insertBatchSize", 100);
+        service.init();
+
+        when(productRepository.findUrlsByUserId(anyLong())).thenReturn(List.of());
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user(true)));
+        when(productRepository.findIdAndUrlByUserIdAndUrlIn(anyLong(), anyCollection())).thenAnswer(inv -> {
+            Collection<String> urls = inv.getArgument(1);
+            return urls.stream().map(url -> new Object[]{(long) url.hashCode(), url}).toList();
+        });
+        when(asyncScrapingService.scrapeProduct(anyLong(), anyString())).thenReturn(true);
+
+        StringBuilder many = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            many.append("https://ml.com.br/grande-").append(i).append('\n');
+        }
+        ProductImportReader bigReader = reader(many.toString());
+        ProductImportService.ImportJob big = new ProductImportService.ImportJob("grande", 1L, bigReader);
+        service.run(big, bigReader.getUrls());
+        ProductImportReader smallReader = reader("https://ml.com.br/pequeno\n");
+        ProductImportService.ImportJob small = new ProductImportService.ImportJob("pequeno", 2L, smallReader);
+        service.run(small, smallReader.getUrls());
+
+        awaitFinished(small);
+        assertEquals(1, small.toStatus().scraped());
+        assertNull(big.finishedAt, "a importação grande continua em andamento");
+        awaitFinished(big);
+        assertEquals(50, big.toStatus().scraped());
+    }
+}
@@ -0,0 +1,165 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ProductPage;
+import com.mercadolivre.pricemonitor.dto.ProductState;
+import com.mercadolivre.pricemonitor.dto.ProductSummary;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductQueryService Tests")
+class ProductQueryServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductStateStore stateStore;
+    private ProductQueryService service;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        stateStore = new ProductStateStore(productRepository, registry);
+        ReflectionTestUtils.setField(stateStore, "enabled", true);
+        stateStore.init();
+        service = new ProductQueryService(productRepository, stateStore, registry);
+        ReflectionTestUtils.setField(service, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(service, "maxUsers", 100);
+        ReflectionTestUtils.setField(service, "maxBytes", 1_000_000L);
+        service.init();
+    }
+
+    private static List<ProductSummary> summaries(long... ids) {
+        return LongStream.of(ids)
+            .mapToObj(id -> new ProductSummary(id, "Produto " + id, "https://ml/" + id, null,
+                1_000L, null, null, null, null, null, 1L, true, true, "ACTIVE"))
+            .toList();
+    }
+
+    @Test
+    @DisplayName("Deve servir a lista do snapshot até ser invalidada")
+    void deveServirDoSnapshotAteInvalidar() {
+        when(productRepository.findSummariesByUserId(1L)).thenReturn(summaries(1, 2)).thenReturn(summaries(1, 2, 3));
+
+        assertEquals(2, service.listForUser(1L).size());
+        assertEquals(2, service.listForUser(1L).size());
+        verify(productRepository, times(1)).findSummariesByUserId(1L);
+
+        service.evict(1L);
+
+        assertEquals(3, service.listForUser(1L).size());
+        verify(productRepository, times(2)).findSummariesByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Deve paginar por cursor (keyset) a partir do snapshot")
+    void devePaginarPorCursor() {
+        when(productRepository.findSummariesByUserId(1L)).thenReturn(summaries(3, 7, 9, 15, 20));
+
+        ProductPage first = service.page(1L, null, 2);
+        assertEquals(List.of(3L, 7L), first.items().stream().map(ProductSummary::id).toList());
+        assertTrue(first.hasMore());
+        assertEquals(7L, first.nextCursor());
+
+        ProductPage second = service.page(1L, first.nextCursor(), 2);
+        assertEquals(List.of(9L, 15L), second.items().stream().map(ProductSummary::id).toList());
+
+        // Cursor que não existe mais (produto removido) continua funcionando
+        ProductPage last = service.page(1L, 16L, 2);
+        assertEquals(List.of(20L), last.items().stream().map(ProductSummary::id).toList());
+        assertFalse(last.hasMore());
+        assertNull(last.nextCursor());
+
+        verify(productRepository, times(1)).findSummariesByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Sem cache deve paginar direto no banco buscando uma linha a mais")
+    void semCacheDevePaginarNoBanco() {
+        ReflectionTestUtils.setField(service, "ttlMs", 0L);
+        when(productRepository.findSummariesByUserIdAfter(1L, 7L, PageRequest.of(0, 3)))
+            .thenReturn(summaries(9, 15, 20));
+
+        ProductPage page = service.page(1L, 7L, 2);
+
+        assertEquals(List.of(9L, 15L), page.items().stream().map(ProductSummary::id).toList());
+        assertEquals(15L, page.nextCursor());
+        verify(productRepository, never()).findSummariesByUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("Não deve gravar snapshot carregado antes de uma invalidação")
+    void naoDeveGravarSnapshotVelho() {
+        when(productRepository.findSummariesByUserId(1L)).thenAnswer(inv -> {
+            service.evict(1L); // escrita concorrente durante o load
+            return summaries(1);
+        }).thenReturn(summaries(1, 2));
+
+        assertEquals(1, service.listForUser(1L).size());
+        assertEquals(2, service.listForUser(1L).size());
+    }
+
+    @Test
+    @DisplayName("Cache deve respeitar o teto de bytes descartando os snapshots mais antigos")
+    void deveRespeitarTetoDeBytes() {
+        long oneList = ProductQueryService.estimateBytes(summaries(1, 2));
+        ReflectionTestUtils.setField(service, "maxBytes", oneList * 2);
+        when(productRepository.findSummariesByUserId(anyLong())).thenReturn(summaries(1, 2));
+
+        service.listForUser(1L);
+        service.listForUser(2L);
+        service.listForUser(3L); // não cabe: sai o snapshot do usuário 1
+        service.listForUser(2L);
+        service.listForUser(1L);
+
+        verify(productRepository, times(2)).findSummariesByUserId(1L);
+        verify(productRepository, times(1)).findSummariesByUserId(2L);
+    }
+
+    @Test
+    @DisplayName("Lista maior que o teto inteiro não deve ir para o cache")
+    void listaGrandeNaoEntraNoCache() {
+        ReflectionTestUtils.setField(service, "maxBytes", ProductQueryService.estimateBytes(summaries(1, 2)) - 1);
+        when(productRepository.findSummariesByUserId(1L)).thenReturn(summaries(1, 2));
+
+        assertEquals(2, service.listForUser(1L).size());
+        assertEquals(2, service.listForUser(1L).size());
+
+        verify(productRepository, times(2)).findSummariesByUserId(1L);
+    }
+
+    @Test
+    @DisplayName("Deve sobrepor preço e verificação do estado em memória sem recarregar o snapshot")
+    void deveSobreporEstadoEmMemoria() {
+        when(productRepository.findSummariesByUserId(1L)).thenReturn(summaries(1, 2));
+        assertEquals(1_000L, service.listForUser(1L).get(0).currentPriceCents());
+
+        LocalDateTime checkedAt = LocalDateTime.of(2024, 5, 1, 10, 0);
+        stateStore.put(new ProductState(1L, 900L, 1_000L, 1_200L, 25, checkedAt, "ACTIVE"));
+
+        ProductSummary first = service.listForUser(1L).get(0);
+        assertEquals(900L, first.currentPriceCents());
+        assertEquals(1_000L, first.lastPriceCents());
+        assertEquals(25, first.discountPercent());
+        assertEquals(checkedAt, first.lastCheckedAt());
+        assertEquals("Produto 1", first.name());
+        assertEquals(900L, service.page(1L, null, 1).items().get(0).currentPriceCents());
+        assertEquals(1_000L, service.listForUser(1L).get(1).currentPriceCents()); // sem estado: linha do banco
+        verify(productRepository, times(1)).findSummariesByUserId(1L);
+    }
+}
@@ -2,6 +2,7 @@ package com.mercadolivre.pricemonitor.service;
 
 import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
 import com.mercadolivre.pricemonitor.model.Product;
+import com.mercadolivre.pricemonitor.repository.PriceHistoryBlockRepository;
 import com.mercadolivre.pricemonitor.repository.PriceHistoryRepository;
 import com.mercadolivre.pricemonitor.repository.ProductRepository;
 import com.mercadolivre.pricemonitor.repository.UserRepository;
@@ -32,6 +33,12 @@ class ProductServiceTest {
     @Mock
     private PriceHistoryRepository priceHistoryRepository;
 
+    @Mock
+    private PriceHistoryBlockRepository priceHistoryBlockRepository;
+
+    @Mock
+    private PriceHistoryQueryService priceHistoryQueryService;
+
     @Mock
     private UserRepository userRepository;
 
@@ -41,6 +48,18 @@ class ProductServiceTest {
     @Mock
     private EmailService emailService;
 
+    @Mock
+    private EventStreamService eventStreamService;
+
+    @Mock
+    private ProductQueryService productQueryService;
+
+    @Mock
+    private ProductStateStore productStateStore;
+
+    @Mock
+    private PipelineMetrics pipelineMetrics;
+
     @InjectMocks
     private ProductService productService;
 
@@ -136,6 +155,37 @@ class ProductServiceTest {
         verify(priceHistoryRepository, times(1)).save(any());
     }
 
+    @Test
+    @DisplayName("Deve comparar preços em centavos: mesmo valor não é mudança, 1 centavo é")
+    void deveCompararPrecosEmCentavos() {
+        // 99.9 e 99.90 são o mesmo preço
+        assertFalse(productService.updateSingleProduct(sampleProduct, new ScrapeResponse("Produto", 99.9, null, null, null, null)));
+
+        assertEquals(9_990L, sampleProduct.getCurrentPriceCents());
+        assertNull(sampleProduct.getLastPriceCents(), "sem mudança, lastPrice não é tocado");
+        verify(userRepository, never()).findById(any()); // não chegou a notificar
+
+        assertTrue(productService.updateSingleProduct(sampleProduct, new ScrapeResponse("Produto", 99.89, null, null, null, null)));
+
+        assertEquals(9_989L, sampleProduct.getCurrentPriceCents());
+        assertEquals(9_990L, sampleProduct.getLastPriceCents());
+    }
+
+    @Test
+    @DisplayName("Verificação sem mudança só marca lastCheckedAt e não invalida a lista")
+    void verificacaoSemMudancaSoMarcaLastChecked() {
+        when(productStateStore.isEnabled()).thenReturn(true);
+        LocalDateTime before = sampleProduct.getLastCheckedAt();
+
+        productService.updateSingleProduct(sampleProduct, new ScrapeResponse("Produto Teste", 99.90, null, null, null, null));
+
+        verify(productRepository, never()).save(any());
+        verify(productRepository).touchLastChecked(eq(1L), any(LocalDateTime.class));
+        verify(productStateStore).putAfterCommit(sampleProduct);
+        verify(productQueryService, never()).evict(any());
+        assertFalse(sampleProduct.getLastCheckedAt().isBefore(before));
+    }
+
     @Test
     @DisplayName("Não deve atualizar produto com dados inválidos")
     void naoDeveAtualizarProdutoComDadosInvalidos() {
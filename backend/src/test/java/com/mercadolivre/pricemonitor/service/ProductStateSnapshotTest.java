@@ -0,0 +1,187 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ProductState;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductStateSnapshot Tests")
+class ProductStateSnapshotTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @TempDir
+    Path dir;
+
+    private ProductStateStore store(Path snapshot) {
+        ProductStateStore store = new ProductStateStore(productRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "warmupBatchSize", 100);
+        ReflectionTestUtils.setField(store, "snapshotPath", snapshot.toString());
+        ReflectionTestUtils.setField(store, "snapshotMaxAgeMs", 86_400_000L);
+        ReflectionTestUtils.setField(store, "reconcileMarginMs", 60_000L);
+        store.init();
+        return store;
+    }
+
+    /** Store aquecido do banco com os produtos dados, pronto para gravar snapshot. */
+    private ProductStateStore warmedFromDatabase(Path snapshot, List<ProductState> rows) {
+        when(productRepository.findStatesAfter(eq(0L), any(Pageable.class))).thenReturn(rows);
+        ProductStateStore store = store(snapshot);
+        store.warmUp();
+        return store;
+    }
+
+    @Test
+    @DisplayName("Deve gravar e restaurar o estado pelo snapshot sem carga completa do banco")
+    void deveGravarERestaurar() throws Exception {
+        Path snapshot = dir.resolve("state.snapshot");
+        LocalDateTime checkedAt = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.MILLIS);
+        ProductState full = new ProductState(7L, 9_990L, 10_990L, 12_000L, 17, checkedAt, "ACTIVE");
+        ProductState empty = new ProductState(8L, null, null, null, null, null, "PENDING");
+        ProductStateStore source = warmedFromDatabase(snapshot, List.of(full, empty));
+
+        assertTrue(source.saveSnapshot());
+        assertEquals(ProductStateSnapshot.HEADER_BYTES + 2L * ProductStateSnapshot.RECORD_BYTES, Files.size(snapshot));
+
+        clearInvocations(productRepository);
+        when(productRepository.findStatesChangedSince(any(), anyLong(), any(Pageable.class))).thenReturn(List.of());
+        when(productRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(7L, 8L));
+        ProductStateStore restored = store(snapshot);
+        restored.warmUp();
+
+        assertEquals(full, restored.get(7L));
+        assertEquals(empty, restored.get(8L));
+        verify(productRepository, never()).findStatesAfter(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve reconciliar com o banco só o que mudou desde o snapshot, com margem")
+    void deveReconciliarDeltas() throws Exception {
+        Path snapshot = dir.resolve("state.snapshot");
+        LocalDateTime old = LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.MILLIS);
+        warmedFromDatabase(snapshot, List.of(
+            new ProductState(1L, 1_000L, null, null, null, old, "ACTIVE"),
+            new ProductState(2L, 2_000L, null, null, null, old, "ACTIVE"))).saveSnapshot();
+        LocalDateTime savedAt = LocalDateTime.ofEpochSecond(
+            ProductStateSnapshot.savedAtMillis(snapshot) / 1000, 0, ZoneOffset.UTC);
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        when(productRepository.findStatesChangedSince(any(), eq(0L), any(Pageable.class))).thenReturn(List.of(
+            new ProductState(2L, 1_800L, 2_000L, null, null, now, "ACTIVE"),
+            new ProductState(3L, 500L, null, null, null, now, "ACTIVE")));
+        when(productRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L, 3L));
+        ProductStateStore restored = store(snapshot);
+        restored.warmUp();
+
+        assertEquals(3, restored.size());
+        assertEquals(1_000L, restored.get(1L).currentPriceCents());
+        assertEquals(1_800L, restored.get(2L).currentPriceCents());
+        assertEquals(500L, restored.get(3L).currentPriceCents());
+
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(productRepository).findStatesChangedSince(since.capture(), eq(0L), any(Pageable.class));
+        assertTrue(since.getValue().isBefore(savedAt.minusSeconds(58)), "margem antes do snapshot");
+    }
+
+    @Test
+    @DisplayName("Reconciliação deve tirar produtos apagados e aplicar mudança só de status")
+    void deveReconciliarExclusoesEStatus() throws Exception {
+        Path snapshot = dir.resolve("state.snapshot");
+        LocalDateTime old = LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.MILLIS);
+        warmedFromDatabase(snapshot, List.of(
+            new ProductState(1L, 1_000L, null, null, null, old, "ACTIVE"),
+            new ProductState(2L, 2_000L, null, null, null, old, "ACTIVE"),
+            new ProductState(3L, 3_000L, null, null, null, old, "ACTIVE"))).saveSnapshot();
+
+        // Conta em exclusão: mesmo checkedAt, só o status mudou (updatedAt); produto 3 apagado
+        when(productRepository.findStatesChangedSince(any(), eq(0L), any(Pageable.class))).thenReturn(List.of(
+            new ProductState(2L, 2_000L, null, null, null, old, AccountPurgeService.PRODUCT_STATUS_DELETING)));
+        when(productRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        ProductStateStore restored = store(snapshot);
+        restored.warmUp();
+
+        assertEquals(2, restored.size());
+        assertEquals("ACTIVE", restored.get(1L).status());
+        assertEquals(AccountPurgeService.PRODUCT_STATUS_DELETING, restored.get(2L).status());
+        assertNull(restored.get(3L));
+    }
+
+    @Test
+    @DisplayName("Escrita ao vivo durante o aquecimento não deve ser desfeita pela reconciliação")
+    void escritaAoVivoVenceReconciliacao() throws Exception {
+        Path snapshot = dir.resolve("state.snapshot");
+        LocalDateTime old = LocalDateTime.now().minusHours(2).truncatedTo(ChronoUnit.MILLIS);
+        warmedFromDatabase(snapshot, List.of(
+            new ProductState(1L, 1_000L, null, null, null, old, "ACTIVE"))).saveSnapshot();
+
+        ProductStateStore restored = store(snapshot);
+        ProductState live = new ProductState(1L, 900L, 1_000L, null, null, old, "ACTIVE");
+        ProductState created = new ProductState(9L, 100L, null, null, null, null, "PENDING");
+        when(productRepository.findStatesChangedSince(any(), eq(0L), any(Pageable.class))).thenAnswer(inv -> {
+            restored.put(live); // commit ao vivo enquanto a reconciliação lê
+            restored.put(created);
+            return List.of(new ProductState(1L, 1_000L, null, null, null, old, "ACTIVE"));
+        });
+        when(productRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L));
+        restored.warmUp();
+
+        assertEquals(live, restored.get(1L));
+        assertEquals(created, restored.get(9L));
+    }
+
+    @Test
+    @DisplayName("Snapshot corrompido ou antigo demais deve cair na carga completa")
+    void snapshotInvalidoFazCargaCompleta() throws Exception {
+        Path snapshot = dir.resolve("state.snapshot");
+        Files.write(snapshot, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16,
+            17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32});
+        ProductState row = new ProductState(5L, 100L, null, null, null, null, "ACTIVE");
+        ProductStateStore store = warmedFromDatabase(snapshot, List.of(row));
+        assertEquals(row, store.get(5L));
+
+        // Agora um snapshot válido, mas com idade acima do limite
+        store.saveSnapshot();
+        clearInvocations(productRepository);
+        ProductStateStore stale = store(snapshot);
+        ReflectionTestUtils.setField(stale, "snapshotMaxAgeMs", -1L);
+        stale.warmUp();
+
+        verify(productRepository).findStatesAfter(eq(0L), any(Pageable.class));
+        verify(productRepository, never()).findStatesChangedSince(any(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Não deve gravar snapshot antes do aquecimento")
+    void naoGravaAntesDoAquecimento() throws Exception {
+        Path snapshot = dir.resolve("state.snapshot");
+        ProductStateStore store = store(snapshot);
+        store.put(new ProductState(1L, 100L, null, null, null, null, "ACTIVE"));
+
+        assertFalse(store.saveSnapshot());
+        assertFalse(Files.exists(snapshot));
+    }
+}
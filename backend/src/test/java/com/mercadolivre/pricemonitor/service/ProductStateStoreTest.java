@@ -0,0 +1,124 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.dto.ProductState;
+import com.mercadolivre.pricemonitor.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductStateStore Tests")
+class ProductStateStoreTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductStateStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ProductStateStore(productRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "warmupBatchSize", 2);
+        store.init();
+    }
+
+    private static ProductState state(long id, long priceCents) {
+        return new ProductState(id, priceCents, null, null, null, null, "ACTIVE");
+    }
+
+    @Test
+    @DisplayName("Deve guardar e devolver o estado, incluindo campos nulos")
+    void deveGuardarEstadoComNulos() {
+        LocalDateTime checkedAt = LocalDateTime.of(2024, 3, 10, 14, 30, 15, 123_000_000);
+        store.put(new ProductState(42L, 9_990L, 10_990L, null, 15, checkedAt, "PENDING"));
+        store.put(new ProductState(43L, null, null, null, null, null, null));
+
+        assertEquals(new ProductState(42L, 9_990L, 10_990L, null, 15, checkedAt, "PENDING"), store.get(42L));
+        assertEquals(new ProductState(43L, null, null, null, null, null, null), store.get(43L));
+        assertNull(store.get(44L));
+
+        store.put(state(42L, 8_990L));
+        assertEquals(8_990L, store.get(42L).currentPriceCents());
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    @DisplayName("Deve crescer a tabela e continuar achando todos os produtos")
+    void deveCrescerTabela() {
+        for (long id = 1; id <= 10_000; id++) {
+            store.put(state(id, id * 10));
+        }
+
+        assertEquals(10_000, store.size());
+        for (long id = 1; id <= 10_000; id++) {
+            assertEquals(id * 10, store.get(id).currentPriceCents());
+        }
+        // Carga máxima 0.75: 10 mil entradas cabem em 16384 slots
+        assertEquals(16_384L * ProductStateStore.BYTES_PER_SLOT, store.estimatedBytes());
+        assertEquals(16_384L * ProductStateStore.BYTES_PER_SLOT * 10, store.bytesPer100k());
+    }
+
+    @Test
+    @DisplayName("Remoção não deve quebrar a cadeia de sondagem das outras entradas")
+    void remocaoDeveManterCadeia() {
+        for (long id = 1; id <= 3_000; id++) {
+            store.put(state(id, id));
+        }
+        for (long id = 1; id <= 3_000; id += 3) {
+            store.remove(id);
+        }
+
+        assertEquals(2_000, store.size());
+        for (long id = 1; id <= 3_000; id++) {
+            if (id % 3 == 1) {
+                assertNull(store.get(id));
+            } else {
+                assertEquals(id, store.get(id).currentPriceCents());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Aquecimento não deve sobrescrever estado gravado durante a carga")
+    void aquecimentoNaoDeveSobrescrever() {
+        store.put(state(2L, 500L));
+        when(productRepository.findStatesAfter(eq(0L), any(Pageable.class)))
+            .thenReturn(List.of(state(1L, 100L), state(2L, 200L)));
+        when(productRepository.findStatesAfter(eq(2L), any(Pageable.class)))
+            .thenReturn(List.of(state(3L, 300L)));
+
+        store.warmUp();
+
+        assertEquals(3, store.size());
+        assertEquals(100L, store.get(1L).currentPriceCents());
+        assertEquals(500L, store.get(2L).currentPriceCents());
+        assertEquals(300L, store.get(3L).currentPriceCents());
+    }
+
+    @Test
+    @DisplayName("Desligado não deve guardar nem consultar o banco")
+    void desligadoNaoGuarda() {
+        ReflectionTestUtils.setField(store, "enabled", false);
+
+        store.put(state(1L, 100L));
+        store.warmUp();
+
+        assertNull(store.get(1L));
+        verifyNoInteractions(productRepository);
+    }
+}
@@ -0,0 +1,217 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolivre.pricemonitor.config.ScraperHttpClientConfig;
+import com.mercadolivre.pricemonitor.dto.ScrapeResponse;
+import com.mercadolivre.pricemonitor.resilience.BackendGuards;
+import com.mercadolivre.pricemonitor.resilience.BackendHealthMonitor;
+import com.mercadolivre.pricemonitor.resilience.CircuitBreaker;
+import com.mercadolivre.pricemonitor.resilience.HedgingPolicy;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Circuito, bulkhead e coalescência do ScraperService contra um scraper local com falhas injetadas.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScraperService Resilience Tests")
+class ScraperServiceTest {
+
+    private static final String OTHER_SITE = "https://www.example.com/produto/1";
+    private static final String ML_URL = "https://produto.mercadolivre.com.br/MLB-123-produto";
+    private static final String VALID_JSON = "{\"title\":\"Produto\",\"price\":99.9}";
+
+    @Mock
+    private MercadoLivreService mercadoLivreService;
+
+    private HttpServer stub;
+    private ExecutorService stubExecutor;
+    private final AtomicInteger stubStatus = new AtomicInteger(200);
+    private final AtomicInteger stubHits = new AtomicInteger();
+    private final AtomicInteger stubInFlight = new AtomicInteger();
+    private final AtomicInteger stubMaxInFlight = new AtomicInteger();
+    private volatile long stubDelayMs;
+
+    private BackendGuards guards;
+    private ScraperService scraperService;
+    private ConnectionProvider connectionProvider;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stub.createContext("/scrape", exchange -> {
+            stubHits.incrementAndGet();
+            stubMaxInFlight.accumulateAndGet(stubInFlight.incrementAndGet(), Math::max);
+            try {
+                if (stubDelayMs > 0) {
+                    Thread.sleep(stubDelayMs);
+                }
+                byte[] body = (stubStatus.get() == 200 ? VALID_JSON : "{\"error\":\"boom\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(stubStatus.get(), body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                stubInFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        stubExecutor = Executors.newFixedThreadPool(8);
+        stub.setExecutor(stubExecutor);
+        stub.start();
+
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        guards = new BackendGuards(registry);
+        ReflectionTestUtils.setField(guards, "slidingWindowSize", 4);
+        ReflectionTestUtils.setField(guards, "minimumCalls", 4);
+        ReflectionTestUtils.setField(guards, "failureRateThreshold", 50.0);
+        ReflectionTestUtils.setField(guards, "openDurationMs", 60_000L);
+        ReflectionTestUtils.setField(guards, "halfOpenCalls", 1);
+        ReflectionTestUtils.setField(guards, "mlApiMaxConcurrent", 2);
+        ReflectionTestUtils.setField(guards, "scraperMaxConcurrent", 2);
+        ReflectionTestUtils.setField(guards, "maxQueue", 100);
+        guards.init();
+
+        PipelineMetrics metrics = new PipelineMetrics(registry);
+        metrics.init();
+        String url = "http://127.0.0.1:" + stub.getAddress().getPort();
+        ScraperHttpClientConfig http = new ScraperHttpClientConfig();
+        connectionProvider = http.scraperConnectionProvider();
+        scraperService = new ScraperService(http.scraperWebClient(connectionProvider, url), mercadoLivreService, metrics, new ObjectMapper(), guards,
+            new HedgingPolicy(registry), new BackendHealthMonitor(guards, registry, url, url));
+        ReflectionTestUtils.setField(scraperService, "maxRetries", 1);
+        ReflectionTestUtils.setField(scraperService, "retryBackoffMs", 5L);
+        // Testes de circuito repetem a mesma URL: sem cache de resultado, cada busca chega ao stub
+        ReflectionTestUtils.setField(scraperService, "coalescingTtlMs", 0L);
+        scraperService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.stop(0);
+        stubExecutor.shutdownNow();
+        connectionProvider.dispose();
+    }
+
+    private ScrapeResponse fetch(String url) throws Exception {
+        return scraperService.fetchProductData(url).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Scraper fora do ar: circuito abre e as próximas chamadas não chegam a ele")
+    void scraperForaDoArAbreCircuito() throws Exception {
+        stubStatus.set(500);
+
+        for (int i = 0; i < 4; i++) {
+            assertNull(fetch(OTHER_SITE));
+        }
+        int hitsWhenOpened = stubHits.get();
+        assertEquals(8, hitsWhenOpened, "4 chamadas com 1 retry cada");
+        assertEquals(CircuitBreaker.State.OPEN, guards.scraper().getCircuitBreaker().getState());
+
+        for (int i = 0; i < 20; i++) {
+            assertNull(fetch(OTHER_SITE));
+        }
+        assertEquals(hitsWhenOpened, stubHits.get(), "circuito aberto não faz chamadas");
+    }
+
+    @Test
+    @DisplayName("Circuito meio-aberto fecha quando o scraper volta")
+    void scraperVoltaFechaCircuito() throws Exception {
+        ReflectionTestUtils.setField(guards.scraper().getCircuitBreaker(), "openDurationMs", 0L);
+        stubStatus.set(500);
+        for (int i = 0; i < 4; i++) {
+            fetch(OTHER_SITE);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guards.scraper().getCircuitBreaker().getState());
+
+        stubStatus.set(200);
+        ScrapeResponse response = fetch(OTHER_SITE);
+
+        assertNotNull(response);
+        assertEquals(9_990L, response.getPriceCents());
+        assertEquals(CircuitBreaker.State.CLOSED, guards.scraper().getCircuitBreaker().getState());
+    }
+
+    @Test
+    @DisplayName("API do ML falhando: cai no scraper e, com o circuito aberto, nem tenta a API")
+    void apiDoMlFalhandoUsaScraperDireto() throws Exception {
+        when(mercadoLivreService.hasApiToken()).thenReturn(true);
+        when(mercadoLivreService.getProductByUrl(anyString(), any())).thenThrow(new RuntimeException("ML fora do ar"));
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(fetch(ML_URL), "fallback para o scraper");
+        }
+
+        verify(mercadoLivreService, times(4)).getProductByUrl(anyString(), any());
+        assertEquals(CircuitBreaker.State.OPEN, guards.mlApi().getCircuitBreaker().getState());
+        assertEquals(10, stubHits.get());
+    }
+
+    @Test
+    @DisplayName("Bulkhead deve limitar chamadas simultâneas e enfileirar o resto")
+    void bulkheadLimitaConcorrencia() throws Exception {
+        stubDelayMs = 100;
+
+        List<CompletableFuture<ScrapeResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(scraperService.fetchProductData(OTHER_SITE + i));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertTrue(stubMaxInFlight.get() <= 2, "máximo observado: " + stubMaxInFlight.get());
+        assertEquals(8, stubHits.get());
+        for (CompletableFuture<ScrapeResponse> future : futures) {
+            assertNotNull(future.get());
+        }
+        assertEquals(0, guards.scraper().getBulkhead().getInFlight());
+    }
+
+    @Test
+    @DisplayName("Buscas simultâneas do mesmo item devem virar uma chamada, com cópia por chamador")
+    void buscasDoMesmoItemCompartilhamChamada() throws Exception {
+        ReflectionTestUtils.setField(scraperService, "coalescingTtlMs", 60_000L);
+        scraperService.init();
+        stubDelayMs = 100;
+
+        List<CompletableFuture<ScrapeResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(scraperService.fetchProductData(OTHER_SITE + "?utm_source=" + i));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, stubHits.get());
+        ScrapeResponse first = futures.get(0).get();
+        first.setProductIdForUpdate(42L);
+        assertNull(futures.get(1).get().getProductIdForUpdate(), "cada chamador recebe sua cópia");
+
+        assertEquals(9_990L, fetch(OTHER_SITE).getPriceCents());
+        assertEquals(1, stubHits.get(), "dentro do TTL vem do cache");
+    }
+}
@@ -0,0 +1,90 @@
+package com.mercadolivre.pricemonitor.service;
+
+import com.mercadolivre.pricemonitor.model.User;
+import com.mercadolivre.pricemonitor.repository.UserRepository;
+import com.mercadolivre.pricemonitor.security.PasswordHashingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UserService Tests")
+class UserServiceTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private PasswordHashingService passwordHashing;
+    @Mock private EmailRouter emailRouter;
+    @Mock private NotificationService notificationService;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        userService.init();
+        user = new User();
+        user.setId(1L);
+        user.setPassword("$2a$10$hashAntigo");
+        lenient().when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+    }
+
+    @Test
+    @DisplayName("Hash antigo deve ser regravado numa transação própria, depois do bcrypt")
+    void regravaHashEmTransacaoPropria() {
+        when(passwordHashing.needsUpgrade("$2a$10$hashAntigo")).thenReturn(true);
+        when(passwordHashing.encode("senha123")).thenReturn("{bcrypt}novo");
+        when(userRepository.updatePasswordHashIfUnchanged(1L, "$2a$10$hashAntigo", "{bcrypt}novo")).thenReturn(1);
+
+        userService.upgradePasswordHashIfNeeded(user, "senha123");
+
+        assertEquals("{bcrypt}novo", user.getPassword());
+        InOrder order = inOrder(passwordHashing, transactionManager, userRepository);
+        order.verify(passwordHashing).encode("senha123");
+        order.verify(transactionManager).getTransaction(argThat(definition ->
+            definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        order.verify(userRepository).updatePasswordHashIfUnchanged(1L, "$2a$10$hashAntigo", "{bcrypt}novo");
+        order.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Falha no UPDATE do hash não deve derrubar o login")
+    void falhaNoUpdateNaoDerrubaLogin() {
+        when(passwordHashing.needsUpgrade("$2a$10$hashAntigo")).thenReturn(true);
+        when(passwordHashing.encode("senha123")).thenReturn("{bcrypt}novo");
+        when(userRepository.updatePasswordHashIfUnchanged(any(), any(), any()))
+            .thenThrow(new QueryTimeoutException("lock wait timeout"));
+
+        assertDoesNotThrow(() -> userService.upgradePasswordHashIfNeeded(user, "senha123"));
+
+        assertEquals("$2a$10$hashAntigo", user.getPassword());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("Hash atual não deve abrir transação")
+    void hashAtualSemTransacao() {
+        when(passwordHashing.needsUpgrade("$2a$10$hashAntigo")).thenReturn(false);
+
+        userService.upgradePasswordHashIfNeeded(user, "senha123");
+
+        verifyNoInteractions(transactionManager, userRepository);
+        verify(passwordHashing, never()).encode(any());
+    }
+}
@@ -22,6 +22,7 @@ CREATE TABLE IF NOT EXISTS users (
     telegram_enabled BOOLEAN DEFAULT FALSE,
     telegram_link_code VARCHAR(255),
     telegram_link_expires DATETIME,
+    deleted_at DATETIME,
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -32,12 +33,13 @@ CREATE TABLE IF NOT EXISTS products (
     name VARCHAR(255) NOT NULL,
     url VARCHAR(2048) NOT NULL,
     image_url VARCHAR(2048),
-    current_price DECIMAL(10,2),
-    last_price DECIMAL(10,2),
-    original_price DECIMAL(10,2),
+    current_price_cents BIGINT,
+    last_price_cents BIGINT,
+    original_price_cents BIGINT,
     discount_percent INT,
     last_checked_at DATETIME,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME,
     user_id BIGINT NOT NULL,
     notify_on_price_drop BOOLEAN DEFAULT TRUE,
     notify_on_price_increase BOOLEAN DEFAULT TRUE,
@@ -49,11 +51,27 @@ CREATE TABLE IF NOT EXISTS products (
 CREATE TABLE IF NOT EXISTS price_history (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     product_id BIGINT NOT NULL,
-    price DECIMAL(10,2) NOT NULL,
+    price_cents BIGINT NOT NULL,
     recorded_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
     CONSTRAINT fk_price_history_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Histórico frio: um bloco compactado por produto e mês (PriceHistoryCompactionJob)
+CREATE TABLE IF NOT EXISTS price_history_blocks (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    month_start DATE NOT NULL,
+    first_recorded_at DATETIME NOT NULL,
+    last_recorded_at DATETIME NOT NULL,
+    sample_count INT NOT NULL,
+    min_price_cents BIGINT,
+    max_price_cents BIGINT,
+    data MEDIUMBLOB NOT NULL,
+    compacted_at DATETIME NOT NULL,
+    CONSTRAINT uk_price_history_blocks_product_month UNIQUE (product_id, month_start),
+    CONSTRAINT fk_price_history_blocks_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- Tabela de notificações
 CREATE TABLE IF NOT EXISTS notifications (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -83,13 +101,57 @@ CREATE TABLE IF NOT EXISTS ml_tokens (
     CONSTRAINT fk_ml_tokens_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Progresso das exclusões de conta (a conta é anonimizada na hora e os dados
+-- removidos em lotes; o registro fica como comprovante)
+CREATE TABLE IF NOT EXISTS account_purge_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    phase VARCHAR(20),
+    history_deleted BIGINT NOT NULL DEFAULT 0,
+    notifications_deleted BIGINT NOT NULL DEFAULT 0,
+    tokens_deleted BIGINT NOT NULL DEFAULT 0,
+    products_deleted BIGINT NOT NULL DEFAULT 0,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at DATETIME,
+    finished_at DATETIME
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Um registro por ciclo de verificação de preços (PriceCheckRunTracker)
+CREATE TABLE IF NOT EXISTS price_check_runs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    started_at DATETIME NOT NULL,
+    finished_at DATETIME NOT NULL,
+    duration_ms BIGINT NOT NULL,
+    products_scanned INT NOT NULL,
+    distinct_items INT NOT NULL,
+    fetched INT NOT NULL,
+    unchanged INT NOT NULL,
+    changed INT NOT NULL,
+    failed INT NOT NULL,
+    fetch_p50_ms BIGINT,
+    fetch_p95_ms BIGINT,
+    fetch_p99_ms BIGINT,
+    db_time_ms BIGINT NOT NULL,
+    overran BOOLEAN NOT NULL DEFAULT FALSE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
 -- ============================================
 -- ÍNDICES para performance
 -- ============================================
 CREATE INDEX idx_products_user_id ON products(user_id);
 CREATE INDEX idx_products_status ON products(status);
+CREATE INDEX idx_products_last_checked_at ON products(last_checked_at);
+CREATE INDEX idx_products_updated_at ON products(updated_at);
 CREATE INDEX idx_price_history_product_id ON price_history(product_id);
 CREATE INDEX idx_price_history_recorded_at ON price_history(recorded_at);
+CREATE INDEX idx_price_history_product_recorded ON price_history(product_id, recorded_at);
 CREATE INDEX idx_notifications_user_id ON notifications(user_id);
 CREATE INDEX idx_notifications_is_read ON notifications(is_read);
+CREATE INDEX idx_notifications_user_created ON notifications(user_id, created_at);
+CREATE INDEX idx_notifications_created_at ON notifications(created_at);
 CREATE INDEX idx_users_email ON users(email);
+CREATE INDEX idx_account_purge_jobs_status ON account_purge_jobs(status);
+CREATE INDEX idx_price_check_runs_started_at ON price_check_runs(started_at);
@@ -36,6 +36,30 @@ export const getNotifications = async () => {
     return response.json();
 };
 
+/**
+ * Get a single-use ticket (~60s) to open the SSE stream; EventSource can't send the token in a header.
+ * @returns {Promise<{ticket: string, expiresInMs: number}>}
+ */
+export const getStreamTicket = async () => {
+    const token = getAuthToken();
+    if (!token) {
+        throw new Error('No authentication token found.');
+    }
+
+    const response = await fetch(`${getApiUrl()}/api/notifications/stream/ticket`, {
+        method: 'POST',
+        headers: {
+            'Authorization': `Bearer ${token}`
+        }
+    });
+
+    if (!response.ok) {
+        throw new Error('Failed to get stream ticket.');
+    }
+
+    return response.json();
+};
+
 /**
  * Get unread notifications count.
  * @returns {Promise<{count: number}>}
@@ -14,12 +14,14 @@ import OnboardingModal from './OnboardingModal';
 import AnalyticsDashboard from './AnalyticsDashboard';
 import TelegramSettings from './TelegramSettings';
 import useToasts from '../hooks/useToasts';
+import useEventStream from '../hooks/useEventStream';
 import { AuthContext } from '../context/AuthContext';
 
 export default function Dashboard() {
     const queryClient = useQueryClient();
     const { toasts, addToast, removeToast } = useToasts();
     const { user } = useContext(AuthContext);
+    const streamConnected = useEventStream();
 
     // State for UI controls
     const [searchTerm, setSearchTerm] = useState('');
@@ -58,7 +60,8 @@ export default function Dashboard() {
         queryFn: getProducts,
         staleTime: 1000 * 30, // 30 seconds (faster refresh for pending products)
         refetchInterval: (query) => {
-            // Auto-refresh every 3 seconds if there are pending products
+            // Status changes arrive via SSE; poll pending products only as fallback
+            if (streamConnected) return false;
             const data = query.state.data || [];
             const hasPending = data.some(p => p.status === 'PENDING');
             return hasPending ? 3000 : false;
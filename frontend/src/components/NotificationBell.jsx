@@ -2,6 +2,7 @@ import { useState, useEffect, useRef } from 'react';
 import { useQuery, useMutation, useQueryClient } from '@tanstack/react-query';
 import { useNavigate } from 'react-router-dom';
 import { getNotifications, getUnreadCount, markAsRead, markAllAsRead, deleteAllNotifications } from '../api/notifications';
+import useEventStream from '../hooks/useEventStream';
 
 /**
  * NotificationBell - Bell icon component showing notifications dropdown
@@ -11,12 +12,13 @@ export default function NotificationBell({ onShowProductHistory }) {
     const dropdownRef = useRef(null);
     const queryClient = useQueryClient();
     const navigate = useNavigate();
+    const streamConnected = useEventStream();
 
-    // Query for unread count (polls every 30 seconds)
+    // Query for unread count (pushed via SSE; polls every 30 seconds only as fallback)
     const { data: unreadData } = useQuery({
         queryKey: ['notifications-unread'],
         queryFn: getUnreadCount,
-        refetchInterval: 30000, // Poll every 30 seconds
+        refetchInterval: streamConnected ? false : 30000,
         staleTime: 10000,
     });
 
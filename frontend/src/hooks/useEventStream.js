@@ -0,0 +1,122 @@
+import { useState, useEffect } from 'react';
+import { useQueryClient } from '@tanstack/react-query';
+import { getStreamTicket } from '../api/notifications';
+
+const getApiUrl = () => import.meta.env.VITE_API_URL || 'http://localhost:8081';
+
+/**
+ * Uma única conexão SSE compartilhada por todos os componentes que usam o hook
+ * (NotificationBell, Dashboard...). Fecha quando o último componente desmonta.
+ */
+let source = null;
+let subscribers = 0;
+let connected = false;
+let opening = false;
+let retryTimer = null;
+const listeners = new Set();
+
+// O ticket é de uso único: a reconexão automática do EventSource seria recusada,
+// então cada reconexão busca um ticket novo
+const RETRY_DELAY_MS = 5000;
+
+const setConnected = (value) => {
+    connected = value;
+    listeners.forEach(listener => listener(value));
+};
+
+const scheduleRetry = (queryClient) => {
+    if (retryTimer || subscribers === 0) return;
+    retryTimer = setTimeout(() => {
+        retryTimer = null;
+        if (subscribers > 0 && !source) open(queryClient);
+    }, RETRY_DELAY_MS);
+};
+
+const open = async (queryClient) => {
+    const token = localStorage.getItem('token');
+    if (!token || typeof EventSource === 'undefined' || opening) return;
+
+    opening = true;
+    let ticket;
+    try {
+        ({ ticket } = await getStreamTicket());
+    } catch {
+        scheduleRetry(queryClient);
+        return;
+    } finally {
+        opening = false;
+    }
+    // Todos os componentes desmontaram enquanto o ticket era buscado
+    if (subscribers === 0 || source) return;
+
+    source = new EventSource(`${getApiUrl()}/api/notifications/stream?ticket=${encodeURIComponent(ticket)}`);
+
+    source.onopen = () => {
+        setConnected(true);
+        // Pode ter perdido eventos enquanto estava desconectado
+        queryClient.invalidateQueries({ queryKey: ['products'] });
+        queryClient.invalidateQueries({ queryKey: ['notifications'] });
+    };
+
+    // Enquanto reconecta com um ticket novo, os componentes voltam a fazer polling
+    const current = source;
+    source.onerror = () => {
+        current.close();
+        if (source !== current) return;
+        source = null;
+        setConnected(false);
+        scheduleRetry(queryClient);
+    };
+
+    source.addEventListener('unread-count', (event) => {
+        queryClient.setQueryData(['notifications-unread'], JSON.parse(event.data));
+    });
+
+    source.addEventListener('notification', () => {
+        queryClient.invalidateQueries({ queryKey: ['notifications'] });
+    });
+
+    source.addEventListener('product', (event) => {
+        const product = JSON.parse(event.data);
+        queryClient.setQueryData(['products'], (products) => {
+            if (!products) return products;
+            const exists = products.some(p => p.id === product.id);
+            return exists ? products.map(p => (p.id === product.id ? { ...p, ...product } : p)) : products;
+        });
+    });
+};
+
+const close = () => {
+    if (retryTimer) {
+        clearTimeout(retryTimer);
+        retryTimer = null;
+    }
+    if (source) {
+        source.close();
+        source = null;
+    }
+    setConnected(false);
+};
+
+/**
+ * Recebe notificações e mudanças de status/preço dos produtos em tempo real.
+ * @returns {boolean} true enquanto o stream estiver conectado (polling pode ser desligado)
+ */
+export default function useEventStream() {
+    const queryClient = useQueryClient();
+    const [isConnected, setIsConnected] = useState(connected);
+
+    useEffect(() => {
+        listeners.add(setIsConnected);
+        subscribers += 1;
+        if (!source) open(queryClient);
+
+        return () => {
+            listeners.delete(setIsConnected);
+            subscribers -= 1;
+            if (subscribers === 0) close();
+        };
+    }, [queryClient]);
+
+    return isConnected;
+}